@@ -0,0 +1,62 @@
+package com.realestate.benchmark;
+
+import com.realestate.model.entity.Property;
+import com.realestate.model.entity.User;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic synthetic catalog shared by the benchmarks, so runs are comparable across baselines
+ */
+final class BenchmarkData {
+
+    static final long SEED = 42L;
+
+    private static final String[] CITIES = {"Mumbai", "Pune", "Bangalore", "Delhi", "Hyderabad", "Chennai"};
+    private static final Property.PropertyType[] TYPES = Property.PropertyType.values();
+    private static final Property.PropertyStatus[] STATUSES = Property.PropertyStatus.values();
+
+    private BenchmarkData() {
+    }
+
+    static List<Property> properties(int count) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        User owner = new User();
+        owner.setId(1L);
+        owner.setFirstName("Asha");
+        owner.setLastName("Rao");
+        owner.setPhoneNumber("9876543210");
+
+        List<Property> properties = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String city = CITIES[random.nextInt(CITIES.length)];
+            Property property = Property.builder()
+                .title("Listing " + i + " in " + city)
+                .description("Synthetic listing used for benchmarking")
+                .price(BigDecimal.valueOf(random.nextLong(1_000_000L, 50_000_000L), 2))
+                .location("Sector " + random.nextInt(100) + ", " + city)
+                .city(city)
+                .state("State " + city.charAt(0))
+                .propertyType(TYPES[random.nextInt(TYPES.length)])
+                .status(STATUSES[random.nextInt(STATUSES.length)])
+                .areaUnit(Property.AreaUnit.SQFT)
+                .area(BigDecimal.valueOf(random.nextInt(400, 5000)))
+                .bedrooms(random.nextInt(0, 6))
+                .bathrooms(random.nextInt(1, 5))
+                .monthlyRental(BigDecimal.valueOf(random.nextLong(10_000L, 200_000L)))
+                .amenities(Set.of("Gym", "Parking", "Security"))
+                .imageUrls(Set.of("https://example.com/" + i + ".jpg"))
+                .listingDate(LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(i))
+                .owner(owner)
+                .build();
+            property.setId((long) i + 1);
+            properties.add(property);
+        }
+        return properties;
+    }
+}
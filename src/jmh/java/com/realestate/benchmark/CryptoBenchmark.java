@@ -0,0 +1,65 @@
+package com.realestate.benchmark;
+
+import com.razorpay.Utils;
+import com.realestate.service.RazorpaySignatureVerifier;
+import com.realestate.util.Crypto;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Payment signature checks and token hashing: per-call Mac/MessageDigest lookup against the per-thread
+ * instances of Crypto. Run with -prof gc to compare allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CryptoBenchmark {
+
+    private static final String SECRET = "benchmark_key_secret";
+    private static final String ORDER_ID = "order_NhZrRk4bT1sJ2x";
+    private static final String PAYMENT_ID = "pay_NhZsB9yWm2pQ7c";
+
+    private String signature;
+    private String refreshToken;
+    private RazorpaySignatureVerifier verifier;
+
+    @Setup
+    public void setUp() {
+        signature = Crypto.hmacSha256(SECRET).signHex(ORDER_ID + "|" + PAYMENT_ID);
+        refreshToken = "6f1c0b8e-5a4f-4d59-9a1e-2c7d3b8f0e11";
+        verifier = new RazorpaySignatureVerifier(SECRET);
+    }
+
+    @Benchmark
+    public boolean verifySignatureRazorpayUtils() throws Exception {
+        JSONObject options = new JSONObject();
+        options.put("razorpay_order_id", ORDER_ID);
+        options.put("razorpay_payment_id", PAYMENT_ID);
+        options.put("razorpay_signature", signature);
+        return Utils.verifyPaymentSignature(options, SECRET);
+    }
+
+    @Benchmark
+    public boolean verifySignatureCrypto() {
+        return verifier.verify(ORDER_ID, PAYMENT_ID, signature);
+    }
+
+    @Benchmark
+    public String hashTokenGetInstance() throws Exception {
+        byte[] hash = MessageDigest.getInstance("SHA-256").digest(refreshToken.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(hash);
+    }
+
+    @Benchmark
+    public String hashTokenCrypto() {
+        return Crypto.sha256Base64(refreshToken);
+    }
+}
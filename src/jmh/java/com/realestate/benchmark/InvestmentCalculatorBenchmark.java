@@ -0,0 +1,115 @@
+package com.realestate.benchmark;
+
+import com.realestate.model.entity.Property;
+import com.realestate.service.BatchInvestmentCalculator;
+import com.realestate.service.InvestmentCalculatorService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BigDecimal calculate* methods of InvestmentCalculatorService over a catalog of the given size,
+ * with the primitive BatchInvestmentCalculator on the same rows for comparison.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InvestmentCalculatorBenchmark {
+
+    private static final BigDecimal ANNUAL_RATE = new BigDecimal("8.5");
+    private static final BigDecimal APPRECIATION_RATE = new BigDecimal("5");
+
+    @Param({"100", "10000"})
+    private int datasetSize;
+
+    private InvestmentCalculatorService calculator;
+    private BatchInvestmentCalculator batchCalculator;
+    private BigDecimal[] prices;
+    private BigDecimal[] rentals;
+    private BigDecimal[] expenses;
+    private double[] pricesPrimitive;
+    private double[] rentalsPrimitive;
+    private double[] expensesPrimitive;
+    private double[] appreciationRates;
+    private int[] years;
+
+    @Setup
+    public void setUp() {
+        batchCalculator = new BatchInvestmentCalculator();
+        calculator = new InvestmentCalculatorService(null, null, null, batchCalculator, null, null);
+
+        List<Property> properties = BenchmarkData.properties(datasetSize);
+        prices = new BigDecimal[datasetSize];
+        rentals = new BigDecimal[datasetSize];
+        expenses = new BigDecimal[datasetSize];
+        pricesPrimitive = new double[datasetSize];
+        rentalsPrimitive = new double[datasetSize];
+        expensesPrimitive = new double[datasetSize];
+        appreciationRates = new double[datasetSize];
+        years = new int[datasetSize];
+        for (int i = 0; i < datasetSize; i++) {
+            Property property = properties.get(i);
+            prices[i] = property.getPrice();
+            rentals[i] = property.getMonthlyRental();
+            expenses[i] = property.getMonthlyRental().multiply(BigDecimal.valueOf(2));
+            pricesPrimitive[i] = prices[i].doubleValue();
+            rentalsPrimitive[i] = rentals[i].doubleValue();
+            expensesPrimitive[i] = expenses[i].doubleValue();
+            appreciationRates[i] = APPRECIATION_RATE.doubleValue();
+            years[i] = 10;
+        }
+    }
+
+    @Benchmark
+    public void calculateROI(Blackhole blackhole) {
+        for (int i = 0; i < datasetSize; i++) {
+            blackhole.consume(calculator.calculateROI(prices[i], rentals[i], expenses[i]));
+        }
+    }
+
+    @Benchmark
+    public void calculateRentalYield(Blackhole blackhole) {
+        for (int i = 0; i < datasetSize; i++) {
+            blackhole.consume(calculator.calculateRentalYield(prices[i], rentals[i]));
+        }
+    }
+
+    @Benchmark
+    public void calculateCapRate(Blackhole blackhole) {
+        for (int i = 0; i < datasetSize; i++) {
+            blackhole.consume(calculator.calculateCapRate(prices[i], rentals[i], expenses[i]));
+        }
+    }
+
+    @Benchmark
+    public void calculateAppreciation(Blackhole blackhole) {
+        for (int i = 0; i < datasetSize; i++) {
+            blackhole.consume(calculator.calculateAppreciation(prices[i], APPRECIATION_RATE, 10));
+        }
+    }
+
+    @Benchmark
+    public void calculateMortgagePayment(Blackhole blackhole) {
+        for (int i = 0; i < datasetSize; i++) {
+            blackhole.consume(calculator.calculateMortgagePayment(prices[i], ANNUAL_RATE, 240));
+        }
+    }
+
+    @Benchmark
+    public void calculateBreakEvenPoint(Blackhole blackhole) {
+        for (int i = 0; i < datasetSize; i++) {
+            blackhole.consume(calculator.calculateBreakEvenPoint(prices[i], rentals[i], expenses[i]));
+        }
+    }
+
+    @Benchmark
+    public BatchInvestmentCalculator.BatchMetrics batchCalculate() {
+        return batchCalculator.calculate(pricesPrimitive, rentalsPrimitive, expensesPrimitive, appreciationRates, years);
+    }
+}
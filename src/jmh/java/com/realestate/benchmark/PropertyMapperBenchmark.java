@@ -0,0 +1,40 @@
+package com.realestate.benchmark;
+
+import com.realestate.model.entity.Property;
+import com.realestate.util.PropertyMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping cost for a listing page and for a full catalog
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PropertyMapperBenchmark {
+
+    @Param({"20", "10000"})
+    private int datasetSize;
+
+    private PropertyMapper mapper;
+    private List<Property> properties;
+
+    @Setup
+    public void setUp() {
+        mapper = new PropertyMapper();
+        properties = BenchmarkData.properties(datasetSize);
+    }
+
+    @Benchmark
+    public void toDTO(Blackhole blackhole) {
+        for (Property property : properties) {
+            blackhole.consume(mapper.toDTO(property));
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.realestate.benchmark;
+
+import com.realestate.security.JwtTokenProvider;
+import com.realestate.service.TokenService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request token work: JWT signature validation, subject extraction and refresh-token hashing
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenBenchmark {
+
+    private JwtTokenProvider jwtTokenProvider;
+    private String accessToken;
+    private MethodHandle hashToken;
+    private TokenService tokenService;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        jwtTokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(jwtTokenProvider, "jwtSecret",
+            "ThisIsAVerySecureSecretKeyForJWTTokenGenerationMinimum256Bits");
+        ReflectionTestUtils.setField(jwtTokenProvider, "jwtExpiration", 86400000L);
+        ReflectionTestUtils.setField(jwtTokenProvider, "accessTokenExpiration", 900000L);
+        ReflectionTestUtils.setField(jwtTokenProvider, "refreshTokenExpiration", 604800000L);
+        accessToken = jwtTokenProvider.generateAccessToken("benchmark-user");
+
+        tokenService = new TokenService(null, null, null, jwtTokenProvider, null);
+        hashToken = MethodHandles.privateLookupIn(TokenService.class, MethodHandles.lookup())
+            .findVirtual(TokenService.class, "hashToken", MethodType.methodType(String.class, String.class));
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtTokenProvider.validateToken(accessToken);
+    }
+
+    @Benchmark
+    public String getUsernameFromToken() {
+        return jwtTokenProvider.getUsernameFromToken(accessToken);
+    }
+
+    @Benchmark
+    public String hashToken() throws Throwable {
+        return (String) hashToken.invoke(tokenService, accessToken);
+    }
+}
@@ -3,26 +3,34 @@ package com.realestate.config;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
-import java.util.concurrent.ThreadPoolExecutor;
 
+/**
+ * Exposes the ExecutorRegistry pools as beans so @Async can target them by name.
+ * Unqualified @Async methods run on the IO pool through the "taskExecutor" alias.
+ */
 @Configuration
 @EnableAsync
 public class AsyncConfig {
 
-    @Bean(name = "taskExecutor")
-    public Executor taskExecutor() {
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(4);
-        executor.setMaxPoolSize(10);
-        executor.setQueueCapacity(500);
-        executor.setThreadNamePrefix("RealEstate-Async-");
-        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
-        executor.setWaitForTasksToCompleteOnShutdown(true);
-        executor.setAwaitTerminationSeconds(60);
-        executor.initialize();
-        return executor;
+    public static final String CPU_EXECUTOR = "cpuExecutor";
+    public static final String IO_EXECUTOR = "ioExecutor";
+    public static final String EXTERNAL_EXECUTOR = "externalExecutor";
+
+    // Lifecycle is owned by ExecutorRegistry, so no destroy method is inferred here
+    @Bean(name = CPU_EXECUTOR, destroyMethod = "")
+    public Executor cpuExecutor(ExecutorRegistry executorRegistry) {
+        return executorRegistry.executor(ExecutorRegistry.Pool.CPU);
+    }
+
+    @Bean(name = {IO_EXECUTOR, "taskExecutor"}, destroyMethod = "")
+    public Executor ioExecutor(ExecutorRegistry executorRegistry) {
+        return executorRegistry.executor(ExecutorRegistry.Pool.IO);
+    }
+
+    @Bean(name = EXTERNAL_EXECUTOR, destroyMethod = "")
+    public Executor externalExecutor(ExecutorRegistry executorRegistry) {
+        return executorRegistry.executor(ExecutorRegistry.Pool.EXTERNAL);
     }
-}
\ No newline at end of file
+}
@@ -1,22 +1,136 @@
 package com.realestate.config;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.CaffeineSpec;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Caffeine cache manager with a bounded policy per cache and stats recorded for /actuator/metrics.
+ * Policies come from app.cache.specs (Caffeine spec strings); caches without one use
+ * spring.cache.caffeine.spec. Caches listed in app.cache.second-tier.caches spill size-evicted
+ * entries to disk instead of dropping them, into an owner-only directory, and read back only the cached
+ * DTO and JDK value types.
+ */
 @Configuration
 @EnableCaching
+@Slf4j
 public class CacheConfig {
 
+    // Classes a spilled entry may contain; anything else fails deserialization and the file is discarded
+    public static final String SECOND_TIER_CLASSES = "maxdepth=20;com.realestate.model.dto.*;java.lang.Object;"
+        + "java.lang.String;java.lang.Number;java.lang.Long;java.lang.Integer;java.lang.Double;java.lang.Boolean;"
+        + "java.lang.Enum;java.math.BigDecimal;java.math.BigInteger;java.time.*;java.util.*;!*";
+
+    @Value("${spring.cache.caffeine.spec:maximumSize=1000,expireAfterWrite=60m}")
+    private String defaultSpec;
+
+    @Value("${app.cache.second-tier.enabled:false}")
+    private boolean secondTierEnabled;
+
+    // Empty uses a fresh owner-only temp directory
+    @Value("${app.cache.second-tier.directory:}")
+    private String secondTierDirectory;
+
+    @Value("${app.cache.second-tier.ttl:60m}")
+    private Duration secondTierTtl;
+
+    @Value("${app.cache.second-tier.caches:}")
+    private List<String> secondTierCaches;
+
     @Bean
-    public CacheManager cacheManager() {
-        return new ConcurrentMapCacheManager(
-            "properties",
-            "users",
-            "investments",
-            "chatbot-responses"
-        );
+    public CacheManager cacheManager(Environment environment) {
+        Map<String, String> specs = Binder.get(environment)
+            .bind("app.cache.specs", Bindable.mapOf(String.class, String.class))
+            .orElse(Map.of());
+
+        TieredCaffeineCacheManager cacheManager = new TieredCaffeineCacheManager();
+        cacheManager.setCaffeine(builder(defaultSpec));
+
+        Path secondTierRoot = secondTierEnabled ? secondTierRoot() : null;
+        ObjectInputFilter secondTierFilter = ObjectInputFilter.Config.createFilter(SECOND_TIER_CLASSES);
+        specs.forEach((name, spec) -> {
+            if (secondTierEnabled && secondTierCaches.contains(name)) {
+                DiskCacheStore diskStore = new DiskCacheStore(secondTierRoot.resolve(name), secondTierTtl,
+                    secondTierFilter);
+                // Eviction listeners run inside the eviction, under the key's lock, unlike removal listeners
+                cacheManager.registerTieredCache(name, builder(spec)
+                    .evictionListener((Object key, Object value, RemovalCause cause) -> {
+                        if (cause == RemovalCause.SIZE && key != null && value != null) {
+                            diskStore.write(key, value);
+                        }
+                    })
+                    .build(), diskStore);
+                log.info("Cache '{}' uses spec [{}] with a disk second tier", name, spec);
+            } else {
+                cacheManager.registerCustomCache(name, builder(spec).build());
+                log.info("Cache '{}' uses spec [{}]", name, spec);
+            }
+        });
+
+        return cacheManager;
+    }
+
+    private Path secondTierRoot() {
+        if (secondTierDirectory != null && !secondTierDirectory.isBlank()) {
+            return Path.of(secondTierDirectory);
+        }
+        try {
+            return Files.createTempDirectory("realestate-cache");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to create the cache directory", e);
+        }
+    }
+
+    /**
+     * Builder from a Caffeine spec with stats enabled; weight-bounded specs weigh collections by element count
+     */
+    static Caffeine<Object, Object> builder(String spec) {
+        Caffeine<Object, Object> builder = Caffeine.from(CaffeineSpec.parse(spec)).recordStats();
+        if (spec.contains("maximumWeight")) {
+            builder.weigher((Object key, Object value) ->
+                value instanceof Collection<?> collection ? Math.max(1, collection.size()) : 1);
+        }
+        return builder;
+    }
+
+    static class TieredCaffeineCacheManager extends CaffeineCacheManager {
+
+        private final Map<String, DiskCacheStore> diskStores = new HashMap<>();
+
+        void registerTieredCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> heapCache,
+                                 DiskCacheStore diskStore) {
+            diskStores.put(name, diskStore);
+            registerCustomCache(name, heapCache);
+        }
+
+        @Override
+        protected Cache adaptCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+            DiskCacheStore diskStore = diskStores.get(name);
+            return diskStore != null
+                ? new TieredCaffeineCache(name, cache, diskStore, isAllowNullValues())
+                : super.adaptCaffeineCache(name, cache);
+        }
     }
-}
\ No newline at end of file
+}
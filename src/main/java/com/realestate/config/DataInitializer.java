@@ -2,6 +2,7 @@ package com.realestate.config;
 
 import com.realestate.model.entity.Property;
 import com.realestate.model.entity.User;
+import com.realestate.repository.PropertyJdbcRepository;
 import com.realestate.repository.PropertyRepository;
 import com.realestate.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
@@ -24,6 +25,7 @@ public class DataInitializer implements CommandLineRunner {
 
     private final UserRepository userRepository;
     private final PropertyRepository propertyRepository;
+    private final PropertyJdbcRepository propertyJdbcRepository;
     private final PasswordEncoder passwordEncoder;
 
     @Override
@@ -36,6 +38,11 @@ public class DataInitializer implements CommandLineRunner {
         } else {
             log.info("Data already exists, skipping initialization");
         }
+
+        int backfilled = propertyJdbcRepository.backfillGeoCells();
+        if (backfilled > 0) {
+            log.info("Backfilled geo cells for {} properties", backfilled);
+        }
     }
 
     private void initializeUsers() {
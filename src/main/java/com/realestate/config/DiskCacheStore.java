@@ -0,0 +1,130 @@
+package com.realestate.config;
+
+import com.realestate.util.Crypto;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.*;
+import java.nio.file.*;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * On-disk second cache tier for large, serializable entries spilled out of the heap tier.
+ * One file per key, named by the SHA-256 of the key, holding the expiry time, the key and the value.
+ * Writes go to a temp file and are moved into place atomically, so readers never see partial entries.
+ * The directory is wiped on startup because its contents may be stale relative to the database. It must be
+ * private to this process's user: it is created owner-only, and an existing one that is a symbolic link or
+ * owned by someone else is refused. Reads only accept the classes allowed by the given filter.
+ */
+@Slf4j
+public class DiskCacheStore {
+
+    private static final Set<PosixFilePermission> OWNER_ONLY = PosixFilePermissions.fromString("rwx------");
+
+    private final Path directory;
+    private final Duration timeToLive;
+    private final ObjectInputFilter filter;
+
+    public DiskCacheStore(Path directory, Duration timeToLive, ObjectInputFilter filter) {
+        this.directory = directory;
+        this.timeToLive = timeToLive;
+        this.filter = filter;
+        try {
+            createPrivateDirectory(directory);
+            clear();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to initialise cache directory " + directory, e);
+        }
+    }
+
+    public Optional<Object> read(Object key) {
+        Path file = fileFor(key);
+        if (!Files.exists(file)) {
+            return Optional.empty();
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            in.setObjectInputFilter(filter);
+            long expiresAt = in.readLong();
+            Object storedKey = in.readObject();
+            if (System.currentTimeMillis() > expiresAt || !Objects.equals(storedKey, key)) {
+                Files.deleteIfExists(file);
+                return Optional.empty();
+            }
+            return Optional.ofNullable(in.readObject());
+        } catch (IOException | ClassNotFoundException e) {
+            log.warn("Discarding unreadable cache file {}: {}", file, e.getMessage());
+            delete(key);
+            return Optional.empty();
+        }
+    }
+
+    public void write(Object key, Object value) {
+        if (!(key instanceof Serializable) || !(value instanceof Serializable)) {
+            return;
+        }
+        Path file = fileFor(key);
+        try {
+            Path temp = Files.createTempFile(directory, "entry", ".tmp");
+            try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeLong(System.currentTimeMillis() + timeToLive.toMillis());
+                out.writeObject(key);
+                out.writeObject(value);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Unable to spill cache entry {} to disk: {}", key, e.getMessage());
+        }
+    }
+
+    public void delete(Object key) {
+        try {
+            Files.deleteIfExists(fileFor(key));
+        } catch (IOException e) {
+            log.warn("Unable to delete cache entry {}: {}", key, e.getMessage());
+        }
+    }
+
+    public void clear() {
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    log.warn("Unable to delete cache file {}: {}", file, e.getMessage());
+                }
+            });
+        } catch (IOException e) {
+            log.warn("Unable to clear cache directory {}: {}", directory, e.getMessage());
+        }
+    }
+
+    private static void createPrivateDirectory(Path directory) throws IOException {
+        if (Files.isSymbolicLink(directory)) {
+            throw new IOException("Cache directory " + directory + " is a symbolic link");
+        }
+        if (!FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            Files.createDirectories(directory);
+            return;
+        }
+        if (Files.notExists(directory, LinkOption.NOFOLLOW_LINKS)) {
+            Files.createDirectories(directory, PosixFilePermissions.asFileAttribute(OWNER_ONLY));
+        }
+        UserPrincipal owner = Files.getOwner(directory, LinkOption.NOFOLLOW_LINKS);
+        UserPrincipal self = directory.getFileSystem().getUserPrincipalLookupService()
+            .lookupPrincipalByName(System.getProperty("user.name"));
+        if (!owner.equals(self)) {
+            throw new IOException("Cache directory " + directory + " is owned by " + owner.getName());
+        }
+        Files.setPosixFilePermissions(directory, OWNER_ONLY);
+    }
+
+    private Path fileFor(Object key) {
+        return directory.resolve(Crypto.sha256Hex(String.valueOf(key)) + ".bin");
+    }
+}
@@ -0,0 +1,159 @@
+package com.realestate.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Single owner of the application's thread pools.
+ * CPU pool for calculations, IO pool for blocking database work (optionally virtual-thread-per-task),
+ * EXTERNAL pool for calls to third parties such as OpenAI, SMTP and Razorpay, STREAMING pool for long-running
+ * streamed responses so they cannot starve the IO pool.
+ * Every pool is bound to Micrometer: executor.queued / executor.active / executor.pool.size gauges,
+ * executor and executor.idle timers for run and queue-wait latency, and an executor.rejected counter.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ExecutorRegistry {
+
+    public enum Pool {
+        CPU("cpu"), IO("io"), EXTERNAL("external"), STREAMING("streaming");
+
+        private final String metricName;
+
+        Pool(String metricName) {
+            this.metricName = metricName;
+        }
+
+        public String metricName() {
+            return metricName;
+        }
+    }
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Pool, ExecutorService> executors = new EnumMap<>(Pool.class);
+    private final Map<Pool, ExecutorService> rawExecutors = new EnumMap<>(Pool.class);
+
+    @Value("${app.executors.cpu.threads:0}")
+    private int cpuThreads;
+
+    @Value("${app.executors.cpu.queue-capacity:1000}")
+    private int cpuQueueCapacity;
+
+    @Value("${app.executors.io.core-size:8}")
+    private int ioCoreSize;
+
+    @Value("${app.executors.io.max-size:32}")
+    private int ioMaxSize;
+
+    @Value("${app.executors.io.queue-capacity:500}")
+    private int ioQueueCapacity;
+
+    @Value("${app.executors.io.virtual-threads:false}")
+    private boolean ioVirtualThreads;
+
+    @Value("${app.executors.external.core-size:4}")
+    private int externalCoreSize;
+
+    @Value("${app.executors.external.max-size:16}")
+    private int externalMaxSize;
+
+    @Value("${app.executors.external.queue-capacity:200}")
+    private int externalQueueCapacity;
+
+    @Value("${app.executors.streaming.max-size:4}")
+    private int streamingMaxSize;
+
+    @Value("${app.executors.streaming.queue-capacity:8}")
+    private int streamingQueueCapacity;
+
+    @Value("${app.executors.shutdown-timeout-seconds:30}")
+    private long shutdownTimeoutSeconds;
+
+    @PostConstruct
+    public void init() {
+        int cpu = cpuThreads > 0 ? cpuThreads : Runtime.getRuntime().availableProcessors();
+        register(Pool.CPU, threadPool(Pool.CPU, cpu, cpu, cpuQueueCapacity));
+
+        ExecutorService virtual = ioVirtualThreads ? virtualThreadExecutor() : null;
+        register(Pool.IO, virtual != null ? virtual
+            : threadPool(Pool.IO, ioCoreSize, ioMaxSize, ioQueueCapacity));
+
+        register(Pool.EXTERNAL, threadPool(Pool.EXTERNAL, externalCoreSize, externalMaxSize, externalQueueCapacity));
+
+        register(Pool.STREAMING, threadPool(Pool.STREAMING, streamingMaxSize, streamingMaxSize, streamingQueueCapacity));
+    }
+
+    public ExecutorService executor(Pool pool) {
+        return executors.get(pool);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rawExecutors.values().forEach(ExecutorService::shutdown);
+        rawExecutors.forEach((pool, executor) -> {
+            try {
+                if (!executor.awaitTermination(shutdownTimeoutSeconds, TimeUnit.SECONDS)) {
+                    log.warn("Executor {} did not terminate in {}s, forcing shutdown", pool, shutdownTimeoutSeconds);
+                    executor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+
+    private void register(Pool pool, ExecutorService executor) {
+        rawExecutors.put(pool, executor);
+        executors.put(pool, ExecutorServiceMetrics.monitor(meterRegistry, executor, pool.metricName(), Tags.empty()));
+    }
+
+    private ThreadPoolExecutor threadPool(Pool pool, int coreSize, int maxSize, int queueCapacity) {
+        Counter rejected = Counter.builder("executor.rejected")
+            .tag("name", pool.metricName())
+            .description("Tasks rejected by a saturated pool and run on the caller thread")
+            .register(meterRegistry);
+        RejectedExecutionHandler callerRuns = new ThreadPoolExecutor.CallerRunsPolicy();
+
+        return new ThreadPoolExecutor(coreSize, Math.max(coreSize, maxSize), 60L, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(queueCapacity), namedThreads(pool),
+            (task, executor) -> {
+                rejected.increment();
+                callerRuns.rejectedExecution(task, executor);
+            });
+    }
+
+    private static ThreadFactory namedThreads(Pool pool) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "RealEstate-" + pool.metricName() + "-" + counter.incrementAndGet());
+            thread.setDaemon(false);
+            return thread;
+        };
+    }
+
+    // Looked up reflectively so the build stays on Java 17 while Java 21 runtimes get virtual threads
+    private ExecutorService virtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            log.warn("Virtual threads requested for the IO pool but unsupported by this JVM, using a bounded pool");
+            return null;
+        }
+    }
+}
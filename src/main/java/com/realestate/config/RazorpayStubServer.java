@@ -0,0 +1,137 @@
+package com.realestate.config;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stand-in for the Razorpay orders API, for load tests that must not reach the real gateway.
+ * Listens on its own port outside the servlet container and answers POST /v1/orders after latency, failing
+ * a failureRate fraction of requests with a 502. Started by the razorpay-stub profile; point
+ * app.payments.gateway.base-url at http://localhost:{port}/v1 to use it.
+ */
+@Component
+@Profile("razorpay-stub")
+@Slf4j
+public class RazorpayStubServer {
+
+    private final int port;
+    private final Duration latency;
+    private final double failureRate;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public RazorpayStubServer(@Value("${app.payments.gateway.stub.port:9099}") int port,
+                              @Value("${app.payments.gateway.stub.latency:50ms}") Duration latency,
+                              @Value("${app.payments.gateway.stub.failure-rate:0}") double failureRate) {
+        this.port = port;
+        this.latency = latency;
+        this.failureRate = failureRate;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        server.createContext("/v1/orders", this::handleOrder);
+        // Sleeping handlers must not limit the throughput under test
+        executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+        server.start();
+        log.info("Razorpay stub listening on port {} (latency {}, failure rate {})", port(), latency, failureRate);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Bound port, which differs from the configured one when that was 0
+     */
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    private void handleOrder(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                respond(exchange, 405, error("BAD_REQUEST_ERROR", "Only POST is supported"));
+                return;
+            }
+            JSONObject request;
+            try {
+                request = new JSONObject(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            } catch (JSONException e) {
+                respond(exchange, 400, error("BAD_REQUEST_ERROR", "Request body is not valid JSON"));
+                return;
+            }
+            sleep(latency);
+
+            if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+                respond(exchange, 502, error("GATEWAY_ERROR", "Stubbed gateway failure"));
+                return;
+            }
+            if (request.optLong("amount") < 100) {
+                respond(exchange, 400, error("BAD_REQUEST_ERROR", "The amount must be atleast INR 1.00"));
+                return;
+            }
+
+            JSONObject order = new JSONObject();
+            order.put("id", "order_" + UUID.randomUUID().toString().replace("-", "").substring(0, 14));
+            order.put("entity", "order");
+            order.put("amount", request.getLong("amount"));
+            order.put("amount_paid", 0);
+            order.put("amount_due", request.getLong("amount"));
+            order.put("currency", request.optString("currency", "INR"));
+            order.put("receipt", request.optString("receipt"));
+            order.put("status", "created");
+            order.put("attempts", 0);
+            order.put("notes", request.has("notes") ? request.getJSONObject("notes") : new JSONObject());
+            order.put("created_at", Instant.now().getEpochSecond());
+            respond(exchange, 200, order);
+        }
+    }
+
+    private static JSONObject error(String code, String description) {
+        return new JSONObject().put("error", new JSONObject().put("code", code).put("description", description));
+    }
+
+    private static void respond(HttpExchange exchange, int status, JSONObject body) throws IOException {
+        byte[] bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(duration.toNanos());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -2,7 +2,9 @@ package com.realestate.config;
 
 import com.realestate.security.JwtAuthenticationFilter;
 import com.realestate.security.JwtAuthenticationEntryPoint;
+import com.realestate.security.RateLimitFilter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -37,6 +39,7 @@ public class SecurityConfig {
     private final UserDetailsService userDetailsService;
     private final JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint;
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final RateLimitFilter rateLimitFilter;
 
     @Bean
     public PasswordEncoder passwordEncoder() {
@@ -80,6 +83,8 @@ public class SecurityConfig {
                 .requestMatchers("/", "/home", "/about", "/contact", "/properties", "/property/**", "/propeties").permitAll()
                 .requestMatchers("/calculator", "/chatbot", "/emi-calculator").permitAll()
                 .requestMatchers("/api/auth/**").permitAll()
+                // The full catalog export is a long-running stream, not a public listing
+                .requestMatchers("/api/properties/export").hasAnyRole("ADMIN", "ANALYST")
                 .requestMatchers("/api/properties/**").permitAll()
                 .requestMatchers("/api/investments/**").permitAll()
                 .requestMatchers("/api/chatbot/**").permitAll()
@@ -112,10 +117,19 @@ public class SecurityConfig {
 
         http.authenticationProvider(authenticationProvider());
         http.addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+        http.addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
 
+    // Only run inside the security chain, where the authenticated user is known
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration() {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(rateLimitFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
@@ -0,0 +1,100 @@
+package com.realestate.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Caffeine heap cache backed by a DiskCacheStore.
+ * Entries evicted from the heap for size are spilled to disk by the native cache's eviction listener, which
+ * Caffeine runs synchronously while it holds the key's lock; a heap miss falls through to disk and promotes
+ * the entry back. Promotions, writes and evictions also run as a compute on the key and clear the disk copy
+ * inside it, so a spill cannot land after a later write or eviction and bring back an older value.
+ * Extends CaffeineCache so Actuator still binds the heap tier's statistics.
+ */
+public class TieredCaffeineCache extends CaffeineCache {
+
+    private final DiskCacheStore diskStore;
+
+    public TieredCaffeineCache(String name, Cache<Object, Object> heapCache, DiskCacheStore diskStore,
+                               boolean allowNullValues) {
+        super(name, heapCache, allowNullValues);
+        this.diskStore = diskStore;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Object value = super.lookup(key);
+        if (value != null) {
+            return value;
+        }
+        return getNativeCache().asMap().compute(key, (k, current) -> current != null ? current : promote(k));
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        // The native cache loads inside a compute on the key, so the disk read is already under its lock
+        return super.get(key, () -> {
+            Object spilled = promote(key);
+            if (spilled != null) {
+                @SuppressWarnings("unchecked")
+                T value = (T) fromStoreValue(spilled);
+                return value;
+            }
+            return valueLoader.call();
+        });
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        Object storeValue = toStoreValue(value);
+        getNativeCache().asMap().compute(key, (k, current) -> {
+            diskStore.delete(k);
+            return storeValue;
+        });
+    }
+
+    @Override
+    public void evict(Object key) {
+        remove(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        return remove(key) != null;
+    }
+
+    // Heap first: once it is empty no spill can follow, so clearing the disk afterwards leaves nothing stale
+    @Override
+    public void clear() {
+        super.clear();
+        diskStore.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = super.invalidate();
+        diskStore.clear();
+        return invalidated;
+    }
+
+    private Object promote(Object key) {
+        Object spilled = diskStore.read(key).orElse(null);
+        if (spilled != null) {
+            diskStore.delete(key);
+        }
+        return spilled;
+    }
+
+    // Returns the heap value that was removed, if any
+    private Object remove(Object key) {
+        Object[] removed = new Object[1];
+        getNativeCache().asMap().compute(key, (k, current) -> {
+            diskStore.delete(k);
+            removed[0] = current;
+            return null;
+        });
+        return removed[0];
+    }
+}
@@ -5,6 +5,7 @@ import com.realestate.model.entity.RefreshToken;
 import com.realestate.model.entity.TokenBlacklist;
 import com.realestate.model.entity.User;
 import com.realestate.repository.UserRepository;
+import com.realestate.security.JwtClaims;
 import com.realestate.security.JwtTokenProvider;
 import com.realestate.service.RateLimitService;
 import com.realestate.service.TokenService;
@@ -19,6 +20,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.List;
@@ -116,17 +118,15 @@ public class AuthController {
 
     @PostMapping("/logout")
     public ResponseEntity<ApiResponse<String>> logout(
-            @RequestHeader("Authorization") String authHeader) {
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            @RequestHeader("Authorization") String authHeader,
+            @RequestAttribute(name = JwtClaims.REQUEST_ATTRIBUTE, required = false) JwtClaims claims) {
+        // Claims left by JwtAuthenticationFilter spare parsing the token a second time
+        if (claims != null) {
+            blacklistOnLogout(claims.id(), claims.expiresAt());
+        } else if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
-            String jti = jwtTokenProvider.getJtiFromToken(token);
-            LocalDateTime expiresAt = jwtTokenProvider.getExpirationDateFromToken(token)
-                    .toInstant()
-                    .atZone(ZoneId.systemDefault())
-                    .toLocalDateTime();
-
-            tokenService.blacklistAccessToken(jti, expiresAt, TokenBlacklist.BlacklistReason.LOGOUT);
-            log.info("User logged out, token blacklisted");
+            blacklistOnLogout(jwtTokenProvider.getJtiFromToken(token),
+                    jwtTokenProvider.getExpirationDateFromToken(token).toInstant());
         }
 
         SecurityContextHolder.clearContext();
@@ -163,11 +163,14 @@ public class AuthController {
         return ResponseEntity.ok(ApiResponse.success(currentUser, "Current user fetched"));
     }
 
+    private void blacklistOnLogout(String jti, Instant expiresAt) {
+        LocalDateTime expiry = expiresAt.atZone(ZoneId.systemDefault()).toLocalDateTime();
+        tokenService.blacklistAccessToken(jti, expiry, TokenBlacklist.BlacklistReason.LOGOUT);
+        log.info("User logged out, token blacklisted");
+    }
+
+    // X-Forwarded-For is only honoured from trusted proxies, by the container (server.forward-headers-strategy)
     private String getClientIp(HttpServletRequest request) {
-        String xForwardedFor = request.getHeader("X-Forwarded-For");
-        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
-            return xForwardedFor.split(",")[0].trim();
-        }
         return request.getRemoteAddr();
     }
 }
@@ -4,6 +4,8 @@ import com.realestate.model.dto.ApiResponse;
 import com.realestate.model.dto.InvestmentCalculationDTO;
 import com.realestate.model.dto.InvestmentRequestDTO;
 import com.realestate.service.InvestmentCalculatorService;
+import com.realestate.service.InvestmentSimulationService;
+import com.realestate.service.MonteCarloSimulator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -12,7 +14,10 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
@@ -25,6 +30,7 @@ import java.util.concurrent.CompletableFuture;
 public class InvestmentController {
 
     private final InvestmentCalculatorService investmentCalculatorService;
+    private final InvestmentSimulationService investmentSimulationService;
 
     @PostMapping("/calculate")
     public CompletableFuture<ResponseEntity<ApiResponse<InvestmentCalculationDTO>>> calculateInvestment(
@@ -47,6 +53,33 @@ public class InvestmentController {
                 ApiResponse.success(result, "Complex analysis completed")));
     }
 
+    @PostMapping("/simulate/{propertyId}")
+    public ResponseEntity<ApiResponse<MonteCarloSimulator.SimulationResult>> simulateInvestment(
+            @PathVariable Long propertyId,
+            @RequestParam(defaultValue = "100000") @Min(1) int paths,
+            @RequestParam(defaultValue = "5000") @Min(1) long deadlineMs,
+            @RequestParam(required = false) Long seed,
+            @Valid @RequestBody InvestmentRequestDTO request) {
+        log.info("Monte Carlo simulation request for property: {} with {} paths", propertyId, paths);
+        
+        MonteCarloSimulator.SimulationResult result =
+            investmentSimulationService.simulateReturns(propertyId, request, paths, deadlineMs, seed);
+        
+        return ResponseEntity.ok(ApiResponse.success(result, "Simulation completed"));
+    }
+
+    @GetMapping("/screen")
+    public ResponseEntity<ApiResponse<List<InvestmentCalculatorService.PropertyScreeningResult>>> screenCatalog(
+            @RequestParam(required = false) BigDecimal appreciationRate,
+            @RequestParam(defaultValue = "10") Integer years,
+            @RequestParam(defaultValue = "50") @Min(1) @Max(1000) int limit) {
+        
+        List<InvestmentCalculatorService.PropertyScreeningResult> results =
+            investmentCalculatorService.screenCatalog(appreciationRate, years, limit);
+        
+        return ResponseEntity.ok(ApiResponse.success(results, "Catalog screened"));
+    }
+
     @GetMapping("/roi")
     public ResponseEntity<ApiResponse<BigDecimal>> calculateROI(
             @RequestParam BigDecimal propertyPrice,
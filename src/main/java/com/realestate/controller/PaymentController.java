@@ -3,7 +3,9 @@ package com.realestate.controller;
 import com.realestate.exception.PaymentException;
 import com.realestate.model.dto.UserDTO;
 import com.realestate.model.entity.Payment;
+import com.realestate.model.entity.PaymentCallback;
 import com.realestate.security.CustomUserDetails;
+import com.realestate.service.PaymentCallbackService;
 import com.realestate.service.PaymentService;
 import com.realestate.service.UserService;
 import lombok.RequiredArgsConstructor;
@@ -24,6 +26,9 @@ import java.math.BigDecimal;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
 
 @Controller
 @RequiredArgsConstructor
@@ -31,6 +36,7 @@ import java.util.Map;
 public class PaymentController {
 
     private final PaymentService paymentService;
+    private final PaymentCallbackService paymentCallbackService;
     private final UserService userService;
 
     // REST API Endpoints
@@ -38,67 +44,69 @@ public class PaymentController {
     @PostMapping("/api/payment/create-downpayment")
     @PreAuthorize("isAuthenticated()")
     @ResponseBody
-    public ResponseEntity<?> createDownpaymentOrder(
+    public CompletableFuture<ResponseEntity<?>> createDownpaymentOrder(
             @RequestParam Long propertyId,
             @AuthenticationPrincipal CustomUserDetails userDetails) {
-        try {
-            log.info("Creating downpayment order for user: {} and property: {}",
-                userDetails.getId(), propertyId);
-
-            Map<String, Object> orderData = paymentService.createDownpaymentOrder(
-                userDetails.getId(),
-                propertyId
-            );
+        log.info("Creating downpayment order for user: {} and property: {}",
+            userDetails.getId(), propertyId);
 
-            return ResponseEntity.ok(orderData);
-        } catch (PaymentException e) {
-            log.error("Error creating downpayment order: ", e);
-            return ResponseEntity.badRequest().body(Map.of(
-                "error", true,
-                "message", e.getMessage()
-            ));
-        } catch (Exception e) {
-            log.error("Unexpected error creating downpayment order: ", e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
-                "error", true,
-                "message", "Failed to create downpayment order"
-            ));
-        }
+        return orderResponse(() -> paymentService.createDownpaymentOrderAsync(
+            userDetails.getId(),
+            propertyId
+        ), "downpayment order");
     }
 
     @PostMapping("/api/payment/create-order")
     @PreAuthorize("hasRole('INVESTOR')")
     @ResponseBody
-    public ResponseEntity<?> createOrder(
+    public CompletableFuture<ResponseEntity<?>> createOrder(
             @RequestParam Long propertyId,
             @RequestParam BigDecimal amount,
             @AuthenticationPrincipal CustomUserDetails userDetails) {
-        try {
-            log.info("Creating payment order for investor: {} and property: {} with amount: {}",
-                userDetails.getId(), propertyId, amount);
+        log.info("Creating payment order for investor: {} and property: {} with amount: {}",
+            userDetails.getId(), propertyId, amount);
+
+        return orderResponse(() -> paymentService.createOrderAsync(
+            userDetails.getId(),
+            propertyId,
+            amount,
+            Payment.PaymentType.INVESTMENT
+        ), "payment order");
+    }
 
-            Map<String, Object> orderData = paymentService.createOrder(
-                userDetails.getId(),
-                propertyId,
-                amount
-            );
+    // The request thread is released while the gateway call is outstanding
+    private CompletableFuture<ResponseEntity<?>> orderResponse(
+            Supplier<CompletableFuture<Map<String, Object>>> order, String description) {
+        CompletableFuture<Map<String, Object>> orderData;
+        try {
+            orderData = order.get();
+        } catch (RuntimeException e) {
+            return CompletableFuture.completedFuture(orderError(e, description));
+        }
+        return orderData.<ResponseEntity<?>>thenApply(ResponseEntity::ok)
+            .exceptionally(error -> orderError(error instanceof CompletionException ? error.getCause() : error,
+                description));
+    }
 
-            return ResponseEntity.ok(orderData);
-        } catch (PaymentException e) {
-            log.error("Error creating payment order: ", e);
+    private ResponseEntity<?> orderError(Throwable error, String description) {
+        if (error instanceof PaymentException) {
+            log.error("Error creating {}: ", description, error);
             return ResponseEntity.badRequest().body(Map.of(
                 "error", true,
-                "message", e.getMessage()
-            ));
-        } catch (Exception e) {
-            log.error("Unexpected error creating payment order: ", e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
-                "error", true,
-                "message", "Failed to create payment order"
+                "message", error.getMessage()
             ));
         }
+        log.error("Unexpected error creating {}: ", description, error);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
+            "error", true,
+            "message", "Failed to create " + description
+        ));
     }
 
+    /**
+     * Checkout callback. Answers 202 once the signature is verified and the callback journaled; the payment
+     * moves to SUCCESS shortly after, so clients poll the payment rather than read it from this response.
+     */
     @PostMapping("/api/payment/verify")
     @PreAuthorize("hasRole('INVESTOR')")
     @ResponseBody
@@ -111,28 +119,29 @@ public class PaymentController {
             log.info("Verifying payment for order: {} with payment: {}",
                 razorpay_order_id, razorpay_payment_id);
 
-            Payment payment = paymentService.verifyPayment(
-                razorpay_order_id,
-                razorpay_payment_id,
-                razorpay_signature
-            );
-
-            // Verify the payment belongs to the current user
-            if (!payment.getInvestor().getId().equals(userDetails.getId())) {
+            // Verify the payment belongs to the current user before anything is journaled
+            if (!paymentService.getInvestorIdForOrder(razorpay_order_id).equals(userDetails.getId())) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of(
                     "error", true,
                     "message", "Unauthorized access to payment"
                 ));
             }
 
+            // Signature is checked here; the payment itself is updated by the callback workers
+            PaymentCallbackService.CallbackAck ack = paymentCallbackService.accept(
+                razorpay_order_id,
+                razorpay_payment_id,
+                razorpay_signature,
+                PaymentCallback.Source.CHECKOUT
+            );
+
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("message", "Payment verified successfully");
-            response.put("paymentId", payment.getId());
-            response.put("status", payment.getStatus());
-            response.put("amount", payment.getInvestmentAmount());
+            response.put("message", "Payment received, confirmation in progress");
+            response.put("razorpayPaymentId", ack.razorpayPaymentId());
+            response.put("status", Payment.PaymentStatus.PROCESSING);
 
-            return ResponseEntity.ok(response);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
         } catch (PaymentException e) {
             log.error("Payment verification failed: ", e);
             return ResponseEntity.badRequest().body(Map.of(
@@ -1,9 +1,9 @@
 package com.realestate.controller;
 
 import com.realestate.model.dto.*;
-import com.realestate.model.entity.Holding;
 import com.realestate.model.entity.Portfolio;
 import com.realestate.service.PortfolioService;
+import com.realestate.service.PortfolioValuationService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -23,6 +23,7 @@ import java.util.stream.Collectors;
 public class PortfolioController {
 
     private final PortfolioService portfolioService;
+    private final PortfolioValuationService portfolioValuationService;
 
     @PostMapping
     @PreAuthorize("hasRole('INVESTOR') or hasRole('ADMIN')")
@@ -56,11 +57,8 @@ public class PortfolioController {
     @GetMapping("/{id}/holdings")
     @PreAuthorize("hasRole('INVESTOR') or hasRole('ADMIN') or hasRole('ANALYST')")
     public ResponseEntity<ApiResponse<List<HoldingDTO>>> getPortfolioHoldings(@PathVariable Long id) {
-        List<Holding> holdings = portfolioService.getPortfolioHoldings(id);
-        List<HoldingDTO> dtos = holdings.stream()
-                .map(HoldingDTO::fromEntity)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(ApiResponse.success(dtos, "Holdings retrieved"));
+        List<HoldingDTO> holdings = portfolioService.getPortfolioHoldings(id);
+        return ResponseEntity.ok(ApiResponse.success(holdings, "Holdings retrieved"));
     }
 
     @GetMapping("/{id}/summary")
@@ -106,4 +104,11 @@ public class PortfolioController {
                 .collect(Collectors.toList());
         return ResponseEntity.ok(ApiResponse.success(dtos, "All portfolios retrieved"));
     }
+
+    @PostMapping("/admin/revalue")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<PortfolioValuationService.ValuationResult>> revalueAllPortfolios() {
+        PortfolioValuationService.ValuationResult result = portfolioValuationService.revalueAllPortfolios();
+        return ResponseEntity.ok(ApiResponse.success(result, "All portfolios revalued"));
+    }
 }
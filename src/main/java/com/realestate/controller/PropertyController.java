@@ -1,8 +1,11 @@
 package com.realestate.controller;
 
 import com.realestate.model.dto.ApiResponse;
+import com.realestate.model.dto.CursorPageDTO;
 import com.realestate.model.dto.PropertyDTO;
 import com.realestate.model.dto.PropertySearchDTO;
+import com.realestate.model.entity.Property;
+import com.realestate.service.PropertyExportService;
 import com.realestate.service.PropertyService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -10,18 +13,25 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/properties")
@@ -32,6 +42,7 @@ import java.util.concurrent.CompletableFuture;
 public class PropertyController {
 
     private final PropertyService propertyService;
+    private final PropertyExportService propertyExportService;
 
     @GetMapping
     public ResponseEntity<ApiResponse<List<PropertyDTO>>> getAllProperties() {
@@ -53,6 +64,49 @@ public class PropertyController {
         return ResponseEntity.ok(propertyService.findAllPaginated(pageable));
     }
 
+    @GetMapping("/scroll")
+    public ResponseEntity<ApiResponse<CursorPageDTO<PropertyDTO>>> scrollProperties(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "DESC") String sortDirection) {
+        CursorPageDTO<PropertyDTO> page = propertyService.findAllByCursor(cursor, size, sortBy, sortDirection);
+        return ResponseEntity.ok(ApiResponse.success(page, "Properties fetched successfully"));
+    }
+
+    /**
+     * Stream the catalog as NDJSON or CSV, gzip-compressed when the client accepts it.
+     * Pass since (ISO date-time) to pull only properties updated at or after it.
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasAnyRole('ADMIN', 'ANALYST')")
+    public ResponseEntity<StreamingResponseBody> exportProperties(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        PropertyExportService.Format exportFormat = PropertyExportService.Format.from(format);
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+
+        StreamingResponseBody body = outputStream -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(outputStream, 8192);
+                propertyExportService.export(compressed, exportFormat, since);
+                compressed.finish();
+            } else {
+                propertyExportService.export(outputStream, exportFormat, since);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(exportFormat.contentType()))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"properties." + exportFormat.extension() + "\"")
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<PropertyDTO>> getPropertyById(
             @PathVariable @Min(1) Long id) {
@@ -95,6 +149,15 @@ public class PropertyController {
         return ResponseEntity.ok(ApiResponse.success(properties, "Search completed"));
     }
 
+    @PostMapping("/search/scroll")
+    public ResponseEntity<ApiResponse<CursorPageDTO<PropertyDTO>>> scrollSearch(
+            @RequestBody PropertySearchDTO searchDTO,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size) {
+        CursorPageDTO<PropertyDTO> page = propertyService.searchByCursor(searchDTO, cursor, size);
+        return ResponseEntity.ok(ApiResponse.success(page, "Search completed"));
+    }
+
     @PostMapping("/search/async")
     public CompletableFuture<ResponseEntity<ApiResponse<List<PropertyDTO>>>> searchPropertiesAsync(
             @RequestBody PropertySearchDTO searchDTO) {
@@ -166,4 +229,36 @@ public class PropertyController {
         BigDecimal totalValue = propertyService.calculateTotalValue();
         return ResponseEntity.ok(ApiResponse.success(totalValue, "Total property value calculated"));
     }
-}
\ No newline at end of file
+
+    @GetMapping("/analytics/location")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getLocationMarketAnalysis(
+            @RequestParam String city,
+            @RequestParam String state,
+            @RequestParam(required = false) Property.PropertyType propertyType) {
+        Map<String, Object> analysis = propertyService.getLocationMarketAnalysis(city, state, propertyType);
+        return ResponseEntity.ok(ApiResponse.success(analysis, "Location market analysis"));
+    }
+
+    @GetMapping("/analytics/price-trends")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getPriceTrends(
+            @RequestParam String city,
+            @RequestParam String state,
+            @RequestParam(required = false) Property.PropertyType propertyType) {
+        Map<String, Object> trends = propertyService.getPriceTrends(city, state, propertyType);
+        return ResponseEntity.ok(ApiResponse.success(trends, "Price trends"));
+    }
+
+    @GetMapping("/analytics/heat-map")
+    public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getMarketHeatMap(@RequestParam String state) {
+        List<Map<String, Object>> heatMap = propertyService.getMarketHeatMap(state);
+        return ResponseEntity.ok(ApiResponse.success(heatMap, "Market heat map"));
+    }
+
+    @GetMapping("/analytics/inventory")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getInventoryAnalysis(
+            @RequestParam String city,
+            @RequestParam String state) {
+        Map<String, Object> analysis = propertyService.getInventoryAnalysis(city, state);
+        return ResponseEntity.ok(ApiResponse.success(analysis, "Inventory analysis"));
+    }
+}
@@ -2,9 +2,11 @@ package com.realestate.controller;
 
 import com.razorpay.Order;
 import com.razorpay.RazorpayException;
-import com.realestate.model.entity.Payment;
+import com.realestate.exception.PaymentException;
+import com.realestate.model.entity.PaymentCallback;
 import com.realestate.model.entity.Property;
 import com.realestate.repository.PropertyRepository;
+import com.realestate.service.PaymentCallbackService;
 import com.realestate.service.RazorpayService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -25,6 +27,7 @@ import java.util.Optional;
 public class RazorpayController {
 
     private final RazorpayService razorpayService;
+    private final PaymentCallbackService paymentCallbackService;
     private final PropertyRepository propertyRepository;
 
     @PostMapping("/create-order")
@@ -72,23 +75,21 @@ public class RazorpayController {
         String signature = paymentDetails.get("signature");
 
         try {
-            boolean isValid = razorpayService.verifyPaymentSignature(orderId, paymentId, signature);
+            PaymentCallbackService.CallbackAck ack = paymentCallbackService.accept(orderId, paymentId, signature,
+                    PaymentCallback.Source.RAZORPAY);
 
-            if (isValid) {
-                Payment payment = razorpayService.savePaymentDetails(orderId, paymentId, signature);
-
-                response.put("success", true);
-                response.put("message", "Payment verified successfully");
-                response.put("paymentId", payment.getId());
+            response.put("success", true);
+            response.put("message", "Payment received, confirmation in progress");
+            response.put("paymentId", ack.razorpayPaymentId());
 
-                log.info("Payment verified successfully for order: {}", orderId);
-            } else {
-                response.put("success", false);
-                response.put("message", "Payment signature verification failed");
+            log.info("Payment callback accepted for order: {}", orderId);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
 
-                log.warn("Payment verification failed for order: {}", orderId);
-            }
+        } catch (PaymentException e) {
+            response.put("success", false);
+            response.put("message", "Payment signature verification failed");
 
+            log.warn("Payment verification failed for order: {}", orderId);
             return ResponseEntity.ok(response);
 
         } catch (Exception e) {
@@ -59,7 +59,8 @@ public class TransactionController {
                 request.getFromPortfolioId(),
                 request.getToPortfolioId(),
                 request.getHoldingId(),
-                request.getQuantity()
+                request.getQuantity(),
+                request.getIdempotencyKey()
         );
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(ApiResponse.success(TransactionDTO.fromEntity(transaction), "Transfer executed"));
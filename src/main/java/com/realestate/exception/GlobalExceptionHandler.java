@@ -2,6 +2,7 @@ package com.realestate.exception;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -266,6 +267,26 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorDetails, HttpStatus.METHOD_NOT_ALLOWED);
     }
     
+    /**
+     * Handle ConcurrencyFailureException left over after retries, e.g. a trade that kept losing its optimistic lock
+     */
+    @ExceptionHandler(ConcurrencyFailureException.class)
+    public ResponseEntity<ErrorDetails> handleConcurrencyFailureException(
+            ConcurrencyFailureException ex, WebRequest request) {
+        
+        logger.warn("Concurrent modification: {}", ex.getMessage());
+        
+        ErrorDetails errorDetails = new ErrorDetails(
+                HttpStatus.CONFLICT.value(),
+                "Concurrent Modification",
+                "The resource was modified concurrently. Please try again.",
+                request.getDescription(false).replace("uri=", ""),
+                ex.getClass().getSimpleName()
+        );
+        
+        return new ResponseEntity<>(errorDetails, HttpStatus.CONFLICT);
+    }
+    
     /**
      * Handle all other exceptions
      */
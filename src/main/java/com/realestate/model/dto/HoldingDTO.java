@@ -20,6 +20,7 @@ public class HoldingDTO {
     private Long propertyId;
     private String propertyTitle;
     private String propertyLocation;
+    private BigDecimal propertyPrice;
     private BigDecimal quantity;
     private BigDecimal averageCostBasis;
     private BigDecimal totalCostBasis;
@@ -37,6 +38,7 @@ public class HoldingDTO {
                 .propertyId(holding.getProperty().getId())
                 .propertyTitle(holding.getProperty().getTitle())
                 .propertyLocation(holding.getProperty().getLocation())
+                .propertyPrice(holding.getProperty().getPrice())
                 .quantity(holding.getQuantity())
                 .averageCostBasis(holding.getAverageCostBasis())
                 .totalCostBasis(holding.getTotalCostBasis())
@@ -7,6 +7,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.io.Serializable;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Set;
@@ -16,7 +17,7 @@ import java.util.Set;
 @NoArgsConstructor
 @AllArgsConstructor
 @JsonInclude(JsonInclude.Include.NON_NULL)
-public class PropertyDTO {
+public class PropertyDTO implements Serializable {
 
     private Long id;
 
@@ -98,6 +99,9 @@ public class PropertyDTO {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
+    // Optimistic-lock version of the entity, used to keep older snapshots out of the cache
+    private Long version;
+
     public enum PropertyType {
         RESIDENTIAL, COMMERCIAL, INDUSTRIAL, LAND, APARTMENT, VILLA, OFFICE, RETAIL, WAREHOUSE
     }
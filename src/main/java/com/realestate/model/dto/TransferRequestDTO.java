@@ -27,4 +27,6 @@ public class TransferRequestDTO {
     @NotNull(message = "Quantity is required")
     @DecimalMin(value = "0.00000001", message = "Quantity must be greater than 0")
     private BigDecimal quantity;
+
+    private String idempotencyKey;
 }
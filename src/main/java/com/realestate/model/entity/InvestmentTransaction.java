@@ -82,7 +82,9 @@ public class InvestmentTransaction extends BaseEntity {
     @Builder.Default
     private TransactionStatus status = TransactionStatus.PENDING;
 
-    @Column(name = "idempotency_key", unique = true, length = 100)
+    // Echoed back to the client only; deduplication is per user in idempotency_keys, where a key can be reused
+    // by another user or after its ttl, so it must not be unique here
+    @Column(name = "idempotency_key", length = 100)
     private String idempotencyKey;
 
     @PrePersist
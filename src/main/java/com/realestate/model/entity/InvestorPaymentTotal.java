@@ -0,0 +1,32 @@
+package com.realestate.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Running total of an investor's successful payments, kept in step with payments by PaymentAggregateService
+ */
+@Entity
+@Table(name = "investor_payment_totals")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InvestorPaymentTotal {
+
+    @Id
+    @Column(name = "investor_id")
+    private Long investorId;
+
+    @Column(name = "total_invested", nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalInvested;
+
+    @Column(name = "payment_count", nullable = false)
+    private long paymentCount;
+
+    @Column(name = "last_payment_at")
+    private LocalDateTime lastPaymentAt;
+}
@@ -0,0 +1,85 @@
+package com.realestate.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Journal entry for a signature-verified payment callback. Callbacks are acknowledged once journaled and
+ * applied to their Payment later in batches; the unique payment id makes a redelivered callback a no-op.
+ */
+@Entity
+@Table(name = "payment_callbacks",
+       uniqueConstraints = {
+           @UniqueConstraint(name = "uk_payment_callbacks_payment_id", columnNames = "razorpay_payment_id")
+       },
+       indexes = {
+           @Index(name = "idx_payment_callbacks_status", columnList = "status, id")
+       })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PaymentCallback {
+
+    public enum Source {
+        // Checkout handler of an order created by PaymentService
+        CHECKOUT,
+        // Standalone Razorpay checkout and payment links, which may not have a reserved payment
+        RAZORPAY
+    }
+
+    public enum Status {
+        RECEIVED,
+        APPLIED,
+        REJECTED,
+        // Kept failing to apply; left for reconciliation so the callbacks behind it keep moving
+        FAILED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "razorpay_order_id", nullable = false, length = 100)
+    private String razorpayOrderId;
+
+    @Column(name = "razorpay_payment_id", nullable = false, length = 100)
+    private String razorpayPaymentId;
+
+    @Column(nullable = false, length = 500)
+    private String signature;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Source source;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status;
+
+    @Column(name = "failure_reason")
+    private String failureReason;
+
+    // Failed attempts to apply this callback on its own
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "received_at", nullable = false)
+    private LocalDateTime receivedAt;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+
+    public void markApplied() {
+        this.status = Status.APPLIED;
+        this.processedAt = LocalDateTime.now();
+    }
+
+    public void markRejected(String reason) {
+        this.status = Status.REJECTED;
+        this.failureReason = reason;
+        this.processedAt = LocalDateTime.now();
+    }
+}
@@ -1,5 +1,6 @@
 package com.realestate.model.entity;
 
+import com.realestate.util.GeoHash;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
@@ -15,7 +16,9 @@ import java.util.Set;
            @Index(name = "idx_property_location", columnList = "location"),
            @Index(name = "idx_property_type", columnList = "property_type"),
            @Index(name = "idx_property_price", columnList = "price"),
-           @Index(name = "idx_property_status", columnList = "status")
+           @Index(name = "idx_property_status", columnList = "status"),
+           @Index(name = "idx_property_geo_cell", columnList = "geo_cell"),
+           @Index(name = "idx_property_updated_at", columnList = "updated_at")
        })
 @Data
 @NoArgsConstructor
@@ -158,11 +161,27 @@ public class Property extends BaseEntity {
     @Column(name = "longitude")
     private Double longitude;
 
+    // Geohash of latitude/longitude, maintained on every write for spatial pruning
+    @Column(name = "geo_cell", length = 12)
+    private String geoCell;
+
     @PrePersist
     protected void onCreate() {
         if (listingDate == null) {
             listingDate = LocalDateTime.now();
         }
+        updateGeoCell();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updateGeoCell();
+    }
+
+    private void updateGeoCell() {
+        geoCell = latitude != null && longitude != null
+            ? GeoHash.encode(latitude, longitude, GeoHash.STORED_PRECISION)
+            : null;
     }
 
     public enum PropertyType {
@@ -0,0 +1,36 @@
+package com.realestate.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Running total of the successful payments into a property. The index on total_invested is the top invested
+ * properties leaderboard: reading the top N is a walk of its first N entries.
+ */
+@Entity
+@Table(name = "property_payment_totals",
+       indexes = {
+           @Index(name = "idx_property_payment_totals_total", columnList = "total_invested, property_id")
+       })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PropertyPaymentTotal {
+
+    @Id
+    @Column(name = "property_id")
+    private Long propertyId;
+
+    @Column(name = "total_invested", nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalInvested;
+
+    @Column(name = "payment_count", nullable = false)
+    private long paymentCount;
+
+    @Column(name = "last_payment_at")
+    private LocalDateTime lastPaymentAt;
+}
@@ -9,7 +9,8 @@ import java.time.LocalDateTime;
 @Table(name = "token_blacklist",
        indexes = {
            @Index(name = "idx_jti", columnList = "jti"),
-           @Index(name = "idx_expires_at", columnList = "expires_at")
+           @Index(name = "idx_expires_at", columnList = "expires_at"),
+           @Index(name = "idx_blacklisted_at", columnList = "blacklisted_at")
        })
 @Data
 @NoArgsConstructor
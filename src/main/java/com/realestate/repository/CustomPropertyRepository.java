@@ -1,6 +1,7 @@
 package com.realestate.repository;
 
 import com.realestate.model.entity.Property;
+import com.realestate.util.KeysetCursor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -40,10 +41,20 @@ public interface CustomPropertyRepository {
             int limit);
 
     /**
-     * Find properties within a geographical radius (in kilometers)
+     * Find properties within a geographical radius (in kilometers), nearest first
      */
     List<Property> findPropertiesWithinRadius(Double latitude, Double longitude, Double radiusKm);
 
+    /**
+     * Find the k properties nearest to a point, searching no further than maxRadiusKm
+     */
+    List<Property> findNearestProperties(Double latitude, Double longitude, int k, Double maxRadiusKm);
+
+    /**
+     * Find properties inside a latitude/longitude bounding box using the geohash cell index
+     */
+    List<Property> findPropertiesInBoundingBox(double minLat, double maxLat, double minLon, double maxLon);
+
     /**
      * Find properties with similar characteristics to a given property
      */
@@ -85,6 +96,16 @@ public interface CustomPropertyRepository {
             Map<String, Object> filters,
             Pageable pageable);
 
+    /**
+     * Keyset page of properties matching the filters, ordered by (sort column, id) and starting after the cursor
+     */
+    List<Property> searchPropertiesWithComplexFiltersAfter(
+            Map<String, Object> filters,
+            KeysetCursor.SortKey sortKey,
+            boolean ascending,
+            KeysetCursor after,
+            int limit);
+
     /**
      * Find properties suitable for rental investment
      */
@@ -1,11 +1,14 @@
 package com.realestate.repository;
 
 import com.realestate.model.entity.Property;
+import com.realestate.util.GeoHash;
+import com.realestate.util.KeysetCursor;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.Query;
 import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.*;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
@@ -22,9 +25,15 @@ import java.util.stream.Collectors;
 @Repository
 public class CustomPropertyRepositoryImpl implements CustomPropertyRepository {
 
+    private static final double INITIAL_NEAREST_RADIUS_KM = 1.0;
+
     @PersistenceContext
     private EntityManager entityManager;
 
+    // Market analytics are answered from the rollup once it has loaded; the aggregate queries below are the fallback
+    @Autowired
+    private PropertyMarketRollup marketRollup;
+
     @Override
     public List<Property> findPropertiesWithAdvancedSearch(
             Property.PropertyType propertyType,
@@ -139,35 +148,59 @@ public class CustomPropertyRepositoryImpl implements CustomPropertyRepository {
 
     @Override
     public List<Property> findPropertiesWithinRadius(Double latitude, Double longitude, Double radiusKm) {
-        String sql = """
-            SELECT p FROM Property p 
-            WHERE p.latitude IS NOT NULL 
-            AND p.longitude IS NOT NULL 
-            AND p.isDeleted = false
+        double[] box = GeoHash.boundingBox(latitude, longitude, radiusKm);
+
+        // Exact distance is computed once per candidate that survived the cell and bounding box pruning
+        return findGeoCandidates(box[0], box[1], box[2], box[3]).stream()
+                .map(p -> Map.entry(p, GeoHash.haversineKm(latitude, longitude, p.getLatitude(), p.getLongitude())))
+                .filter(entry -> entry.getValue() <= radiusKm)
+                .sorted(Map.Entry.comparingByValue())
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Property> findNearestProperties(Double latitude, Double longitude, int k, Double maxRadiusKm) {
+        double radius = Math.min(INITIAL_NEAREST_RADIUS_KM, maxRadiusKm);
+        while (true) {
+            List<Property> withinRadius = findPropertiesWithinRadius(latitude, longitude, radius);
+            if (withinRadius.size() >= k || radius >= maxRadiusKm) {
+                return new ArrayList<>(withinRadius.subList(0, Math.min(k, withinRadius.size())));
+            }
+            radius = Math.min(radius * 2, maxRadiusKm);
+        }
+    }
+
+    @Override
+    public List<Property> findPropertiesInBoundingBox(double minLat, double maxLat, double minLon, double maxLon) {
+        return findGeoCandidates(minLat, maxLat, minLon, maxLon);
+    }
+
+    private List<Property> findGeoCandidates(double minLat, double maxLat, double minLon, double maxLon) {
+        Set<String> cells = GeoHash.coverBoundingBox(minLat, maxLat, minLon, maxLon);
+
+        StringBuilder jpql = new StringBuilder("""
+            SELECT p FROM Property p
+            WHERE p.isDeleted = false
+            AND p.latitude BETWEEN :minLat AND :maxLat
+            AND p.longitude BETWEEN :minLon AND :maxLon
             AND (
-                6371 * acos(
-                    cos(radians(:latitude)) * 
-                    cos(radians(p.latitude)) * 
-                    cos(radians(p.longitude) - radians(:longitude)) + 
-                    sin(radians(:latitude)) * 
-                    sin(radians(p.latitude))
-                )
-            ) <= :radius
-            ORDER BY (
-                6371 * acos(
-                    cos(radians(:latitude)) * 
-                    cos(radians(p.latitude)) * 
-                    cos(radians(p.longitude) - radians(:longitude)) + 
-                    sin(radians(:latitude)) * 
-                    sin(radians(p.latitude))
-                )
-            ) ASC
-            """;
+            """);
+        int index = 0;
+        for (String ignored : cells) {
+            jpql.append(index > 0 ? " OR " : "").append("p.geoCell LIKE :cell").append(index++);
+        }
+        jpql.append(")");
 
-        TypedQuery<Property> query = entityManager.createQuery(sql, Property.class);
-        query.setParameter("latitude", latitude);
-        query.setParameter("longitude", longitude);
-        query.setParameter("radius", radiusKm);
+        TypedQuery<Property> query = entityManager.createQuery(jpql.toString(), Property.class);
+        query.setParameter("minLat", minLat);
+        query.setParameter("maxLat", maxLat);
+        query.setParameter("minLon", minLon);
+        query.setParameter("maxLon", maxLon);
+        index = 0;
+        for (String cell : cells) {
+            query.setParameter("cell" + index++, cell + "%");
+        }
 
         return query.getResultList();
     }
@@ -238,6 +271,9 @@ public class CustomPropertyRepositoryImpl implements CustomPropertyRepository {
 
     @Override
     public Map<String, Object> getLocationMarketAnalysis(String city, String state, Property.PropertyType propertyType) {
+        if (marketRollup.isLoaded()) {
+            return locationMarketAnalysisFromRollup(city, state, propertyType);
+        }
         Map<String, Object> analysis = new HashMap<>();
 
         // Get property count
@@ -444,6 +480,36 @@ public class CustomPropertyRepositoryImpl implements CustomPropertyRepository {
         return new PageImpl<>(properties, pageable, total);
     }
 
+    @Override
+    public List<Property> searchPropertiesWithComplexFiltersAfter(
+            Map<String, Object> filters,
+            KeysetCursor.SortKey sortKey,
+            boolean ascending,
+            KeysetCursor after,
+            int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Property> query = cb.createQuery(Property.class);
+        Root<Property> property = query.from(Property.class);
+
+        List<Predicate> predicates = buildPredicatesFromFilters(cb, property, filters);
+        if (after != null) {
+            predicates.add(seekPredicate(cb, property, sortKey, ascending, after));
+        }
+        query.where(predicates.toArray(new Predicate[0]));
+
+        // id breaks ties so the (sort column, id) order is total and pages never overlap
+        List<Order> orders = new ArrayList<>();
+        if (sortKey != KeysetCursor.SortKey.ID) {
+            orders.add(ascending ? cb.asc(property.get(sortKey.attribute())) : cb.desc(property.get(sortKey.attribute())));
+        }
+        orders.add(ascending ? cb.asc(property.get("id")) : cb.desc(property.get("id")));
+        query.orderBy(orders);
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
     @Override
     public List<Property> findRentalInvestmentProperties(
             BigDecimal maxPrice, 
@@ -533,7 +599,9 @@ public class CustomPropertyRepositoryImpl implements CustomPropertyRepository {
 
     @Override
     public Map<String, Object> getPropertyPriceTrends(String city, String state, Property.PropertyType propertyType) {
-        // Simplified implementation - in real scenario, this would analyze historical data
+        if (marketRollup.isLoaded()) {
+            return priceTrendsFromRollup(city, state, propertyType);
+        }
         Map<String, Object> trends = new HashMap<>();
         
         String avgPriceSql = """
@@ -605,6 +673,9 @@ public class CustomPropertyRepositoryImpl implements CustomPropertyRepository {
 
     @Override
     public List<Map<String, Object>> getPropertyMarketHeatMap(String state) {
+        if (marketRollup.isLoaded()) {
+            return marketHeatMapFromRollup(state);
+        }
         String sql = """
             SELECT p.city, COUNT(p) as propertyCount, AVG(p.price) as avgPrice,
                    AVG(p.price / p.area) as avgPricePerSqft
@@ -681,6 +752,9 @@ public class CustomPropertyRepositoryImpl implements CustomPropertyRepository {
 
     @Override
     public Map<String, Object> getPropertyInventoryAnalysis(String city, String state) {
+        if (marketRollup.isLoaded()) {
+            return inventoryAnalysisFromRollup(city, state);
+        }
         Map<String, Object> analysis = new HashMap<>();
 
         // Total properties
@@ -734,6 +808,93 @@ public class CustomPropertyRepositoryImpl implements CustomPropertyRepository {
         return analysis;
     }
 
+    // Rollup-backed market analytics, same response shapes as the aggregate queries
+    private Map<String, Object> locationMarketAnalysisFromRollup(String city, String state,
+                                                                 Property.PropertyType propertyType) {
+        PropertyMarketRollup.Summary summary = marketRollup.summarize(state, key -> key.isIn(city, propertyType));
+        Map<String, Long> statusDistribution = new HashMap<>();
+        marketRollup.summarizeBy(state, key -> key.isIn(city, propertyType), PropertyMarketRollup.BucketKey::status)
+                .forEach((status, statusSummary) -> statusDistribution.put(String.valueOf(status), statusSummary.count()));
+
+        Map<String, Object> analysis = new HashMap<>();
+        analysis.put("propertyCount", summary.count());
+        analysis.put("averagePrice", summary.averagePrice());
+        analysis.put("minPrice", summary.minPrice());
+        analysis.put("maxPrice", summary.maxPrice());
+        analysis.put("averagePricePerSqft", summary.averagePricePerSqft());
+        analysis.put("statusDistribution", statusDistribution);
+        analysis.put("city", city);
+        analysis.put("state", state);
+        analysis.put("propertyType", propertyType);
+        return analysis;
+    }
+
+    private Map<String, Object> priceTrendsFromRollup(String city, String state, Property.PropertyType propertyType) {
+        PropertyMarketRollup.Summary summary = marketRollup.summarize(state, key -> key.isIn(city, propertyType));
+        List<Map<String, Object>> monthly = marketRollup.summarizeBy(state,
+                        key -> key.isIn(city, propertyType) && key.month() != null, PropertyMarketRollup.BucketKey::month)
+                .entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(entry -> {
+                    Map<String, Object> point = new HashMap<>();
+                    point.put("month", entry.getKey().toString());
+                    point.put("propertyCount", entry.getValue().count());
+                    point.put("averagePrice", entry.getValue().averagePrice());
+                    point.put("averagePricePerSqft", entry.getValue().averagePricePerSqft());
+                    return point;
+                })
+                .collect(Collectors.toList());
+
+        Map<String, Object> trends = new HashMap<>();
+        trends.put("averagePrice", summary.averagePrice());
+        trends.put("averagePricePerSqft", summary.averagePricePerSqft());
+        trends.put("monthlyTrend", monthly);
+        trends.put("city", city);
+        trends.put("state", state);
+        trends.put("propertyType", propertyType);
+        return trends;
+    }
+
+    private List<Map<String, Object>> marketHeatMapFromRollup(String state) {
+        return marketRollup.summarizeBy(state, key -> true, PropertyMarketRollup.BucketKey::city)
+                .entrySet().stream()
+                .filter(entry -> entry.getValue().count() > 0)
+                .sorted(Comparator.comparingLong(
+                        (Map.Entry<String, PropertyMarketRollup.Summary> entry) -> entry.getValue().count()).reversed())
+                .map(entry -> {
+                    Map<String, Object> map = new HashMap<>();
+                    map.put("city", entry.getKey());
+                    map.put("propertyCount", entry.getValue().count());
+                    map.put("avgPrice", entry.getValue().averagePrice());
+                    map.put("avgPricePerSqft", entry.getValue().averagePricePerSqft());
+                    return map;
+                })
+                .collect(Collectors.toList());
+    }
+
+    private Map<String, Object> inventoryAnalysisFromRollup(String city, String state) {
+        long total = marketRollup.summarize(state, key -> key.isIn(city, null)).count();
+        long available = marketRollup.summarize(state,
+                key -> key.isIn(city, null) && key.status() == Property.PropertyStatus.AVAILABLE).count();
+
+        Map<String, Map<String, Object>> typeDistribution = new HashMap<>();
+        marketRollup.summarizeBy(state, key -> key.isIn(city, null), PropertyMarketRollup.BucketKey::type)
+                .forEach((type, summary) -> {
+                    Map<String, Object> typeData = new HashMap<>();
+                    typeData.put("count", summary.count());
+                    typeData.put("avgPrice", summary.averagePrice());
+                    typeDistribution.put(String.valueOf(type), typeData);
+                });
+
+        Map<String, Object> analysis = new HashMap<>();
+        analysis.put("totalProperties", total);
+        analysis.put("availableProperties", available);
+        analysis.put("typeDistribution", typeDistribution);
+        analysis.put("city", city);
+        analysis.put("state", state);
+        return analysis;
+    }
+
     // Helper methods
     private List<Predicate> buildPredicatesFromFilters(CriteriaBuilder cb, Root<Property> property, Map<String, Object> filters) {
         List<Predicate> predicates = new ArrayList<>();
@@ -771,6 +932,22 @@ public class CustomPropertyRepositoryImpl implements CustomPropertyRepository {
         return predicates;
     }
 
+    // (column, id) strictly after the cursor, written out so the database can range-scan the sort index
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Predicate seekPredicate(CriteriaBuilder cb, Root<Property> property, KeysetCursor.SortKey sortKey,
+                                    boolean ascending, KeysetCursor after) {
+        Path<Long> id = property.get("id");
+        Predicate idAfter = ascending ? cb.greaterThan(id, after.id()) : cb.lessThan(id, after.id());
+        if (sortKey == KeysetCursor.SortKey.ID) {
+            return idAfter;
+        }
+
+        Path<Comparable> column = property.get(sortKey.attribute());
+        Comparable value = after.value();
+        Predicate columnAfter = ascending ? cb.greaterThan(column, value) : cb.lessThan(column, value);
+        return cb.or(columnAfter, cb.and(cb.equal(column, value), idAfter));
+    }
+
     private Double calculatePropertyScore(Property property, Map<String, Object> preferences, Map<String, Double> weights) {
         double score = 0.0;
         
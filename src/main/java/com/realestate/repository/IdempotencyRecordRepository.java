@@ -0,0 +1,52 @@
+package com.realestate.repository;
+
+import com.realestate.model.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+    Optional<IdempotencyRecord> findByUserIdAndIdempotencyKey(Long userId, String idempotencyKey);
+
+    /**
+     * Insert the claim unless the key is already taken; 1 when this call claimed it. A concurrent claim of
+     * the same key waits on the unique index until the first transaction ends.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT IGNORE INTO idempotency_keys (user_id, idempotency_key, operation, created_at, expires_at)
+            VALUES (:userId, :key, :operation, :now, :expiresAt)
+            """, nativeQuery = true)
+    int claim(@Param("userId") Long userId, @Param("key") String key, @Param("operation") String operation,
+              @Param("now") LocalDateTime now, @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Take over a claim whose TTL has passed but which cleanup has not removed yet
+     */
+    @Modifying
+    @Query("""
+            UPDATE IdempotencyRecord r
+            SET r.operation = :operation, r.resultId = NULL, r.createdAt = :now, r.expiresAt = :expiresAt
+            WHERE r.userId = :userId AND r.idempotencyKey = :key AND r.expiresAt < :now
+            """)
+    int reclaimExpired(@Param("userId") Long userId, @Param("key") String key, @Param("operation") String operation,
+                       @Param("now") LocalDateTime now, @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.resultId = :resultId WHERE r.userId = :userId AND r.idempotencyKey = :key")
+    int complete(@Param("userId") Long userId, @Param("key") String key, @Param("resultId") Long resultId);
+
+    // Own transaction per call, so each cleanup chunk commits separately
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM idempotency_keys WHERE expires_at < :now LIMIT :limit", nativeQuery = true)
+    int deleteExpired(@Param("now") LocalDateTime now, @Param("limit") int limit);
+}
@@ -20,8 +20,6 @@ public interface InvestmentTransactionRepository extends JpaRepository<Investmen
 
     Optional<InvestmentTransaction> findByTransactionReference(String transactionReference);
 
-    Optional<InvestmentTransaction> findByIdempotencyKey(String idempotencyKey);
-
     List<InvestmentTransaction> findByUser(User user);
 
     Page<InvestmentTransaction> findByUser(User user, Pageable pageable);
@@ -47,6 +45,4 @@ public interface InvestmentTransactionRepository extends JpaRepository<Investmen
 
     @Query("SELECT SUM(t.netAmount) FROM InvestmentTransaction t WHERE t.createdAt >= :since AND t.status = 'COMPLETED'")
     Optional<BigDecimal> getTotalVolumeSince(@Param("since") LocalDateTime since);
-
-    boolean existsByIdempotencyKey(String idempotencyKey);
 }
@@ -0,0 +1,83 @@
+package com.realestate.repository;
+
+import com.realestate.model.entity.InvestorPaymentTotal;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface InvestorPaymentTotalRepository extends JpaRepository<InvestorPaymentTotal, Long> {
+
+    /**
+     * Add successful payments to the investor's running total; must join the transaction that marks them paid
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Modifying
+    @Query(value = """
+            INSERT INTO investor_payment_totals (investor_id, total_invested, payment_count, last_payment_at)
+            VALUES (:investorId, :amount, :count, :paidAt)
+            ON DUPLICATE KEY UPDATE
+                total_invested = total_invested + VALUES(total_invested),
+                payment_count = payment_count + VALUES(payment_count),
+                last_payment_at = GREATEST(COALESCE(last_payment_at, VALUES(last_payment_at)), VALUES(last_payment_at))
+            """, nativeQuery = true)
+    int add(@Param("investorId") Long investorId, @Param("amount") BigDecimal amount, @Param("count") long count,
+            @Param("paidAt") LocalDateTime paidAt);
+
+    /**
+     * Number of the successful payment count and amount sums that disagree with these totals; 0 when they are
+     * in step. One statement, so both sides are read from the same snapshot without locking.
+     */
+    @Query(value = """
+            SELECT ((SELECT COUNT(*) FROM payments WHERE status = 'SUCCESS' AND investor_id IS NOT NULL)
+                        <> (SELECT COALESCE(SUM(payment_count), 0) FROM investor_payment_totals))
+                 + ((SELECT COALESCE(SUM(investment_amount), 0) FROM payments WHERE status = 'SUCCESS' AND investor_id IS NOT NULL)
+                        <> (SELECT COALESCE(SUM(total_invested), 0) FROM investor_payment_totals))
+            """, nativeQuery = true)
+    int countDriftedSums();
+
+    /**
+     * Highest investor id found in payments or in the totals; a rebuild walks ids up to it
+     */
+    @Query(value = """
+            SELECT GREATEST(COALESCE((SELECT MAX(investor_id) FROM payments), 0),
+                            COALESCE((SELECT MAX(investor_id) FROM investor_payment_totals), 0))
+            """, nativeQuery = true)
+    long findMaxKey();
+
+    /**
+     * Share-lock the payments of the investor id range, waiting for transactions that are marking one of them paid.
+     * A rebuild of the range then reads every committed success, and later ones add on top of what it writes.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Query(value = "SELECT id FROM payments WHERE investor_id BETWEEN :fromId AND :toId FOR SHARE", nativeQuery = true)
+    List<Long> lockPaymentsInRange(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Modifying
+    @Query(value = "DELETE FROM investor_payment_totals WHERE investor_id BETWEEN :fromId AND :toId", nativeQuery = true)
+    int deleteRange(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    /**
+     * Recompute the totals of the investor id range from the payments table; run after deleteRange, with the
+     * range's payments locked
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Modifying
+    @Query(value = """
+            INSERT INTO investor_payment_totals (investor_id, total_invested, payment_count, last_payment_at)
+            SELECT investor_id, SUM(investment_amount), COUNT(*), MAX(paid_at)
+            FROM payments
+            WHERE status = 'SUCCESS' AND investor_id BETWEEN :fromId AND :toId
+            GROUP BY investor_id
+            """, nativeQuery = true)
+    int insertRange(@Param("fromId") long fromId, @Param("toId") long toId);
+}
@@ -0,0 +1,73 @@
+package com.realestate.repository;
+
+import com.realestate.model.entity.PaymentCallback;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PaymentCallbackRepository extends JpaRepository<PaymentCallback, Long> {
+
+    /**
+     * Journal a callback in its own transaction; 0 when one for the same payment id was already journaled
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            INSERT IGNORE INTO payment_callbacks
+                (razorpay_order_id, razorpay_payment_id, signature, source, status, attempts, received_at)
+            VALUES (:orderId, :paymentId, :signature, :source, 'RECEIVED', 0, :now)
+            """, nativeQuery = true)
+    int append(@Param("orderId") String orderId, @Param("paymentId") String paymentId,
+               @Param("signature") String signature, @Param("source") String source,
+               @Param("now") LocalDateTime now);
+
+    /**
+     * Oldest unprocessed callbacks, locked for the caller's transaction; rows another worker holds are skipped
+     */
+    @Query(value = """
+            SELECT * FROM payment_callbacks
+            WHERE status = 'RECEIVED'
+            ORDER BY id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<PaymentCallback> claimBatch(@Param("limit") int limit);
+
+    /**
+     * Ids of the oldest unprocessed callbacks, without locking them
+     */
+    @Query(value = "SELECT id FROM payment_callbacks WHERE status = 'RECEIVED' ORDER BY id LIMIT :limit",
+           nativeQuery = true)
+    List<Long> findReceivedIds(@Param("limit") int limit);
+
+    /**
+     * The callback, locked for the caller's transaction, if it is still unprocessed and no other worker holds it
+     */
+    @Query(value = "SELECT * FROM payment_callbacks WHERE id = :id AND status = 'RECEIVED' FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    Optional<PaymentCallback> claim(@Param("id") Long id);
+
+    /**
+     * Count a failed attempt in its own transaction; the callback becomes FAILED once maxAttempts is reached
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            UPDATE payment_callbacks
+            SET status = CASE WHEN attempts + 1 >= :maxAttempts THEN 'FAILED' ELSE status END,
+                processed_at = CASE WHEN attempts + 1 >= :maxAttempts THEN :now ELSE processed_at END,
+                failure_reason = :reason,
+                attempts = attempts + 1
+            WHERE id = :id AND status = 'RECEIVED'
+            """, nativeQuery = true)
+    int recordFailure(@Param("id") Long id, @Param("reason") String reason, @Param("maxAttempts") int maxAttempts,
+                      @Param("now") LocalDateTime now);
+}
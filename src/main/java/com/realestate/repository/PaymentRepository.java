@@ -11,9 +11,10 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -52,26 +53,29 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
         @Param("status") PaymentStatus status
     );
 
-    @Query("SELECT SUM(p.investmentAmount) FROM Payment p " +
-           "WHERE p.investor.id = :investorId AND p.status = 'SUCCESS'")
-    BigDecimal getTotalInvestmentByInvestor(@Param("investorId") Long investorId);
-
-    @Query("SELECT SUM(p.investmentAmount) FROM Payment p " +
-           "WHERE p.property.id = :propertyId AND p.status = 'SUCCESS'")
-    BigDecimal getTotalInvestmentForProperty(@Param("propertyId") Long propertyId);
-
-    @Query("SELECT COUNT(p) FROM Payment p " +
-           "WHERE p.investor.id = :investorId AND p.status = 'SUCCESS'")
-    Long getSuccessfulPaymentCountByInvestor(@Param("investorId") Long investorId);
-
     @Query("SELECT p FROM Payment p WHERE p.status = 'PENDING' " +
            "AND p.createdAt < :expiryTime")
     List<Payment> findExpiredPayments(@Param("expiryTime") LocalDateTime expiryTime);
 
+    // Next key-ordered chunk of expirable ids; a plain read, so no locks are taken on idx_payment_status
+    @Query(value = """
+            SELECT id FROM payments
+            WHERE status = 'PENDING' AND created_at < :expiryTime AND id > :afterId
+            ORDER BY id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Long> findExpirableIds(@Param("expiryTime") LocalDateTime expiryTime, @Param("afterId") long afterId,
+                                @Param("limit") int limit);
+
+    // Own transaction per chunk; only the listed rows are locked, and ones paid meanwhile are left alone
+    @Transactional
     @Modifying
-    @Query("UPDATE Payment p SET p.status = 'EXPIRED' " +
-           "WHERE p.status = 'PENDING' AND p.createdAt < :expiryTime")
-    int expireOldPayments(@Param("expiryTime") LocalDateTime expiryTime);
+    @Query("UPDATE Payment p SET p.status = 'EXPIRED', p.updatedAt = :now, p.version = p.version + 1 " +
+           "WHERE p.id IN :ids AND p.status = 'PENDING'")
+    int expireByIds(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Query("SELECT p.createdAt FROM Payment p WHERE p.status = 'PENDING' ORDER BY p.id")
+    List<LocalDateTime> findPendingCreatedAt(Pageable pageable);
 
     @Query("SELECT p FROM Payment p WHERE p.status = 'SUCCESS' " +
            "AND p.emailSent = false")
@@ -88,12 +92,26 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
            nativeQuery = true)
     List<Object[]> getDailyPaymentStatistics(@Param("startDate") LocalDateTime startDate);
 
-    @Query("SELECT p.property, COUNT(p), SUM(p.investmentAmount) " +
-           "FROM Payment p " +
-           "WHERE p.status = 'SUCCESS' " +
-           "GROUP BY p.property " +
-           "ORDER BY SUM(p.investmentAmount) DESC")
-    List<Object[]> getTopInvestedProperties(Pageable pageable);
-
     boolean existsByInvestorAndPropertyAndStatus(User investor, Property property, PaymentStatus status);
+
+    @Query("SELECT p FROM Payment p LEFT JOIN FETCH p.investor LEFT JOIN FETCH p.property " +
+           "WHERE p.razorpayOrderId IN :orderIds OR p.orderId IN :orderIds")
+    List<Payment> findByGatewayOrderIds(@Param("orderIds") Collection<String> orderIds);
+
+    @Query("SELECT p.investor.id FROM Payment p WHERE p.razorpayOrderId = :orderId OR p.orderId = :orderId")
+    List<Long> findInvestorIdsByGatewayOrderId(@Param("orderId") String orderId);
+
+    // Completes a reservation once the gateway has returned its order; own transaction, no entity is loaded
+    @Transactional
+    @Modifying
+    @Query("UPDATE Payment p SET p.razorpayOrderId = :razorpayOrderId, p.version = p.version + 1 " +
+           "WHERE p.id = :paymentId AND p.status = 'PENDING' AND p.razorpayOrderId IS NULL")
+    int attachGatewayOrder(@Param("paymentId") Long paymentId, @Param("razorpayOrderId") String razorpayOrderId);
+
+    // Releases a reservation whose gateway order could not be created, so the investor can try again
+    @Transactional
+    @Modifying
+    @Query("UPDATE Payment p SET p.status = 'FAILED', p.failureReason = :reason, p.version = p.version + 1 " +
+           "WHERE p.id = :paymentId AND p.status = 'PENDING' AND p.razorpayOrderId IS NULL")
+    int failReservation(@Param("paymentId") Long paymentId, @Param("reason") String reason);
 }
\ No newline at end of file
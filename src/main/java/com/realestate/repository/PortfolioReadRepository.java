@@ -0,0 +1,129 @@
+package com.realestate.repository;
+
+import com.realestate.model.dto.HoldingDTO;
+import com.realestate.model.entity.Holding;
+import com.realestate.model.entity.Portfolio;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Read model for portfolio pages. Each method answers in one round trip, whatever the number of holdings,
+ * and carries the owner id so the caller can check access without loading the Portfolio entity.
+ */
+@Repository
+public class PortfolioReadRepository {
+
+    public record PortfolioSummaryView(Long id, Long userId, String name, BigDecimal totalInvested,
+                                       BigDecimal totalCurrentValue, BigDecimal unrealizedGains,
+                                       BigDecimal realizedGains, int holdingsCount,
+                                       Portfolio.RiskProfile riskProfile) {}
+
+    public record PortfolioHoldingsView(Long portfolioId, Long userId, List<HoldingDTO> holdings) {}
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Portfolio totals with the number of active holdings counted in the same query
+     */
+    public Optional<PortfolioSummaryView> findSummary(Long portfolioId) {
+        String sql = """
+            SELECT pf.id, pf.user_id, pf.portfolio_name, pf.total_invested, pf.total_current_value,
+                   pf.unrealized_gains, pf.realized_gains, pf.risk_profile,
+                   (SELECT COUNT(*) FROM holdings h
+                    WHERE h.portfolio_id = pf.id AND h.status = 'ACTIVE') AS holdings_count
+            FROM portfolios pf
+            WHERE pf.id = ?
+            """;
+
+        List<PortfolioSummaryView> rows = jdbcTemplate.query(sql, (rs, rowNum) -> new PortfolioSummaryView(
+                rs.getLong("id"),
+                rs.getLong("user_id"),
+                rs.getString("portfolio_name"),
+                rs.getBigDecimal("total_invested"),
+                rs.getBigDecimal("total_current_value"),
+                rs.getBigDecimal("unrealized_gains"),
+                rs.getBigDecimal("realized_gains"),
+                rs.getInt("holdings_count"),
+                rs.getString("risk_profile") != null ?
+                        Portfolio.RiskProfile.valueOf(rs.getString("risk_profile")) : null
+        ), portfolioId);
+        return rows.stream().findFirst();
+    }
+
+    /**
+     * Active holdings joined with their property, from the portfolio row outwards so an empty portfolio
+     * still comes back with its owner
+     */
+    public Optional<PortfolioHoldingsView> findActiveHoldings(Long portfolioId) {
+        String sql = """
+            SELECT pf.id AS portfolio_id, pf.user_id,
+                   h.id, h.property_id, h.quantity, h.average_cost_basis, h.total_cost_basis,
+                   h.current_value, h.unrealized_gain_loss, h.status, h.created_at, h.updated_at,
+                   p.title, p.location, p.price
+            FROM portfolios pf
+            LEFT JOIN holdings h ON h.portfolio_id = pf.id AND h.status = 'ACTIVE'
+            LEFT JOIN properties p ON p.id = h.property_id
+            WHERE pf.id = ?
+            ORDER BY h.id
+            """;
+
+        ResultSetExtractor<Optional<PortfolioHoldingsView>> extractor = rs -> {
+            if (!rs.next()) {
+                return Optional.empty();
+            }
+            Long userId = rs.getLong("user_id");
+            List<HoldingDTO> holdings = new ArrayList<>();
+            do {
+                if (rs.getObject("id") != null) {
+                    holdings.add(mapHolding(rs, portfolioId));
+                }
+            } while (rs.next());
+            return Optional.of(new PortfolioHoldingsView(portfolioId, userId, holdings));
+        };
+        return jdbcTemplate.query(sql, extractor, portfolioId);
+    }
+
+    private static HoldingDTO mapHolding(ResultSet rs, Long portfolioId) throws SQLException {
+        BigDecimal totalCostBasis = rs.getBigDecimal("total_cost_basis");
+        BigDecimal unrealizedGainLoss = rs.getBigDecimal("unrealized_gain_loss");
+        // Same rule as Holding.getUnrealizedGainLossPercentage
+        BigDecimal percentage = totalCostBasis == null || unrealizedGainLoss == null || totalCostBasis.signum() == 0
+                ? BigDecimal.ZERO
+                : unrealizedGainLoss.divide(totalCostBasis, 4, RoundingMode.HALF_UP).multiply(new BigDecimal("100"));
+
+        return HoldingDTO.builder()
+                .id(rs.getLong("id"))
+                .portfolioId(portfolioId)
+                .propertyId(rs.getLong("property_id"))
+                .propertyTitle(rs.getString("title"))
+                .propertyLocation(rs.getString("location"))
+                .propertyPrice(rs.getBigDecimal("price"))
+                .quantity(rs.getBigDecimal("quantity"))
+                .averageCostBasis(rs.getBigDecimal("average_cost_basis"))
+                .totalCostBasis(totalCostBasis)
+                .currentValue(rs.getBigDecimal("current_value"))
+                .unrealizedGainLoss(unrealizedGainLoss)
+                .unrealizedGainLossPercentage(percentage)
+                .status(Holding.HoldingStatus.valueOf(rs.getString("status")))
+                .createdAt(toLocalDateTime(rs.getTimestamp("created_at")))
+                .updatedAt(toLocalDateTime(rs.getTimestamp("updated_at")))
+                .build();
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
@@ -0,0 +1,162 @@
+package com.realestate.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC operations for portfolio valuation. Holding and portfolio values are written with batched or
+ * set-based statements instead of loading and saving each Holding entity. Every write bumps version so
+ * entities loaded before it fail their optimistic check rather than overwrite the new values.
+ */
+@Repository
+public class PortfolioValuationRepository {
+
+    /**
+     * An active holding with the current price of its property
+     */
+    public record HoldingValue(Long holdingId, Long portfolioId, BigDecimal quantity, BigDecimal totalCostBasis,
+                               BigDecimal currentValue, BigDecimal price) {}
+
+    private static final String HOLDING_VALUE_SELECT = """
+            SELECT h.id, h.portfolio_id, h.quantity, h.total_cost_basis, h.current_value, p.price
+            FROM holdings h
+            JOIN properties p ON p.id = h.property_id
+            WHERE h.status = 'ACTIVE'
+            """;
+
+    private static final RowMapper<HoldingValue> HOLDING_VALUE_ROW_MAPPER = (rs, rowNum) -> new HoldingValue(
+            rs.getLong("id"),
+            rs.getLong("portfolio_id"),
+            rs.getBigDecimal("quantity"),
+            rs.getBigDecimal("total_cost_basis"),
+            rs.getBigDecimal("current_value"),
+            rs.getBigDecimal("price"));
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Active holdings of the given properties, locked until the surrounding transaction ends so the deltas
+     * computed from them stay valid
+     */
+    public List<HoldingValue> lockHoldingsOfProperties(Collection<Long> propertyIds) {
+        if (propertyIds.isEmpty()) {
+            return List.of();
+        }
+        String placeholders = String.join(", ", Collections.nCopies(propertyIds.size(), "?"));
+        String sql = HOLDING_VALUE_SELECT + "AND h.property_id IN (" + placeholders + ") FOR UPDATE";
+        return jdbcTemplate.query(sql, HOLDING_VALUE_ROW_MAPPER, propertyIds.toArray());
+    }
+
+    /**
+     * Write current_value and the unrealized gain derived from it for each holding, in one batch
+     */
+    public void updateHoldingValues(List<HoldingValue> holdings) {
+        if (holdings.isEmpty()) {
+            return;
+        }
+        String sql = """
+            UPDATE holdings
+            SET current_value = ?,
+                unrealized_gain_loss = ?,
+                version = version + 1,
+                updated_at = CURRENT_TIMESTAMP
+            WHERE id = ?
+            """;
+
+        List<Object[]> batchArgs = new ArrayList<>(holdings.size());
+        for (HoldingValue holding : holdings) {
+            batchArgs.add(new Object[] {
+                    holding.currentValue(),
+                    holding.currentValue().subtract(holding.totalCostBasis()),
+                    holding.holdingId()
+            });
+        }
+        jdbcTemplate.batchUpdate(sql, batchArgs);
+    }
+
+    /**
+     * Shift each portfolio's current value and unrealized gains by its delta, in one batch. The increment is
+     * applied in SQL, so concurrent deltas on the same portfolio compose.
+     */
+    public void applyPortfolioDeltas(Map<Long, BigDecimal> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        String sql = """
+            UPDATE portfolios
+            SET total_current_value = total_current_value + ?,
+                unrealized_gains = unrealized_gains + ?,
+                version = version + 1,
+                updated_at = CURRENT_TIMESTAMP
+            WHERE id = ?
+            """;
+
+        List<Object[]> batchArgs = new ArrayList<>(deltas.size());
+        deltas.forEach((portfolioId, delta) -> batchArgs.add(new Object[] {delta, delta, portfolioId}));
+        jdbcTemplate.batchUpdate(sql, batchArgs);
+    }
+
+    /**
+     * Revalue active holdings at their property's price in one statement. With portfolioId null, every
+     * active holding; otherwise only that portfolio's. Holdings already at the right value are left alone.
+     */
+    public int revalueHoldings(Long portfolioId) {
+        String sql = """
+            UPDATE holdings h
+            JOIN properties p ON p.id = h.property_id
+            SET h.current_value = ROUND(h.quantity * p.price, 2),
+                h.unrealized_gain_loss = ROUND(h.quantity * p.price, 2) - h.total_cost_basis,
+                h.version = h.version + 1,
+                h.updated_at = CURRENT_TIMESTAMP
+            WHERE h.status = 'ACTIVE'
+            AND (h.current_value IS NULL OR h.current_value <> ROUND(h.quantity * p.price, 2))
+            """;
+
+        if (portfolioId == null) {
+            return jdbcTemplate.update(sql);
+        }
+        return jdbcTemplate.update(sql + "AND h.portfolio_id = ?", portfolioId);
+    }
+
+    /**
+     * Recompute invested, current value and unrealized gains from active holdings in one statement. With
+     * portfolioId null, every active portfolio; otherwise only that one.
+     */
+    public int refreshPortfolioTotals(Long portfolioId) {
+        String holdingFilter = portfolioId == null ? "" : "AND portfolio_id = ? ";
+        String portfolioFilter = portfolioId == null ? "pf.status = 'ACTIVE'" : "pf.id = ?";
+        String sql = """
+            UPDATE portfolios pf
+            LEFT JOIN (
+                SELECT portfolio_id,
+                       SUM(current_value) AS current_value,
+                       SUM(total_cost_basis) AS cost_basis
+                FROM holdings
+                WHERE status = 'ACTIVE'
+                %s
+                GROUP BY portfolio_id
+            ) totals ON totals.portfolio_id = pf.id
+            SET pf.total_current_value = COALESCE(totals.current_value, 0),
+                pf.total_invested = COALESCE(totals.cost_basis, 0),
+                pf.unrealized_gains = COALESCE(totals.current_value, 0) - COALESCE(totals.cost_basis, 0),
+                pf.version = pf.version + 1,
+                pf.updated_at = CURRENT_TIMESTAMP
+            WHERE %s
+            """.formatted(holdingFilter, portfolioFilter);
+
+        if (portfolioId == null) {
+            return jdbcTemplate.update(sql);
+        }
+        return jdbcTemplate.update(sql, portfolioId, portfolioId);
+    }
+}
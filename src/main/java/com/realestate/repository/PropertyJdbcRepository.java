@@ -1,9 +1,12 @@
 package com.realestate.repository;
 
 import com.realestate.model.entity.Property;
+import com.realestate.util.GeoHash;
+import com.realestate.util.KeysetCursor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
@@ -14,8 +17,10 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * JDBC implementation for complex property operations using JdbcTemplate
@@ -150,10 +155,32 @@ public class PropertyJdbcRepository {
             }
         }
 
-        // Sorting
-        String sortBy = (String) searchCriteria.getOrDefault("sortBy", "created_at");
-        String sortDirection = (String) searchCriteria.getOrDefault("sortDirection", "DESC");
-        sql.append(" ORDER BY p.").append(sortBy).append(" ").append(sortDirection);
+        // Sorting on a whitelisted column with id as tie-breaker, so the order is total and seekable
+        KeysetCursor.SortKey sortKey = KeysetCursor.SortKey.from(
+            (String) searchCriteria.getOrDefault("sortBy", "created_at"));
+        boolean ascending = KeysetCursor.isAscending((String) searchCriteria.getOrDefault("sortDirection", "DESC"));
+        String direction = ascending ? "ASC" : "DESC";
+
+        // Keyset pagination: continue strictly after the (sort column, id) of the previous page's last row
+        KeysetCursor after = (KeysetCursor) searchCriteria.get("after");
+        if (after != null) {
+            String comparison = ascending ? " > ?" : " < ?";
+            if (sortKey == KeysetCursor.SortKey.ID) {
+                sql.append(" AND p.id").append(comparison);
+            } else {
+                String column = "p." + sortKey.column();
+                sql.append(" AND (").append(column).append(comparison)
+                   .append(" OR (").append(column).append(" = ? AND p.id").append(comparison).append("))");
+                parameters.add(after.value());
+                parameters.add(after.value());
+            }
+            parameters.add(after.id());
+        }
+
+        sql.append(" ORDER BY p.").append(sortKey.column()).append(" ").append(direction);
+        if (sortKey != KeysetCursor.SortKey.ID) {
+            sql.append(", p.id ").append(direction);
+        }
 
         // Pagination
         if (searchCriteria.containsKey("limit")) {
@@ -227,22 +254,6 @@ public class PropertyJdbcRepository {
         return analytics;
     }
 
-    /**
-     * Batch update property prices based on market trends
-     */
-    public int batchUpdatePropertyPrices(String city, String state, BigDecimal adjustmentPercentage) {
-        String sql = """
-            UPDATE properties 
-            SET price = price * (1 + ? / 100),
-                updated_at = CURRENT_TIMESTAMP
-            WHERE city = ? AND state = ? 
-            AND status = 'AVAILABLE' 
-            AND is_deleted = false
-            """;
-
-        return jdbcTemplate.update(sql, adjustmentPercentage, city, state);
-    }
-
     /**
      * Get property investment ROI calculations
      */
@@ -281,25 +292,199 @@ public class PropertyJdbcRepository {
     }
 
     /**
-     * Find properties within geographical bounds using spatial query
+     * Find properties within geographical bounds, pruned by geohash cell prefixes before the range check
      */
     public List<Property> findPropertiesInBounds(double minLat, double maxLat, double minLon, double maxLon) {
-        String sql = """
+        Set<String> cells = GeoHash.coverBoundingBox(minLat, maxLat, minLon, maxLon);
+
+        StringBuilder sql = new StringBuilder("""
             SELECT * FROM properties 
             WHERE latitude BETWEEN ? AND ?
             AND longitude BETWEEN ? AND ?
-            AND latitude IS NOT NULL 
-            AND longitude IS NOT NULL
             AND is_deleted = false
-            ORDER BY 
-                (POW(latitude - ?, 2) + POW(longitude - ?, 2)) ASC
-            """;
+            AND (
+            """);
+        List<Object> parameters = new ArrayList<>(List.of(minLat, maxLat, minLon, maxLon));
+        for (String cell : cells) {
+            sql.append(parameters.size() > 4 ? " OR " : "").append("geo_cell LIKE ?");
+            parameters.add(cell + "%");
+        }
+        sql.append(")");
 
         double centerLat = (minLat + maxLat) / 2;
         double centerLon = (minLon + maxLon) / 2;
 
-        return jdbcTemplate.query(sql, PROPERTY_ROW_MAPPER, 
-                                minLat, maxLat, minLon, maxLon, centerLat, centerLon);
+        List<Property> properties = jdbcTemplate.query(sql.toString(), PROPERTY_ROW_MAPPER, parameters.toArray());
+        properties.sort(Comparator.comparingDouble(p ->
+                GeoHash.haversineKm(centerLat, centerLon, p.getLatitude(), p.getLongitude())));
+        return properties;
+    }
+
+    /**
+     * Populate geo_cell for rows written before the column existed or by bulk SQL
+     */
+    public int backfillGeoCells() {
+        String selectSql = """
+            SELECT id, latitude, longitude FROM properties
+            WHERE geo_cell IS NULL
+            AND latitude IS NOT NULL
+            AND longitude IS NOT NULL
+            """;
+
+        List<Object[]> updates = jdbcTemplate.query(selectSql, (rs, rowNum) -> new Object[] {
+                GeoHash.encode(rs.getDouble("latitude"), rs.getDouble("longitude"), GeoHash.STORED_PRECISION),
+                rs.getLong("id")
+        });
+
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE properties SET geo_cell = ? WHERE id = ?", updates);
+        }
+        return updates.size();
+    }
+
+    /**
+     * Columns feeding the market analytics rollup. With since null, every live property; otherwise every
+     * property updated at or after since, soft-deleted ones included so the rollup can drop them.
+     */
+    public List<Property> findRollupRows(LocalDateTime since) {
+        String columns = """
+            SELECT id, price, area, property_type, status, city, state, listing_date, created_at, updated_at, is_deleted
+            FROM properties
+            """;
+        RowMapper<Property> mapper = (rs, rowNum) -> {
+            Property property = Property.builder()
+                    .price(rs.getBigDecimal("price"))
+                    .area(rs.getBigDecimal("area"))
+                    .propertyType(rs.getString("property_type") != null ?
+                                 Property.PropertyType.valueOf(rs.getString("property_type")) : null)
+                    .status(rs.getString("status") != null ?
+                           Property.PropertyStatus.valueOf(rs.getString("status")) : null)
+                    .city(rs.getString("city"))
+                    .state(rs.getString("state"))
+                    .listingDate(rs.getTimestamp("listing_date") != null ?
+                               rs.getTimestamp("listing_date").toLocalDateTime() : null)
+                    .build();
+            property.setId(rs.getLong("id"));
+            property.setCreatedAt(rs.getTimestamp("created_at") != null ?
+                                rs.getTimestamp("created_at").toLocalDateTime() : null);
+            property.setUpdatedAt(rs.getTimestamp("updated_at") != null ?
+                                rs.getTimestamp("updated_at").toLocalDateTime() : null);
+            property.setIsDeleted(rs.getBoolean("is_deleted"));
+            return property;
+        };
+
+        if (since == null) {
+            return jdbcTemplate.query(columns + "WHERE is_deleted = false", mapper);
+        }
+        return jdbcTemplate.query(columns + "WHERE updated_at >= ?", mapper, Timestamp.valueOf(since));
+    }
+
+    /**
+     * Load only the searchable columns of every live property, used to build the in-memory search index
+     * without hydrating amenities, images or owners
+     */
+    public List<Property> findSearchIndexRows() {
+        String sql = """
+            SELECT id, price, area, bedrooms, bathrooms, property_type, status, location, city, state
+            FROM properties
+            WHERE is_deleted = false
+            """;
+
+        return jdbcTemplate.query(sql, searchIndexRowMapper());
+    }
+
+    /**
+     * Load the searchable columns of every property touched since the given time, deleted ones included,
+     * so the search index can catch up with writes made outside PropertyService
+     */
+    public List<Property> findSearchIndexRowsUpdatedSince(LocalDateTime since) {
+        String sql = """
+            SELECT id, price, area, bedrooms, bathrooms, property_type, status, location, city, state, is_deleted
+            FROM properties
+            WHERE updated_at >= ?
+            """;
+
+        RowMapper<Property> mapper = searchIndexRowMapper();
+        return jdbcTemplate.query(sql, (rs, rowNum) -> {
+            Property property = mapper.mapRow(rs, rowNum);
+            property.setIsDeleted(rs.getBoolean("is_deleted"));
+            return property;
+        }, Timestamp.valueOf(since));
+    }
+
+    /**
+     * Count live properties, used to detect hard deletes the search index has not seen
+     */
+    public long countSearchIndexRows() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM properties WHERE is_deleted = false", Long.class);
+        return count != null ? count : 0L;
+    }
+
+    private RowMapper<Property> searchIndexRowMapper() {
+        return (rs, rowNum) -> {
+            Property property = Property.builder()
+                    .price(rs.getBigDecimal("price"))
+                    .area(rs.getBigDecimal("area"))
+                    .bedrooms((Integer) rs.getObject("bedrooms"))
+                    .bathrooms((Integer) rs.getObject("bathrooms"))
+                    .propertyType(rs.getString("property_type") != null ?
+                                 Property.PropertyType.valueOf(rs.getString("property_type")) : null)
+                    .status(rs.getString("status") != null ?
+                           Property.PropertyStatus.valueOf(rs.getString("status")) : null)
+                    .location(rs.getString("location"))
+                    .city(rs.getString("city"))
+                    .state(rs.getString("state"))
+                    .build();
+            property.setId(rs.getLong("id"));
+            return property;
+        };
+    }
+
+    /**
+     * Load price, rental and expense columns of every rented-out listing for batch investment screening
+     */
+    public List<Property> findScreeningRows() {
+        String sql = """
+            SELECT id, title, price, monthly_rental, annual_maintenance, property_tax, hoa_fees, insurance_cost
+            FROM properties
+            WHERE is_deleted = false
+            AND monthly_rental IS NOT NULL
+            """;
+
+        return jdbcTemplate.query(sql, (rs, rowNum) -> {
+            Property property = Property.builder()
+                    .title(rs.getString("title"))
+                    .price(rs.getBigDecimal("price"))
+                    .monthlyRental(rs.getBigDecimal("monthly_rental"))
+                    .annualMaintenance(rs.getBigDecimal("annual_maintenance"))
+                    .propertyTax(rs.getBigDecimal("property_tax"))
+                    .hoaFees(rs.getBigDecimal("hoa_fees"))
+                    .insuranceCost(rs.getBigDecimal("insurance_cost"))
+                    .build();
+            property.setId(rs.getLong("id"));
+            return property;
+        });
+    }
+
+    /**
+     * Stream live properties to the consumer one row at a time through a forward-only cursor, oldest id first,
+     * so callers can export the catalog without holding it in memory.
+     * When since is given only rows updated at or after it are read.
+     */
+    public void streamProperties(LocalDateTime since, int fetchSize, Consumer<Property> consumer) {
+        String sql = since == null
+            ? "SELECT p.* FROM properties p WHERE p.is_deleted = false ORDER BY p.id"
+            : "SELECT p.* FROM properties p WHERE p.is_deleted = false AND p.updated_at >= ? ORDER BY p.id";
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            // Honoured as a server-side cursor by MySQL because the datasource URL enables useCursorFetch
+            ps.setFetchSize(fetchSize);
+            if (since != null) {
+                ps.setTimestamp(1, Timestamp.valueOf(since));
+            }
+            return ps;
+        }, (RowCallbackHandler) rs -> consumer.accept(PROPERTY_ROW_MAPPER.mapRow(rs, 0)));
     }
 
     /**
@@ -0,0 +1,286 @@
+package com.realestate.repository;
+
+import com.realestate.model.entity.Property;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * In-memory rollup of live properties by state, city, type, status and listing month, keeping count,
+ * price sum, min and max, and price per sqft per bucket. The market analytics queries read from it instead
+ * of aggregating the properties table.
+ * Built at startup, then refreshed on a schedule from rows whose updated_at moved since the last refresh:
+ * each property's previous contribution is taken out of its old bucket and the new one added.
+ * Hard deletes do not touch updated_at, so they are reported through remove and caught by the nightly rebuild.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PropertyMarketRollup {
+
+    private static final int SCALE = 2;
+
+    public record BucketKey(String state, String city, Property.PropertyType type, Property.PropertyStatus status,
+                            YearMonth month) {
+
+        /**
+         * Whether the bucket is in the city and, unless type is null, of that type
+         */
+        public boolean isIn(String city, Property.PropertyType type) {
+            return Objects.equals(this.city, city) && (type == null || this.type == type);
+        }
+    }
+
+    /**
+     * Aggregate over one or more buckets; averages are null when nothing qualifies
+     */
+    public record Summary(long count, BigDecimal averagePrice, BigDecimal minPrice, BigDecimal maxPrice,
+                          BigDecimal averagePricePerSqft) {}
+
+    private record Contribution(BucketKey key, BigDecimal price, BigDecimal pricePerSqft) {}
+
+    private final PropertyJdbcRepository propertyJdbcRepository;
+
+    // Rows committed just before a refresh may carry an updated_at older than the watermark
+    @Value("${app.analytics.refresh-overlap:2m}")
+    private Duration refreshOverlap = Duration.ofMinutes(2);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<String, Map<BucketKey, Bucket>> bucketsByState = new HashMap<>();
+    private Map<Long, Contribution> contributions = new HashMap<>();
+    private LocalDateTime watermark;
+    private volatile boolean loaded;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Market rollup warm-up failed, analytics will aggregate the table until it loads: {}",
+                    e.getMessage());
+        }
+    }
+
+    /**
+     * Recompute every bucket from the table
+     */
+    @Scheduled(cron = "${app.analytics.rebuild-cron:0 30 3 * * *}")
+    public void rebuild() {
+        LocalDateTime started = LocalDateTime.now();
+        List<Property> rows = propertyJdbcRepository.findRollupRows(null);
+
+        Map<String, Map<BucketKey, Bucket>> freshBuckets = new HashMap<>();
+        Map<Long, Contribution> freshContributions = new HashMap<>(rows.size() * 2);
+        for (Property row : rows) {
+            Contribution contribution = contributionOf(row);
+            if (contribution != null) {
+                freshContributions.put(row.getId(), contribution);
+                bucket(freshBuckets, contribution.key()).add(contribution);
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            bucketsByState = freshBuckets;
+            contributions = freshContributions;
+            watermark = started;
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Market rollup built from {} properties into {} buckets", freshContributions.size(),
+                freshBuckets.values().stream().mapToInt(Map::size).sum());
+    }
+
+    /**
+     * Fold in properties created, updated or soft-deleted since the last refresh
+     */
+    @Scheduled(fixedDelayString = "${app.analytics.refresh-interval-ms:60000}",
+               initialDelayString = "${app.analytics.refresh-interval-ms:60000}")
+    public void refresh() {
+        if (!loaded) {
+            return;
+        }
+        LocalDateTime started = LocalDateTime.now();
+        List<Property> rows = propertyJdbcRepository.findRollupRows(watermark.minus(refreshOverlap));
+
+        lock.writeLock().lock();
+        try {
+            rows.forEach(row -> apply(row.getId(), Boolean.TRUE.equals(row.getIsDeleted()) ? null : contributionOf(row)));
+            watermark = started;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (!rows.isEmpty()) {
+            log.debug("Market rollup refreshed with {} changed properties", rows.size());
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            apply(id, null);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public Summary summarize(String state, Predicate<BucketKey> filter) {
+        lock.readLock().lock();
+        try {
+            Accumulator total = new Accumulator();
+            forEachBucket(state, filter, (key, bucket) -> total.add(bucket));
+            return total.toSummary();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Summaries per group, e.g. per city or month, for buckets in the state that pass the filter
+     */
+    public <K> Map<K, Summary> summarizeBy(String state, Predicate<BucketKey> filter, Function<BucketKey, K> groupBy) {
+        lock.readLock().lock();
+        try {
+            Map<K, Accumulator> groups = new HashMap<>();
+            forEachBucket(state, filter, (key, bucket) ->
+                    groups.computeIfAbsent(groupBy.apply(key), group -> new Accumulator()).add(bucket));
+
+            Map<K, Summary> summaries = new HashMap<>();
+            groups.forEach((group, accumulator) -> summaries.put(group, accumulator.toSummary()));
+            return summaries;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Caller holds the write lock
+    private void apply(Long id, Contribution replacement) {
+        Contribution previous = replacement != null ? contributions.put(id, replacement) : contributions.remove(id);
+        if (Objects.equals(previous, replacement)) {
+            return;
+        }
+        if (previous != null) {
+            Map<BucketKey, Bucket> stateBuckets = bucketsByState.get(previous.key().state());
+            Bucket bucket = stateBuckets.get(previous.key());
+            bucket.remove(previous);
+            if (bucket.count == 0) {
+                stateBuckets.remove(previous.key());
+            }
+        }
+        if (replacement != null) {
+            bucket(bucketsByState, replacement.key()).add(replacement);
+        }
+    }
+
+    private void forEachBucket(String state, Predicate<BucketKey> filter,
+                               BiConsumer<BucketKey, Bucket> action) {
+        Map<BucketKey, Bucket> stateBuckets = bucketsByState.getOrDefault(state, Map.of());
+        stateBuckets.forEach((key, bucket) -> {
+            if (filter.test(key)) {
+                action.accept(key, bucket);
+            }
+        });
+    }
+
+    private static Bucket bucket(Map<String, Map<BucketKey, Bucket>> buckets, BucketKey key) {
+        return buckets.computeIfAbsent(key.state(), state -> new HashMap<>())
+                .computeIfAbsent(key, k -> new Bucket());
+    }
+
+    private static Contribution contributionOf(Property row) {
+        if (row.getPrice() == null || row.getState() == null) {
+            return null;
+        }
+        LocalDateTime listed = row.getListingDate() != null ? row.getListingDate() : row.getCreatedAt();
+        BucketKey key = new BucketKey(row.getState(), row.getCity(), row.getPropertyType(), row.getStatus(),
+                listed != null ? YearMonth.from(listed) : null);
+        BigDecimal pricePerSqft = row.getArea() != null && row.getArea().signum() > 0
+                ? row.getPrice().divide(row.getArea(), SCALE, RoundingMode.HALF_UP)
+                : null;
+        return new Contribution(key, row.getPrice(), pricePerSqft);
+    }
+
+    private static final class Bucket {
+
+        private long count;
+        private BigDecimal priceSum = BigDecimal.ZERO;
+        private long pricePerSqftCount;
+        private BigDecimal pricePerSqftSum = BigDecimal.ZERO;
+        // Price multiset, so min and max survive removals
+        private final TreeMap<BigDecimal, Integer> prices = new TreeMap<>();
+
+        void add(Contribution contribution) {
+            count++;
+            priceSum = priceSum.add(contribution.price());
+            prices.merge(contribution.price(), 1, Integer::sum);
+            if (contribution.pricePerSqft() != null) {
+                pricePerSqftCount++;
+                pricePerSqftSum = pricePerSqftSum.add(contribution.pricePerSqft());
+            }
+        }
+
+        void remove(Contribution contribution) {
+            count--;
+            priceSum = priceSum.subtract(contribution.price());
+            prices.computeIfPresent(contribution.price(), (price, n) -> n > 1 ? n - 1 : null);
+            if (contribution.pricePerSqft() != null) {
+                pricePerSqftCount--;
+                pricePerSqftSum = pricePerSqftSum.subtract(contribution.pricePerSqft());
+            }
+        }
+    }
+
+    private static final class Accumulator {
+
+        private long count;
+        private BigDecimal priceSum = BigDecimal.ZERO;
+        private long pricePerSqftCount;
+        private BigDecimal pricePerSqftSum = BigDecimal.ZERO;
+        private BigDecimal min;
+        private BigDecimal max;
+
+        void add(Bucket bucket) {
+            count += bucket.count;
+            priceSum = priceSum.add(bucket.priceSum);
+            pricePerSqftCount += bucket.pricePerSqftCount;
+            pricePerSqftSum = pricePerSqftSum.add(bucket.pricePerSqftSum);
+            if (!bucket.prices.isEmpty()) {
+                BigDecimal bucketMin = bucket.prices.firstKey();
+                BigDecimal bucketMax = bucket.prices.lastKey();
+                min = min == null || bucketMin.compareTo(min) < 0 ? bucketMin : min;
+                max = max == null || bucketMax.compareTo(max) > 0 ? bucketMax : max;
+            }
+        }
+
+        Summary toSummary() {
+            return new Summary(
+                    count,
+                    count > 0 ? priceSum.divide(BigDecimal.valueOf(count), SCALE, RoundingMode.HALF_UP) : null,
+                    min,
+                    max,
+                    pricePerSqftCount > 0
+                            ? pricePerSqftSum.divide(BigDecimal.valueOf(pricePerSqftCount), SCALE, RoundingMode.HALF_UP)
+                            : null);
+        }
+    }
+}
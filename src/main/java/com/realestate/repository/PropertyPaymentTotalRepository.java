@@ -0,0 +1,92 @@
+package com.realestate.repository;
+
+import com.realestate.model.entity.PropertyPaymentTotal;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface PropertyPaymentTotalRepository extends JpaRepository<PropertyPaymentTotal, Long> {
+
+    /**
+     * Add successful payments to the property's running total; must join the transaction that marks them paid
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Modifying
+    @Query(value = """
+            INSERT INTO property_payment_totals (property_id, total_invested, payment_count, last_payment_at)
+            VALUES (:propertyId, :amount, :count, :paidAt)
+            ON DUPLICATE KEY UPDATE
+                total_invested = total_invested + VALUES(total_invested),
+                payment_count = payment_count + VALUES(payment_count),
+                last_payment_at = GREATEST(COALESCE(last_payment_at, VALUES(last_payment_at)), VALUES(last_payment_at))
+            """, nativeQuery = true)
+    int add(@Param("propertyId") Long propertyId, @Param("amount") BigDecimal amount, @Param("count") long count,
+            @Param("paidAt") LocalDateTime paidAt);
+
+    /**
+     * Number of the successful payment count and amount sums that disagree with these totals; 0 when they are
+     * in step. One statement, so both sides are read from the same snapshot without locking.
+     */
+    @Query(value = """
+            SELECT ((SELECT COUNT(*) FROM payments WHERE status = 'SUCCESS' AND property_id IS NOT NULL)
+                        <> (SELECT COALESCE(SUM(payment_count), 0) FROM property_payment_totals))
+                 + ((SELECT COALESCE(SUM(investment_amount), 0) FROM payments WHERE status = 'SUCCESS' AND property_id IS NOT NULL)
+                        <> (SELECT COALESCE(SUM(total_invested), 0) FROM property_payment_totals))
+            """, nativeQuery = true)
+    int countDriftedSums();
+
+    /**
+     * Highest property id found in payments or in the totals; a rebuild walks ids up to it
+     */
+    @Query(value = """
+            SELECT GREATEST(COALESCE((SELECT MAX(property_id) FROM payments), 0),
+                            COALESCE((SELECT MAX(property_id) FROM property_payment_totals), 0))
+            """, nativeQuery = true)
+    long findMaxKey();
+
+    /**
+     * Share-lock the payments of the property id range, waiting for transactions that are marking one of them paid.
+     * A rebuild of the range then reads every committed success, and later ones add on top of what it writes.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Query(value = "SELECT id FROM payments WHERE property_id BETWEEN :fromId AND :toId FOR SHARE", nativeQuery = true)
+    List<Long> lockPaymentsInRange(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Modifying
+    @Query(value = "DELETE FROM property_payment_totals WHERE property_id BETWEEN :fromId AND :toId", nativeQuery = true)
+    int deleteRange(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    /**
+     * Recompute the totals of the property id range from the payments table; run after deleteRange, with the
+     * range's payments locked
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Modifying
+    @Query(value = """
+            INSERT INTO property_payment_totals (property_id, total_invested, payment_count, last_payment_at)
+            SELECT property_id, SUM(investment_amount), COUNT(*), MAX(paid_at)
+            FROM payments
+            WHERE status = 'SUCCESS' AND property_id BETWEEN :fromId AND :toId
+            GROUP BY property_id
+            """, nativeQuery = true)
+    int insertRange(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    /**
+     * Property, payment count and total invested, highest total first; read off idx_property_payment_totals_total
+     */
+    @Query("SELECT p, t.paymentCount, t.totalInvested FROM PropertyPaymentTotal t, Property p " +
+           "WHERE p.id = t.propertyId " +
+           "ORDER BY t.totalInvested DESC")
+    List<Object[]> findTopInvested(Pageable pageable);
+}
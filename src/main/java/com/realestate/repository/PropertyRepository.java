@@ -127,15 +127,14 @@ public interface PropertyRepository extends JpaRepository<Property, Long>, Custo
                                    @Param("isFurnished") Boolean isFurnished,
                                    Pageable pageable);
 
-    // Geospatial queries (simplified distance calculation)
-    @Query("SELECT p FROM Property p WHERE " +
-           "p.latitude IS NOT NULL AND p.longitude IS NOT NULL AND " +
-           "ABS(p.latitude - :lat) <= :latRange AND " +
-           "ABS(p.longitude - :lon) <= :lonRange")
-    List<Property> findPropertiesNearLocation(@Param("lat") Double latitude,
-                                             @Param("lon") Double longitude,
-                                             @Param("latRange") Double latRange,
-                                             @Param("lonRange") Double lonRange);
+    // Geospatial query pruned by the geohash cell index
+    default List<Property> findPropertiesNearLocation(Double latitude,
+                                                     Double longitude,
+                                                     Double latRange,
+                                                     Double lonRange) {
+        return findPropertiesInBoundingBox(latitude - latRange, latitude + latRange,
+                                           longitude - lonRange, longitude + lonRange);
+    }
 
     // Native SQL queries for complex analytics
     @Query(value = "SELECT p.property_type, " +
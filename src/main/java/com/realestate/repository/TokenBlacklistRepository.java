@@ -8,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -17,6 +18,10 @@ public interface TokenBlacklistRepository extends JpaRepository<TokenBlacklist,
 
     boolean existsByJti(String jti);
 
+    List<TokenBlacklist> findByExpiresAtAfter(LocalDateTime now);
+
+    List<TokenBlacklist> findByBlacklistedAtAfter(LocalDateTime since);
+
     @Modifying
     @Query("DELETE FROM TokenBlacklist tb WHERE tb.expiresAt < :now")
     int deleteExpiredTokens(@Param("now") LocalDateTime now);
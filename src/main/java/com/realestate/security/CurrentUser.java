@@ -0,0 +1,17 @@
+package com.realestate.security;
+
+import com.realestate.model.entity.User;
+
+import java.util.Arrays;
+
+/**
+ * The authenticated user of the current request.
+ * id, username and role come from the principal; user is meant for associations and repository
+ * parameters and may be an uninitialised reference, so reading anything but its id can hit the database.
+ */
+public record CurrentUser(Long id, String username, User.UserRole role, User user) {
+
+    public boolean hasAnyRole(User.UserRole... roles) {
+        return Arrays.asList(roles).contains(role);
+    }
+}
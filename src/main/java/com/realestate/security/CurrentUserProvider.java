@@ -0,0 +1,58 @@
+package com.realestate.security;
+
+import com.realestate.exception.UnauthorizedException;
+import com.realestate.model.entity.User;
+import com.realestate.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Resolves the authenticated user once per request.
+ * A principal set by JwtAuthenticationFilter already carries id and role, so the user entity is only
+ * referenced, not loaded. Any other authentication falls back to a lookup by name. The result is held
+ * as a request attribute so later calls in the same request are free; outside a request it is resolved
+ * on every call.
+ */
+@Component
+@RequiredArgsConstructor
+public class CurrentUserProvider {
+
+    static final String REQUEST_ATTRIBUTE = CurrentUser.class.getName();
+
+    private final UserRepository userRepository;
+
+    public CurrentUser get() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication.getName() == null) {
+            throw new UnauthorizedException("No authenticated user");
+        }
+
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null
+                && request.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof CurrentUser held
+                && held.username().equals(authentication.getName())) {
+            return held;
+        }
+
+        CurrentUser currentUser = resolve(authentication);
+        if (request != null) {
+            request.setAttribute(REQUEST_ATTRIBUTE, currentUser, RequestAttributes.SCOPE_REQUEST);
+        }
+        return currentUser;
+    }
+
+    private CurrentUser resolve(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof CustomUserDetails principal && principal.getId() != null) {
+            return new CurrentUser(principal.getId(), principal.getUsername(), principal.getRole(),
+                    userRepository.getReferenceById(principal.getId()));
+        }
+
+        User user = userRepository.findByUsername(authentication.getName())
+                .orElseThrow(() -> new UnauthorizedException("User not found"));
+        return new CurrentUser(user.getId(), user.getUsername(), user.getRole(), user);
+    }
+}
@@ -18,6 +18,7 @@ public class CustomUserDetails implements UserDetails {
     private final String email;
     private final String name;
     private final String phone;
+    private final User.UserRole role;
     private final Collection<? extends GrantedAuthority> authorities;
     private final boolean enabled;
 
@@ -31,9 +32,9 @@ public class CustomUserDetails implements UserDetails {
         this.enabled = user.getIsEnabled() != null ? user.getIsEnabled() : true;
 
         // Set authorities based on user role
-        String role = user.getRole() != null ? user.getRole().name() : "INVESTOR";
+        this.role = user.getRole() != null ? user.getRole() : User.UserRole.INVESTOR;
         this.authorities = Collections.singletonList(
-            new SimpleGrantedAuthority("ROLE_" + role)
+            new SimpleGrantedAuthority("ROLE_" + role.name())
         );
     }
 
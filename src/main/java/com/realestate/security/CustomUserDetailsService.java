@@ -4,27 +4,46 @@ import com.realestate.model.entity.User;
 import com.realestate.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Collection;
-import java.util.Collections;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Loads principals for authentication. Loaded principals are kept in the short-lived "principals" cache,
+ * so the JWT filter does not hit the users table on every request; UserService evicts a user's entries
+ * whenever their account, password or role changes.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class CustomUserDetailsService implements UserDetailsService {
 
+    public static final String CACHE_NAME = "principals";
+
     private final UserRepository userRepository;
+    private final CacheManager cacheManager;
+
+    // Bumped by every eviction; a load that raced with one is returned but not cached
+    private final AtomicLong generation = new AtomicLong();
 
     @Override
     @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache != null) {
+            CustomUserDetails cached = cache.get(username, CustomUserDetails.class);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        long stamp = generation.get();
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> {
                     log.error("User not found with username: {}", username);
@@ -32,6 +51,31 @@ public class CustomUserDetailsService implements UserDetailsService {
                 });
 
         log.debug("User found: {}", username);
-        return new CustomUserDetails(user);
+        CustomUserDetails userDetails = new CustomUserDetails(user);
+        if (cache != null) {
+            synchronized (generation) {
+                if (generation.get() == stamp) {
+                    cache.put(username, userDetails);
+                }
+            }
+        }
+        return userDetails;
+    }
+
+    /**
+     * Drop cached principals under the given login names, e.g. a user's old and new username and email
+     */
+    public void evict(String... usernames) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        synchronized (generation) {
+            generation.incrementAndGet();
+            if (cache != null) {
+                for (String username : usernames) {
+                    if (username != null) {
+                        cache.evict(username);
+                    }
+                }
+            }
+        }
     }
-}
\ No newline at end of file
+}
@@ -33,22 +33,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                     FilterChain filterChain) throws ServletException, IOException {
         try {
             String jwt = getJwtFromRequest(request);
+            // Verified once per request; repeat requests with the same token are served from the provider's cache
+            JwtClaims claims = StringUtils.hasText(jwt) ? jwtTokenProvider.verify(jwt).orElse(null) : null;
 
-            if (StringUtils.hasText(jwt) && jwtTokenProvider.validateToken(jwt)) {
-                if (!jwtTokenProvider.isAccessToken(jwt)) {
+            if (claims != null) {
+                if (!claims.isAccessToken()) {
                     log.warn("Attempted to use non-access token for authentication");
                     filterChain.doFilter(request, response);
                     return;
                 }
 
-                String jti = jwtTokenProvider.getJtiFromToken(jwt);
+                String jti = claims.id();
                 if (tokenService.isTokenBlacklisted(jti)) {
                     log.warn("Attempted to use blacklisted token: {}", jti);
                     filterChain.doFilter(request, response);
                     return;
                 }
 
-                String username = jwtTokenProvider.getUsernameFromToken(jwt);
+                request.setAttribute(JwtClaims.REQUEST_ATTRIBUTE, claims);
+                String username = claims.subject();
 
                 UserDetails userDetails = userDetailsService.loadUserByUsername(username);
                 UsernamePasswordAuthenticationToken authentication =
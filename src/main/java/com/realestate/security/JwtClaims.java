@@ -0,0 +1,35 @@
+package com.realestate.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.time.Instant;
+
+/**
+ * Claims of a JWT whose signature and expiry have been verified.
+ * Immutable, so one instance can be shared through the verified-token cache and across a request.
+ */
+public record JwtClaims(String subject, String id, String type, String familyId, Instant expiresAt) {
+
+    /**
+     * Request attribute under which JwtAuthenticationFilter exposes the claims of the authenticating token,
+     * read by AuthController on logout instead of parsing the token again
+     */
+    public static final String REQUEST_ATTRIBUTE = "com.realestate.security.JwtClaims";
+
+    static JwtClaims from(Claims claims) {
+        return new JwtClaims(
+            claims.getSubject(),
+            claims.getId(),
+            claims.get("type", String.class),
+            claims.get("familyId", String.class),
+            claims.getExpiration() != null ? claims.getExpiration().toInstant() : null);
+    }
+
+    public boolean isAccessToken() {
+        return "access".equals(type);
+    }
+
+    public boolean isRefreshToken() {
+        return "refresh".equals(type);
+    }
+}
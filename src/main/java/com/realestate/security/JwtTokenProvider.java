@@ -1,7 +1,12 @@
 package com.realestate.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.realestate.util.Crypto;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SecurityException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
@@ -10,10 +15,9 @@ import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
-import java.util.Date;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.UUID;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
 import java.util.function.Function;
 
 @Component
@@ -32,9 +36,36 @@ public class JwtTokenProvider {
     @Value("${spring.security.jwt.refresh-expiration:604800000}")
     private long refreshTokenExpiration;
 
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = jwtSecret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+    @Value("${spring.security.jwt.verified-cache-size:10000}")
+    private long verifiedCacheSize = 10000;
+
+    private volatile Verifier verifier;
+
+    /**
+     * Signing key, parser and verified-token cache, built once on first use since the secret never changes at runtime.
+     * The cache is keyed by the SHA-256 of the token and each entry expires when the token does.
+     */
+    private record Verifier(SecretKey signingKey, JwtParser parser, Cache<String, JwtClaims> verified) {}
+
+    private Verifier verifier() {
+        Verifier current = verifier;
+        if (current == null) {
+            synchronized (this) {
+                current = verifier;
+                if (current == null) {
+                    SecretKey signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+                    current = new Verifier(
+                        signingKey,
+                        Jwts.parserBuilder().setSigningKey(signingKey).build(),
+                        Caffeine.newBuilder()
+                            .maximumSize(verifiedCacheSize)
+                            .expireAfter(new UntilTokenExpiry())
+                            .build());
+                    verifier = current;
+                }
+            }
+        }
+        return current;
     }
 
     public String generateToken(Authentication authentication) {
@@ -74,30 +105,70 @@ public class JwtTokenProvider {
                 .setId(jti)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(verifier().signingKey(), SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    /**
+     * Claims of the token after signature and expiry checks, from the cache when this token was verified before
+     *
+     * @throws JwtException if the token is malformed, tampered with or expired
+     */
+    public JwtClaims getVerifiedClaims(String token) {
+        if (token == null || token.isEmpty()) {
+            throw new IllegalArgumentException("JWT String argument cannot be null or empty.");
+        }
+        Verifier current = verifier();
+        String key = cacheKey(token);
+
+        JwtClaims cached = current.verified().getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        JwtClaims claims = JwtClaims.from(current.parser().parseClaimsJws(token).getBody());
+        current.verified().put(key, claims);
+        return claims;
+    }
+
+    /**
+     * Verified claims, or empty when the token is invalid or expired
+     */
+    public Optional<JwtClaims> verify(String token) {
+        try {
+            return Optional.of(getVerifiedClaims(token));
+        } catch (SecurityException ex) {
+            log.error("Invalid JWT signature");
+        } catch (MalformedJwtException ex) {
+            log.error("Invalid JWT token");
+        } catch (ExpiredJwtException ex) {
+            log.error("Expired JWT token");
+        } catch (UnsupportedJwtException ex) {
+            log.error("Unsupported JWT token");
+        } catch (IllegalArgumentException ex) {
+            log.error("JWT claims string is empty");
+        }
+        return Optional.empty();
+    }
+
     public String getUsernameFromToken(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return getVerifiedClaims(token).subject();
     }
 
     public String getJtiFromToken(String token) {
-        return extractClaim(token, Claims::getId);
+        return getVerifiedClaims(token).id();
     }
 
     public String getTokenType(String token) {
-        Claims claims = extractAllClaims(token);
-        return (String) claims.get("type");
+        return getVerifiedClaims(token).type();
     }
 
     public String getFamilyId(String token) {
-        Claims claims = extractAllClaims(token);
-        return (String) claims.get("familyId");
+        return getVerifiedClaims(token).familyId();
     }
 
     public Date getExpirationDateFromToken(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        Instant expiresAt = getVerifiedClaims(token).expiresAt();
+        return expiresAt != null ? Date.from(expiresAt) : null;
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
@@ -106,38 +177,18 @@ public class JwtTokenProvider {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
+        return verifier().parser()
                 .parseClaimsJws(token)
                 .getBody();
     }
 
     public boolean validateToken(String token) {
-        try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token);
-            return true;
-        } catch (SecurityException ex) {
-            log.error("Invalid JWT signature");
-        } catch (MalformedJwtException ex) {
-            log.error("Invalid JWT token");
-        } catch (ExpiredJwtException ex) {
-            log.error("Expired JWT token");
-        } catch (UnsupportedJwtException ex) {
-            log.error("Unsupported JWT token");
-        } catch (IllegalArgumentException ex) {
-            log.error("JWT claims string is empty");
-        }
-        return false;
+        return verify(token).isPresent();
     }
 
     public boolean isAccessToken(String token) {
         try {
-            String type = getTokenType(token);
-            return "access".equals(type);
+            return getVerifiedClaims(token).isAccessToken();
         } catch (Exception e) {
             return false;
         }
@@ -145,8 +196,7 @@ public class JwtTokenProvider {
 
     public boolean isRefreshToken(String token) {
         try {
-            String type = getTokenType(token);
-            return "refresh".equals(type);
+            return getVerifiedClaims(token).isRefreshToken();
         } catch (Exception e) {
             return false;
         }
@@ -171,4 +221,29 @@ public class JwtTokenProvider {
     public long getRefreshTokenExpirationMs() {
         return refreshTokenExpiration;
     }
+
+    private static String cacheKey(String token) {
+        return Crypto.sha256Base64(token);
+    }
+
+    private static final class UntilTokenExpiry implements Expiry<String, JwtClaims> {
+
+        @Override
+        public long expireAfterCreate(String key, JwtClaims claims, long currentTime) {
+            if (claims.expiresAt() == null) {
+                return 0;
+            }
+            return Math.max(0, Duration.between(Instant.now(), claims.expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, JwtClaims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, JwtClaims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
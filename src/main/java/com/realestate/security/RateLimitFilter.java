@@ -0,0 +1,151 @@
+package com.realestate.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.realestate.model.dto.ApiResponse;
+import com.realestate.util.RateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Applies the route policies under app.rate-limit.policies. The first policy whose paths match the request
+ * applies; a rejected request gets 429 with Retry-After, every limited response carries X-RateLimit-Limit
+ * and X-RateLimit-Remaining. Runs inside the security chain after JwtAuthenticationFilter so USER policies
+ * can see the authenticated user. Anonymous callers are keyed on the connection's remote address, never on
+ * X-Forwarded-For as sent by the client; behind a proxy the container resolves it from trusted hops only
+ * (server.forward-headers-strategy). Each policy tracks at most app.rate-limit.max-keys keys.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private record Route(RateLimitPolicy policy, RateLimiter limiter, Counter allowed, Counter rejected) {}
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final List<Route> routes = new ArrayList<>();
+
+    @Value("${app.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.rate-limit.max-keys:100000}")
+    private int maxKeys;
+
+    @PostConstruct
+    void init() {
+        List<RateLimitPolicy> policies = Binder.get(environment)
+                .bind("app.rate-limit.policies", Bindable.listOf(RateLimitPolicy.class))
+                .orElse(List.of());
+
+        for (RateLimitPolicy policy : policies) {
+            RateLimiter limiter = new RateLimiter(policy.algorithm(), policy.limit(), policy.window(), maxKeys);
+            Gauge.builder("ratelimit.keys", limiter, RateLimiter::activeKeys)
+                    .tag("policy", policy.name())
+                    .description("Keys currently tracked by the rate limiter")
+                    .register(meterRegistry);
+            routes.add(new Route(policy, limiter, decisionCounter(policy, "allowed"), decisionCounter(policy, "rejected")));
+            log.info("Rate limit policy '{}': {} per {} by {} ({}) on {}", policy.name(), policy.limit(),
+                    policy.window(), policy.key(), policy.algorithm(), policy.paths());
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || routes.isEmpty();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Route route = match(request);
+        if (route == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String key = resolveKey(route.policy(), request);
+        RateLimiter.Decision decision = route.limiter().tryAcquire(key);
+        response.setHeader("X-RateLimit-Limit", Integer.toString(route.limiter().limit()));
+        response.setHeader("X-RateLimit-Remaining", Long.toString(decision.remaining()));
+
+        if (!decision.allowed()) {
+            route.rejected().increment();
+            log.warn("Rate limit '{}' exceeded for {}", route.policy().name(), key);
+            long retryAfterSeconds = Math.max(1, (decision.retryAfterMillis() + 999) / 1000);
+            response.setHeader("Retry-After", Long.toString(retryAfterSeconds));
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), ApiResponse.error(
+                    "Too many requests. Please try again later.", HttpStatus.TOO_MANY_REQUESTS.value()));
+            return;
+        }
+
+        route.allowed().increment();
+        filterChain.doFilter(request, response);
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void evictIdle() {
+        routes.forEach(route -> route.limiter().evictIdle());
+    }
+
+    private Route match(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (Route route : routes) {
+            for (String pattern : route.policy().paths()) {
+                if (pathMatcher.match(pattern, path)) {
+                    return route;
+                }
+            }
+        }
+        return null;
+    }
+
+    private String resolveKey(RateLimitPolicy policy, HttpServletRequest request) {
+        if (policy.key() == RateLimitPolicy.KeyType.USER) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null && authentication.isAuthenticated()
+                    && !(authentication instanceof AnonymousAuthenticationToken)) {
+                return "user:" + authentication.getName();
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private Counter decisionCounter(RateLimitPolicy policy, String outcome) {
+        return Counter.builder("ratelimit.requests")
+                .tag("policy", policy.name())
+                .tag("outcome", outcome)
+                .description("Requests checked against a rate limit policy")
+                .register(meterRegistry);
+    }
+}
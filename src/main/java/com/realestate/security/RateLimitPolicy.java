@@ -0,0 +1,28 @@
+package com.realestate.security;
+
+import com.realestate.util.RateLimiter;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * One entry of app.rate-limit.policies: at most limit requests per window for each key on the matching paths.
+ *
+ * @param paths Ant-style patterns relative to the context path
+ * @param key   USER limits each authenticated user and falls back to the client IP for anonymous calls
+ */
+public record RateLimitPolicy(
+        String name,
+        List<String> paths,
+        @DefaultValue("TOKEN_BUCKET") RateLimiter.Algorithm algorithm,
+        int limit,
+        @DefaultValue("1m") Duration window,
+        @DefaultValue("USER") KeyType key
+) {
+
+    public enum KeyType {
+        USER,
+        IP
+    }
+}
@@ -0,0 +1,113 @@
+package com.realestate.service;
+
+import com.realestate.exception.BusinessException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Primitive double fast path for scoring many properties at once.
+ * Mirrors the formulas of InvestmentCalculatorService, but works column-wise on parallel arrays in
+ * branch-light loops that C2 can unroll and vectorize. Inputs that the BigDecimal API would reject
+ * (non-positive price or rental) yield NaN for the affected metrics instead of throwing, so one bad row
+ * doesn't abort a whole screening run.
+ */
+@Component
+public class BatchInvestmentCalculator {
+
+    private static final double MONTHS_IN_YEAR = 12.0;
+    private static final double PERCENT = 100.0;
+
+    public record BatchMetrics(double[] roi,
+                               double[] rentalYield,
+                               double[] capRate,
+                               double[] appreciationValue,
+                               double[] breakEvenYears,
+                               double[] totalReturn) {
+    }
+
+    /**
+     * Compute ROI, rental yield, cap rate, appreciated value, break-even years and total return for every index.
+     * Rates are percentages; annualExpenses and appreciationRates may contain zeros but not be null.
+     */
+    public BatchMetrics calculate(double[] prices,
+                                  double[] monthlyRentals,
+                                  double[] annualExpenses,
+                                  double[] appreciationRates,
+                                  int[] years) {
+        int n = prices.length;
+        requireLength(monthlyRentals, n, "monthlyRentals");
+        requireLength(annualExpenses, n, "annualExpenses");
+        requireLength(appreciationRates, n, "appreciationRates");
+        if (years.length != n) {
+            throw new BusinessException("years must have " + n + " elements");
+        }
+
+        double[] annualRental = new double[n];
+        double[] netIncome = new double[n];
+        double[] inversePrice = new double[n];
+        for (int i = 0; i < n; i++) {
+            annualRental[i] = monthlyRentals[i] * MONTHS_IN_YEAR;
+            netIncome[i] = annualRental[i] - annualExpenses[i];
+            inversePrice[i] = prices[i] > 0 && monthlyRentals[i] > 0 ? 1.0 / prices[i] : Double.NaN;
+        }
+
+        double[] roi = new double[n];
+        double[] rentalYield = new double[n];
+        for (int i = 0; i < n; i++) {
+            roi[i] = netIncome[i] * inversePrice[i] * PERCENT;
+            rentalYield[i] = annualRental[i] * inversePrice[i] * PERCENT;
+        }
+        // Cap rate and ROI share the same NOI / price definition in the single-property API
+        double[] capRate = roi.clone();
+
+        double[] appreciationValue = new double[n];
+        for (int i = 0; i < n; i++) {
+            double growth = years[i] > 0 ? Math.pow(1.0 + appreciationRates[i] / PERCENT, years[i]) : 1.0;
+            appreciationValue[i] = prices[i] > 0 ? prices[i] * growth : Double.NaN;
+        }
+
+        double[] breakEvenYears = new double[n];
+        double[] totalReturn = new double[n];
+        for (int i = 0; i < n; i++) {
+            if (Double.isNaN(inversePrice[i])) {
+                breakEvenYears[i] = Double.NaN;
+            } else {
+                breakEvenYears[i] = netIncome[i] > 0 ? prices[i] / netIncome[i] : 0.0;
+            }
+            double held = Math.max(years[i], 0);
+            totalReturn[i] = (annualRental[i] * held + appreciationValue[i] - prices[i]) * inversePrice[i] * PERCENT;
+        }
+
+        return new BatchMetrics(roi, rentalYield, capRate, appreciationValue, breakEvenYears, totalReturn);
+    }
+
+    /**
+     * Level monthly mortgage payments; a zero rate falls back to straight-line repayment
+     */
+    public double[] mortgagePayments(double[] loanAmounts, double[] annualRates, int[] months) {
+        int n = loanAmounts.length;
+        requireLength(annualRates, n, "annualRates");
+        if (months.length != n) {
+            throw new BusinessException("months must have " + n + " elements");
+        }
+
+        double[] payments = new double[n];
+        for (int i = 0; i < n; i++) {
+            double monthlyRate = annualRates[i] / PERCENT / MONTHS_IN_YEAR;
+            if (months[i] <= 0 || loanAmounts[i] <= 0) {
+                payments[i] = Double.NaN;
+            } else if (monthlyRate == 0) {
+                payments[i] = loanAmounts[i] / months[i];
+            } else {
+                double power = Math.pow(1.0 + monthlyRate, months[i]);
+                payments[i] = loanAmounts[i] * monthlyRate * power / (power - 1.0);
+            }
+        }
+        return payments;
+    }
+
+    private static void requireLength(double[] column, int expected, String name) {
+        if (column.length != expected) {
+            throw new BusinessException(name + " must have " + expected + " elements");
+        }
+    }
+}
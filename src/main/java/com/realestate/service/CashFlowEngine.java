@@ -0,0 +1,226 @@
+package com.realestate.service;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Discounted cash-flow engine for property investments.
+ * Builds periodic cash-flow vectors (equity out, net rent in, mortgage service, sale at exit) and solves
+ * NPV, IRR and MIRR on primitive arrays. IRR uses Newton-Raphson and falls back to bisection over a
+ * sign-changing bracket when Newton diverges or stalls, so irregular cash flows still converge.
+ */
+@Component
+public class CashFlowEngine {
+
+    private static final int MAX_NEWTON_ITERATIONS = 50;
+    private static final int MAX_BISECTION_ITERATIONS = 200;
+    private static final double TOLERANCE = 1e-10;
+    private static final double MIN_RATE = -0.9999;
+
+    /**
+     * Inputs for a cash-flow projection. Rates are annual percentages, amounts are in currency units.
+     */
+    public record CashFlowModel(double purchasePrice,
+                                double equity,
+                                double loanAmount,
+                                double annualInterestRate,
+                                int loanTermYears,
+                                double monthlyRental,
+                                double monthlyExpenses,
+                                double annualFixedExpenses,
+                                double annualAppreciationRate,
+                                double vacancyRate,
+                                double managementFeeRate,
+                                int holdingYears) {
+    }
+
+    /**
+     * Cash flows per period: index 0 is the equity outlay, the last period includes sale proceeds net of the
+     * outstanding loan balance. Monthly vectors have holdingYears * 12 + 1 entries, annual ones holdingYears + 1.
+     */
+    public double[] buildCashFlows(CashFlowModel model, boolean monthly) {
+        int periodsPerYear = monthly ? 12 : 1;
+        int periods = Math.max(model.holdingYears(), 1) * periodsPerYear;
+        int loanMonths = Math.max(model.loanTermYears(), 0) * 12;
+        double monthlyRate = model.annualInterestRate() / 100.0 / 12.0;
+        double monthlyPayment = levelPayment(model.loanAmount(), monthlyRate, loanMonths);
+
+        double effectiveRent = model.monthlyRental()
+            * (1.0 - model.vacancyRate() / 100.0)
+            * (1.0 - model.managementFeeRate() / 100.0);
+        double monthlyNet = effectiveRent - model.monthlyExpenses() - model.annualFixedExpenses() / 12.0;
+
+        double[] flows = new double[periods + 1];
+        flows[0] = -model.equity();
+        for (int period = 1; period <= periods; period++) {
+            int firstMonth = (period - 1) * 12 / periodsPerYear + 1;
+            int lastMonth = period * 12 / periodsPerYear;
+            int monthsWithPayment = Math.max(0, Math.min(lastMonth, loanMonths) - firstMonth + 1);
+            flows[period] = monthlyNet * (12 / periodsPerYear) - monthlyPayment * monthsWithPayment;
+        }
+
+        double salePrice = model.purchasePrice()
+            * Math.pow(1.0 + model.annualAppreciationRate() / 100.0, model.holdingYears());
+        flows[periods] += salePrice - remainingBalance(model.loanAmount(), monthlyRate, loanMonths,
+            model.holdingYears() * 12);
+        return flows;
+    }
+
+    public double npv(double ratePerPeriod, double[] flows) {
+        double factor = 1.0 / (1.0 + ratePerPeriod);
+        double discount = 1.0;
+        double value = 0.0;
+        for (double flow : flows) {
+            value += flow * discount;
+            discount *= factor;
+        }
+        return value;
+    }
+
+    /**
+     * Periodic IRR, or NaN when the cash flows never change sign or no root exists in the search range
+     */
+    public double irr(double[] flows) {
+        if (!hasSignChange(flows)) {
+            return Double.NaN;
+        }
+
+        double rate = 0.01;
+        for (int i = 0; i < MAX_NEWTON_ITERATIONS; i++) {
+            double factor = 1.0 / (1.0 + rate);
+            double discount = 1.0;
+            double value = 0.0;
+            double derivative = 0.0;
+            for (int t = 0; t < flows.length; t++) {
+                value += flows[t] * discount;
+                derivative -= t * flows[t] * discount * factor;
+                discount *= factor;
+            }
+            if (Math.abs(value) < TOLERANCE) {
+                return rate;
+            }
+            if (derivative == 0.0 || !Double.isFinite(derivative)) {
+                break;
+            }
+            double next = rate - value / derivative;
+            if (!Double.isFinite(next) || next <= MIN_RATE) {
+                break;
+            }
+            if (Math.abs(next - rate) < TOLERANCE) {
+                return next;
+            }
+            rate = next;
+        }
+        return bisect(flows);
+    }
+
+    /**
+     * Periodic modified IRR: negatives discounted at financeRate, positives compounded at reinvestRate
+     */
+    public double mirr(double[] flows, double financeRatePerPeriod, double reinvestRatePerPeriod) {
+        int n = flows.length - 1;
+        if (n <= 0) {
+            return Double.NaN;
+        }
+        double presentNegatives = 0.0;
+        double futurePositives = 0.0;
+        double financeDiscount = 1.0;
+        double financeFactor = 1.0 / (1.0 + financeRatePerPeriod);
+        double reinvestGrowth = Math.pow(1.0 + reinvestRatePerPeriod, n);
+        double reinvestFactor = 1.0 / (1.0 + reinvestRatePerPeriod);
+        for (double flow : flows) {
+            if (flow < 0) {
+                presentNegatives += flow * financeDiscount;
+            } else {
+                futurePositives += flow * reinvestGrowth;
+            }
+            financeDiscount *= financeFactor;
+            reinvestGrowth *= reinvestFactor;
+        }
+        if (presentNegatives >= 0 || futurePositives <= 0) {
+            return Double.NaN;
+        }
+        return Math.pow(futurePositives / -presentNegatives, 1.0 / n) - 1.0;
+    }
+
+    /**
+     * Convert a periodic rate to an effective annual rate
+     */
+    public double annualize(double ratePerPeriod, int periodsPerYear) {
+        return Math.pow(1.0 + ratePerPeriod, periodsPerYear) - 1.0;
+    }
+
+    /**
+     * Convert an effective annual rate to the equivalent periodic rate
+     */
+    public double periodic(double annualRate, int periodsPerYear) {
+        return Math.pow(1.0 + annualRate, 1.0 / periodsPerYear) - 1.0;
+    }
+
+    private double bisect(double[] flows) {
+        double low = MIN_RATE;
+        double high = 1.0;
+        double lowValue = npv(low, flows);
+        double highValue = npv(high, flows);
+        while (lowValue * highValue > 0 && high < 1e6) {
+            high *= 2;
+            highValue = npv(high, flows);
+        }
+        if (lowValue * highValue > 0) {
+            return Double.NaN;
+        }
+
+        for (int i = 0; i < MAX_BISECTION_ITERATIONS; i++) {
+            double mid = (low + high) / 2;
+            double midValue = npv(mid, flows);
+            if (Math.abs(midValue) < TOLERANCE || (high - low) / 2 < TOLERANCE) {
+                return mid;
+            }
+            if (midValue * lowValue < 0) {
+                high = mid;
+            } else {
+                low = mid;
+                lowValue = midValue;
+            }
+        }
+        return (low + high) / 2;
+    }
+
+    private static boolean hasSignChange(double[] flows) {
+        boolean positive = false;
+        boolean negative = false;
+        for (double flow : flows) {
+            positive |= flow > 0;
+            negative |= flow < 0;
+        }
+        return positive && negative;
+    }
+
+    /**
+     * Level monthly payment for a fully amortizing loan
+     */
+    public double levelPayment(double principal, double monthlyRate, int months) {
+        if (principal <= 0 || months <= 0) {
+            return 0.0;
+        }
+        if (monthlyRate == 0) {
+            return principal / months;
+        }
+        double power = Math.pow(1.0 + monthlyRate, months);
+        return principal * monthlyRate * power / (power - 1.0);
+    }
+
+    /**
+     * Outstanding principal after paidMonths level payments
+     */
+    public double remainingBalance(double principal, double monthlyRate, int loanMonths, int paidMonths) {
+        if (principal <= 0 || paidMonths >= loanMonths) {
+            return 0.0;
+        }
+        if (monthlyRate == 0) {
+            return principal * (loanMonths - paidMonths) / loanMonths;
+        }
+        double payment = levelPayment(principal, monthlyRate, loanMonths);
+        double growth = Math.pow(1.0 + monthlyRate, paidMonths);
+        return principal * growth - payment * (growth - 1.0) / monthlyRate;
+    }
+}
@@ -1,5 +1,6 @@
 package com.realestate.service;
 
+import com.realestate.config.ExecutorRegistry;
 import com.realestate.exception.BusinessException;
 import com.realestate.model.dto.ChatbotRequestDTO;
 import com.realestate.model.dto.ChatbotResponseDTO;
@@ -12,7 +13,6 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
@@ -30,6 +30,7 @@ public class ChatbotService {
 
     private final PropertyService propertyService;
     private final InvestmentCalculatorService investmentCalculatorService;
+    private final ExecutorRegistry executorRegistry;
     
     @Value("${openai.api.key:demo-key}")
     private String openAiApiKey;
@@ -41,7 +42,6 @@ public class ChatbotService {
     
     private final Map<String, List<String>> conversationHistory = new HashMap<>();
     
-    @Async
     public CompletableFuture<ChatbotResponseDTO> processMessage(ChatbotRequestDTO request) {
         return CompletableFuture.supplyAsync(() -> {
             log.info("Processing chatbot message: {}", request.getMessage());
@@ -64,7 +64,7 @@ public class ChatbotService {
             }
             
             return response;
-        });
+        }, executorRegistry.executor(ExecutorRegistry.Pool.EXTERNAL));
     }
     
     private String handleMessage(ChatbotRequestDTO request) {
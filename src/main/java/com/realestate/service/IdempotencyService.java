@@ -0,0 +1,141 @@
+package com.realestate.service;
+
+import com.realestate.exception.BadRequestException;
+import com.realestate.model.entity.IdempotencyRecord;
+import com.realestate.repository.IdempotencyRecordRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Client idempotency keys, scoped per user. claim inserts the key in the caller's transaction with
+ * INSERT IGNORE, so a new key costs one statement and two concurrent requests with the same key cannot
+ * both proceed: the second waits on the unique index and then sees the first one's result. Completed keys
+ * are cached in memory with their operation, so a client retrying a finished request skips the database and
+ * the trade lock, and a key reused for another operation is rejected the same way from memory or the database.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyService {
+
+    public static final String CACHE_NAME = "idempotency";
+
+    private record Completed(String operation, Long resultId) {}
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final CacheManager cacheManager;
+
+    @Value("${app.idempotency.ttl:24h}")
+    private Duration ttl = Duration.ofHours(24);
+
+    @Value("${app.idempotency.cleanup-batch-size:1000}")
+    private int cleanupBatchSize = 1000;
+
+    /**
+     * Result id recorded for a key completed by operation, from memory only
+     *
+     * @throws BadRequestException if the key was completed by a different operation
+     */
+    public Optional<Long> findCompleted(Long userId, String key, String operation) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        Completed completed = cache != null ? cache.get(cacheKey(userId, key), Completed.class) : null;
+        if (completed == null) {
+            return Optional.empty();
+        }
+        checkOperation(completed.operation(), operation);
+        return Optional.of(completed.resultId());
+    }
+
+    /**
+     * Claim the key for operation within the caller's transaction. Empty when the caller now owns it and
+     * must call complete before committing; otherwise the result id of the request that completed it.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Optional<Long> claim(Long userId, String key, String operation) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plus(ttl);
+        if (idempotencyRecordRepository.claim(userId, key, operation, now, expiresAt) == 1) {
+            return Optional.empty();
+        }
+
+        IdempotencyRecord existing = idempotencyRecordRepository.findByUserIdAndIdempotencyKey(userId, key)
+                .orElseThrow(() -> new IllegalStateException("Idempotency key vanished after a failed claim"));
+        if (existing.isExpired()
+                && idempotencyRecordRepository.reclaimExpired(userId, key, operation, now, expiresAt) == 1) {
+            return Optional.empty();
+        }
+        checkOperation(existing.getOperation(), operation);
+        if (existing.getResultId() == null) {
+            throw new IllegalStateException("Idempotency key " + key + " was committed without a result");
+        }
+        cacheAfterCommit(userId, key, new Completed(operation, existing.getResultId()));
+        return Optional.of(existing.getResultId());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void complete(Long userId, String key, String operation, Long resultId) {
+        idempotencyRecordRepository.complete(userId, key, resultId);
+        cacheAfterCommit(userId, key, new Completed(operation, resultId));
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.cleanup-interval-ms:3600000}",
+               initialDelayString = "${app.idempotency.cleanup-interval-ms:3600000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+        int deleted;
+        // Each chunk commits on its own so cleanup never holds many row locks at once
+        do {
+            deleted = idempotencyRecordRepository.deleteExpired(now, cleanupBatchSize);
+            total += deleted;
+        } while (deleted == cleanupBatchSize);
+
+        if (total > 0) {
+            log.info("Purged {} expired idempotency keys", total);
+        }
+        return total;
+    }
+
+    private static void checkOperation(String recorded, String operation) {
+        if (!recorded.equals(operation)) {
+            throw new BadRequestException("Idempotency key was already used for a " + recorded);
+        }
+    }
+
+    private void cacheAfterCommit(Long userId, String key, Completed completed) {
+        Runnable put = () -> {
+            Cache cache = cacheManager.getCache(CACHE_NAME);
+            if (cache != null) {
+                cache.put(cacheKey(userId, key), completed);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    put.run();
+                }
+            });
+        } else {
+            put.run();
+        }
+    }
+
+    private static String cacheKey(Long userId, String key) {
+        return userId + ":" + key;
+    }
+}
@@ -1,27 +1,31 @@
 package com.realestate.service;
 
+import com.realestate.config.ExecutorRegistry;
 import com.realestate.exception.BusinessException;
 import com.realestate.model.dto.InvestmentCalculationDTO;
 import com.realestate.model.dto.InvestmentRequestDTO;
 import com.realestate.model.entity.InvestmentCalculation;
 import com.realestate.model.entity.Property;
 import com.realestate.repository.InvestmentCalculationRepository;
+import com.realestate.repository.PropertyJdbcRepository;
 import com.realestate.repository.PropertyRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
@@ -33,13 +37,17 @@ public class InvestmentCalculatorService {
 
     private final PropertyRepository propertyRepository;
     private final InvestmentCalculationRepository investmentCalculationRepository;
+    private final PropertyJdbcRepository propertyJdbcRepository;
+    private final BatchInvestmentCalculator batchInvestmentCalculator;
+    private final CashFlowEngine cashFlowEngine;
+    private final ExecutorRegistry executorRegistry;
     
-    private final ExecutorService executorService = Executors.newFixedThreadPool(5);
+    @Value("${app.investment.discount-rate:8.0}")
+    private double discountRate;
     
     private static final BigDecimal MONTHS_IN_YEAR = new BigDecimal("12");
     private static final BigDecimal PERCENT = new BigDecimal("100");
     
-    @Async
     public CompletableFuture<InvestmentCalculationDTO> calculateInvestmentMetrics(InvestmentRequestDTO request) {
         log.info("Starting investment calculation for property: {}", request.getPropertyId());
         
@@ -79,7 +87,7 @@ public class InvestmentCalculatorService {
             
             log.info("Investment calculation completed for property: {}", property.getId());
             return dto;
-        }, executorService);
+        }, executorRegistry.executor(ExecutorRegistry.Pool.IO));
     }
     
     public BigDecimal calculateROI(BigDecimal propertyPrice, BigDecimal monthlyRental, 
@@ -183,7 +191,6 @@ public class InvestmentCalculatorService {
         return propertyPrice.divide(netAnnualIncome, 2, RoundingMode.HALF_UP);
     }
     
-    @Async
     public CompletableFuture<Map<String, BigDecimal>> performComplexAnalysis(
             Long propertyId, InvestmentRequestDTO request) {
         
@@ -193,16 +200,18 @@ public class InvestmentCalculatorService {
             Property property = propertyRepository.findById(propertyId)
                 .orElseThrow(() -> new BusinessException("Property not found"));
             
+            ExecutorService cpuExecutor = executorRegistry.executor(ExecutorRegistry.Pool.CPU);
+            
             CompletableFuture<BigDecimal> roiFuture = CompletableFuture.supplyAsync(() ->
                 calculateROI(property.getPrice(), request.getMonthlyRental(), 
-                    request.getAnnualExpenses()));
+                    request.getAnnualExpenses()), cpuExecutor);
                     
             CompletableFuture<BigDecimal> yieldFuture = CompletableFuture.supplyAsync(() ->
-                calculateRentalYield(property.getPrice(), request.getMonthlyRental()));
+                calculateRentalYield(property.getPrice(), request.getMonthlyRental()), cpuExecutor);
                 
             CompletableFuture<BigDecimal> capRateFuture = CompletableFuture.supplyAsync(() ->
                 calculateCapRate(property.getPrice(), request.getMonthlyRental(), 
-                    request.getAnnualExpenses()));
+                    request.getAnnualExpenses()), cpuExecutor);
                     
             try {
                 analysis.put("roi", roiFuture.get());
@@ -214,9 +223,7 @@ public class InvestmentCalculatorService {
                     request.getYears());
                 analysis.put("totalReturn", totalReturn);
                 
-                BigDecimal irrEstimate = estimateIRR(property.getPrice(), 
-                    request.getMonthlyRental(), request.getYears());
-                analysis.put("irr", irrEstimate);
+                analysis.putAll(calculateDiscountedReturns(property, request));
                 
             } catch (Exception e) {
                 log.error("Error in complex analysis", e);
@@ -224,7 +231,7 @@ public class InvestmentCalculatorService {
             }
             
             return analysis;
-        }, executorService);
+        }, executorRegistry.executor(ExecutorRegistry.Pool.IO));
     }
     
     public BigDecimal calculateTotalReturn(BigDecimal initialInvestment, BigDecimal monthlyRental,
@@ -240,16 +247,117 @@ public class InvestmentCalculatorService {
             .multiply(PERCENT);
     }
     
-    private BigDecimal estimateIRR(BigDecimal initialInvestment, BigDecimal monthlyRental, 
-                                   Integer years) {
-        BigDecimal annualCashFlow = monthlyRental.multiply(MONTHS_IN_YEAR);
-        BigDecimal totalCashFlow = annualCashFlow.multiply(new BigDecimal(years));
+    /**
+     * IRR, MIRR and NPV of the monthly levered cash flows, with rates returned as annual percentages
+     */
+    public Map<String, BigDecimal> calculateDiscountedReturns(Property property, InvestmentRequestDTO request) {
+        validatePositive(property.getPrice(), "Property price");
         
-        BigDecimal simpleReturn = totalCashFlow.divide(initialInvestment, 
-            4, RoundingMode.HALF_UP);
+        double[] flows = cashFlowEngine.buildCashFlows(toCashFlowModel(property, request), true);
+        double monthlyDiscount = cashFlowEngine.periodic(discountRate / 100.0, 12);
+        double monthlyFinance = request.getInterestRate() != null
+            ? request.getInterestRate().doubleValue() / 100.0 / 12.0
+            : monthlyDiscount;
         
-        return simpleReturn.divide(new BigDecimal(years), 4, RoundingMode.HALF_UP)
-            .multiply(PERCENT);
+        Map<String, BigDecimal> returns = new HashMap<>();
+        putIfFinite(returns, "irr", cashFlowEngine.annualize(cashFlowEngine.irr(flows), 12) * 100.0, 4);
+        putIfFinite(returns, "mirr",
+            cashFlowEngine.annualize(cashFlowEngine.mirr(flows, monthlyFinance, monthlyDiscount), 12) * 100.0, 4);
+        putIfFinite(returns, "npv", cashFlowEngine.npv(monthlyDiscount, flows), 2);
+        return returns;
+    }
+    
+    private CashFlowEngine.CashFlowModel toCashFlowModel(Property property, InvestmentRequestDTO request) {
+        double price = property.getPrice().doubleValue();
+        double loan = toDouble(request.getLoanAmount());
+        double equity = request.getDownPayment() != null ? request.getDownPayment().doubleValue() : price - loan;
+        double annualFixedExpenses = toDouble(request.getAnnualMaintenance()) + toDouble(request.getPropertyTax())
+            + toDouble(request.getHoaFees()) + toDouble(request.getInsuranceCost());
+        
+        return new CashFlowEngine.CashFlowModel(
+            price,
+            equity,
+            loan,
+            toDouble(request.getInterestRate()),
+            Optional.ofNullable(request.getLoanTermYears()).orElse(0),
+            toDouble(request.getMonthlyRental()),
+            toDouble(request.getMonthlyExpenses()),
+            annualFixedExpenses,
+            toDouble(request.getAppreciationRate()),
+            toDouble(request.getVacancyRate()),
+            toDouble(request.getManagementFeePercentage()),
+            Optional.ofNullable(request.getYears()).orElse(10));
+    }
+    
+    /**
+     * Score every rented-out listing in one pass on the primitive fast path and return the best by ROI.
+     * Values stay as doubles through the calculation and are converted to BigDecimal only for the response.
+     */
+    @Transactional(readOnly = true)
+    public List<PropertyScreeningResult> screenCatalog(BigDecimal appreciationRate, Integer years, int limit) {
+        List<Property> rows = propertyJdbcRepository.findScreeningRows();
+        int n = rows.size();
+        double rate = Optional.ofNullable(appreciationRate).map(BigDecimal::doubleValue).orElse(0.0);
+        int holdYears = Optional.ofNullable(years).orElse(0);
+
+        double[] prices = new double[n];
+        double[] monthlyRentals = new double[n];
+        double[] annualExpenses = new double[n];
+        double[] appreciationRates = new double[n];
+        int[] holdingYears = new int[n];
+        for (int i = 0; i < n; i++) {
+            Property property = rows.get(i);
+            prices[i] = toDouble(property.getPrice());
+            monthlyRentals[i] = toDouble(property.getMonthlyRental());
+            annualExpenses[i] = toDouble(property.getAnnualMaintenance()) + toDouble(property.getPropertyTax())
+                + toDouble(property.getHoaFees()) + toDouble(property.getInsuranceCost());
+            appreciationRates[i] = rate;
+            holdingYears[i] = holdYears;
+        }
+
+        BatchInvestmentCalculator.BatchMetrics metrics = batchInvestmentCalculator.calculate(
+            prices, monthlyRentals, annualExpenses, appreciationRates, holdingYears);
+
+        List<Integer> ranked = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            if (!Double.isNaN(metrics.roi()[i])) {
+                ranked.add(i);
+            }
+        }
+        ranked.sort(Comparator.comparingDouble((Integer i) -> metrics.roi()[i]).reversed());
+        
+        // Unlevered annual IRR for the returned rows; each solve is a few dozen passes over holdYears + 1 doubles
+        double[] irr = new double[n];
+        ranked.stream().limit(limit).forEach(i -> irr[i] = cashFlowEngine.irr(cashFlowEngine.buildCashFlows(
+            new CashFlowEngine.CashFlowModel(prices[i], prices[i], 0, 0, 0, monthlyRentals[i], 0,
+                annualExpenses[i], rate, 0, 0, holdYears), false)) * 100.0);
+
+        return ranked.stream()
+            .limit(limit)
+            .map(i -> new PropertyScreeningResult(
+                rows.get(i).getId(),
+                rows.get(i).getTitle(),
+                rows.get(i).getPrice(),
+                toBigDecimal(metrics.roi()[i], 4),
+                toBigDecimal(metrics.rentalYield()[i], 4),
+                toBigDecimal(metrics.capRate()[i], 4),
+                toBigDecimal(metrics.appreciationValue()[i], 2),
+                toBigDecimal(metrics.breakEvenYears()[i], 2),
+                toBigDecimal(metrics.totalReturn()[i], 4),
+                toBigDecimal(irr[i], 4)))
+            .toList();
+    }
+    
+    public record PropertyScreeningResult(Long propertyId,
+                                          String title,
+                                          BigDecimal price,
+                                          BigDecimal roi,
+                                          BigDecimal rentalYield,
+                                          BigDecimal capRate,
+                                          BigDecimal appreciationValue,
+                                          BigDecimal breakEvenYears,
+                                          BigDecimal totalReturn,
+                                          BigDecimal irr) {
     }
     
     public Function<BigDecimal, BigDecimal> createTaxCalculator(BigDecimal taxRate) {
@@ -277,6 +385,20 @@ public class InvestmentCalculatorService {
         investmentCalculationRepository.save(calculation);
     }
     
+    private static double toDouble(BigDecimal value) {
+        return value != null ? value.doubleValue() : 0.0;
+    }
+    
+    private static void putIfFinite(Map<String, BigDecimal> target, String key, double value, int scale) {
+        if (Double.isFinite(value)) {
+            target.put(key, BigDecimal.valueOf(value).setScale(scale, RoundingMode.HALF_UP));
+        }
+    }
+    
+    private static BigDecimal toBigDecimal(double value, int scale) {
+        return Double.isFinite(value) ? BigDecimal.valueOf(value).setScale(scale, RoundingMode.HALF_UP) : null;
+    }
+    
     private void validatePositive(BigDecimal value, String fieldName) {
         if (value == null || value.compareTo(BigDecimal.ZERO) <= 0) {
             throw new BusinessException(fieldName + " must be positive");
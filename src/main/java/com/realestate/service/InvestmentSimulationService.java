@@ -0,0 +1,120 @@
+package com.realestate.service;
+
+import com.realestate.exception.BusinessException;
+import com.realestate.exception.ResourceNotFoundException;
+import com.realestate.model.dto.InvestmentRequestDTO;
+import com.realestate.model.entity.MarketData;
+import com.realestate.model.entity.Property;
+import com.realestate.repository.MarketDataRepository;
+import com.realestate.repository.PropertyRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class InvestmentSimulationService {
+
+    private final PropertyRepository propertyRepository;
+    private final MarketDataRepository marketDataRepository;
+    private final MonteCarloSimulator monteCarloSimulator;
+
+    @Value("${app.simulation.max-paths:1000000}")
+    private int maxPaths;
+
+    @Value("${app.simulation.max-deadline-ms:30000}")
+    private long maxDeadlineMillis;
+
+    @Value("${app.simulation.default-volatility:3.0}")
+    private double defaultVolatility;
+
+    /**
+     * Stress-test a property's returns under random appreciation, rental growth and vacancy paths.
+     * Market factors are bootstrapped from the city's MarketData history when available.
+     */
+    public MonteCarloSimulator.SimulationResult simulateReturns(Long propertyId, InvestmentRequestDTO request,
+                                                                int paths, long deadlineMillis, Long seed) {
+        if (paths <= 0 || paths > maxPaths) {
+            throw new BusinessException("Path count must be between 1 and " + maxPaths);
+        }
+        if (deadlineMillis <= 0 || deadlineMillis > maxDeadlineMillis) {
+            throw new BusinessException("Deadline must be between 1 and " + maxDeadlineMillis + " ms");
+        }
+
+        Property property = propertyRepository.findById(propertyId)
+            .orElseThrow(() -> new ResourceNotFoundException("Property not found with id: " + propertyId));
+        if (property.getPrice() == null || property.getPrice().compareTo(BigDecimal.ZERO) <= 0) {
+            throw new BusinessException("Property price must be positive");
+        }
+
+        List<MarketData> history = marketHistory(property);
+        log.info("Simulating {} paths for property {} using {} market observations",
+            paths, propertyId, history.size());
+
+        double price = property.getPrice().doubleValue();
+        double loan = toDouble(request.getLoanAmount());
+        double equity = request.getDownPayment() != null ? request.getDownPayment().doubleValue() : price - loan;
+        if (equity <= 0) {
+            throw new BusinessException("Equity must be positive");
+        }
+        double annualExpenses = toDouble(request.getMonthlyExpenses()) * 12
+            + toDouble(request.getAnnualMaintenance()) + toDouble(request.getPropertyTax())
+            + toDouble(request.getHoaFees()) + toDouble(request.getInsuranceCost());
+        double monthlyRental = request.getMonthlyRental() != null
+            ? request.getMonthlyRental().doubleValue()
+            : toDouble(property.getMonthlyRental());
+
+        MonteCarloSimulator.SimulationInput input = new MonteCarloSimulator.SimulationInput(
+            price,
+            equity,
+            loan,
+            toDouble(request.getInterestRate()),
+            Optional.ofNullable(request.getLoanTermYears()).orElse(0),
+            monthlyRental,
+            annualExpenses,
+            Optional.ofNullable(request.getYears()).orElse(10),
+            distribution(history, MarketData::getGrowthRateYoy, toDouble(request.getAppreciationRate())),
+            distribution(history, MarketData::getRentalGrowthRate, 0.0),
+            distribution(history, MarketData::getVacancyRate, toDouble(request.getVacancyRate())));
+
+        return monteCarloSimulator.simulate(input, paths, deadlineMillis,
+            seed != null ? seed : System.nanoTime());
+    }
+
+    // Prefer observations for the same property type, falling back to the whole city
+    private List<MarketData> marketHistory(Property property) {
+        if (property.getCity() == null || property.getState() == null) {
+            return List.of();
+        }
+        List<MarketData> cityHistory = marketDataRepository.findByCityAndState(property.getCity(), property.getState());
+        List<MarketData> sameType = cityHistory.stream()
+            .filter(md -> md.getPropertyType() == property.getPropertyType())
+            .toList();
+        return sameType.size() >= 2 ? sameType : cityHistory;
+    }
+
+    private MonteCarloSimulator.FactorDistribution distribution(List<MarketData> history,
+                                                               Function<MarketData, BigDecimal> factor,
+                                                               double fallbackMean) {
+        double[] samples = history.stream()
+            .map(factor)
+            .filter(Objects::nonNull)
+            .mapToDouble(BigDecimal::doubleValue)
+            .toArray();
+        return new MonteCarloSimulator.FactorDistribution(samples, fallbackMean, defaultVolatility);
+    }
+
+    private static double toDouble(BigDecimal value) {
+        return value != null ? value.doubleValue() : 0.0;
+    }
+}
@@ -5,18 +5,18 @@ import com.realestate.exception.ResourceNotFoundException;
 import com.realestate.exception.UnauthorizedException;
 import com.realestate.model.entity.*;
 import com.realestate.repository.*;
+import com.realestate.security.CurrentUser;
+import com.realestate.security.CurrentUserProvider;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.retry.annotation.Backoff;
-import org.springframework.retry.annotation.Retryable;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
@@ -30,19 +30,59 @@ public class InvestmentTransactionService {
     private final PortfolioRepository portfolioRepository;
     private final HoldingRepository holdingRepository;
     private final PropertyRepository propertyRepository;
-    private final UserRepository userRepository;
+    private final CurrentUserProvider currentUserProvider;
+    private final PortfolioTradeExecutor tradeExecutor;
+    private final IdempotencyService idempotencyService;
 
-    @Retryable(maxAttempts = 3, backoff = @Backoff(delay = 100))
-    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    // Trades open their own transactions inside PortfolioTradeExecutor, so a conflict can be retried afresh
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public InvestmentTransaction executeBuyTransaction(Long portfolioId, Long propertyId,
                                                         BigDecimal quantity, String idempotencyKey) {
-        if (idempotencyKey != null && transactionRepository.existsByIdempotencyKey(idempotencyKey)) {
-            return transactionRepository.findByIdempotencyKey(idempotencyKey)
-                    .orElseThrow(() -> new BadRequestException("Transaction already processed"));
+        User user = currentUserProvider.get().user();
+        Optional<InvestmentTransaction> completed = findCompleted(user, idempotencyKey,
+                InvestmentTransaction.TransactionType.BUY);
+        if (completed.isPresent()) {
+            return completed.get();
+        }
+        return tradeExecutor.execute(List.of(portfolioId),
+                () -> buy(user, portfolioId, propertyId, quantity, idempotencyKey));
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public InvestmentTransaction executeSellTransaction(Long portfolioId, Long holdingId,
+                                                         BigDecimal quantity, String idempotencyKey) {
+        User user = currentUserProvider.get().user();
+        Optional<InvestmentTransaction> completed = findCompleted(user, idempotencyKey,
+                InvestmentTransaction.TransactionType.SELL);
+        if (completed.isPresent()) {
+            return completed.get();
+        }
+        return tradeExecutor.execute(List.of(portfolioId),
+                () -> sell(user, portfolioId, holdingId, quantity, idempotencyKey));
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public InvestmentTransaction executeTransfer(Long fromPortfolioId, Long toPortfolioId,
+                                                  Long holdingId, BigDecimal quantity, String idempotencyKey) {
+        User user = currentUserProvider.get().user();
+        Optional<InvestmentTransaction> completed = findCompleted(user, idempotencyKey,
+                InvestmentTransaction.TransactionType.TRANSFER_OUT);
+        if (completed.isPresent()) {
+            return completed.get();
+        }
+        return tradeExecutor.execute(List.of(fromPortfolioId, toPortfolioId),
+                () -> transfer(user, fromPortfolioId, toPortfolioId, holdingId, quantity, idempotencyKey));
+    }
+
+    private InvestmentTransaction buy(User user, Long portfolioId, Long propertyId,
+                                      BigDecimal quantity, String idempotencyKey) {
+        Optional<InvestmentTransaction> previous =
+                claimIdempotencyKey(user, idempotencyKey, InvestmentTransaction.TransactionType.BUY);
+        if (previous.isPresent()) {
+            return previous.get();
         }
 
-        User user = getCurrentUser();
-        Portfolio portfolio = portfolioRepository.findByIdWithLock(portfolioId)
+        Portfolio portfolio = portfolioRepository.findById(portfolioId)
                 .orElseThrow(() -> new ResourceNotFoundException("Portfolio not found"));
 
         if (!portfolio.getUser().getId().equals(user.getId())) {
@@ -92,6 +132,7 @@ public class InvestmentTransactionService {
                 .build();
 
         transaction = transactionRepository.save(transaction);
+        completeIdempotencyKey(user, idempotencyKey, transaction);
 
         portfolio.setTotalInvested(portfolio.getTotalInvested().add(grossAmount));
         portfolio.setTotalCurrentValue(portfolio.getTotalCurrentValue().add(grossAmount));
@@ -103,23 +144,22 @@ public class InvestmentTransactionService {
         return transaction;
     }
 
-    @Transactional(isolation = Isolation.SERIALIZABLE)
-    public InvestmentTransaction executeSellTransaction(Long portfolioId, Long holdingId,
-                                                         BigDecimal quantity, String idempotencyKey) {
-        if (idempotencyKey != null && transactionRepository.existsByIdempotencyKey(idempotencyKey)) {
-            return transactionRepository.findByIdempotencyKey(idempotencyKey)
-                    .orElseThrow(() -> new BadRequestException("Transaction already processed"));
+    private InvestmentTransaction sell(User user, Long portfolioId, Long holdingId,
+                                       BigDecimal quantity, String idempotencyKey) {
+        Optional<InvestmentTransaction> previous =
+                claimIdempotencyKey(user, idempotencyKey, InvestmentTransaction.TransactionType.SELL);
+        if (previous.isPresent()) {
+            return previous.get();
         }
 
-        User user = getCurrentUser();
-        Portfolio portfolio = portfolioRepository.findByIdWithLock(portfolioId)
+        Portfolio portfolio = portfolioRepository.findById(portfolioId)
                 .orElseThrow(() -> new ResourceNotFoundException("Portfolio not found"));
 
         if (!portfolio.getUser().getId().equals(user.getId())) {
             throw new UnauthorizedException("Not authorized to transact on this portfolio");
         }
 
-        Holding holding = holdingRepository.findByIdWithLock(holdingId)
+        Holding holding = holdingRepository.findById(holdingId)
                 .orElseThrow(() -> new ResourceNotFoundException("Holding not found"));
 
         if (!holding.getPortfolio().getId().equals(portfolioId)) {
@@ -167,6 +207,7 @@ public class InvestmentTransactionService {
                 .build();
 
         transaction = transactionRepository.save(transaction);
+        completeIdempotencyKey(user, idempotencyKey, transaction);
 
         portfolio.setTotalInvested(portfolio.getTotalInvested().subtract(costBasis));
         portfolio.setTotalCurrentValue(portfolio.getTotalCurrentValue().subtract(grossAmount));
@@ -179,21 +220,24 @@ public class InvestmentTransactionService {
         return transaction;
     }
 
-    @Transactional(isolation = Isolation.SERIALIZABLE)
-    public InvestmentTransaction executeTransfer(Long fromPortfolioId, Long toPortfolioId,
-                                                  Long holdingId, BigDecimal quantity) {
-        User user = getCurrentUser();
+    private InvestmentTransaction transfer(User user, Long fromPortfolioId, Long toPortfolioId,
+                                           Long holdingId, BigDecimal quantity, String idempotencyKey) {
+        Optional<InvestmentTransaction> previous =
+                claimIdempotencyKey(user, idempotencyKey, InvestmentTransaction.TransactionType.TRANSFER_OUT);
+        if (previous.isPresent()) {
+            return previous.get();
+        }
 
-        Portfolio fromPortfolio = portfolioRepository.findByIdWithLock(fromPortfolioId)
+        Portfolio fromPortfolio = portfolioRepository.findById(fromPortfolioId)
                 .orElseThrow(() -> new ResourceNotFoundException("Source portfolio not found"));
-        Portfolio toPortfolio = portfolioRepository.findByIdWithLock(toPortfolioId)
+        Portfolio toPortfolio = portfolioRepository.findById(toPortfolioId)
                 .orElseThrow(() -> new ResourceNotFoundException("Target portfolio not found"));
 
         if (!fromPortfolio.getUser().getId().equals(user.getId())) {
             throw new UnauthorizedException("Not authorized to transfer from this portfolio");
         }
 
-        Holding sourceHolding = holdingRepository.findByIdWithLock(holdingId)
+        Holding sourceHolding = holdingRepository.findById(holdingId)
                 .orElseThrow(() -> new ResourceNotFoundException("Holding not found"));
 
         if (sourceHolding.getQuantity().compareTo(quantity) < 0) {
@@ -239,9 +283,11 @@ public class InvestmentTransactionService {
                 .netAmount(costBasis)
                 .costBasis(costBasis)
                 .status(InvestmentTransaction.TransactionStatus.COMPLETED)
+                .idempotencyKey(idempotencyKey)
                 .build();
 
-        transactionRepository.save(transaction);
+        transaction = transactionRepository.save(transaction);
+        completeIdempotencyKey(user, idempotencyKey, transaction);
 
         fromPortfolio.setTotalInvested(fromPortfolio.getTotalInvested().subtract(costBasis));
         toPortfolio.setTotalInvested(toPortfolio.getTotalInvested().add(costBasis));
@@ -253,15 +299,40 @@ public class InvestmentTransactionService {
         return transaction;
     }
 
+    private Optional<InvestmentTransaction> findCompleted(User user, String idempotencyKey,
+                                                          InvestmentTransaction.TransactionType type) {
+        if (idempotencyKey == null) {
+            return Optional.empty();
+        }
+        return idempotencyService.findCompleted(user.getId(), idempotencyKey, type.name())
+                .flatMap(transactionRepository::findById);
+    }
+
+    private Optional<InvestmentTransaction> claimIdempotencyKey(User user, String idempotencyKey,
+                                                                InvestmentTransaction.TransactionType type) {
+        if (idempotencyKey == null) {
+            return Optional.empty();
+        }
+        return idempotencyService.claim(user.getId(), idempotencyKey, type.name())
+                .map(transactionId -> transactionRepository.findById(transactionId)
+                        .orElseThrow(() -> new BadRequestException("Transaction already processed")));
+    }
+
+    private void completeIdempotencyKey(User user, String idempotencyKey, InvestmentTransaction transaction) {
+        if (idempotencyKey != null) {
+            idempotencyService.complete(user.getId(), idempotencyKey, transaction.getTransactionType().name(),
+                    transaction.getId());
+        }
+    }
+
     @Transactional(readOnly = true)
     public List<InvestmentTransaction> getTransactionHistory(Long portfolioId) {
         Portfolio portfolio = portfolioRepository.findById(portfolioId)
                 .orElseThrow(() -> new ResourceNotFoundException("Portfolio not found"));
 
-        User user = getCurrentUser();
-        if (!portfolio.getUser().getId().equals(user.getId()) &&
-            user.getRole() != User.UserRole.ADMIN &&
-            user.getRole() != User.UserRole.ANALYST) {
+        CurrentUser currentUser = currentUserProvider.get();
+        if (!portfolio.getUser().getId().equals(currentUser.id()) &&
+            !currentUser.hasAnyRole(User.UserRole.ADMIN, User.UserRole.ANALYST)) {
             throw new UnauthorizedException("Access denied");
         }
 
@@ -275,8 +346,7 @@ public class InvestmentTransactionService {
     }
 
     public InvestmentTransaction reverseTransaction(Long transactionId) {
-        User user = getCurrentUser();
-        if (user.getRole() != User.UserRole.ADMIN) {
+        if (currentUserProvider.get().role() != User.UserRole.ADMIN) {
             throw new UnauthorizedException("Only admins can reverse transactions");
         }
 
@@ -293,10 +363,4 @@ public class InvestmentTransactionService {
         log.info("Reversed transaction {}", original.getTransactionReference());
         return original;
     }
-
-    private User getCurrentUser() {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new UnauthorizedException("User not found"));
-    }
 }
@@ -0,0 +1,206 @@
+package com.realestate.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Monte Carlo simulator for property returns.
+ * Paths are split across a dedicated ForkJoinPool; every leaf task owns a SplittableRandom split from its
+ * parent and writes results into its own slice of primitive result arrays, so workers never contend.
+ * Yearly appreciation, rental growth and vacancy are bootstrapped from historical market observations
+ * when there are enough of them, otherwise drawn from a normal distribution around the caller's assumption.
+ */
+@Component
+@Slf4j
+public class MonteCarloSimulator {
+
+    private static final int LEAF_SIZE = 2048;
+    private static final int DEADLINE_CHECK_INTERVAL = 256;
+    private static final int MIN_HISTORY = 2;
+
+    private final CashFlowEngine cashFlowEngine;
+    private final ForkJoinPool simulationPool;
+
+    public MonteCarloSimulator(CashFlowEngine cashFlowEngine,
+                               @Value("${app.simulation.parallelism:0}") int parallelism) {
+        this.cashFlowEngine = cashFlowEngine;
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.simulationPool = new ForkJoinPool(threads);
+    }
+
+    /**
+     * Distribution of a market factor in annual percent: historical samples, or mean and standard deviation
+     */
+    public record FactorDistribution(double[] history, double mean, double standardDeviation) {
+
+        double sample(SplittableRandom random) {
+            if (history != null && history.length >= MIN_HISTORY) {
+                return history[random.nextInt(history.length)];
+            }
+            return mean + standardDeviation * gaussian(random);
+        }
+    }
+
+    public record SimulationInput(double purchasePrice,
+                                  double equity,
+                                  double loanAmount,
+                                  double annualInterestRate,
+                                  int loanTermYears,
+                                  double monthlyRental,
+                                  double annualExpenses,
+                                  int holdingYears,
+                                  FactorDistribution appreciation,
+                                  FactorDistribution rentalGrowth,
+                                  FactorDistribution vacancy) {
+    }
+
+    public record Percentiles(double p5, double p50, double p95, double mean) {
+    }
+
+    public record SimulationResult(int requestedPaths,
+                                   int completedPaths,
+                                   boolean deadlineReached,
+                                   long elapsedMillis,
+                                   Percentiles totalReturn,
+                                   Percentiles irr) {
+    }
+
+    /**
+     * Run up to pathCount paths, stopping early once deadlineMillis have elapsed.
+     * Percentiles are computed over the paths that finished; total return and IRR are in percent.
+     */
+    public SimulationResult simulate(SimulationInput input, int pathCount, long deadlineMillis, long seed) {
+        long start = System.nanoTime();
+        long deadline = start + deadlineMillis * 1_000_000L;
+
+        double[] totalReturns = new double[pathCount];
+        double[] irrs = new double[pathCount];
+        Arrays.fill(totalReturns, Double.NaN);
+        Arrays.fill(irrs, Double.NaN);
+        LongAdder completed = new LongAdder();
+
+        simulationPool.invoke(new PathTask(input, new SplittableRandom(seed), 0, pathCount, deadline,
+            totalReturns, irrs, completed));
+
+        long elapsed = (System.nanoTime() - start) / 1_000_000L;
+        int done = completed.intValue();
+        if (done < pathCount) {
+            log.warn("Simulation deadline of {} ms reached after {} of {} paths", deadlineMillis, done, pathCount);
+        }
+        return new SimulationResult(pathCount, done, done < pathCount, elapsed,
+            percentiles(totalReturns), percentiles(irrs));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        simulationPool.shutdown();
+    }
+
+    private final class PathTask extends RecursiveAction {
+
+        private final SimulationInput input;
+        private final SplittableRandom random;
+        private final int from;
+        private final int to;
+        private final long deadline;
+        private final double[] totalReturns;
+        private final double[] irrs;
+        private final LongAdder completed;
+
+        PathTask(SimulationInput input, SplittableRandom random, int from, int to, long deadline,
+                 double[] totalReturns, double[] irrs, LongAdder completed) {
+            this.input = input;
+            this.random = random;
+            this.from = from;
+            this.to = to;
+            this.deadline = deadline;
+            this.totalReturns = totalReturns;
+            this.irrs = irrs;
+            this.completed = completed;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_SIZE) {
+                runPaths();
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            PathTask left = new PathTask(input, random.split(), from, mid, deadline, totalReturns, irrs, completed);
+            PathTask right = new PathTask(input, random, mid, to, deadline, totalReturns, irrs, completed);
+            invokeAll(left, right);
+        }
+
+        private void runPaths() {
+            int years = Math.max(input.holdingYears(), 1);
+            int loanMonths = Math.max(input.loanTermYears(), 0) * 12;
+            double monthlyRate = input.annualInterestRate() / 100.0 / 12.0;
+            double annualDebtService = cashFlowEngine.levelPayment(input.loanAmount(), monthlyRate, loanMonths) * 12.0;
+            double remainingLoan = cashFlowEngine.remainingBalance(input.loanAmount(), monthlyRate, loanMonths,
+                years * 12);
+            int loanYears = input.loanTermYears();
+            double[] flows = new double[years + 1];
+
+            int finished = 0;
+            for (int path = from; path < to; path++) {
+                if ((path - from) % DEADLINE_CHECK_INTERVAL == 0 && System.nanoTime() > deadline) {
+                    break;
+                }
+
+                double value = input.purchasePrice();
+                double monthlyRent = input.monthlyRental();
+                double income = 0.0;
+                flows[0] = -input.equity();
+                for (int year = 1; year <= years; year++) {
+                    double vacancy = Math.min(100.0, Math.max(0.0, input.vacancy().sample(random)));
+                    double netOperating = monthlyRent * 12.0 * (1.0 - vacancy / 100.0) - input.annualExpenses();
+                    double cashFlow = netOperating - (year <= loanYears ? annualDebtService : 0.0);
+                    flows[year] = cashFlow;
+                    income += cashFlow;
+                    value *= 1.0 + input.appreciation().sample(random) / 100.0;
+                    monthlyRent *= 1.0 + input.rentalGrowth().sample(random) / 100.0;
+                }
+                double saleProceeds = value - remainingLoan;
+                flows[years] += saleProceeds;
+
+                totalReturns[path] = (income + saleProceeds - input.equity()) / input.equity() * 100.0;
+                irrs[path] = cashFlowEngine.irr(flows) * 100.0;
+                finished++;
+            }
+            completed.add(finished);
+        }
+    }
+
+    private static Percentiles percentiles(double[] values) {
+        double[] finite = Arrays.stream(values).filter(Double::isFinite).toArray();
+        if (finite.length == 0) {
+            return new Percentiles(Double.NaN, Double.NaN, Double.NaN, Double.NaN);
+        }
+        Arrays.sort(finite);
+        double sum = 0.0;
+        for (double value : finite) {
+            sum += value;
+        }
+        return new Percentiles(rank(finite, 0.05), rank(finite, 0.50), rank(finite, 0.95), sum / finite.length);
+    }
+
+    private static double rank(double[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    // Box-Muller; one of the pair is discarded to keep FactorDistribution stateless
+    private static double gaussian(SplittableRandom random) {
+        double u1 = random.nextDouble();
+        double u2 = random.nextDouble();
+        return Math.sqrt(-2.0 * Math.log(1.0 - u1)) * Math.cos(2.0 * Math.PI * u2);
+    }
+}
@@ -0,0 +1,191 @@
+package com.realestate.service;
+
+import com.realestate.model.entity.Payment;
+import com.realestate.model.entity.PropertyPaymentTotal;
+import com.realestate.repository.InvestorPaymentTotalRepository;
+import com.realestate.repository.PropertyPaymentTotalRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Running totals of successful payments per investor and per property: amount invested, payment count and
+ * last payment time. They are written in the same transaction that moves a payment to SUCCESS, so dashboard
+ * totals and the top invested properties are a primary key or index read instead of an aggregate over
+ * payments. At startup and nightly the sums of both are checked against the payments table; only when they
+ * disagree are they rebuilt, walking key ranges chunk-size ids at a time, each recomputed and replaced in its
+ * own short transaction.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentAggregateService {
+
+    public record InvestorTotals(BigDecimal totalInvested, long paymentCount, LocalDateTime lastPaymentAt) {
+
+        static final InvestorTotals NONE = new InvestorTotals(BigDecimal.ZERO, 0, null);
+    }
+
+    private static final class Delta {
+
+        private BigDecimal amount = BigDecimal.ZERO;
+        private long count;
+        private LocalDateTime lastPaidAt;
+
+        private void add(BigDecimal amount, LocalDateTime paidAt) {
+            this.amount = this.amount.add(amount);
+            this.count++;
+            if (lastPaidAt == null || paidAt.isAfter(lastPaidAt)) {
+                lastPaidAt = paidAt;
+            }
+        }
+    }
+
+    private interface RangeRebuild {
+
+        int rebuild(long fromId, long toId);
+    }
+
+    private final InvestorPaymentTotalRepository investorPaymentTotalRepository;
+    private final PropertyPaymentTotalRepository propertyPaymentTotalRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.payments.aggregates.chunk-size:1000}")
+    private int chunkSize = 1000;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            rebuildIfDrifted();
+        } catch (RuntimeException e) {
+            log.warn("Payment totals check at startup failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Add payments that have just moved to SUCCESS to their investor and property totals. Must run in the
+     * transaction that marks them paid, and only once per payment.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordSuccess(Collection<Payment> payments) {
+        if (payments.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, Delta> byInvestor = new TreeMap<>();
+        Map<Long, Delta> byProperty = new TreeMap<>();
+        for (Payment payment : payments) {
+            BigDecimal amount = payment.getInvestmentAmount() != null ? payment.getInvestmentAmount() : BigDecimal.ZERO;
+            LocalDateTime paidAt = payment.getPaidAt() != null ? payment.getPaidAt() : now;
+            if (payment.getInvestor() != null) {
+                delta(byInvestor, payment.getInvestor().getId()).add(amount, paidAt);
+            }
+            if (payment.getProperty() != null) {
+                delta(byProperty, payment.getProperty().getId()).add(amount, paidAt);
+            }
+        }
+        // One upsert per key, in key order, so concurrent batches lock the total rows in the same order
+        byInvestor.forEach((investorId, delta) ->
+                investorPaymentTotalRepository.add(investorId, delta.amount, delta.count, delta.lastPaidAt));
+        byProperty.forEach((propertyId, delta) ->
+                propertyPaymentTotalRepository.add(propertyId, delta.amount, delta.count, delta.lastPaidAt));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordSuccess(Payment payment) {
+        recordSuccess(List.of(payment));
+    }
+
+    @Transactional(readOnly = true)
+    public InvestorTotals investorTotals(Long investorId) {
+        return investorPaymentTotalRepository.findById(investorId)
+                .map(total -> new InvestorTotals(total.getTotalInvested(), total.getPaymentCount(),
+                        total.getLastPaymentAt()))
+                .orElse(InvestorTotals.NONE);
+    }
+
+    @Transactional(readOnly = true)
+    public BigDecimal propertyTotalInvested(Long propertyId) {
+        return propertyPaymentTotalRepository.findById(propertyId)
+                .map(PropertyPaymentTotal::getTotalInvested)
+                .orElse(BigDecimal.ZERO);
+    }
+
+    /**
+     * Property, payment count and total invested for the most invested properties
+     */
+    @Transactional(readOnly = true)
+    public List<Object[]> topInvestedProperties(Pageable pageable) {
+        return propertyPaymentTotalRepository.findTopInvested(pageable);
+    }
+
+    /**
+     * Rebuild whichever totals no longer add up to the successful payments
+     *
+     * @return total rows written
+     */
+    @Scheduled(cron = "${app.payments.aggregates.rebuild-cron:0 15 3 * * *}")
+    public int rebuildIfDrifted() {
+        int written = 0;
+        if (investorPaymentTotalRepository.countDriftedSums() > 0) {
+            log.warn("Investor payment totals drifted from payments, rebuilding");
+            written += rebuildInvestorTotals();
+        }
+        if (propertyPaymentTotalRepository.countDriftedSums() > 0) {
+            log.warn("Property payment totals drifted from payments, rebuilding");
+            written += rebuildPropertyTotals();
+        }
+        return written;
+    }
+
+    public int rebuildInvestorTotals() {
+        int written = rebuildInChunks(investorPaymentTotalRepository.findMaxKey(), (fromId, toId) -> {
+            investorPaymentTotalRepository.lockPaymentsInRange(fromId, toId);
+            investorPaymentTotalRepository.deleteRange(fromId, toId);
+            return investorPaymentTotalRepository.insertRange(fromId, toId);
+        });
+        log.info("Investor payment totals rebuilt ({} rows written)", written);
+        return written;
+    }
+
+    public int rebuildPropertyTotals() {
+        int written = rebuildInChunks(propertyPaymentTotalRepository.findMaxKey(), (fromId, toId) -> {
+            propertyPaymentTotalRepository.lockPaymentsInRange(fromId, toId);
+            propertyPaymentTotalRepository.deleteRange(fromId, toId);
+            return propertyPaymentTotalRepository.insertRange(fromId, toId);
+        });
+        log.info("Property payment totals rebuilt ({} rows written)", written);
+        return written;
+    }
+
+    // Ranges go in key order, each in its own transaction; a failed range leaves the committed ones in place
+    private int rebuildInChunks(long maxId, RangeRebuild rangeRebuild) {
+        int written = 0;
+        for (long fromId = 0; fromId <= maxId; fromId += chunkSize) {
+            long from = fromId;
+            long to = fromId + chunkSize - 1;
+            Integer rows = transactionTemplate.execute(status -> rangeRebuild.rebuild(from, to));
+            written += rows != null ? rows : 0;
+        }
+        return written;
+    }
+
+    private static Delta delta(Map<Long, Delta> deltas, Long id) {
+        return deltas.computeIfAbsent(id, key -> new Delta());
+    }
+}
@@ -0,0 +1,264 @@
+package com.realestate.service;
+
+import com.realestate.config.ExecutorRegistry;
+import com.realestate.exception.PaymentException;
+import com.realestate.model.entity.Payment;
+import com.realestate.model.entity.PaymentCallback;
+import com.realestate.repository.PaymentCallbackRepository;
+import com.realestate.repository.PaymentRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Durable ingestion of Razorpay payment callbacks. The HTTP callback only verifies the signature and
+ * journals it with one INSERT IGNORE, so it is acknowledged without touching the payment. Up to workers
+ * drain loops on the IO pool then apply journaled callbacks in batches: each batch is claimed with
+ * SKIP LOCKED, loads its payments in one query and commits in one transaction. A redelivered callback
+ * is dropped at the journal by its payment id. A scheduled drain picks up anything left after a restart
+ * or a failed batch. When a batch fails, its callbacks are retried one per transaction, and a callback that
+ * keeps failing is marked FAILED after max-attempts so it cannot hold up the ones behind it.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentCallbackService implements MeterBinder {
+
+    /**
+     * @param duplicate the callback had already been journaled
+     */
+    public record CallbackAck(String razorpayPaymentId, boolean duplicate) {}
+
+    private final PaymentCallbackRepository paymentCallbackRepository;
+    private final PaymentRepository paymentRepository;
+    private final PaymentService paymentService;
+    private final RazorpaySignatureVerifier razorpaySignatureVerifier;
+    private final PaymentAggregateService paymentAggregateService;
+    private final ExecutorRegistry executorRegistry;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicInteger activeWorkers = new AtomicInteger();
+    private final AtomicBoolean drainRequested = new AtomicBoolean();
+
+    @Value("${app.payments.callbacks.workers:4}")
+    private int workers = 4;
+
+    @Value("${app.payments.callbacks.batch-size:100}")
+    private int batchSize = 100;
+
+    @Value("${app.payments.callbacks.max-attempts:5}")
+    private int maxAttempts = 5;
+
+    /**
+     * Verify and journal a callback; throws PaymentException when the signature does not match
+     */
+    public CallbackAck accept(String orderId, String paymentId, String signature, PaymentCallback.Source source) {
+        if (!razorpaySignatureVerifier.verify(orderId, paymentId, signature)) {
+            throw new PaymentException("Payment verification failed: Invalid signature");
+        }
+
+        boolean journaled = paymentCallbackRepository.append(orderId, paymentId, signature, source.name(),
+                LocalDateTime.now()) == 1;
+        if (journaled) {
+            requestDrain();
+        } else {
+            log.debug("Duplicate callback for payment {} ignored", paymentId);
+        }
+        return new CallbackAck(paymentId, !journaled);
+    }
+
+    /**
+     * Start a drain loop on the IO pool unless workers of them are already running; a running loop sees the
+     * request and makes another pass before it exits
+     */
+    public void requestDrain() {
+        drainRequested.set(true);
+        if (activeWorkers.incrementAndGet() > workers) {
+            activeWorkers.decrementAndGet();
+            return;
+        }
+        executorRegistry.executor(ExecutorRegistry.Pool.IO).execute(() -> {
+            try {
+                drain();
+            } finally {
+                activeWorkers.decrementAndGet();
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.payments.callbacks.poll-interval-ms:5000}",
+               initialDelayString = "${app.payments.callbacks.poll-interval-ms:5000}")
+    public void drainPending() {
+        requestDrain();
+    }
+
+    /**
+     * Apply batches until the journal has no unclaimed callbacks left
+     */
+    public int drain() {
+        int total = 0;
+        do {
+            drainRequested.set(false);
+            int processed;
+            do {
+                try {
+                    processed = applyBatch();
+                } catch (ConcurrencyFailureException e) {
+                    // The batch rolled back and stays in the journal for the next drain
+                    log.warn("Payment callback batch hit a concurrent update: {}", e.getMessage());
+                    return total;
+                } catch (RuntimeException e) {
+                    log.warn("Payment callback batch failed, applying its callbacks one at a time", e);
+                    processed = applyIndividually();
+                }
+                total += processed;
+            } while (processed == batchSize);
+        } while (drainRequested.get());
+        return total;
+    }
+
+    /**
+     * Claim and apply one batch in a single transaction; returns the number of callbacks processed
+     */
+    public int applyBatch() {
+        Integer processed = transactionTemplate.execute(status ->
+                applyClaimed(paymentCallbackRepository.claimBatch(batchSize)));
+        return processed != null ? processed : 0;
+    }
+
+    /**
+     * Apply the oldest callbacks each in its own transaction; one that fails has the attempt counted instead.
+     * Returns the number of callbacks applied or counted, so a drain stops when none made progress.
+     */
+    public int applyIndividually() {
+        int processed = 0;
+        for (Long id : paymentCallbackRepository.findReceivedIds(batchSize)) {
+            try {
+                Integer applied = transactionTemplate.execute(status ->
+                        applyClaimed(paymentCallbackRepository.claim(id).stream().toList()));
+                processed += applied != null ? applied : 0;
+            } catch (ConcurrencyFailureException e) {
+                // Not the callback's fault; it is retried without counting an attempt
+                log.warn("Payment callback {} hit a concurrent update: {}", id, e.getMessage());
+            } catch (RuntimeException e) {
+                log.warn("Payment callback {} failed to apply: {}", id, e.getMessage());
+                try {
+                    processed += paymentCallbackRepository.recordFailure(id, failureReason(e), maxAttempts,
+                            LocalDateTime.now());
+                } catch (RuntimeException recordError) {
+                    log.error("Could not record failure of payment callback {}", id, recordError);
+                    return processed;
+                }
+            }
+        }
+        return processed;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("payments.callbacks.workers", activeWorkers, AtomicInteger::get)
+                .description("Payment callback drain loops running")
+                .register(registry);
+    }
+
+    // Apply claimed callbacks in the caller's transaction; returns how many there were
+    private int applyClaimed(List<PaymentCallback> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        Set<String> orderIds = batch.stream().map(PaymentCallback::getRazorpayOrderId).collect(Collectors.toSet());
+        Map<String, Payment> payments = new HashMap<>();
+        for (Payment payment : paymentRepository.findByGatewayOrderIds(orderIds)) {
+            if (payment.getRazorpayOrderId() != null) {
+                payments.put(payment.getRazorpayOrderId(), payment);
+            }
+            if (payment.getOrderId() != null) {
+                payments.putIfAbsent(payment.getOrderId(), payment);
+            }
+        }
+
+        List<Payment> succeeded = new ArrayList<>();
+        List<Payment> checkouts = new ArrayList<>();
+        for (PaymentCallback callback : batch) {
+            Payment payment = payments.get(callback.getRazorpayOrderId());
+            if (apply(callback, payment)) {
+                succeeded.add(payment);
+                if (callback.getSource() == PaymentCallback.Source.CHECKOUT) {
+                    checkouts.add(payment);
+                }
+            }
+        }
+        paymentAggregateService.recordSuccess(succeeded);
+        afterCommit(checkouts);
+        return batch.size();
+    }
+
+    // True when the callback moved its payment to SUCCESS
+    private boolean apply(PaymentCallback callback, Payment payment) {
+        if (payment == null) {
+            callback.markRejected("Payment not found for order: " + callback.getRazorpayOrderId());
+            log.warn("Rejected callback {}: no payment for order {}", callback.getRazorpayPaymentId(),
+                    callback.getRazorpayOrderId());
+            return false;
+        }
+        if (payment.isPaid()) {
+            if (callback.getRazorpayPaymentId().equals(payment.getRazorpayPaymentId())) {
+                callback.markApplied();
+            } else {
+                callback.markRejected("Order already paid by " + payment.getRazorpayPaymentId());
+                log.warn("Order {} paid twice: {} and {}", callback.getRazorpayOrderId(),
+                        payment.getRazorpayPaymentId(), callback.getRazorpayPaymentId());
+            }
+            return false;
+        }
+
+        payment.markAsSuccess(callback.getRazorpayPaymentId(), callback.getSignature());
+        if (callback.getSource() == PaymentCallback.Source.RAZORPAY) {
+            payment.setPaymentId(callback.getRazorpayPaymentId());
+            payment.setSignature(callback.getSignature());
+        }
+        callback.markApplied();
+        log.info("Payment verified successfully: {}", callback.getRazorpayPaymentId());
+        return true;
+    }
+
+    private static String failureReason(RuntimeException e) {
+        String reason = e.getClass().getSimpleName() + ": " + e.getMessage();
+        return reason.length() > 255 ? reason.substring(0, 255) : reason;
+    }
+
+    private void afterCommit(List<Payment> succeeded) {
+        if (succeeded.isEmpty()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                for (Payment payment : succeeded) {
+                    paymentService.sendPaymentSuccessEmail(payment);
+                    paymentService.clearPaymentCaches(payment.getInvestor().getId(), payment.getProperty().getId());
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,133 @@
+package com.realestate.service;
+
+import com.realestate.config.ExecutorRegistry;
+import com.realestate.repository.PaymentRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Expires PENDING payments older than the ttl. Instead of one UPDATE over every matching row, each sweep
+ * walks the expirable ids in key order and expires them chunk-size at a time, each chunk in its own short
+ * transaction that locks only its own rows by primary key, pausing between chunks so order creation is
+ * never queued behind it. Sweeps are triggered on a schedule and run on the IO pool, one at a time.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentExpirySweeper implements MeterBinder {
+
+    private final PaymentRepository paymentRepository;
+    private final ExecutorRegistry executorRegistry;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong expired = new AtomicLong();
+    private final AtomicLong lagSeconds = new AtomicLong();
+
+    @Value("${app.payments.expiry.ttl:1h}")
+    private Duration ttl = Duration.ofHours(1);
+
+    @Value("${app.payments.expiry.chunk-size:500}")
+    private int chunkSize = 500;
+
+    @Value("${app.payments.expiry.chunk-pause:100ms}")
+    private Duration chunkPause = Duration.ofMillis(100);
+
+    @Scheduled(fixedDelayString = "${app.payments.expiry.interval-ms:60000}",
+               initialDelayString = "${app.payments.expiry.interval-ms:60000}")
+    public void scheduleSweep() {
+        executorRegistry.executor(ExecutorRegistry.Pool.IO).execute(this::sweep);
+    }
+
+    /**
+     * Expire everything past the ttl; returns the number of payments expired, 0 when a sweep is already running
+     */
+    public int sweep() {
+        if (!running.compareAndSet(false, true)) {
+            return 0;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            int total = expireChunks(now.minus(ttl), now);
+            if (total > 0) {
+                log.info("Expired {} old pending payments", total);
+            }
+            updateLag();
+            return total;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("payments.expiry.expired", expired, AtomicLong::get)
+                .description("Pending payments moved to EXPIRED")
+                .register(registry);
+        Gauge.builder("payments.expiry.lag", lagSeconds, AtomicLong::get)
+                .description("How far past its ttl the oldest pending payment was after the last sweep")
+                .baseUnit("seconds")
+                .register(registry);
+    }
+
+    private int expireChunks(LocalDateTime expiryTime, LocalDateTime now) {
+        int total = 0;
+        long afterId = 0;
+        try {
+            while (true) {
+                List<Long> ids = paymentRepository.findExpirableIds(expiryTime, afterId, chunkSize);
+                if (ids.isEmpty()) {
+                    break;
+                }
+                int count = paymentRepository.expireByIds(ids, now);
+                total += count;
+                expired.addAndGet(count);
+                if (ids.size() < chunkSize || !pause()) {
+                    break;
+                }
+                afterId = ids.get(ids.size() - 1);
+            }
+        } catch (RuntimeException e) {
+            // Committed chunks stay expired; the rest is picked up by the next sweep
+            log.error("Payment expiry sweep stopped after {} payments", total, e);
+        }
+        return total;
+    }
+
+    private boolean pause() {
+        if (chunkPause.isZero()) {
+            return true;
+        }
+        try {
+            Thread.sleep(chunkPause.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void updateLag() {
+        try {
+            List<LocalDateTime> oldest = paymentRepository.findPendingCreatedAt(PageRequest.of(0, 1));
+            long lag = oldest.isEmpty() ? 0
+                    : Duration.between(oldest.get(0).plus(ttl), LocalDateTime.now()).getSeconds();
+            lagSeconds.set(Math.max(0, lag));
+        } catch (RuntimeException e) {
+            log.warn("Could not measure payment expiry lag: {}", e.getMessage());
+        }
+    }
+}
@@ -1,9 +1,6 @@
 package com.realestate.service;
 
-import com.razorpay.Order;
-import com.razorpay.RazorpayClient;
-import com.razorpay.RazorpayException;
-import com.razorpay.Utils;
+import com.realestate.config.AsyncConfig;
 import com.realestate.exception.PaymentException;
 import com.realestate.model.entity.Payment;
 import com.realestate.model.entity.Payment.PaymentStatus;
@@ -12,25 +9,27 @@ import com.realestate.model.entity.User;
 import com.realestate.repository.PaymentRepository;
 import com.realestate.repository.PropertyRepository;
 import com.realestate.repository.UserRepository;
-import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.json.JSONObject;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 @Service
@@ -43,32 +42,38 @@ public class PaymentService {
     private final PropertyRepository propertyRepository;
     private final UserRepository userRepository;
     private final JavaMailSender mailSender;
+    private final RazorpayGateway razorpayGateway;
+    private final RazorpaySignatureVerifier razorpaySignatureVerifier;
+    private final PaymentExpirySweeper paymentExpirySweeper;
+    private final PaymentAggregateService paymentAggregateService;
+    private final TransactionTemplate transactionTemplate;
 
     @Value("${razorpay.key.id}")
     private String razorpayKeyId;
 
-    @Value("${razorpay.key.secret}")
-    private String razorpayKeySecret;
-
     @Value("${app.email.from:noreply@realestate.com}")
     private String fromEmail;
 
     @Value("${app.frontend.url:http://localhost:8080}")
     private String frontendUrl;
 
-    private RazorpayClient razorpayClient;
-
-    @PostConstruct
-    public void init() throws RazorpayException {
-        this.razorpayClient = new RazorpayClient(razorpayKeyId, razorpayKeySecret);
-        log.info("Razorpay client initialized successfully");
-    }
-
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Map<String, Object> createOrder(Long investorId, Long propertyId, BigDecimal amount) {
         return createOrder(investorId, propertyId, amount, Payment.PaymentType.INVESTMENT);
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Map<String, Object> createDownpaymentOrder(Long userId, Long propertyId) {
+        return await(createDownpaymentOrderAsync(userId, propertyId));
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Map<String, Object> createOrder(Long userId, Long propertyId, BigDecimal amount, Payment.PaymentType paymentType) {
+        return await(createOrderAsync(userId, propertyId, amount, paymentType));
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletableFuture<Map<String, Object>> createDownpaymentOrderAsync(Long userId, Long propertyId) {
         Property property = propertyRepository.findById(propertyId)
             .orElseThrow(() -> new PaymentException("Property not found"));
 
@@ -76,117 +81,131 @@ public class PaymentService {
             ? property.getDownpaymentAmount()
             : new BigDecimal("500.00");
 
-        return createOrder(userId, propertyId, downpaymentAmount, Payment.PaymentType.DOWNPAYMENT);
+        return createOrderAsync(userId, propertyId, downpaymentAmount, Payment.PaymentType.DOWNPAYMENT);
     }
 
-    public Map<String, Object> createOrder(Long userId, Long propertyId, BigDecimal amount, Payment.PaymentType paymentType) {
-        try {
-            User user = userRepository.findById(userId)
-                .orElseThrow(() -> new PaymentException("User not found"));
+    /**
+     * Two stages, neither holding a connection while Razorpay is called: a short transaction validates the
+     * request and reserves a PENDING payment under a local receipt, then the gateway order is created
+     * asynchronously and attached to the reservation in a single update. A reservation the gateway could not
+     * serve is marked FAILED so it does not block a retry. Validation errors are thrown directly; gateway
+     * errors complete the future with a PaymentException.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletableFuture<Map<String, Object>> createOrderAsync(Long userId, Long propertyId, BigDecimal amount,
+                                                                 Payment.PaymentType paymentType) {
+        Payment payment = transactionTemplate.execute(status -> reserveOrder(userId, propertyId, amount, paymentType));
+        User user = payment.getInvestor();
+        Property property = payment.getProperty();
+
+        Map<String, Object> notes = new HashMap<>();
+        notes.put("user_id", userId);
+        notes.put("property_id", propertyId);
+        notes.put("property_name", property.getTitle());
+        RazorpayGateway.OrderRequest orderRequest = new RazorpayGateway.OrderRequest(payment.getOrderId(),
+            amount.movePointRight(2).longValue(), "INR", notes); // Amount in paise
+
+        Long paymentId = payment.getId();
+        return razorpayGateway.createOrder(orderRequest)
+            .whenComplete((razorpayOrderId, error) -> {
+                if (error != null) {
+                    Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                    paymentRepository.failReservation(paymentId, "Gateway order failed: " + cause.getMessage());
+                }
+            })
+            .thenApply(razorpayOrderId -> {
+                if (paymentRepository.attachGatewayOrder(paymentId, razorpayOrderId) == 0) {
+                    throw new PaymentException("Payment " + paymentId + " is no longer pending");
+                }
+                log.info("Payment order created: {} for user: {} and property: {}",
+                    razorpayOrderId, userId, propertyId);
+
+                // Prepare response
+                Map<String, Object> response = new HashMap<>();
+                response.put("orderId", razorpayOrderId);
+                response.put("amount", amount);
+                response.put("currency", "INR");
+                response.put("keyId", razorpayKeyId);
+                response.put("investorName", user.getFirstName() + " " + user.getLastName());
+                response.put("investorEmail", user.getEmail());
+                response.put("investorPhone", user.getPhoneNumber());
+                response.put("propertyName", property.getTitle());
+                response.put("paymentId", paymentId);
+                return response;
+            });
+    }
 
-            Property property = propertyRepository.findById(propertyId)
-                .orElseThrow(() -> new PaymentException("Property not found"));
+    private Payment reserveOrder(Long userId, Long propertyId, BigDecimal amount, Payment.PaymentType paymentType) {
+        User user = userRepository.findById(userId)
+            .orElseThrow(() -> new PaymentException("User not found"));
 
-            // Check for duplicate pending payment
-            if (paymentRepository.existsByInvestorAndPropertyAndStatus(user, property, PaymentStatus.PENDING)) {
-                throw new PaymentException("A pending payment already exists for this property");
-            }
+        Property property = propertyRepository.findById(propertyId)
+            .orElseThrow(() -> new PaymentException("Property not found"));
 
-            // Create Razorpay order
-            JSONObject orderRequest = new JSONObject();
-            orderRequest.put("amount", amount.multiply(BigDecimal.valueOf(100)).intValue()); // Amount in paise
-            orderRequest.put("currency", "INR");
-            orderRequest.put("receipt", "rcpt_" + System.currentTimeMillis());
-
-            JSONObject notes = new JSONObject();
-            notes.put("user_id", userId);
-            notes.put("property_id", propertyId);
-            notes.put("property_name", property.getTitle());
-            orderRequest.put("notes", notes);
-
-            Order razorpayOrder = razorpayClient.orders.create(orderRequest);
-
-            // Save payment record
-            String paymentNotes = paymentType == Payment.PaymentType.DOWNPAYMENT
-                ? "Downpayment for " + property.getTitle()
-                : "Investment in " + property.getTitle();
-
-            Payment payment = Payment.builder()
-                .investor(user)
-                .property(property)
-                .amount(amount)
-                .investmentAmount(amount)
-                .paymentType(paymentType)
-                .status(PaymentStatus.PENDING)
-                .razorpayOrderId(razorpayOrder.get("id"))
-                .currency("INR")
-                .notes(paymentNotes)
-                .build();
+        // Check for duplicate pending payment
+        if (paymentRepository.existsByInvestorAndPropertyAndStatus(user, property, PaymentStatus.PENDING)) {
+            throw new PaymentException("A pending payment already exists for this property");
+        }
 
-            paymentRepository.save(payment);
+        String paymentNotes = paymentType == Payment.PaymentType.DOWNPAYMENT
+            ? "Downpayment for " + property.getTitle()
+            : "Investment in " + property.getTitle();
+
+        Payment payment = Payment.builder()
+            .investor(user)
+            .property(property)
+            .amount(amount)
+            .investmentAmount(amount)
+            .paymentType(paymentType)
+            .status(PaymentStatus.PENDING)
+            .orderId("rcpt_" + UUID.randomUUID().toString().replace("-", ""))
+            .currency("INR")
+            .notes(paymentNotes)
+            .build();
+
+        return paymentRepository.save(payment);
+    }
 
-            log.info("Payment order created: {} for user: {} and property: {}",
-                razorpayOrder.get("id"), userId, propertyId);
-
-            // Prepare response
-            Map<String, Object> response = new HashMap<>();
-            response.put("orderId", razorpayOrder.get("id"));
-            response.put("amount", amount);
-            response.put("currency", "INR");
-            response.put("keyId", razorpayKeyId);
-            response.put("investorName", user.getFirstName() + " " + user.getLastName());
-            response.put("investorEmail", user.getEmail());
-            response.put("investorPhone", user.getPhoneNumber());
-            response.put("propertyName", property.getTitle());
-            response.put("paymentId", payment.getId());
-
-            return response;
-
-        } catch (RazorpayException e) {
-            log.error("Error creating Razorpay order: ", e);
-            throw new PaymentException("Failed to create payment order: " + e.getMessage());
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
         }
     }
 
     public Payment verifyPayment(String orderId, String paymentId, String signature) {
-        try {
-            Payment payment = paymentRepository.findByRazorpayOrderId(orderId)
-                .orElseThrow(() -> new PaymentException("Payment not found for order: " + orderId));
-
-            // Verify signature
-            JSONObject options = new JSONObject();
-            options.put("razorpay_order_id", orderId);
-            options.put("razorpay_payment_id", paymentId);
-            options.put("razorpay_signature", signature);
-
-            boolean isValid = Utils.verifyPaymentSignature(options, razorpayKeySecret);
-
-            if (isValid) {
-                payment.markAsSuccess(paymentId, signature);
-                payment = paymentRepository.save(payment);
+        Payment payment = paymentRepository.findByRazorpayOrderId(orderId)
+            .orElseThrow(() -> new PaymentException("Payment not found for order: " + orderId));
 
-                log.info("Payment verified successfully: {}", paymentId);
+        if (razorpaySignatureVerifier.verify(orderId, paymentId, signature)) {
+            boolean alreadyPaid = payment.isPaid();
+            payment.markAsSuccess(paymentId, signature);
+            payment = paymentRepository.save(payment);
+            if (!alreadyPaid) {
+                paymentAggregateService.recordSuccess(payment);
+            }
 
-                // Send async email notification
-                sendPaymentSuccessEmail(payment);
+            log.info("Payment verified successfully: {}", paymentId);
 
-                // Clear cache
-                clearPaymentCaches(payment.getInvestor().getId(), payment.getProperty().getId());
+            // Send async email notification
+            sendPaymentSuccessEmail(payment);
 
-                return payment;
-            } else {
-                payment.markAsFailed("Invalid payment signature");
-                paymentRepository.save(payment);
-                throw new PaymentException("Payment verification failed: Invalid signature");
-            }
+            // Clear cache
+            clearPaymentCaches(payment.getInvestor().getId(), payment.getProperty().getId());
 
-        } catch (RazorpayException e) {
-            log.error("Error verifying payment: ", e);
-            throw new PaymentException("Payment verification failed: " + e.getMessage());
+            return payment;
+        } else {
+            payment.markAsFailed("Invalid payment signature");
+            paymentRepository.save(payment);
+            throw new PaymentException("Payment verification failed: Invalid signature");
         }
     }
 
-    @Async
+    @Async(AsyncConfig.EXTERNAL_EXECUTOR)
     public CompletableFuture<Void> sendPaymentSuccessEmail(Payment payment) {
         try {
             SimpleMailMessage message = new SimpleMailMessage();
@@ -252,19 +271,19 @@ public class PaymentService {
     }
 
     public BigDecimal getTotalInvestmentByInvestor(Long investorId) {
-        BigDecimal total = paymentRepository.getTotalInvestmentByInvestor(investorId);
-        return total != null ? total : BigDecimal.ZERO;
+        return paymentAggregateService.investorTotals(investorId).totalInvested();
     }
 
     public BigDecimal getTotalInvestmentForProperty(Long propertyId) {
-        BigDecimal total = paymentRepository.getTotalInvestmentForProperty(propertyId);
-        return total != null ? total : BigDecimal.ZERO;
+        return paymentAggregateService.propertyTotalInvested(propertyId);
     }
 
     public Map<String, Object> getInvestorStatistics(Long investorId) {
+        PaymentAggregateService.InvestorTotals totals = paymentAggregateService.investorTotals(investorId);
         Map<String, Object> stats = new HashMap<>();
-        stats.put("totalInvestment", getTotalInvestmentByInvestor(investorId));
-        stats.put("successfulPayments", paymentRepository.getSuccessfulPaymentCountByInvestor(investorId));
+        stats.put("totalInvestment", totals.totalInvested());
+        stats.put("successfulPayments", totals.paymentCount());
+        stats.put("lastPaymentAt", totals.lastPaymentAt());
         stats.put("recentPayments", paymentRepository.findInvestorPaymentsByDateRange(
             investorId,
             LocalDateTime.now().minusDays(30),
@@ -274,16 +293,12 @@ public class PaymentService {
     }
 
     public List<Object[]> getTopInvestedProperties(Pageable pageable) {
-        return paymentRepository.getTopInvestedProperties(pageable);
+        return paymentAggregateService.topInvestedProperties(pageable);
     }
 
-    @Transactional
-    public void expireOldPayments() {
-        LocalDateTime expiryTime = LocalDateTime.now().minusHours(1);
-        int expiredCount = paymentRepository.expireOldPayments(expiryTime);
-        if (expiredCount > 0) {
-            log.info("Expired {} old pending payments", expiredCount);
-        }
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int expireOldPayments() {
+        return paymentExpirySweeper.sweep();
     }
 
     public Payment getPaymentById(Long paymentId) {
@@ -291,12 +306,25 @@ public class PaymentService {
             .orElseThrow(() -> new PaymentException("Payment not found with id: " + paymentId));
     }
 
+    /**
+     * Investor who placed the order, by gateway order id or reservation receipt, without loading the payment
+     */
+    @Transactional(readOnly = true)
+    public Long getInvestorIdForOrder(String orderId) {
+        return paymentRepository.findInvestorIdsByGatewayOrderId(orderId).stream()
+            .findFirst()
+            .orElseThrow(() -> new PaymentException("Payment not found for order: " + orderId));
+    }
+
     public Payment getPaymentByOrderId(String orderId) {
         return paymentRepository.findByRazorpayOrderId(orderId)
             .orElseThrow(() -> new PaymentException("Payment not found for order: " + orderId));
     }
 
-    @CacheEvict(value = {"investorPayments", "propertyInvestments"}, allEntries = true)
+    @Caching(evict = {
+        @CacheEvict(value = "investorPayments", key = "#investorId"),
+        @CacheEvict(value = "propertyInvestments", key = "#propertyId")
+    })
     public void clearPaymentCaches(Long investorId, Long propertyId) {
         log.debug("Cleared payment caches for investor: {} and property: {}", investorId, propertyId);
     }
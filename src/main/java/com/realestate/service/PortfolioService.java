@@ -3,15 +3,17 @@ package com.realestate.service;
 import com.realestate.exception.DuplicateResourceException;
 import com.realestate.exception.ResourceNotFoundException;
 import com.realestate.exception.UnauthorizedException;
+import com.realestate.model.dto.HoldingDTO;
 import com.realestate.model.entity.Holding;
 import com.realestate.model.entity.Portfolio;
 import com.realestate.model.entity.User;
 import com.realestate.repository.HoldingRepository;
+import com.realestate.repository.PortfolioReadRepository;
 import com.realestate.repository.PortfolioRepository;
-import com.realestate.repository.UserRepository;
+import com.realestate.security.CurrentUser;
+import com.realestate.security.CurrentUserProvider;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -26,10 +28,13 @@ public class PortfolioService {
 
     private final PortfolioRepository portfolioRepository;
     private final HoldingRepository holdingRepository;
-    private final UserRepository userRepository;
+    private final CurrentUserProvider currentUserProvider;
+    private final PortfolioValuationService portfolioValuationService;
+    private final PortfolioReadRepository portfolioReadRepository;
 
     public Portfolio createPortfolio(String portfolioName, Portfolio.RiskProfile riskProfile) {
-        User user = getCurrentUser();
+        CurrentUser currentUser = currentUserProvider.get();
+        User user = currentUser.user();
 
         if (portfolioRepository.existsByUserAndPortfolioName(user, portfolioName)) {
             throw new DuplicateResourceException("Portfolio with name '" + portfolioName + "' already exists");
@@ -47,7 +52,7 @@ public class PortfolioService {
                 .build();
 
         Portfolio saved = portfolioRepository.save(portfolio);
-        log.info("Created portfolio '{}' for user {}", portfolioName, user.getUsername());
+        log.info("Created portfolio '{}' for user {}", portfolioName, currentUser.username());
         return saved;
     }
 
@@ -56,19 +61,13 @@ public class PortfolioService {
         Portfolio portfolio = portfolioRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Portfolio not found with id: " + id));
 
-        User currentUser = getCurrentUser();
-        if (!portfolio.getUser().getId().equals(currentUser.getId()) &&
-            currentUser.getRole() != User.UserRole.ADMIN &&
-            currentUser.getRole() != User.UserRole.ANALYST) {
-            throw new UnauthorizedException("Access denied to this portfolio");
-        }
-
+        checkReadAccess(portfolio.getUser().getId());
         return portfolio;
     }
 
     @Transactional(readOnly = true)
     public List<Portfolio> getMyPortfolios() {
-        User user = getCurrentUser();
+        User user = currentUserProvider.get().user();
         return portfolioRepository.findByUserAndStatus(user, Portfolio.PortfolioStatus.ACTIVE);
     }
 
@@ -78,21 +77,23 @@ public class PortfolioService {
     }
 
     @Transactional(readOnly = true)
-    public List<Holding> getPortfolioHoldings(Long portfolioId) {
-        Portfolio portfolio = getPortfolio(portfolioId);
-        return holdingRepository.findByPortfolioAndStatus(portfolio, Holding.HoldingStatus.ACTIVE);
+    public List<HoldingDTO> getPortfolioHoldings(Long portfolioId) {
+        PortfolioReadRepository.PortfolioHoldingsView view = portfolioReadRepository.findActiveHoldings(portfolioId)
+                .orElseThrow(() -> new ResourceNotFoundException("Portfolio not found with id: " + portfolioId));
+        checkReadAccess(view.userId());
+        return view.holdings();
     }
 
     public Portfolio updatePortfolio(Long id, String portfolioName, Portfolio.RiskProfile riskProfile) {
         Portfolio portfolio = getPortfolio(id);
-        User currentUser = getCurrentUser();
+        CurrentUser currentUser = currentUserProvider.get();
 
-        if (!portfolio.getUser().getId().equals(currentUser.getId())) {
+        if (!portfolio.getUser().getId().equals(currentUser.id())) {
             throw new UnauthorizedException("Cannot update another user's portfolio");
         }
 
         if (portfolioName != null && !portfolioName.equals(portfolio.getPortfolioName())) {
-            if (portfolioRepository.existsByUserAndPortfolioName(currentUser, portfolioName)) {
+            if (portfolioRepository.existsByUserAndPortfolioName(currentUser.user(), portfolioName)) {
                 throw new DuplicateResourceException("Portfolio with name '" + portfolioName + "' already exists");
             }
             portfolio.setPortfolioName(portfolioName);
@@ -106,35 +107,19 @@ public class PortfolioService {
     }
 
     public void recalculatePortfolioValues(Long portfolioId) {
-        Portfolio portfolio = portfolioRepository.findByIdWithLock(portfolioId)
+        portfolioRepository.findByIdWithLock(portfolioId)
                 .orElseThrow(() -> new ResourceNotFoundException("Portfolio not found"));
 
-        List<Holding> holdings = holdingRepository.findByPortfolioAndStatus(portfolio, Holding.HoldingStatus.ACTIVE);
-
-        BigDecimal totalCurrentValue = BigDecimal.ZERO;
-        BigDecimal totalCostBasis = BigDecimal.ZERO;
-
-        for (Holding holding : holdings) {
-            holding.updateCurrentValue(holding.getProperty().getPrice());
-            holdingRepository.save(holding);
-            totalCurrentValue = totalCurrentValue.add(holding.getCurrentValue());
-            totalCostBasis = totalCostBasis.add(holding.getTotalCostBasis());
-        }
-
-        portfolio.setTotalCurrentValue(totalCurrentValue);
-        portfolio.setTotalInvested(totalCostBasis);
-        portfolio.setUnrealizedGains(totalCurrentValue.subtract(totalCostBasis));
-
-        portfolioRepository.save(portfolio);
-        log.info("Recalculated portfolio {} values", portfolioId);
+        PortfolioValuationService.ValuationResult result = portfolioValuationService.revaluePortfolio(portfolioId);
+        log.info("Recalculated portfolio {} values, {} holdings changed", portfolioId, result.holdingsRevalued());
     }
 
     public void closePortfolio(Long id) {
         Portfolio portfolio = getPortfolio(id);
-        User currentUser = getCurrentUser();
+        CurrentUser currentUser = currentUserProvider.get();
 
-        if (!portfolio.getUser().getId().equals(currentUser.getId()) &&
-            currentUser.getRole() != User.UserRole.ADMIN) {
+        if (!portfolio.getUser().getId().equals(currentUser.id()) &&
+            currentUser.role() != User.UserRole.ADMIN) {
             throw new UnauthorizedException("Cannot close another user's portfolio");
         }
 
@@ -150,25 +135,28 @@ public class PortfolioService {
 
     @Transactional(readOnly = true)
     public PortfolioSummary getPortfolioSummary(Long portfolioId) {
-        Portfolio portfolio = getPortfolio(portfolioId);
-        List<Holding> holdings = holdingRepository.findByPortfolioAndStatus(portfolio, Holding.HoldingStatus.ACTIVE);
+        PortfolioReadRepository.PortfolioSummaryView view = portfolioReadRepository.findSummary(portfolioId)
+                .orElseThrow(() -> new ResourceNotFoundException("Portfolio not found with id: " + portfolioId));
+        checkReadAccess(view.userId());
 
         return new PortfolioSummary(
-                portfolio.getId(),
-                portfolio.getPortfolioName(),
-                portfolio.getTotalInvested(),
-                portfolio.getTotalCurrentValue(),
-                portfolio.getUnrealizedGains(),
-                portfolio.getRealizedGains(),
-                holdings.size(),
-                portfolio.getRiskProfile()
+                view.id(),
+                view.name(),
+                view.totalInvested(),
+                view.totalCurrentValue(),
+                view.unrealizedGains(),
+                view.realizedGains(),
+                view.holdingsCount(),
+                view.riskProfile()
         );
     }
 
-    private User getCurrentUser() {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new UnauthorizedException("User not found"));
+    private void checkReadAccess(Long ownerId) {
+        CurrentUser currentUser = currentUserProvider.get();
+        if (!ownerId.equals(currentUser.id()) &&
+            !currentUser.hasAnyRole(User.UserRole.ADMIN, User.UserRole.ANALYST)) {
+            throw new UnauthorizedException("Access denied to this portfolio");
+        }
     }
 
     public record PortfolioSummary(
@@ -0,0 +1,80 @@
+package com.realestate.service;
+
+import com.realestate.exception.BusinessException;
+import com.realestate.util.StripedLock;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.function.Supplier;
+
+/**
+ * Runs trades against one or more portfolios. Trades on the same portfolio queue on a striped in-process
+ * lock, so they do not race inside this instance; each runs in its own READ_COMMITTED transaction and relies
+ * on the @Version of Portfolio and Holding to detect writers elsewhere. A trade that loses an optimistic or
+ * lock conflict is rolled back and replayed from scratch, up to maxAttempts times.
+ */
+@Component
+@Slf4j
+public class PortfolioTradeExecutor implements MeterBinder {
+
+    private final StripedLock portfolioLocks;
+    private final RetryTemplate retryTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration lockTimeout;
+
+    public PortfolioTradeExecutor(PlatformTransactionManager transactionManager,
+                                  @Value("${app.trading.lock-stripes:256}") int lockStripes,
+                                  @Value("${app.trading.lock-timeout:5s}") Duration lockTimeout,
+                                  @Value("${app.trading.max-attempts:4}") int maxAttempts,
+                                  @Value("${app.trading.retry-backoff:20ms}") Duration retryBackoff) {
+        this.portfolioLocks = new StripedLock(lockStripes);
+        this.lockTimeout = lockTimeout;
+        this.retryTemplate = RetryTemplate.builder()
+                .maxAttempts(maxAttempts)
+                .exponentialBackoff(retryBackoff.toMillis(), 2, retryBackoff.toMillis() * 8, true)
+                .retryOn(ConcurrencyFailureException.class)
+                .traversingCauses()
+                .build();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+    }
+
+    public <T> T execute(Collection<Long> portfolioIds, Supplier<T> trade) {
+        T result;
+        try {
+            result = portfolioLocks.tryWithLocks(portfolioIds, lockTimeout, () ->
+                    retryTemplate.execute(context -> {
+                        if (context.getRetryCount() > 0) {
+                            log.debug("Retrying trade on portfolios {} after {} conflicts", portfolioIds,
+                                    context.getRetryCount());
+                        }
+                        return transactionTemplate.execute(status -> trade.get());
+                    }));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException("Trade interrupted while waiting for portfolio " + portfolioIds);
+        }
+        if (result == null) {
+            throw new BusinessException("Portfolio " + portfolioIds + " is busy, please try again");
+        }
+        return result;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("trades.queued", portfolioLocks, StripedLock::queueLength)
+                .description("Trades waiting for their portfolio lock")
+                .register(registry);
+    }
+}
@@ -0,0 +1,81 @@
+package com.realestate.service;
+
+import com.realestate.repository.PortfolioValuationRepository;
+import com.realestate.repository.PortfolioValuationRepository.HoldingValue;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps holding and portfolio values in step with property prices. A price change revalues only the holdings
+ * of the changed properties and shifts their portfolios by the difference; a full revaluation runs as two
+ * set-based statements.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class PortfolioValuationService {
+
+    private final PortfolioValuationRepository portfolioValuationRepository;
+
+    public record ValuationResult(int holdingsRevalued, int portfoliosUpdated) {}
+
+    /**
+     * Apply the current price of each property to the holdings that reference it. Call inside the
+     * transaction that changed the prices, after they are flushed.
+     */
+    public ValuationResult propertyPricesChanged(Collection<Long> propertyIds) {
+        return applyDeltas(portfolioValuationRepository.lockHoldingsOfProperties(propertyIds));
+    }
+
+    /**
+     * Revalue one portfolio's holdings and recompute its totals from them
+     */
+    public ValuationResult revaluePortfolio(Long portfolioId) {
+        int holdings = portfolioValuationRepository.revalueHoldings(portfolioId);
+        int portfolios = portfolioValuationRepository.refreshPortfolioTotals(portfolioId);
+        return new ValuationResult(holdings, portfolios);
+    }
+
+    @Scheduled(cron = "${app.valuation.revalue-all-cron:0 0 4 * * *}")
+    public ValuationResult revalueAllPortfolios() {
+        long started = System.currentTimeMillis();
+        int holdings = portfolioValuationRepository.revalueHoldings(null);
+        int portfolios = portfolioValuationRepository.refreshPortfolioTotals(null);
+        log.info("Revalued {} holdings and refreshed {} portfolios in {} ms",
+                holdings, portfolios, System.currentTimeMillis() - started);
+        return new ValuationResult(holdings, portfolios);
+    }
+
+    private ValuationResult applyDeltas(List<HoldingValue> holdings) {
+        List<HoldingValue> revalued = new ArrayList<>();
+        Map<Long, BigDecimal> portfolioDeltas = new HashMap<>();
+
+        for (HoldingValue holding : holdings) {
+            BigDecimal newValue = holding.quantity().multiply(holding.price()).setScale(2, RoundingMode.HALF_UP);
+            BigDecimal previousValue = holding.currentValue() != null ? holding.currentValue() : BigDecimal.ZERO;
+            BigDecimal delta = newValue.subtract(previousValue);
+            if (delta.signum() == 0) {
+                continue;
+            }
+            revalued.add(new HoldingValue(holding.holdingId(), holding.portfolioId(), holding.quantity(),
+                    holding.totalCostBasis(), newValue, holding.price()));
+            portfolioDeltas.merge(holding.portfolioId(), delta, BigDecimal::add);
+        }
+
+        portfolioValuationRepository.updateHoldingValues(revalued);
+        portfolioValuationRepository.applyPortfolioDeltas(portfolioDeltas);
+        return new ValuationResult(revalued.size(), portfolioDeltas.size());
+    }
+}
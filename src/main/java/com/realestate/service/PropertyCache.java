@@ -0,0 +1,225 @@
+package com.realestate.service;
+
+import com.realestate.model.dto.PropertyDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Key-level view over the "properties" and "propertyListing" caches.
+ * Single properties are cached by id and per-type counts under "countByType" in the first; the price-ordered
+ * listing of the whole catalog is the only entry of the second, so it never competes with single properties
+ * for the weight bound. Committed writes replace or drop only the affected id and patch the aggregates in place
+ * rather than clearing the cache.
+ * Every write bumps a stamp; a reader that loaded from the database only publishes its result if no
+ * write touched the same key meanwhile, and a cached DTO is never replaced by one with a lower version.
+ */
+@Component
+@RequiredArgsConstructor
+public class PropertyCache {
+
+    public static final String CACHE_NAME = "properties";
+    public static final String LISTING_CACHE_NAME = "propertyListing";
+
+    static final String ALL_KEY = "all";
+    static final String COUNT_BY_TYPE_KEY = "countByType";
+
+    private static final int STRIPES = 64;
+    private static final Comparator<PropertyDTO> BY_PRICE_DESC =
+        Comparator.comparing(PropertyDTO::getPrice, Comparator.nullsLast(Comparator.reverseOrder()));
+
+    private final CacheManager cacheManager;
+
+    private final AtomicLongArray entryStamps = new AtomicLongArray(STRIPES);
+    private final Object[] entryLocks = createLocks();
+    private final AtomicLong aggregateStamp = new AtomicLong();
+    private final Object aggregateLock = new Object();
+
+    public PropertyDTO get(Long id, Supplier<PropertyDTO> loader) {
+        Cache cache = cache();
+        PropertyDTO cached = cache.get(id, PropertyDTO.class);
+        if (cached != null) {
+            return cached;
+        }
+
+        int stripe = stripe(id);
+        long stamp = entryStamps.get(stripe);
+        PropertyDTO loaded = loader.get();
+        if (loaded == null) {
+            return null;
+        }
+        synchronized (entryLocks[stripe]) {
+            if (entryStamps.get(stripe) == stamp) {
+                putIfNewer(cache, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * All properties ordered by price, highest first. The returned list is shared and unmodifiable.
+     */
+    @SuppressWarnings("unchecked")
+    public List<PropertyDTO> all(Supplier<List<PropertyDTO>> loader) {
+        Cache cache = cache(LISTING_CACHE_NAME);
+        List<PropertyDTO> cached = cache.get(ALL_KEY, List.class);
+        if (cached != null) {
+            return cached;
+        }
+
+        long stamp = aggregateStamp.get();
+        List<PropertyDTO> loaded = new ArrayList<>(loader.get());
+        loaded.sort(BY_PRICE_DESC);
+        List<PropertyDTO> listing = Collections.unmodifiableList(loaded);
+        synchronized (aggregateLock) {
+            if (aggregateStamp.get() == stamp) {
+                cache.put(ALL_KEY, listing);
+            }
+        }
+        return listing;
+    }
+
+    @SuppressWarnings("unchecked")
+    public Map<String, Long> countByType(Supplier<Map<String, Long>> loader) {
+        Cache cache = cache();
+        Map<String, Long> cached = cache.get(COUNT_BY_TYPE_KEY, Map.class);
+        if (cached != null) {
+            return cached;
+        }
+
+        long stamp = aggregateStamp.get();
+        Map<String, Long> counts = Collections.unmodifiableMap(new HashMap<>(loader.get()));
+        synchronized (aggregateLock) {
+            if (aggregateStamp.get() == stamp) {
+                cache.put(COUNT_BY_TYPE_KEY, counts);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Publish a committed create or update.
+     *
+     * @param previousType type before the write, or null for a new property
+     */
+    public void saved(PropertyDTO property, PropertyDTO.PropertyType previousType) {
+        Cache cache = cache();
+        int stripe = stripe(property.getId());
+        synchronized (entryLocks[stripe]) {
+            entryStamps.incrementAndGet(stripe);
+            putIfNewer(cache, property);
+        }
+
+        synchronized (aggregateLock) {
+            aggregateStamp.incrementAndGet();
+            patchListing(cache(LISTING_CACHE_NAME), property.getId(), property);
+            if (previousType != property.getPropertyType()) {
+                patchCount(cache, previousType, -1);
+                patchCount(cache, property.getPropertyType(), 1);
+            }
+        }
+    }
+
+    /**
+     * Publish a committed delete.
+     */
+    public void removed(Long id, PropertyDTO.PropertyType type) {
+        Cache cache = cache();
+        int stripe = stripe(id);
+        synchronized (entryLocks[stripe]) {
+            entryStamps.incrementAndGet(stripe);
+            cache.evict(id);
+        }
+
+        synchronized (aggregateLock) {
+            aggregateStamp.incrementAndGet();
+            patchListing(cache(LISTING_CACHE_NAME), id, null);
+            patchCount(cache, type, -1);
+        }
+    }
+
+    private void putIfNewer(Cache cache, PropertyDTO property) {
+        PropertyDTO cached = cache.get(property.getId(), PropertyDTO.class);
+        if (cached == null || !isOlder(property, cached)) {
+            cache.put(property.getId(), property);
+        }
+    }
+
+    // Replace, insert or drop one entry of the cached listing, keeping it ordered by price
+    @SuppressWarnings("unchecked")
+    private void patchListing(Cache cache, Long id, PropertyDTO replacement) {
+        List<PropertyDTO> cached = cache.get(ALL_KEY, List.class);
+        if (cached == null) {
+            return;
+        }
+
+        List<PropertyDTO> patched = new ArrayList<>(cached.size() + 1);
+        for (PropertyDTO entry : cached) {
+            if (!Objects.equals(entry.getId(), id)) {
+                patched.add(entry);
+            } else if (replacement != null && isOlder(replacement, entry)) {
+                return;
+            }
+        }
+        if (replacement != null) {
+            int position = Collections.binarySearch(patched, replacement, BY_PRICE_DESC);
+            patched.add(position < 0 ? -position - 1 : position, replacement);
+        }
+        cache.put(ALL_KEY, Collections.unmodifiableList(patched));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void patchCount(Cache cache, PropertyDTO.PropertyType type, long delta) {
+        if (type == null) {
+            return;
+        }
+        Map<String, Long> cached = cache.get(COUNT_BY_TYPE_KEY, Map.class);
+        if (cached == null) {
+            return;
+        }
+
+        Map<String, Long> patched = new HashMap<>(cached);
+        long count = patched.getOrDefault(type.name(), 0L) + delta;
+        if (count > 0) {
+            patched.put(type.name(), count);
+        } else {
+            patched.remove(type.name());
+        }
+        cache.put(COUNT_BY_TYPE_KEY, Collections.unmodifiableMap(patched));
+    }
+
+    private static boolean isOlder(PropertyDTO candidate, PropertyDTO cached) {
+        return candidate.getVersion() != null && cached.getVersion() != null
+            && candidate.getVersion() < cached.getVersion();
+    }
+
+    private Cache cache() {
+        return cache(CACHE_NAME);
+    }
+
+    private Cache cache(String name) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache == null) {
+            throw new IllegalStateException("Cache '" + name + "' is not configured");
+        }
+        return cache;
+    }
+
+    private static int stripe(Long id) {
+        return Math.floorMod(Long.hashCode(id), STRIPES);
+    }
+
+    private static Object[] createLocks() {
+        Object[] locks = new Object[STRIPES];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+        return locks;
+    }
+}
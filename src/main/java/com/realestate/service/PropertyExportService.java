@@ -0,0 +1,164 @@
+package com.realestate.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.realestate.exception.BadRequestException;
+import com.realestate.model.entity.Property;
+import com.realestate.repository.PropertyJdbcRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Streams the property catalog as NDJSON or CSV straight from a JDBC cursor to an output stream.
+ * Each row is written as soon as it is read and then dropped, so memory stays constant however large the catalog.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PropertyExportService {
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        public static Format from(String name) {
+            return Arrays.stream(values())
+                .filter(format -> format.extension.equalsIgnoreCase(name))
+                .findFirst()
+                .orElseThrow(() -> new BadRequestException("format", name, "Format must be ndjson or csv"));
+        }
+    }
+
+    private record Column(String name, Function<Property, Object> value) {}
+
+    private static final List<Column> COLUMNS = List.of(
+        new Column("id", Property::getId),
+        new Column("title", Property::getTitle),
+        new Column("price", Property::getPrice),
+        new Column("location", Property::getLocation),
+        new Column("city", Property::getCity),
+        new Column("state", Property::getState),
+        new Column("pincode", Property::getPincode),
+        new Column("propertyType", Property::getPropertyType),
+        new Column("status", Property::getStatus),
+        new Column("area", Property::getArea),
+        new Column("areaUnit", Property::getAreaUnit),
+        new Column("bedrooms", Property::getBedrooms),
+        new Column("bathrooms", Property::getBathrooms),
+        new Column("yearBuilt", Property::getYearBuilt),
+        new Column("monthlyRental", Property::getMonthlyRental),
+        new Column("latitude", Property::getLatitude),
+        new Column("longitude", Property::getLongitude),
+        new Column("listingDate", Property::getListingDate),
+        new Column("createdAt", Property::getCreatedAt),
+        new Column("updatedAt", Property::getUpdatedAt)
+    );
+
+    private final PropertyJdbcRepository propertyJdbcRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.export.fetch-size:1000}")
+    private int fetchSize;
+
+    /**
+     * Write every live property, or only those updated at or after since, to the stream.
+     * The stream is flushed but not closed.
+     *
+     * @return number of rows written
+     */
+    public long export(OutputStream outputStream, Format format, LocalDateTime since) throws IOException {
+        long started = System.currentTimeMillis();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        long[] rows = new long[1];
+
+        try {
+            if (format == Format.CSV) {
+                writeCsvRow(writer, COLUMNS.stream().map(Column::name).toArray());
+                propertyJdbcRepository.streamProperties(since, fetchSize, property -> {
+                    writeCsvRow(writer, COLUMNS.stream().map(column -> column.value().apply(property)).toArray());
+                    rows[0]++;
+                });
+            } else {
+                JsonGenerator generator = objectMapper.getFactory().createGenerator(writer)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                propertyJdbcRepository.streamProperties(since, fetchSize, property -> {
+                    writeJsonLine(generator, property);
+                    rows[0]++;
+                });
+                generator.flush();
+            }
+        } catch (UncheckedIOException e) {
+            // Usually the client disconnecting mid-export; unwrap so the caller sees the I/O failure
+            throw e.getCause();
+        }
+        writer.flush();
+
+        log.info("Exported {} properties as {} in {} ms", rows[0], format, System.currentTimeMillis() - started);
+        return rows[0];
+    }
+
+    private void writeJsonLine(JsonGenerator generator, Property property) {
+        try {
+            generator.writeStartObject();
+            for (Column column : COLUMNS) {
+                generator.writeObjectField(column.name(), column.value().apply(property));
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeCsvRow(Writer writer, Object[] values) {
+        try {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(csvField(values[i]));
+            }
+            writer.write("\r\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // RFC 4180: quote fields containing separators, quotes or line breaks, doubling embedded quotes
+    private static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,394 @@
+package com.realestate.service;
+
+import com.realestate.model.dto.PropertySearchDTO;
+import com.realestate.model.entity.Property;
+import com.realestate.repository.PropertyJdbcRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Columnar in-memory index over the searchable Property fields.
+ * Each property occupies one slot across primitive column arrays; type and status are kept as bitsets
+ * so a search narrows candidates with bitwise ANDs before scanning the numeric columns.
+ * Only matching ids are returned, callers hydrate those entities from the database.
+ * A rebuild reads its snapshot without holding the lock; upserts and removes that land meanwhile are logged
+ * and replayed over the snapshot, so they are not lost to it. Only one rebuild runs at a time.
+ * Writes through PropertyService apply immediately. Every other writer (the JDBC bulk insert and status
+ * updates, DataInitializer, direct repository saves) bumps properties.updated_at, which a scheduled refresh
+ * folds in within the refresh interval. Hard deletes leave no row behind, so the refresh also compares the
+ * live row count and rebuilds on a mismatch, and a nightly rebuild catches anything left.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PropertySearchIndex {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int NULL_INT = Integer.MIN_VALUE;
+
+    private final PropertyJdbcRepository propertyJdbcRepository;
+
+    // Rows committed just before a refresh may carry an updated_at older than the watermark
+    @Value("${app.search-index.refresh-overlap:2m}")
+    private Duration refreshOverlap = Duration.ofMinutes(2);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object rebuildLock = new Object();
+    private final Map<Long, Integer> slotById = new HashMap<>();
+    private final ArrayDeque<Integer> freeSlots = new ArrayDeque<>();
+    private final EnumMap<Property.PropertyType, BitSet> typeBits = new EnumMap<>(Property.PropertyType.class);
+    private final EnumMap<Property.PropertyStatus, BitSet> statusBits = new EnumMap<>(Property.PropertyStatus.class);
+    private final BitSet live = new BitSet();
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private double[] prices = new double[INITIAL_CAPACITY];
+    private double[] areas = new double[INITIAL_CAPACITY];
+    private int[] bedrooms = new int[INITIAL_CAPACITY];
+    private int[] bathrooms = new int[INITIAL_CAPACITY];
+    private String[] locations = new String[INITIAL_CAPACITY];
+    private String[] cities = new String[INITIAL_CAPACITY];
+    private String[] states = new String[INITIAL_CAPACITY];
+    private int highWater;
+    private volatile boolean loaded;
+    private LocalDateTime watermark;
+    // Writes made while a rebuild reads its snapshot, by id; a null value is a removal
+    private Map<Long, Property> writesDuringRebuild;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Property search index warm-up failed, will load on first search: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reload every column from the database
+     */
+    @Scheduled(cron = "${app.search-index.rebuild-cron:0 45 3 * * *}")
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            reload();
+        }
+    }
+
+    private void reload() {
+        lock.writeLock().lock();
+        try {
+            writesDuringRebuild = new LinkedHashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        LocalDateTime started = LocalDateTime.now();
+        List<Property> rows;
+        try {
+            rows = propertyJdbcRepository.findSearchIndexRows();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                writesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            clear();
+            rows.forEach(this::put);
+            writesDuringRebuild.forEach((id, property) -> {
+                if (property == null) {
+                    removeSlot(id);
+                } else {
+                    put(property);
+                }
+            });
+            writesDuringRebuild = null;
+            watermark = started;
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Property search index built with {} entries", rows.size());
+    }
+
+    /**
+     * Fold in properties created, updated or soft-deleted since the last refresh by writers that bypass
+     * PropertyService, and rebuild if the live count still disagrees
+     */
+    @Scheduled(fixedDelayString = "${app.search-index.refresh-interval-ms:60000}",
+               initialDelayString = "${app.search-index.refresh-interval-ms:60000}")
+    public void refresh() {
+        if (!loaded) {
+            return;
+        }
+        synchronized (rebuildLock) {
+            LocalDateTime started = LocalDateTime.now();
+            List<Property> rows = propertyJdbcRepository.findSearchIndexRowsUpdatedSince(watermark.minus(refreshOverlap));
+
+            lock.writeLock().lock();
+            try {
+                rows.forEach(row -> {
+                    if (Boolean.TRUE.equals(row.getIsDeleted())) {
+                        removeSlot(row.getId());
+                    } else {
+                        put(row);
+                    }
+                });
+                watermark = started;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (!rows.isEmpty()) {
+                log.debug("Property search index refreshed with {} changed properties", rows.size());
+            }
+
+            long expected = propertyJdbcRepository.countSearchIndexRows();
+            if (expected != size()) {
+                log.info("Property search index holds {} entries but {} properties are live, rebuilding",
+                        size(), expected);
+                reload();
+            }
+        }
+    }
+
+    // Rebuild unless another caller already has; concurrent callers wait for the one rebuild
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (rebuildLock) {
+            if (!loaded) {
+                reload();
+            }
+        }
+    }
+
+    public void upsert(Property property) {
+        if (property == null || property.getId() == null) {
+            return;
+        }
+        if (Boolean.TRUE.equals(property.getIsDeleted())) {
+            remove(property.getId());
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            put(property);
+            if (writesDuringRebuild != null) {
+                writesDuringRebuild.put(property.getId(), property);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeSlot(id);
+            if (writesDuringRebuild != null) {
+                writesDuringRebuild.put(id, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeSlot(Long id) {
+        Integer slot = slotById.remove(id);
+        if (slot != null) {
+            release(slot);
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Return the ids of all properties matching the search criteria, in ascending id order
+     */
+    public List<Long> search(PropertySearchDTO criteria) {
+        ensureLoaded();
+
+        lock.readLock().lock();
+        try {
+            BitSet candidates = (BitSet) live.clone();
+            narrowByType(candidates, criteria);
+            narrowByStatus(candidates, criteria);
+
+            double minPrice = toDouble(criteria.getMinPrice(), Double.NEGATIVE_INFINITY);
+            double maxPrice = toDouble(criteria.getMaxPrice(), Double.POSITIVE_INFINITY);
+            double minArea = toDouble(criteria.getMinArea(), Double.NEGATIVE_INFINITY);
+            double maxArea = toDouble(criteria.getMaxArea(), Double.POSITIVE_INFINITY);
+            boolean priceFilter = criteria.getMinPrice() != null || criteria.getMaxPrice() != null;
+            boolean areaFilter = criteria.getMinArea() != null || criteria.getMaxArea() != null;
+            boolean bedroomFilter = criteria.getMinBedrooms() != null || criteria.getMaxBedrooms() != null;
+            boolean bathroomFilter = criteria.getMinBathrooms() != null || criteria.getMaxBathrooms() != null;
+            int minBeds = criteria.getMinBedrooms() != null ? criteria.getMinBedrooms() : Integer.MIN_VALUE + 1;
+            int maxBeds = criteria.getMaxBedrooms() != null ? criteria.getMaxBedrooms() : Integer.MAX_VALUE;
+            int minBaths = criteria.getMinBathrooms() != null ? criteria.getMinBathrooms() : Integer.MIN_VALUE + 1;
+            int maxBaths = criteria.getMaxBathrooms() != null ? criteria.getMaxBathrooms() : Integer.MAX_VALUE;
+            String location = lower(criteria.getLocation());
+            String city = lower(criteria.getCity());
+            String state = lower(criteria.getState());
+
+            List<Long> matches = new ArrayList<>();
+            for (int slot = candidates.nextSetBit(0); slot >= 0; slot = candidates.nextSetBit(slot + 1)) {
+                // NaN and NULL_INT never satisfy a range, so properties missing a filtered value are excluded
+                if (priceFilter && !(prices[slot] >= minPrice && prices[slot] <= maxPrice)) {
+                    continue;
+                }
+                if (areaFilter && !(areas[slot] >= minArea && areas[slot] <= maxArea)) {
+                    continue;
+                }
+                if (bedroomFilter && !(bedrooms[slot] >= minBeds && bedrooms[slot] <= maxBeds)) {
+                    continue;
+                }
+                if (bathroomFilter && !(bathrooms[slot] >= minBaths && bathrooms[slot] <= maxBaths)) {
+                    continue;
+                }
+                if (location != null && (locations[slot] == null || !locations[slot].contains(location))) {
+                    continue;
+                }
+                if (city != null && (cities[slot] == null || !cities[slot].contains(city))) {
+                    continue;
+                }
+                if (state != null && !state.equals(states[slot])) {
+                    continue;
+                }
+                matches.add(ids[slot]);
+            }
+            Collections.sort(matches);
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void narrowByType(BitSet candidates, PropertySearchDTO criteria) {
+        Set<PropertySearchDTO.PropertyType> types = new HashSet<>();
+        Optional.ofNullable(criteria.getPropertyTypes()).ifPresent(types::addAll);
+        Optional.ofNullable(criteria.getPropertyType()).ifPresent(types::add);
+        if (types.isEmpty()) {
+            return;
+        }
+        BitSet union = new BitSet();
+        types.forEach(type -> Optional.ofNullable(typeBits.get(Property.PropertyType.valueOf(type.name())))
+            .ifPresent(union::or));
+        candidates.and(union);
+    }
+
+    private void narrowByStatus(BitSet candidates, PropertySearchDTO criteria) {
+        Set<PropertySearchDTO.PropertyStatus> statuses = new HashSet<>();
+        Optional.ofNullable(criteria.getStatuses()).ifPresent(statuses::addAll);
+        Optional.ofNullable(criteria.getStatus()).ifPresent(statuses::add);
+        if (statuses.isEmpty()) {
+            return;
+        }
+        BitSet union = new BitSet();
+        statuses.forEach(status -> Optional.ofNullable(statusBits.get(Property.PropertyStatus.valueOf(status.name())))
+            .ifPresent(union::or));
+        candidates.and(union);
+    }
+
+    // Callers must hold the write lock
+    private void put(Property property) {
+        Integer existing = slotById.get(property.getId());
+        int slot;
+        if (existing != null) {
+            slot = existing;
+            clearBits(slot);
+        } else {
+            slot = freeSlots.isEmpty() ? highWater++ : freeSlots.poll();
+            ensureCapacity(slot + 1);
+            slotById.put(property.getId(), slot);
+        }
+
+        ids[slot] = property.getId();
+        prices[slot] = toDouble(property.getPrice(), Double.NaN);
+        areas[slot] = toDouble(property.getArea(), Double.NaN);
+        bedrooms[slot] = property.getBedrooms() != null ? property.getBedrooms() : NULL_INT;
+        bathrooms[slot] = property.getBathrooms() != null ? property.getBathrooms() : NULL_INT;
+        locations[slot] = lower(property.getLocation());
+        cities[slot] = lower(property.getCity());
+        states[slot] = lower(property.getState());
+
+        if (property.getPropertyType() != null) {
+            typeBits.computeIfAbsent(property.getPropertyType(), t -> new BitSet()).set(slot);
+        }
+        if (property.getStatus() != null) {
+            statusBits.computeIfAbsent(property.getStatus(), s -> new BitSet()).set(slot);
+        }
+        live.set(slot);
+    }
+
+    private void release(int slot) {
+        clearBits(slot);
+        live.clear(slot);
+        locations[slot] = null;
+        cities[slot] = null;
+        states[slot] = null;
+        freeSlots.push(slot);
+    }
+
+    private void clearBits(int slot) {
+        typeBits.values().forEach(bits -> bits.clear(slot));
+        statusBits.values().forEach(bits -> bits.clear(slot));
+    }
+
+    private void clear() {
+        slotById.clear();
+        freeSlots.clear();
+        typeBits.clear();
+        statusBits.clear();
+        live.clear();
+        Arrays.fill(locations, 0, highWater, null);
+        Arrays.fill(cities, 0, highWater, null);
+        Arrays.fill(states, 0, highWater, null);
+        highWater = 0;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= ids.length) {
+            return;
+        }
+        int capacity = Math.max(required, ids.length + (ids.length >> 1));
+        ids = Arrays.copyOf(ids, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+        areas = Arrays.copyOf(areas, capacity);
+        bedrooms = Arrays.copyOf(bedrooms, capacity);
+        bathrooms = Arrays.copyOf(bathrooms, capacity);
+        locations = Arrays.copyOf(locations, capacity);
+        cities = Arrays.copyOf(cities, capacity);
+        states = Arrays.copyOf(states, capacity);
+    }
+
+    private static double toDouble(BigDecimal value, double fallback) {
+        return value != null ? value.doubleValue() : fallback;
+    }
+
+    private static String lower(String value) {
+        return value != null ? value.toLowerCase(Locale.ROOT) : null;
+    }
+}
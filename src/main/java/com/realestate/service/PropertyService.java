@@ -1,29 +1,31 @@
 package com.realestate.service;
 
+import com.realestate.config.ExecutorRegistry;
 import com.realestate.exception.ResourceNotFoundException;
 import com.realestate.exception.BusinessException;
+import com.realestate.model.dto.CursorPageDTO;
 import com.realestate.model.dto.PropertyDTO;
 import com.realestate.model.dto.PropertySearchDTO;
 import com.realestate.model.entity.Property;
 import com.realestate.repository.PropertyRepository;
 import com.realestate.repository.PropertyJdbcRepository;
+import com.realestate.repository.PropertyMarketRollup;
+import com.realestate.util.KeysetCursor;
 import com.realestate.util.PropertyMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.util.*;
 import java.util.function.Function;
-import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 @RequiredArgsConstructor
@@ -34,38 +36,33 @@ public class PropertyService {
     private final PropertyRepository propertyRepository;
     private final PropertyJdbcRepository propertyJdbcRepository;
     private final PropertyMapper propertyMapper;
+    private final PropertySearchIndex propertySearchIndex;
+    private final ExecutorRegistry executorRegistry;
+    private final PropertyCache propertyCache;
+    private final PropertyMarketRollup propertyMarketRollup;
+    private final PortfolioValuationService portfolioValuationService;
     
-    private final Map<Long, Property> propertyCache = new ConcurrentHashMap<>();
-    
-    @Cacheable(value = "properties", key = "#id")
     public PropertyDTO findById(Long id) {
-        log.info("Fetching property with id: {}", id);
-        
-        Optional<Property> property = Optional.ofNullable(propertyCache.get(id))
-            .or(() -> propertyRepository.findById(id))
-            .map(p -> {
-                propertyCache.put(id, p);
-                return p;
-            });
-            
-        return property.map(propertyMapper::toDTO)
-            .orElseThrow(() -> new ResourceNotFoundException("Property not found with id: " + id));
+        return propertyCache.get(id, () -> {
+            log.info("Fetching property with id: {}", id);
+            return propertyRepository.findById(id)
+                .map(propertyMapper::toDTO)
+                .orElseThrow(() -> new ResourceNotFoundException("Property not found with id: " + id));
+        });
     }
     
-    @Cacheable(value = "properties", key = "'all'")
     public List<PropertyDTO> findAll() {
-        log.info("Fetching all properties");
-        
-        List<Property> properties = propertyRepository.findAll();
-        
-        List<PropertyDTO> propertyDTOs = properties.stream()
-            .filter(Objects::nonNull)
-            .map(propertyMapper::toDTO)
-            .sorted(Comparator.comparing(PropertyDTO::getPrice).reversed())
-            .collect(Collectors.toList());
+        return propertyCache.all(() -> {
+            log.info("Fetching all properties");
             
-        log.info("Found {} properties", propertyDTOs.size());
-        return propertyDTOs;
+            List<PropertyDTO> propertyDTOs = propertyRepository.findAll().stream()
+                .filter(Objects::nonNull)
+                .map(propertyMapper::toDTO)
+                .collect(Collectors.toList());
+                
+            log.info("Found {} properties", propertyDTOs.size());
+            return propertyDTOs;
+        });
     }
     
     public Page<PropertyDTO> findAllPaginated(Pageable pageable) {
@@ -73,47 +70,55 @@ public class PropertyService {
             .map(propertyMapper::toDTO);
     }
     
+    /**
+     * Keyset page over all properties through the Criteria search; cost does not grow with page depth
+     */
+    public CursorPageDTO<PropertyDTO> findAllByCursor(String cursor, int size, String sortBy, String sortDirection) {
+        KeysetCursor.SortKey sortKey = KeysetCursor.SortKey.from(sortBy);
+        boolean ascending = KeysetCursor.isAscending(sortDirection);
+        KeysetCursor after = KeysetCursor.decode(cursor, sortKey, ascending);
+        
+        List<Property> rows = propertyRepository.searchPropertiesWithComplexFiltersAfter(
+            Map.of(), sortKey, ascending, after, size + 1);
+        return toCursorPage(rows, size, sortKey, ascending);
+    }
+    
+    /**
+     * Keyset page of a filtered search through the JDBC search, using the sort of the search criteria
+     */
+    public CursorPageDTO<PropertyDTO> searchByCursor(PropertySearchDTO searchDTO, String cursor, int size) {
+        KeysetCursor.SortKey sortKey = KeysetCursor.SortKey.from(
+            Optional.ofNullable(searchDTO.getSortBy()).orElse("createdAt"));
+        boolean ascending = KeysetCursor.isAscending(searchDTO.getSortDirection());
+        
+        Map<String, Object> criteria = toSearchCriteria(searchDTO);
+        criteria.put("sortBy", sortKey.column());
+        criteria.put("sortDirection", ascending ? "ASC" : "DESC");
+        criteria.put("limit", size + 1);
+        Optional.ofNullable(KeysetCursor.decode(cursor, sortKey, ascending))
+            .ifPresent(after -> criteria.put("after", after));
+        
+        return toCursorPage(propertyJdbcRepository.executeComplexPropertySearch(criteria), size, sortKey, ascending);
+    }
+    
     public List<PropertyDTO> searchProperties(PropertySearchDTO searchDTO) {
         log.info("Searching properties with criteria: {}", searchDTO);
         
-        List<Property> allProperties = propertyRepository.findAll();
+        List<Long> matchingIds = propertySearchIndex.search(searchDTO);
+        if (matchingIds.isEmpty()) {
+            return Collections.emptyList();
+        }
         
-        Predicate<Property> locationPredicate = property -> 
-            searchDTO.getLocation() == null || 
-            property.getLocation().toLowerCase().contains(searchDTO.getLocation().toLowerCase());
-            
-        Predicate<Property> minPricePredicate = property -> 
-            searchDTO.getMinPrice() == null || 
-            property.getPrice().compareTo(searchDTO.getMinPrice()) >= 0;
-            
-        Predicate<Property> maxPricePredicate = property -> 
-            searchDTO.getMaxPrice() == null || 
-            property.getPrice().compareTo(searchDTO.getMaxPrice()) <= 0;
-            
-        Predicate<Property> typePredicate = property -> 
-            searchDTO.getPropertyType() == null || 
-            property.getPropertyType().equals(searchDTO.getPropertyType());
+        Map<Long, Property> hydrated = propertyRepository.findAllById(matchingIds).stream()
+            .collect(Collectors.toMap(Property::getId, Function.identity()));
             
-        Predicate<Property> bedroomsPredicate = property -> 
-            searchDTO.getMinBedrooms() == null || 
-            property.getBedrooms() >= searchDTO.getMinBedrooms();
-            
-        Predicate<Property> areaPredicate = property -> 
-            searchDTO.getMinArea() == null || 
-            property.getArea().compareTo(searchDTO.getMinArea()) >= 0;
-            
-        return allProperties.stream()
-            .filter(locationPredicate
-                .and(minPricePredicate)
-                .and(maxPricePredicate)
-                .and(typePredicate)
-                .and(bedroomsPredicate)
-                .and(areaPredicate))
+        return matchingIds.stream()
+            .map(hydrated::get)
+            .filter(Objects::nonNull)
             .map(propertyMapper::toDTO)
             .collect(Collectors.toList());
     }
     
-    @CacheEvict(value = "properties", allEntries = true)
     public PropertyDTO create(PropertyDTO propertyDTO) {
         log.info("Creating new property: {}", propertyDTO);
         
@@ -125,39 +130,55 @@ public class PropertyService {
         // Dates are handled by @CreatedDate and @LastModifiedDate annotations
         
         Property savedProperty = propertyRepository.save(property);
-        propertyCache.put(savedProperty.getId(), savedProperty);
+        PropertyDTO saved = propertyMapper.toDTO(savedProperty);
+        afterCommit(() -> {
+            propertySearchIndex.upsert(savedProperty);
+            propertyCache.saved(saved, null);
+        });
         
         log.info("Property created successfully with id: {}", savedProperty.getId());
-        return propertyMapper.toDTO(savedProperty);
+        return saved;
     }
     
-    @CacheEvict(value = "properties", allEntries = true)
     public PropertyDTO update(Long id, PropertyDTO propertyDTO) {
         log.info("Updating property with id: {}", id);
         
         Property existingProperty = propertyRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("Property not found with id: " + id));
+        PropertyDTO.PropertyType previousType = PropertyDTO.PropertyType.valueOf(existingProperty.getPropertyType().name());
+        BigDecimal previousPrice = existingProperty.getPrice();
             
         updatePropertyFields(existingProperty, propertyDTO);
         // Updated date is handled by @LastModifiedDate annotation
         
-        Property updatedProperty = propertyRepository.save(existingProperty);
-        propertyCache.put(id, updatedProperty);
+        // Flush so the DTO carries the incremented version the cache compares against
+        Property updatedProperty = propertyRepository.saveAndFlush(existingProperty);
+        if (previousPrice.compareTo(updatedProperty.getPrice()) != 0) {
+            portfolioValuationService.propertyPricesChanged(List.of(id));
+        }
+        PropertyDTO updated = propertyMapper.toDTO(updatedProperty);
+        afterCommit(() -> {
+            propertySearchIndex.upsert(updatedProperty);
+            propertyCache.saved(updated, previousType);
+        });
         
         log.info("Property updated successfully");
-        return propertyMapper.toDTO(updatedProperty);
+        return updated;
     }
     
-    @CacheEvict(value = "properties", allEntries = true)
     public void delete(Long id) {
         log.info("Deleting property with id: {}", id);
         
-        if (!propertyRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Property not found with id: " + id);
-        }
+        Property property = propertyRepository.findById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("Property not found with id: " + id));
+        PropertyDTO.PropertyType type = PropertyDTO.PropertyType.valueOf(property.getPropertyType().name());
         
-        propertyRepository.deleteById(id);
-        propertyCache.remove(id);
+        propertyRepository.delete(property);
+        afterCommit(() -> {
+            propertySearchIndex.remove(id);
+            propertyCache.removed(id, type);
+            propertyMarketRollup.remove(id);
+        });
         
         log.info("Property deleted successfully");
     }
@@ -195,17 +216,14 @@ public class PropertyService {
     }
     
     public List<PropertyDTO> getTopProperties(int limit) {
-        List<Property> properties = propertyRepository.findAll();
-        
-        return properties.stream()
-            .sorted(Comparator.comparing(Property::getPrice).reversed())
-            .limit(limit)
-            .map(propertyMapper::toDTO)
-            .collect(Collectors.toList());
+        // The cached listing is already ordered by price, highest first
+        List<PropertyDTO> properties = findAll();
+        return properties.subList(0, Math.min(Math.max(limit, 0), properties.size()));
     }
     
     public CompletableFuture<List<PropertyDTO>> searchPropertiesAsync(PropertySearchDTO searchDTO) {
-        return CompletableFuture.supplyAsync(() -> searchProperties(searchDTO));
+        return CompletableFuture.supplyAsync(() -> searchProperties(searchDTO),
+            executorRegistry.executor(ExecutorRegistry.Pool.IO));
     }
     
     public Optional<PropertyDTO> findCheapestProperty() {
@@ -225,13 +243,72 @@ public class PropertyService {
     }
     
     public Map<String, Long> getPropertyCountByType() {
-        List<Property> properties = propertyRepository.findAll();
-        
-        return properties.stream()
+        return propertyCache.countByType(() -> propertyRepository.findAll().stream()
             .collect(Collectors.groupingBy(
                 property -> property.getPropertyType().name(),
                 Collectors.counting()
-            ));
+            )));
+    }
+    
+    public Map<String, Object> getLocationMarketAnalysis(String city, String state, Property.PropertyType propertyType) {
+        return propertyRepository.getLocationMarketAnalysis(city, state, propertyType);
+    }
+    
+    public Map<String, Object> getPriceTrends(String city, String state, Property.PropertyType propertyType) {
+        return propertyRepository.getPropertyPriceTrends(city, state, propertyType);
+    }
+    
+    public List<Map<String, Object>> getMarketHeatMap(String state) {
+        return propertyRepository.getPropertyMarketHeatMap(state);
+    }
+    
+    public Map<String, Object> getInventoryAnalysis(String city, String state) {
+        return propertyRepository.getPropertyInventoryAnalysis(city, state);
+    }
+    
+    // Keep the search index and cache in step with committed data only, so a rolled-back write is never served
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+    
+    // Rows are fetched one past the page size; the extra row only signals that another page exists
+    private CursorPageDTO<PropertyDTO> toCursorPage(List<Property> rows, int size,
+                                                    KeysetCursor.SortKey sortKey, boolean ascending) {
+        boolean hasNext = rows.size() > size;
+        List<Property> page = hasNext ? rows.subList(0, size) : rows;
+        
+        return CursorPageDTO.<PropertyDTO>builder()
+            .content(page.stream().map(propertyMapper::toDTO).collect(Collectors.toList()))
+            .size(page.size())
+            .hasNext(hasNext)
+            .nextCursor(hasNext ? KeysetCursor.after(page.get(page.size() - 1), sortKey, ascending).encode() : null)
+            .build();
+    }
+    
+    private Map<String, Object> toSearchCriteria(PropertySearchDTO searchDTO) {
+        Map<String, Object> criteria = new HashMap<>();
+        Optional.ofNullable(searchDTO.getPropertyType()).ifPresent(type -> criteria.put("propertyType", type.name()));
+        Optional.ofNullable(searchDTO.getStatus()).ifPresent(status -> criteria.put("status", status.name()));
+        Optional.ofNullable(searchDTO.getMinPrice()).ifPresent(value -> criteria.put("minPrice", value));
+        Optional.ofNullable(searchDTO.getMaxPrice()).ifPresent(value -> criteria.put("maxPrice", value));
+        Optional.ofNullable(searchDTO.getCity()).ifPresent(value -> criteria.put("city", value));
+        Optional.ofNullable(searchDTO.getState()).ifPresent(value -> criteria.put("state", value));
+        Optional.ofNullable(searchDTO.getMinBedrooms()).ifPresent(value -> criteria.put("minBedrooms", value));
+        Optional.ofNullable(searchDTO.getMinArea()).ifPresent(value -> criteria.put("minArea", value));
+        Optional.ofNullable(searchDTO.getMaxArea()).ifPresent(value -> criteria.put("maxArea", value));
+        Optional.ofNullable(searchDTO.getAmenities())
+            .filter(amenities -> !amenities.isEmpty())
+            .ifPresent(amenities -> criteria.put("hasAmenities", new ArrayList<>(amenities)));
+        return criteria;
     }
     
     private void updatePropertyFields(Property property, PropertyDTO dto) {
@@ -1,42 +1,42 @@
 package com.realestate.service;
 
-import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
+import com.realestate.util.RateLimiter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Attempt limiting for authentication endpoints: MAX_ATTEMPTS per sliding WINDOW_DURATION, after which the
+ * key is blocked for BLOCK_DURATION. Counters are only dropped once idle, so attackers cannot reset theirs by
+ * flooding it with other keys, and at most MAX_KEYS keys are tracked: past that, new keys share one counter
+ * and are not blocked individually. Route-level limits live in RateLimitFilter.
+ */
 @Service
 @Slf4j
-public class RateLimitService {
+public class RateLimitService implements MeterBinder {
 
     private static final int MAX_ATTEMPTS = 10;
     private static final Duration WINDOW_DURATION = Duration.ofMinutes(15);
     private static final Duration BLOCK_DURATION = Duration.ofMinutes(30);
+    private static final int MAX_KEYS = 100_000;
 
-    private final Cache<String, AtomicInteger> attemptCache;
-    private final Cache<String, Long> blockCache;
+    private final RateLimiter attemptLimiter;
+    private final Map<String, Long> blockedUntil = new ConcurrentHashMap<>();
 
     public RateLimitService() {
-        this.attemptCache = Caffeine.newBuilder()
-                .expireAfterWrite(WINDOW_DURATION)
-                .maximumSize(10000)
-                .build();
-
-        this.blockCache = Caffeine.newBuilder()
-                .expireAfterWrite(BLOCK_DURATION)
-                .maximumSize(10000)
-                .build();
+        this.attemptLimiter = new RateLimiter(RateLimiter.Algorithm.SLIDING_LOG, MAX_ATTEMPTS, WINDOW_DURATION,
+                MAX_KEYS);
     }
 
     public boolean isBlocked(String key) {
-        Long blockedUntil = blockCache.getIfPresent(key);
-        if (blockedUntil != null && System.currentTimeMillis() < blockedUntil) {
-            return true;
-        }
-        return false;
+        return getBlockTimeRemaining(key) > 0;
     }
 
     public boolean tryAcquire(String key) {
@@ -45,11 +45,10 @@ public class RateLimitService {
             return false;
         }
 
-        AtomicInteger attempts = attemptCache.get(key, k -> new AtomicInteger(0));
-        int currentAttempts = attempts.incrementAndGet();
-
-        if (currentAttempts > MAX_ATTEMPTS) {
-            blockCache.put(key, System.currentTimeMillis() + BLOCK_DURATION.toMillis());
+        if (!attemptLimiter.tryAcquire(key).allowed()) {
+            if (blockedUntil.size() < MAX_KEYS || blockedUntil.containsKey(key)) {
+                blockedUntil.put(key, System.currentTimeMillis() + BLOCK_DURATION.toMillis());
+            }
             log.warn("Rate limit exceeded for {}, blocking for {} minutes", key, BLOCK_DURATION.toMinutes());
             return false;
         }
@@ -58,23 +57,43 @@ public class RateLimitService {
     }
 
     public void reset(String key) {
-        attemptCache.invalidate(key);
-        blockCache.invalidate(key);
+        attemptLimiter.reset(key);
+        blockedUntil.remove(key);
     }
 
     public int getRemainingAttempts(String key) {
-        AtomicInteger attempts = attemptCache.getIfPresent(key);
-        if (attempts == null) {
-            return MAX_ATTEMPTS;
-        }
-        return Math.max(0, MAX_ATTEMPTS - attempts.get());
+        return (int) attemptLimiter.remaining(key);
     }
 
     public long getBlockTimeRemaining(String key) {
-        Long blockedUntil = blockCache.getIfPresent(key);
-        if (blockedUntil == null) {
+        Long until = blockedUntil.get(key);
+        if (until == null) {
+            return 0;
+        }
+        long remaining = until - System.currentTimeMillis();
+        if (remaining <= 0) {
+            blockedUntil.remove(key, until);
             return 0;
         }
-        return Math.max(0, blockedUntil - System.currentTimeMillis());
+        return remaining;
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void evictIdle() {
+        long now = System.currentTimeMillis();
+        blockedUntil.values().removeIf(until -> until <= now);
+        attemptLimiter.evictIdle();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("ratelimit.keys", attemptLimiter, RateLimiter::activeKeys)
+                .tag("policy", "auth")
+                .description("Keys currently tracked by the rate limiter")
+                .register(registry);
+        Gauge.builder("ratelimit.blocked", blockedUntil, Map::size)
+                .tag("policy", "auth")
+                .description("Keys currently blocked after exceeding the attempt limit")
+                .register(registry);
     }
 }
@@ -0,0 +1,290 @@
+package com.realestate.service;
+
+import com.realestate.config.ExecutorRegistry;
+import com.realestate.exception.PaymentException;
+import com.realestate.util.CircuitBreaker;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Non-blocking client for Razorpay order creation, called outside any database transaction.
+ * At most maxInFlight requests are outstanding; beyond that a call is refused at once instead of queueing.
+ * A circuit breaker stops calling a gateway that keeps failing. Order creation is not idempotent, so an attempt
+ * is only retried when its connection failed before the request was sent, up to maxAttempts attempts and an
+ * overall timeout; a request Razorpay may have received is never sent again.
+ * Hedging is opt-in: with a non-zero hedgeDelay another attempt is raced against one that has not answered by
+ * then and the first order id to come back wins. The losing attempt's order stays at Razorpay in the created
+ * state, unpaid, and shows up in reconciliation, so only enable it where that is acceptable.
+ */
+@Component
+@Slf4j
+public class RazorpayGateway implements MeterBinder {
+
+    public record OrderRequest(String receipt, long amountPaise, String currency, Map<String, Object> notes) {}
+
+    private final HttpClient httpClient;
+    private final URI ordersUri;
+    private final String authorization;
+    private final Duration timeout;
+    private final Duration hedgeDelay;
+    private final int maxAttempts;
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+    private final CircuitBreaker circuitBreaker;
+    private final AtomicLong hedgedAttempts = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public RazorpayGateway(ExecutorRegistry executorRegistry,
+                           @Value("${app.payments.gateway.base-url:https://api.razorpay.com/v1}") String baseUrl,
+                           @Value("${razorpay.key.id}") String keyId,
+                           @Value("${razorpay.key.secret}") String keySecret,
+                           @Value("${app.payments.gateway.max-in-flight:64}") int maxInFlight,
+                           @Value("${app.payments.gateway.timeout:10s}") Duration timeout,
+                           @Value("${app.payments.gateway.hedge-delay:0s}") Duration hedgeDelay,
+                           @Value("${app.payments.gateway.max-attempts:2}") int maxAttempts,
+                           @Value("${app.payments.gateway.circuit.failure-threshold:5}") int failureThreshold,
+                           @Value("${app.payments.gateway.circuit.open-duration:30s}") Duration openDuration) {
+        this(executorRegistry.executor(ExecutorRegistry.Pool.EXTERNAL), baseUrl, keyId, keySecret, maxInFlight,
+                timeout, hedgeDelay, maxAttempts, new CircuitBreaker(failureThreshold, openDuration));
+    }
+
+    public RazorpayGateway(Executor executor, String baseUrl, String keyId, String keySecret, int maxInFlight,
+                           Duration timeout, Duration hedgeDelay, int maxAttempts, CircuitBreaker circuitBreaker) {
+        this.httpClient = HttpClient.newBuilder()
+                .executor(executor)
+                .connectTimeout(timeout)
+                .build();
+        this.ordersUri = URI.create(baseUrl.replaceAll("/+$", "") + "/orders");
+        this.authorization = "Basic " + Base64.getEncoder()
+                .encodeToString((keyId + ":" + keySecret).getBytes(StandardCharsets.UTF_8));
+        this.timeout = timeout;
+        this.hedgeDelay = hedgeDelay;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    /**
+     * Create the order; completes with the Razorpay order id, or exceptionally with a PaymentException
+     */
+    public CompletableFuture<String> createOrder(OrderRequest request) {
+        if (!inFlight.tryAcquire()) {
+            rejected.incrementAndGet();
+            return CompletableFuture.failedFuture(
+                    new PaymentException("Payment gateway is busy, please try again"));
+        }
+        if (!circuitBreaker.tryAcquire()) {
+            inFlight.release();
+            rejected.incrementAndGet();
+            return CompletableFuture.failedFuture(
+                    new PaymentException("Payment gateway is temporarily unavailable, please try again"));
+        }
+        return new HedgedCall(orderRequest(request)).start();
+    }
+
+    public CircuitBreaker.State circuitState() {
+        return circuitBreaker.state();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("payments.gateway.in_flight", inFlight, s -> maxInFlight - s.availablePermits())
+                .description("Razorpay requests awaiting a response")
+                .register(registry);
+        Gauge.builder("payments.gateway.circuit.open", circuitBreaker,
+                        breaker -> breaker.state() == CircuitBreaker.State.CLOSED ? 0 : 1)
+                .description("1 while the Razorpay circuit breaker is refusing calls or probing")
+                .register(registry);
+        FunctionCounter.builder("payments.gateway.hedged", hedgedAttempts, AtomicLong::get)
+                .description("Extra attempts sent because an earlier one was slow or could not connect")
+                .register(registry);
+        FunctionCounter.builder("payments.gateway.rejected", rejected, AtomicLong::get)
+                .description("Order requests refused by the in-flight limit or the open circuit")
+                .register(registry);
+    }
+
+    private HttpRequest orderRequest(OrderRequest request) {
+        JSONObject body = new JSONObject();
+        body.put("amount", request.amountPaise());
+        body.put("currency", request.currency());
+        body.put("receipt", request.receipt());
+        body.put("notes", new JSONObject(request.notes()));
+
+        return HttpRequest.newBuilder(ordersUri)
+                .timeout(timeout)
+                .header("Authorization", authorization)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+    }
+
+    /**
+     * Attempts of one order creation. The caller's permit covers the first attempt, each later one takes its
+     * own. Launch decisions are made under the call's monitor; the result is completed outside it.
+     */
+    private final class HedgedCall {
+
+        private final HttpRequest request;
+        private final CompletableFuture<String> result = new CompletableFuture<>();
+        private int started;
+        private int running;
+
+        private HedgedCall(HttpRequest request) {
+            this.request = request;
+        }
+
+        private CompletableFuture<String> start() {
+            synchronized (this) {
+                started = 1;
+                running = 1;
+            }
+            send(1);
+            return result.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                    .whenComplete((orderId, error) -> recordOutcome(error))
+                    .exceptionallyCompose(error -> CompletableFuture.failedFuture(translate(error)));
+        }
+
+        private void send(int attempt) {
+            if (!hedgeDelay.isZero() && attempt < maxAttempts) {
+                CompletableFuture.delayedExecutor(hedgeDelay.toMillis(), TimeUnit.MILLISECONDS)
+                        .execute(this::hedge);
+            }
+            httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                    .thenApply(RazorpayGateway::orderId)
+                    .whenComplete((orderId, error) -> {
+                        inFlight.release();
+                        if (error == null) {
+                            attemptDone();
+                            result.complete(orderId);
+                        } else {
+                            attemptFailed(attempt, unwrap(error));
+                        }
+                    });
+        }
+
+        // Runs hedgeDelay after an attempt started, racing one more attempt against the slow ones
+        private void hedge() {
+            Integer next;
+            synchronized (this) {
+                next = claimNextAttempt();
+            }
+            if (next != null) {
+                send(next);
+            }
+        }
+
+        private void attemptFailed(int attempt, Throwable error) {
+            log.warn("Razorpay order attempt {} failed: {}", attempt, error.getMessage());
+            Integer next = null;
+            boolean exhausted;
+            synchronized (this) {
+                running--;
+                if (neverSent(error)) {
+                    next = claimNextAttempt();
+                }
+                exhausted = next == null && (running == 0 || error instanceof GatewayRejection);
+            }
+            if (next != null) {
+                send(next);
+            } else if (exhausted) {
+                result.completeExceptionally(error);
+            }
+        }
+
+        private synchronized void attemptDone() {
+            running--;
+        }
+
+        private Integer claimNextAttempt() {
+            if (result.isDone() || started >= maxAttempts || !inFlight.tryAcquire()) {
+                return null;
+            }
+            hedgedAttempts.incrementAndGet();
+            running++;
+            return ++started;
+        }
+
+        private void recordOutcome(Throwable error) {
+            // A request Razorpay refused says nothing about its health
+            if (error == null || unwrap(error) instanceof GatewayRejection) {
+                circuitBreaker.recordSuccess();
+            } else {
+                circuitBreaker.recordFailure();
+            }
+        }
+    }
+
+    private static String orderId(HttpResponse<String> response) {
+        int status = response.statusCode();
+        if (status >= 200 && status < 300) {
+            return new JSONObject(response.body()).getString("id");
+        }
+        String description = errorDescription(response.body());
+        if (status >= 500 || status == 429) {
+            throw new PaymentException("Razorpay returned " + status + ": " + description);
+        }
+        throw new GatewayRejection("Razorpay rejected the order: " + description);
+    }
+
+    private static String errorDescription(String body) {
+        try {
+            return new JSONObject(body).getJSONObject("error").optString("description", body);
+        } catch (RuntimeException e) {
+            return body;
+        }
+    }
+
+    // Connection refused or not established in time: Razorpay cannot have seen the request, so resending is safe
+    private static boolean neverSent(Throwable error) {
+        return error instanceof ConnectException || error instanceof HttpConnectTimeoutException;
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private static PaymentException translate(Throwable error) {
+        Throwable cause = unwrap(error);
+        if (cause instanceof PaymentException paymentException) {
+            return paymentException;
+        }
+        if (cause instanceof TimeoutException) {
+            return new PaymentException("Payment gateway did not respond in time, please try again", cause);
+        }
+        return new PaymentException("Failed to create payment order: " + cause.getMessage(), cause);
+    }
+
+    /**
+     * Razorpay answered with a client error; sending the same request again cannot succeed
+     */
+    private static final class GatewayRejection extends PaymentException {
+        private GatewayRejection(String message) {
+            super(message);
+        }
+    }
+}
@@ -3,7 +3,6 @@ package com.realestate.service;
 import com.razorpay.Order;
 import com.razorpay.RazorpayClient;
 import com.razorpay.RazorpayException;
-import com.razorpay.Utils;
 import com.realestate.model.entity.Payment;
 import com.realestate.model.entity.Property;
 import com.realestate.repository.PaymentRepository;
@@ -16,8 +15,6 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Optional;
@@ -37,10 +34,16 @@ public class RazorpayService {
 
     private final PaymentRepository paymentRepository;
     private final PropertyRepository propertyRepository;
+    private final RazorpaySignatureVerifier razorpaySignatureVerifier;
+    private final PaymentAggregateService paymentAggregateService;
 
-    public RazorpayService(PaymentRepository paymentRepository, PropertyRepository propertyRepository) {
+    public RazorpayService(PaymentRepository paymentRepository, PropertyRepository propertyRepository,
+                           RazorpaySignatureVerifier razorpaySignatureVerifier,
+                           PaymentAggregateService paymentAggregateService) {
         this.paymentRepository = paymentRepository;
         this.propertyRepository = propertyRepository;
+        this.razorpaySignatureVerifier = razorpaySignatureVerifier;
+        this.paymentAggregateService = paymentAggregateService;
     }
 
     @PostConstruct
@@ -105,20 +108,9 @@ public class RazorpayService {
     }
 
     public boolean verifyPaymentSignature(String orderId, String paymentId, String signature) {
-        try {
-            JSONObject options = new JSONObject();
-            options.put("razorpay_order_id", orderId);
-            options.put("razorpay_payment_id", paymentId);
-            options.put("razorpay_signature", signature);
-
-            boolean isValid = Utils.verifyPaymentSignature(options, keySecret);
-            log.info("Payment signature verification result: {}", isValid);
-            return isValid;
-
-        } catch (Exception e) {
-            log.error("Error verifying payment signature: ", e);
-            return false;
-        }
+        boolean isValid = razorpaySignatureVerifier.verify(orderId, paymentId, signature);
+        log.info("Payment signature verification result: {}", isValid);
+        return isValid;
     }
 
     @Transactional
@@ -126,6 +118,7 @@ public class RazorpayService {
         Payment payment = paymentRepository.findByOrderId(orderId)
                 .or(() -> paymentRepository.findByRazorpayOrderId(orderId))
                 .orElse(new Payment());
+        boolean alreadyPaid = payment.isPaid();
 
         payment.setOrderId(orderId);
         payment.setRazorpayOrderId(orderId);
@@ -141,14 +134,17 @@ public class RazorpayService {
             payment.setCreatedAt(LocalDateTime.now());
         }
 
-        return paymentRepository.save(payment);
+        Payment saved = paymentRepository.save(payment);
+        if (!alreadyPaid) {
+            paymentAggregateService.recordSuccess(saved);
+        }
+        return saved;
     }
 
     public String getKeyId() {
         return keyId;
     }
 
-    // Manual signature verification (alternative method)
     public String createPaymentLink(Double amountInRupees, Long propertyId) throws RazorpayException {
         try {
             int amountInPaise = (int)(amountInRupees * 100);
@@ -207,36 +203,4 @@ public class RazorpayService {
             throw new RazorpayException("Failed to create payment link: " + e.getMessage());
         }
     }
-
-    private boolean verifySignatureManually(String orderId, String paymentId, String signature) {
-        try {
-            String payload = orderId + "|" + paymentId;
-
-            Mac mac = Mac.getInstance("HmacSHA256");
-            SecretKeySpec secretKeySpec = new SecretKeySpec(keySecret.getBytes(), "HmacSHA256");
-            mac.init(secretKeySpec);
-
-            byte[] hash = mac.doFinal(payload.getBytes());
-
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) {
-                    hexString.append('0');
-                }
-                hexString.append(hex);
-            }
-
-            String generatedSignature = hexString.toString();
-            boolean isValid = generatedSignature.equals(signature);
-
-            log.debug("Manual signature verification - Expected: {}, Received: {}, Valid: {}",
-                     generatedSignature, signature, isValid);
-
-            return isValid;
-        } catch (Exception e) {
-            log.error("Error in manual signature verification: ", e);
-            return false;
-        }
-    }
 }
\ No newline at end of file
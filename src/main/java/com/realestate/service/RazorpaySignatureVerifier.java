@@ -0,0 +1,26 @@
+package com.realestate.service;
+
+import com.realestate.util.Crypto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Checks the razorpay_signature of a checkout callback: the hex HMAC-SHA256 of "orderId|paymentId" under the
+ * key secret. Same result as Utils.verifyPaymentSignature without a new Mac, key setup and string per call.
+ */
+@Component
+public class RazorpaySignatureVerifier {
+
+    private final Crypto.Hmac hmac;
+
+    public RazorpaySignatureVerifier(@Value("${razorpay.key.secret}") String keySecret) {
+        this.hmac = Crypto.hmacSha256(keySecret);
+    }
+
+    public boolean verify(String orderId, String paymentId, String signature) {
+        if (orderId == null || paymentId == null || signature == null) {
+            return false;
+        }
+        return hmac.verifyHex(orderId, '|', paymentId, signature);
+    }
+}
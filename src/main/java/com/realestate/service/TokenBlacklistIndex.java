@@ -0,0 +1,192 @@
+package com.realestate.service;
+
+import com.realestate.model.entity.TokenBlacklist;
+import com.realestate.repository.TokenBlacklistRepository;
+import com.realestate.util.BloomFilter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory copy of the unexpired token blacklist.
+ * A Bloom filter answers the common "not blacklisted" case without touching the map; the map of
+ * blacklisted JTIs to their expiry is authoritative for the rest. Loaded from token_blacklist at startup,
+ * fed by TokenService on every blacklisting and by polling for rows written by other nodes, so a token
+ * revoked elsewhere is rejected here within one sync interval. If polling stops succeeding the index stops
+ * answering and callers fall back to the database. Sync may only be disabled for a single instance.
+ * Expired entries are pruned periodically and the filter is rebuilt from what remains.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TokenBlacklistIndex {
+
+    private final TokenBlacklistRepository tokenBlacklistRepository;
+
+    @Value("${app.token-blacklist.expected-entries:100000}")
+    private long expectedEntries = 100000;
+
+    @Value("${app.token-blacklist.false-positive-rate:0.01}")
+    private double falsePositiveRate = 0.01;
+
+    @Value("${app.token-blacklist.sync.enabled:true}")
+    private boolean syncEnabled = true;
+
+    // Poll window overlap, absorbs clock skew between nodes and rows committed late
+    @Value("${app.token-blacklist.sync.overlap:1m}")
+    private Duration syncOverlap = Duration.ofMinutes(1);
+
+    // Longest time since the last successful poll for which the index still answers on its own
+    @Value("${app.token-blacklist.sync.max-lag:1m}")
+    private Duration maxSyncLag = Duration.ofMinutes(1);
+
+    private final Map<String, LocalDateTime> expiryByJti = new ConcurrentHashMap<>();
+    // Serialises writers so a filter rebuild can never miss a concurrent add; readers take no lock
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile BloomFilter filter;
+    private volatile long filterCapacity;
+    private volatile boolean loaded;
+    private volatile LocalDateTime syncedUpTo;
+    private volatile LocalDateTime lastSyncAt;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            load();
+        } catch (RuntimeException e) {
+            log.warn("Token blacklist index warm-up failed, blacklist checks will query the database: {}",
+                    e.getMessage());
+        }
+    }
+
+    /**
+     * Load every unexpired blacklist row, keeping entries added meanwhile
+     */
+    public void load() {
+        LocalDateTime now = LocalDateTime.now();
+        List<TokenBlacklist> rows = tokenBlacklistRepository.findByExpiresAtAfter(now);
+        writeLock.lock();
+        try {
+            rows.forEach(row -> expiryByJti.merge(row.getJti(), row.getExpiresAt(), this::later));
+            rebuildFilter();
+            syncedUpTo = rows.stream()
+                    .map(TokenBlacklist::getBlacklistedAt)
+                    .max(LocalDateTime::compareTo)
+                    .orElse(now);
+            lastSyncAt = now;
+            loaded = true;
+        } finally {
+            writeLock.unlock();
+        }
+        log.info("Token blacklist index loaded with {} entries", expiryByJti.size());
+    }
+
+    /**
+     * Whether the index can answer on its own: loaded and, when syncing, polled recently.
+     * Otherwise callers must ask the database
+     */
+    public boolean isLoaded() {
+        if (!loaded) {
+            return false;
+        }
+        return !syncEnabled || lastSyncAt.isAfter(LocalDateTime.now().minus(maxSyncLag));
+    }
+
+    public void add(String jti, LocalDateTime expiresAt) {
+        if (jti == null || expiresAt == null) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            expiryByJti.merge(jti, expiresAt, this::later);
+            if (filter == null || expiryByJti.size() > filterCapacity) {
+                rebuildFilter();
+            } else {
+                filter.put(jti);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public boolean contains(String jti) {
+        BloomFilter current = filter;
+        if (jti == null || current == null || !current.mightContain(jti)) {
+            return false;
+        }
+        LocalDateTime expiresAt = expiryByJti.get(jti);
+        return expiresAt != null && expiresAt.isAfter(LocalDateTime.now());
+    }
+
+    public int size() {
+        return expiryByJti.size();
+    }
+
+    /**
+     * Pull blacklistings committed by other nodes since the last poll
+     */
+    @Scheduled(fixedDelayString = "${app.token-blacklist.sync.interval-ms:15000}",
+               initialDelayString = "${app.token-blacklist.sync.interval-ms:15000}")
+    public void sync() {
+        if (!syncEnabled || !loaded) {
+            return;
+        }
+        LocalDateTime started = LocalDateTime.now();
+        LocalDateTime since = syncedUpTo.minus(syncOverlap);
+        List<TokenBlacklist> rows = tokenBlacklistRepository.findByBlacklistedAtAfter(since);
+        rows.forEach(row -> add(row.getJti(), row.getExpiresAt()));
+        rows.stream()
+                .map(TokenBlacklist::getBlacklistedAt)
+                .max(LocalDateTime::compareTo)
+                .filter(latest -> latest.isAfter(syncedUpTo))
+                .ifPresent(latest -> syncedUpTo = latest);
+        lastSyncAt = started;
+        if (!rows.isEmpty()) {
+            log.debug("Synced {} token blacklist entries since {}", rows.size(), since);
+        }
+    }
+
+    /**
+     * Drop expired entries and rebuild the filter so it stops matching them
+     */
+    @Scheduled(fixedDelayString = "${app.token-blacklist.prune-interval-ms:600000}",
+               initialDelayString = "${app.token-blacklist.prune-interval-ms:600000}")
+    public void prune() {
+        LocalDateTime now = LocalDateTime.now();
+        writeLock.lock();
+        try {
+            int before = expiryByJti.size();
+            expiryByJti.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+            if (expiryByJti.size() != before) {
+                rebuildFilter();
+                log.debug("Pruned {} expired token blacklist entries", before - expiryByJti.size());
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Caller holds writeLock. The new filter is filled before it is published, so readers never see it partial
+    private void rebuildFilter() {
+        long capacity = Math.max(expectedEntries, 2L * expiryByJti.size());
+        BloomFilter rebuilt = new BloomFilter(capacity, falsePositiveRate);
+        expiryByJti.keySet().forEach(rebuilt::put);
+        filterCapacity = capacity;
+        filter = rebuilt;
+    }
+
+    private LocalDateTime later(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+}
@@ -8,17 +8,14 @@ import com.realestate.repository.RefreshTokenRepository;
 import com.realestate.repository.TokenBlacklistRepository;
 import com.realestate.repository.UserRepository;
 import com.realestate.security.JwtTokenProvider;
+import com.realestate.util.Crypto;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
-import java.util.Base64;
 import java.util.List;
 import java.util.UUID;
 
@@ -32,6 +29,7 @@ public class TokenService {
     private final TokenBlacklistRepository tokenBlacklistRepository;
     private final UserRepository userRepository;
     private final JwtTokenProvider jwtTokenProvider;
+    private final TokenBlacklistIndex tokenBlacklistIndex;
 
     public RefreshToken createRefreshToken(User user, String ipAddress, String userAgent) {
         String familyId = UUID.randomUUID().toString();
@@ -102,9 +100,17 @@ public class TokenService {
                 .reason(reason)
                 .build();
         tokenBlacklistRepository.save(blacklist);
+        // Indexed before commit so the revocation applies at once; a rolled-back entry only lingers until expiry
+        tokenBlacklistIndex.add(jti, expiresAt);
     }
 
+    /**
+     * Answered from memory while the blacklist index is loaded and in sync; the database is asked otherwise
+     */
     public boolean isTokenBlacklisted(String jti) {
+        if (tokenBlacklistIndex.isLoaded()) {
+            return tokenBlacklistIndex.contains(jti);
+        }
         return tokenBlacklistRepository.existsByJti(jti);
     }
 
@@ -137,13 +143,7 @@ public class TokenService {
     }
 
     private String hashToken(String token) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(token.getBytes(StandardCharsets.UTF_8));
-            return Base64.getEncoder().encodeToString(hash);
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("SHA-256 algorithm not available", e);
-        }
+        return Crypto.sha256Base64(token);
     }
 
     public record TokenRotationResult(String accessToken, String refreshTokenHash, RefreshToken refreshToken) {}
@@ -8,6 +8,8 @@ import com.realestate.model.dto.AuthResponseDTO;
 import com.realestate.model.dto.UserDTO;
 import com.realestate.model.entity.User;
 import com.realestate.repository.UserRepository;
+import com.realestate.security.CurrentUserProvider;
+import com.realestate.security.CustomUserDetailsService;
 import com.realestate.security.JwtTokenProvider;
 import com.realestate.util.UserMapper;
 import lombok.RequiredArgsConstructor;
@@ -19,6 +21,8 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -36,6 +40,8 @@ public class UserService {
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider jwtTokenProvider;
     private final UserMapper userMapper;
+    private final CustomUserDetailsService userDetailsService;
+    private final CurrentUserProvider currentUserProvider;
 
     public AuthResponseDTO authenticate(AuthRequestDTO authRequest) {
         log.info("Authenticating user: {}", authRequest.getUsernameOrEmail());
@@ -136,10 +142,13 @@ public class UserService {
             throw new DuplicateResourceException("Email already exists");
         }
         
+        String previousUsername = existingUser.getUsername();
+        String previousEmail = existingUser.getEmail();
         updateUserFields(existingUser, userDTO);
         existingUser.setUpdatedAt(LocalDateTime.now());
         
         User updatedUser = userRepository.save(existingUser);
+        evictPrincipal(previousUsername, previousEmail, updatedUser.getUsername(), updatedUser.getEmail());
         log.info("User updated successfully");
         
         return userMapper.toDTO(updatedUser);
@@ -148,11 +157,11 @@ public class UserService {
     public void delete(Long id) {
         log.info("Deleting user with id: {}", id);
         
-        if (!userRepository.existsById(id)) {
-            throw new ResourceNotFoundException("User not found with id: " + id);
-        }
+        User user = userRepository.findById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
         
-        userRepository.deleteById(id);
+        userRepository.delete(user);
+        evictPrincipal(user.getUsername(), user.getEmail());
         log.info("User deleted successfully");
     }
     
@@ -170,6 +179,7 @@ public class UserService {
         user.setUpdatedAt(LocalDateTime.now());
         
         User updatedUser = userRepository.save(user);
+        evictPrincipal(updatedUser.getUsername(), updatedUser.getEmail());
         log.info("Password changed successfully");
         
         return userMapper.toDTO(updatedUser);
@@ -195,13 +205,26 @@ public class UserService {
     
     public boolean isCurrentUserAdmin() {
         try {
-            UserDTO currentUser = getCurrentUser();
-            return UserDTO.UserRole.ADMIN == currentUser.getRole();
+            return currentUserProvider.get().role() == User.UserRole.ADMIN;
         } catch (Exception e) {
             return false;
         }
     }
     
+    // Cached principals are keyed by login name, which may be the username or the email
+    private void evictPrincipal(String... loginNames) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            userDetailsService.evict(loginNames);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                userDetailsService.evict(loginNames);
+            }
+        });
+    }
+    
     private void updateUserFields(User user, UserDTO dto) {
         Optional.ofNullable(dto.getUsername()).ifPresent(user::setUsername);
         Optional.ofNullable(dto.getEmail()).ifPresent(user::setEmail);
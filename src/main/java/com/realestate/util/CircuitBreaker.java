@@ -0,0 +1,81 @@
+package com.realestate.util;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Consecutive-failure circuit breaker. After failureThreshold failures in a row the circuit opens and calls
+ * are refused for openDuration; the first call after that is let through alone as a trial (HALF_OPEN), and
+ * its outcome closes the circuit again or re-opens it for another openDuration.
+ * State is two atomics, no locks are taken.
+ */
+public final class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    // openedAt value while the circuit is closed
+    private static final long CLOSED = Long.MIN_VALUE;
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier nanoClock;
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicLong openedAt = new AtomicLong(CLOSED);
+    private final AtomicInteger trialInFlight = new AtomicInteger();
+
+    public CircuitBreaker(int failureThreshold, Duration openDuration) {
+        this(failureThreshold, openDuration, System::nanoTime);
+    }
+
+    public CircuitBreaker(int failureThreshold, Duration openDuration, LongSupplier nanoClock) {
+        if (failureThreshold < 1 || openDuration.isNegative()) {
+            throw new IllegalArgumentException("Circuit breaker needs a positive failure threshold");
+        }
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    public State state() {
+        long opened = openedAt.get();
+        if (opened == CLOSED) {
+            return State.CLOSED;
+        }
+        return nanoClock.getAsLong() - opened < openNanos ? State.OPEN : State.HALF_OPEN;
+    }
+
+    /**
+     * Whether a call may proceed now. A caller let through must report its outcome with recordSuccess or
+     * recordFailure, otherwise a half-open circuit never admits another trial.
+     */
+    public boolean tryAcquire() {
+        return switch (state()) {
+            case CLOSED -> true;
+            case OPEN -> false;
+            case HALF_OPEN -> trialInFlight.compareAndSet(0, 1);
+        };
+    }
+
+    public void recordSuccess() {
+        consecutiveFailures.set(0);
+        openedAt.set(CLOSED);
+        trialInFlight.set(0);
+    }
+
+    public void recordFailure() {
+        long now = nanoClock.getAsLong();
+        if (openedAt.get() != CLOSED) {
+            // A failed trial re-opens the circuit for a full period
+            openedAt.set(now);
+            trialInFlight.set(0);
+        } else if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            openedAt.compareAndSet(CLOSED, now);
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.realestate.util;
+
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * SHA-256 and HMAC-SHA256 on per-thread instances. MessageDigest.getInstance and Mac.getInstance walk the
+ * provider list and Mac.init re-derives the key pads on every call; here each thread keeps one digest, and
+ * one Mac per key already initialised, together with scratch buffers. The byte[] entry points and the
+ * ASCII verify path allocate nothing once a thread is warm. Signatures are compared in constant time.
+ */
+public final class Crypto {
+
+    public static final int SHA256_LENGTH = 32;
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 algorithm not available", e);
+        }
+    });
+
+    private Crypto() {
+    }
+
+    public static byte[] sha256(byte[] input) {
+        return SHA256.get().digest(input);
+    }
+
+    /**
+     * Digest input into out[offset..offset+32) without allocating
+     */
+    public static void sha256(byte[] input, byte[] out, int offset) {
+        MessageDigest digest = SHA256.get();
+        digest.update(input);
+        try {
+            digest.digest(out, offset, SHA256_LENGTH);
+        } catch (DigestException e) {
+            digest.reset();
+            throw new IllegalArgumentException("Output buffer too small for a SHA-256 digest", e);
+        }
+    }
+
+    public static String sha256Base64(String input) {
+        return Base64.getEncoder().encodeToString(sha256(input.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    public static String sha256Hex(String input) {
+        return HexFormat.of().formatHex(sha256(input.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Equality whose running time depends only on the lengths, not on where the arrays differ
+     */
+    public static boolean constantTimeEquals(byte[] a, byte[] b) {
+        return MessageDigest.isEqual(a, b);
+    }
+
+    public static Hmac hmacSha256(String key) {
+        return new Hmac(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * HMAC-SHA256 under one fixed key
+     */
+    public static final class Hmac {
+
+        private final ThreadLocal<State> state;
+
+        private Hmac(byte[] key) {
+            SecretKeySpec keySpec = new SecretKeySpec(key, "HmacSHA256");
+            // Fail at construction rather than on the first request
+            State.create(keySpec);
+            this.state = ThreadLocal.withInitial(() -> State.create(keySpec));
+        }
+
+        public byte[] sign(byte[] data) {
+            return state.get().mac.doFinal(data);
+        }
+
+        public String signHex(String data) {
+            return HexFormat.of().formatHex(sign(data.getBytes(StandardCharsets.UTF_8)));
+        }
+
+        /**
+         * Whether expected is the MAC of data[offset..offset+length)
+         */
+        public boolean verify(byte[] data, int offset, int length, byte[] expected) {
+            State s = state.get();
+            s.mac.update(data, offset, length);
+            s.finish();
+            return constantTimeEquals(s.computed, expected);
+        }
+
+        /**
+         * Whether hexSignature is the MAC of the UTF-8 bytes of payload. A malformed signature is simply invalid.
+         */
+        public boolean verifyHex(CharSequence payload, CharSequence hexSignature) {
+            State s = state.get();
+            s.update(payload);
+            return s.matchesHex(hexSignature);
+        }
+
+        /**
+         * verifyHex of first, separator and second joined, without building the joined string; separator is ASCII
+         */
+        public boolean verifyHex(CharSequence first, char separator, CharSequence second, CharSequence hexSignature) {
+            State s = state.get();
+            s.update(first);
+            s.mac.update((byte) separator);
+            s.update(second);
+            return s.matchesHex(hexSignature);
+        }
+
+        private static final class State {
+
+            private final Mac mac;
+            private final byte[] computed = new byte[SHA256_LENGTH];
+            private final byte[] expected = new byte[SHA256_LENGTH];
+            private byte[] input = new byte[128];
+
+            private State(Mac mac) {
+                this.mac = mac;
+            }
+
+            private static State create(SecretKeySpec keySpec) {
+                try {
+                    Mac mac = Mac.getInstance("HmacSHA256");
+                    mac.init(keySpec);
+                    return new State(mac);
+                } catch (GeneralSecurityException e) {
+                    throw new IllegalStateException("HmacSHA256 not available", e);
+                }
+            }
+
+            private void finish() {
+                try {
+                    mac.doFinal(computed, 0);
+                } catch (ShortBufferException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+
+            private void update(CharSequence text) {
+                int length = encode(text);
+                if (length < 0) {
+                    mac.update(text.toString().getBytes(StandardCharsets.UTF_8));
+                } else {
+                    mac.update(input, 0, length);
+                }
+            }
+
+            private boolean matchesHex(CharSequence hexSignature) {
+                finish();
+                if (hexSignature == null || hexSignature.length() != SHA256_LENGTH * 2) {
+                    return false;
+                }
+                // Decode into scratch and compare every byte, so timing does not reveal the first mismatch
+                int invalid = 0;
+                for (int i = 0; i < SHA256_LENGTH; i++) {
+                    int high = Character.digit(hexSignature.charAt(2 * i), 16);
+                    int low = Character.digit(hexSignature.charAt(2 * i + 1), 16);
+                    invalid |= high | low;
+                    expected[i] = (byte) ((high << 4) | (low & 0xf));
+                }
+                return constantTimeEquals(computed, expected) & invalid >= 0;
+            }
+
+            // ASCII payloads are copied straight into the scratch buffer; -1 when payload needs real UTF-8
+            private int encode(CharSequence payload) {
+                int length = payload.length();
+                if (input.length < length) {
+                    input = new byte[Math.max(length, input.length * 2)];
+                }
+                for (int i = 0; i < length; i++) {
+                    char c = payload.charAt(i);
+                    if (c >= 0x80) {
+                        return -1;
+                    }
+                    input[i] = (byte) c;
+                }
+                return length;
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.realestate.util;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Geohash encoding and cell covering used to prune spatial property queries.
+ * Properties store their geohash at {@link #STORED_PRECISION}; a query covers its bounding box with the
+ * coarsest prefixes that keep the cell count small, so the database can range-scan the geo_cell index
+ * with {@code LIKE 'prefix%'} before exact distances are computed on the surviving candidates.
+ */
+public final class GeoHash {
+
+    public static final int STORED_PRECISION = 7;
+    public static final double EARTH_RADIUS_KM = 6371.0;
+
+    private static final char[] BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+    private static final double KM_PER_DEGREE_LAT = 111.32;
+    private static final int DEFAULT_MAX_CELLS = 16;
+
+    private GeoHash() {
+    }
+
+    public static String encode(double latitude, double longitude, int precision) {
+        double minLat = -90, maxLat = 90;
+        double minLon = -180, maxLon = 180;
+        StringBuilder hash = new StringBuilder(precision);
+        boolean evenBit = true;
+        int bit = 0;
+        int ch = 0;
+
+        while (hash.length() < precision) {
+            if (evenBit) {
+                double mid = (minLon + maxLon) / 2;
+                if (longitude >= mid) {
+                    ch = (ch << 1) | 1;
+                    minLon = mid;
+                } else {
+                    ch <<= 1;
+                    maxLon = mid;
+                }
+            } else {
+                double mid = (minLat + maxLat) / 2;
+                if (latitude >= mid) {
+                    ch = (ch << 1) | 1;
+                    minLat = mid;
+                } else {
+                    ch <<= 1;
+                    maxLat = mid;
+                }
+            }
+            evenBit = !evenBit;
+            if (++bit == 5) {
+                hash.append(BASE32[ch]);
+                bit = 0;
+                ch = 0;
+            }
+        }
+        return hash.toString();
+    }
+
+    /**
+     * Geohash prefixes covering a bounding box, using the finest precision that needs at most maxCells cells
+     */
+    public static Set<String> coverBoundingBox(double minLat, double maxLat, double minLon, double maxLon,
+                                               int maxCells) {
+        minLat = clamp(minLat, -90, 90);
+        maxLat = clamp(maxLat, -90, 90);
+        minLon = clamp(minLon, -180, 180);
+        maxLon = clamp(maxLon, -180, 180);
+
+        for (int precision = STORED_PRECISION; precision > 1; precision--) {
+            if (countCells(minLat, maxLat, minLon, maxLon, precision) <= maxCells) {
+                return enumerateCells(minLat, maxLat, minLon, maxLon, precision);
+            }
+        }
+        return enumerateCells(minLat, maxLat, minLon, maxLon, 1);
+    }
+
+    public static Set<String> coverBoundingBox(double minLat, double maxLat, double minLon, double maxLon) {
+        return coverBoundingBox(minLat, maxLat, minLon, maxLon, DEFAULT_MAX_CELLS);
+    }
+
+    /**
+     * Bounding box around a point as {minLat, maxLat, minLon, maxLon}
+     */
+    public static double[] boundingBox(double latitude, double longitude, double radiusKm) {
+        double latDelta = radiusKm / KM_PER_DEGREE_LAT;
+        double cosLat = Math.cos(Math.toRadians(latitude));
+        double lonDelta = cosLat < 1e-6 ? 180 : Math.min(180, radiusKm / (KM_PER_DEGREE_LAT * cosLat));
+        return new double[] {
+            Math.max(-90, latitude - latDelta), Math.min(90, latitude + latDelta),
+            Math.max(-180, longitude - lonDelta), Math.min(180, longitude + lonDelta)
+        };
+    }
+
+    public static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+            + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+            * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private static long countCells(double minLat, double maxLat, double minLon, double maxLon, int precision) {
+        double latSpan = latSpan(precision);
+        double lonSpan = lonSpan(precision);
+        long rows = (long) Math.floor((maxLat + 90) / latSpan) - (long) Math.floor((minLat + 90) / latSpan) + 1;
+        long cols = (long) Math.floor((maxLon + 180) / lonSpan) - (long) Math.floor((minLon + 180) / lonSpan) + 1;
+        return rows * cols;
+    }
+
+    private static Set<String> enumerateCells(double minLat, double maxLat, double minLon, double maxLon,
+                                              int precision) {
+        double latSpan = latSpan(precision);
+        double lonSpan = lonSpan(precision);
+        long firstRow = (long) Math.floor((minLat + 90) / latSpan);
+        long lastRow = (long) Math.floor((maxLat + 90) / latSpan);
+        long firstCol = (long) Math.floor((minLon + 180) / lonSpan);
+        long lastCol = (long) Math.floor((maxLon + 180) / lonSpan);
+
+        Set<String> cells = new LinkedHashSet<>();
+        for (long row = firstRow; row <= lastRow; row++) {
+            double cellLat = Math.min(90, -90 + (row + 0.5) * latSpan);
+            for (long col = firstCol; col <= lastCol; col++) {
+                double cellLon = Math.min(180, -180 + (col + 0.5) * lonSpan);
+                cells.add(encode(cellLat, cellLon, precision));
+            }
+        }
+        return cells;
+    }
+
+    private static double latSpan(int precision) {
+        int latBits = (5 * precision) / 2;
+        return 180.0 / (1L << latBits);
+    }
+
+    private static double lonSpan(int precision) {
+        int lonBits = (5 * precision + 1) / 2;
+        return 360.0 / (1L << lonBits);
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
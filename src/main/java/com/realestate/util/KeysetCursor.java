@@ -0,0 +1,106 @@
+package com.realestate.util;
+
+import com.realestate.exception.BadRequestException;
+import com.realestate.model.entity.Property;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.function.Function;
+
+/**
+ * Continuation token for keyset (seek) pagination over properties.
+ * Pages are ordered by (sort column, id); the next page starts strictly after the last row's pair,
+ * so each page is an index range scan whatever its depth. Tokens are opaque URL-safe Base64 strings
+ * and are only accepted for the sort they were issued with.
+ */
+public record KeysetCursor(SortKey sortKey, boolean ascending, Comparable<?> value, long id) {
+
+    private static final String VERSION = "v1";
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Sort columns allowed for keyset pagination; all are non-null so the seek predicate stays exact
+     */
+    public enum SortKey {
+        ID("id", "id", Property::getId, Long::valueOf),
+        PRICE("price", "price", Property::getPrice, BigDecimal::new),
+        AREA("area", "area", Property::getArea, BigDecimal::new),
+        CREATED_AT("createdAt", "created_at", Property::getCreatedAt, LocalDateTime::parse);
+
+        private final String attribute;
+        private final String column;
+        private final Function<Property, Comparable<?>> extractor;
+        private final Function<String, Comparable<?>> parser;
+
+        SortKey(String attribute, String column, Function<Property, Comparable<?>> extractor,
+                Function<String, Comparable<?>> parser) {
+            this.attribute = attribute;
+            this.column = column;
+            this.extractor = extractor;
+            this.parser = parser;
+        }
+
+        public String attribute() {
+            return attribute;
+        }
+
+        public String column() {
+            return column;
+        }
+
+        /**
+         * Resolve by entity attribute or column name, e.g. "createdAt" or "created_at"
+         */
+        public static SortKey from(String name) {
+            return Arrays.stream(values())
+                .filter(key -> key.attribute.equalsIgnoreCase(name) || key.column.equalsIgnoreCase(name))
+                .findFirst()
+                .orElseThrow(() -> new BadRequestException("sortBy", name,
+                    "Sort must be one of id, price, area, createdAt"));
+        }
+    }
+
+    public static boolean isAscending(String sortDirection) {
+        return "ASC".equalsIgnoreCase(sortDirection);
+    }
+
+    public static KeysetCursor after(Property last, SortKey sortKey, boolean ascending) {
+        return new KeysetCursor(sortKey, ascending, sortKey.extractor.apply(last), last.getId());
+    }
+
+    public String encode() {
+        String raw = String.join(SEPARATOR, VERSION, sortKey.name(), ascending ? "A" : "D", format(value),
+            Long.toString(id));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a token issued for the given sort; a null or blank token means the first page
+     */
+    public static KeysetCursor decode(String token, SortKey sortKey, boolean ascending) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, -1);
+            if (parts.length != 5 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("Unrecognised cursor format");
+            }
+            if (SortKey.valueOf(parts[1]) != sortKey || ("A".equals(parts[2])) != ascending) {
+                throw new BadRequestException("cursor", "Cursor was issued for a different sort order");
+            }
+            return new KeysetCursor(sortKey, ascending, sortKey.parser.apply(parts[3]), Long.parseLong(parts[4]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("cursor", "Invalid or corrupted cursor");
+        }
+    }
+
+    private static String format(Comparable<?> value) {
+        return value instanceof BigDecimal decimal ? decimal.toPlainString() : String.valueOf(value);
+    }
+}
@@ -54,6 +54,7 @@ public class PropertyMapper implements Function<Property, PropertyDTO> {
         }
         dto.setCreatedAt(property.getCreatedAt());
         dto.setUpdatedAt(property.getUpdatedAt());
+        dto.setVersion(property.getVersion());
         
         return dto;
     }
@@ -0,0 +1,253 @@
+package com.realestate.util;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-key rate limiter allowing limit requests per window.
+ * TOKEN_BUCKET smooths bursts: a bucket of limit tokens refills continuously over the window. It is kept as
+ * a single theoretical-arrival-time long (GCRA). SLIDING_LOG is exact: a ring of the last limit admission
+ * times, a request being admitted when the oldest of them has left the window.
+ * All updates are CAS loops on per-key atomics, no locks are taken. Keys are never evicted while they still
+ * constrain a caller, only once evictIdle finds their state back to that of a fresh key, so flooding the
+ * limiter with other keys cannot reset a caller's counter. At most maxKeys keys are tracked: once full, new
+ * keys share a single overflow key until evictIdle frees room, which bounds memory and fails closed.
+ */
+public final class RateLimiter {
+
+    public enum Algorithm {
+        TOKEN_BUCKET,
+        SLIDING_LOG
+    }
+
+    /**
+     * @param remaining        requests still allowed right now
+     * @param retryAfterMillis when rejected, how long until the next request would be admitted
+     */
+    public record Decision(boolean allowed, long remaining, long retryAfterMillis) {}
+
+    // Marks a state evicted from the map; a caller holding it retries against a fresh one
+    private static final long RETIRED = Long.MIN_VALUE;
+    // Shared by new keys while maxKeys are tracked; not a valid caller key
+    private static final String OVERFLOW_KEY = "\0overflow";
+
+    private final Algorithm algorithm;
+    private final int limit;
+    private final long windowNanos;
+    private final int maxKeys;
+    private final LongSupplier nanoClock;
+    private final Map<String, State> states = new ConcurrentHashMap<>();
+
+    public RateLimiter(Algorithm algorithm, int limit, Duration window) {
+        this(algorithm, limit, window, Integer.MAX_VALUE);
+    }
+
+    public RateLimiter(Algorithm algorithm, int limit, Duration window, int maxKeys) {
+        this(algorithm, limit, window, maxKeys, System::nanoTime);
+    }
+
+    public RateLimiter(Algorithm algorithm, int limit, Duration window, LongSupplier nanoClock) {
+        this(algorithm, limit, window, Integer.MAX_VALUE, nanoClock);
+    }
+
+    public RateLimiter(Algorithm algorithm, int limit, Duration window, int maxKeys, LongSupplier nanoClock) {
+        if (limit < 1 || window.isZero() || window.isNegative()) {
+            throw new IllegalArgumentException("Rate limit needs a positive limit and window");
+        }
+        if (maxKeys < 1) {
+            throw new IllegalArgumentException("Rate limit needs room for at least one key");
+        }
+        this.algorithm = algorithm;
+        this.limit = limit;
+        this.windowNanos = window.toNanos();
+        this.maxKeys = maxKeys;
+        this.nanoClock = nanoClock;
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public Decision tryAcquire(String key) {
+        while (true) {
+            long now = nanoClock.getAsLong();
+            String tracked = states.size() < maxKeys || states.containsKey(key) ? key : OVERFLOW_KEY;
+            State state = states.computeIfAbsent(tracked, k -> newState(now));
+            Decision decision = state.tryAcquire(now);
+            if (decision != null) {
+                return decision;
+            }
+            states.remove(tracked, state);
+        }
+    }
+
+    /**
+     * Requests the key could make right now, without consuming any
+     */
+    public long remaining(String key) {
+        State state = states.get(key);
+        if (state == null && states.size() >= maxKeys) {
+            state = states.get(OVERFLOW_KEY);
+        }
+        if (state == null) {
+            return limit;
+        }
+        long remaining = state.remaining(nanoClock.getAsLong());
+        return remaining < 0 ? limit : remaining;
+    }
+
+    public void reset(String key) {
+        states.remove(key);
+    }
+
+    public int activeKeys() {
+        return states.size();
+    }
+
+    /**
+     * Drop keys whose state is indistinguishable from a fresh key's
+     *
+     * @return number of keys dropped
+     */
+    public int evictIdle() {
+        long now = nanoClock.getAsLong();
+        int evicted = 0;
+        for (Map.Entry<String, State> entry : states.entrySet()) {
+            if (entry.getValue().retireIfIdle(now) && states.remove(entry.getKey(), entry.getValue())) {
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    private State newState(long now) {
+        return algorithm == Algorithm.TOKEN_BUCKET ? new TokenBucket() : new SlidingLog(now);
+    }
+
+    private static long toMillisCeil(long nanos) {
+        return (nanos + 999_999) / 1_000_000;
+    }
+
+    private interface State {
+
+        /**
+         * @return the decision, or null if the state was retired and the caller must retry
+         */
+        Decision tryAcquire(long now);
+
+        /**
+         * @return remaining requests, or -1 if retired
+         */
+        long remaining(long now);
+
+        boolean retireIfIdle(long now);
+    }
+
+    private final class TokenBucket implements State {
+
+        private final long interval = Math.max(1, windowNanos / limit);
+        // Theoretical arrival time: the bucket is full again once the clock reaches it
+        private final AtomicLong tat = new AtomicLong(RETIRED + 1);
+
+        @Override
+        public Decision tryAcquire(long now) {
+            while (true) {
+                long current = tat.get();
+                if (current == RETIRED) {
+                    return null;
+                }
+                long next = Math.max(current, now) + interval;
+                long allowedFrom = next - windowNanos;
+                if (now < allowedFrom) {
+                    return new Decision(false, 0, toMillisCeil(allowedFrom - now));
+                }
+                if (tat.compareAndSet(current, next)) {
+                    return new Decision(true, (now - allowedFrom) / interval, 0);
+                }
+            }
+        }
+
+        @Override
+        public long remaining(long now) {
+            long current = tat.get();
+            if (current == RETIRED) {
+                return -1;
+            }
+            return Math.min(limit, (now - (Math.max(current, now) - windowNanos)) / interval);
+        }
+
+        @Override
+        public boolean retireIfIdle(long now) {
+            long current = tat.get();
+            return current != RETIRED && current <= now && tat.compareAndSet(current, RETIRED);
+        }
+    }
+
+    private final class SlidingLog implements State {
+
+        // Admissions so far; admission n wrote its time to slot n % limit
+        private final AtomicLong head = new AtomicLong();
+        private final AtomicLongArray stamps = new AtomicLongArray(limit);
+
+        SlidingLog(long now) {
+            for (int i = 0; i < limit; i++) {
+                stamps.set(i, now - windowNanos);
+            }
+        }
+
+        @Override
+        public Decision tryAcquire(long now) {
+            while (true) {
+                long admitted = head.get();
+                if (admitted == RETIRED) {
+                    return null;
+                }
+                int slot = (int) (admitted % limit);
+                long oldest = stamps.get(slot);
+                if (now - oldest < windowNanos) {
+                    return new Decision(false, 0, toMillisCeil(oldest + windowNanos - now));
+                }
+                if (head.compareAndSet(admitted, admitted + 1)) {
+                    stamps.set(slot, now);
+                    return new Decision(true, expiredAfter(admitted + 1, now), 0);
+                }
+            }
+        }
+
+        @Override
+        public long remaining(long now) {
+            long admitted = head.get();
+            return admitted == RETIRED ? -1 : expiredAfter(admitted, now);
+        }
+
+        @Override
+        public boolean retireIfIdle(long now) {
+            long admitted = head.get();
+            if (admitted == RETIRED) {
+                return false;
+            }
+            long newest = stamps.get((int) Math.floorMod(admitted - 1, (long) limit));
+            return (admitted == 0 || now - newest >= windowNanos) && head.compareAndSet(admitted, RETIRED);
+        }
+
+        // Slots from the oldest onwards are in admission order, so binary search for the first still in the window
+        private long expiredAfter(long admitted, long now) {
+            int low = 0;
+            int high = limit;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                long stamp = stamps.get((int) ((admitted + mid) % limit));
+                if (now - stamp >= windowNanos) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.realestate.util;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Fixed set of fair locks shared by hashing keys onto stripes. Work on the same key runs one at a time in
+ * arrival order while keys on other stripes proceed in parallel; two keys that share a stripe simply queue
+ * behind each other. Several keys are locked in ascending stripe order, so callers cannot deadlock.
+ */
+public final class StripedLock {
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    public StripedLock(int stripeCount) {
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("Stripe count must be positive");
+        }
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock(true);
+        }
+    }
+
+    public int stripeCount() {
+        return stripes.length;
+    }
+
+    /**
+     * Run action holding the stripes of every key, or return null without running it if they cannot all be
+     * taken within timeout
+     */
+    public <T> T tryWithLocks(Collection<?> keys, Duration timeout, Supplier<T> action) throws InterruptedException {
+        int[] order = keys.stream().mapToInt(this::stripeOf).distinct().sorted().toArray();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        int held = 0;
+        try {
+            for (int stripe : order) {
+                if (!stripes[stripe].tryLock(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                    return null;
+                }
+                held++;
+            }
+            return action.get();
+        } finally {
+            for (int i = held - 1; i >= 0; i--) {
+                stripes[order[i]].unlock();
+            }
+        }
+    }
+
+    /**
+     * Threads waiting on any stripe
+     */
+    public int queueLength() {
+        return Arrays.stream(stripes).mapToInt(ReentrantLock::getQueueLength).sum();
+    }
+
+    private int stripeOf(Object key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
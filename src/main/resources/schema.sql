@@ -191,7 +191,7 @@ CREATE TABLE IF NOT EXISTS investment_transactions (
     cost_basis DECIMAL(18,2),
     realized_gain_loss DECIMAL(18,2),
     status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
-    idempotency_key VARCHAR(100) UNIQUE,
+    idempotency_key VARCHAR(100),
     version BIGINT DEFAULT 0,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
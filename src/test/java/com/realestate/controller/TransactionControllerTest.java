@@ -149,7 +149,7 @@ class TransactionControllerTest {
                 .build();
         transferTransaction.setId(3L);
 
-        when(transactionService.executeTransfer(eq(1L), eq(2L), eq(1L), any()))
+        when(transactionService.executeTransfer(eq(1L), eq(2L), eq(1L), any(), any()))
                 .thenReturn(transferTransaction);
 
         mockMvc.perform(post("/api/transactions/transfer")
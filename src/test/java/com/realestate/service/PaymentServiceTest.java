@@ -1,7 +1,5 @@
 package com.realestate.service;
 
-import com.razorpay.Order;
-import com.razorpay.RazorpayClient;
 import com.razorpay.RazorpayException;
 import com.realestate.exception.PaymentException;
 import com.realestate.model.entity.Payment;
@@ -11,17 +9,17 @@ import com.realestate.model.entity.User;
 import com.realestate.repository.PaymentRepository;
 import com.realestate.repository.PropertyRepository;
 import com.realestate.repository.UserRepository;
-import org.json.JSONObject;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -48,7 +46,19 @@ class PaymentServiceTest {
     private JavaMailSender mailSender;
 
     @Mock
-    private RazorpayClient razorpayClient;
+    private RazorpayGateway razorpayGateway;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private RazorpaySignatureVerifier razorpaySignatureVerifier;
+
+    @Mock
+    private PaymentExpirySweeper paymentExpirySweeper;
+
+    @Mock
+    private PaymentAggregateService paymentAggregateService;
 
     @InjectMocks
     private PaymentService paymentService;
@@ -61,10 +71,10 @@ class PaymentServiceTest {
     void setUp() {
         // Set test values for @Value fields
         ReflectionTestUtils.setField(paymentService, "razorpayKeyId", "test_key_id");
-        ReflectionTestUtils.setField(paymentService, "razorpayKeySecret", "test_key_secret");
         ReflectionTestUtils.setField(paymentService, "fromEmail", "test@example.com");
         ReflectionTestUtils.setField(paymentService, "frontendUrl", "http://localhost:8080");
-        ReflectionTestUtils.setField(paymentService, "razorpayClient", razorpayClient);
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+            invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
 
         // Initialize test data
         testInvestor = new User();
@@ -102,10 +112,9 @@ class PaymentServiceTest {
         when(propertyRepository.findById(propertyId)).thenReturn(Optional.of(testProperty));
         when(paymentRepository.existsByInvestorAndPropertyAndStatus(any(), any(), any())).thenReturn(false);
 
-        Order mockOrder = mock(Order.class);
-        when(mockOrder.get("id")).thenReturn("order_test123");
-        when(razorpayClient.orders).thenReturn(mock(com.razorpay.OrderClient.class));
-        when(razorpayClient.orders.create(any(JSONObject.class))).thenReturn(mockOrder);
+        when(razorpayGateway.createOrder(any(RazorpayGateway.OrderRequest.class)))
+            .thenReturn(CompletableFuture.completedFuture("order_test123"));
+        when(paymentRepository.attachGatewayOrder(1L, "order_test123")).thenReturn(1);
 
         when(paymentRepository.save(any(Payment.class))).thenReturn(testPayment);
 
@@ -172,6 +181,25 @@ class PaymentServiceTest {
             .hasMessage("A pending payment already exists for this property");
     }
 
+    @Test
+    void createOrder_GatewayFailure_ReleasesReservation() {
+        // Arrange
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testInvestor));
+        when(propertyRepository.findById(1L)).thenReturn(Optional.of(testProperty));
+        when(paymentRepository.save(any(Payment.class))).thenReturn(testPayment);
+        when(razorpayGateway.createOrder(any(RazorpayGateway.OrderRequest.class)))
+            .thenReturn(CompletableFuture.failedFuture(
+                new PaymentException("Payment gateway is temporarily unavailable, please try again")));
+
+        // Act & Assert
+        assertThatThrownBy(() -> paymentService.createOrder(1L, 1L, new BigDecimal("100000")))
+            .isInstanceOf(PaymentException.class)
+            .hasMessage("Payment gateway is temporarily unavailable, please try again");
+
+        verify(paymentRepository).failReservation(eq(1L), contains("temporarily unavailable"));
+        verify(paymentRepository, never()).attachGatewayOrder(any(), any());
+    }
+
     @Test
     void verifyPayment_Success() throws Exception {
         // Arrange
@@ -181,24 +209,21 @@ class PaymentServiceTest {
 
         when(paymentRepository.findByRazorpayOrderId(orderId)).thenReturn(Optional.of(testPayment));
 
-        // Mock static method Utils.verifyPaymentSignature
-        try (MockedStatic<com.razorpay.Utils> utilsMock = mockStatic(com.razorpay.Utils.class)) {
-            utilsMock.when(() -> com.razorpay.Utils.verifyPaymentSignature(any(JSONObject.class), anyString()))
-                .thenReturn(true);
+        when(razorpaySignatureVerifier.verify(orderId, paymentId, signature)).thenReturn(true);
 
-            when(paymentRepository.save(any(Payment.class))).thenReturn(testPayment);
+        when(paymentRepository.save(any(Payment.class))).thenReturn(testPayment);
 
-            // Act
-            Payment result = paymentService.verifyPayment(orderId, paymentId, signature);
+        // Act
+        Payment result = paymentService.verifyPayment(orderId, paymentId, signature);
 
-            // Assert
-            assertThat(result).isNotNull();
-            assertThat(result.getStatus()).isEqualTo(PaymentStatus.SUCCESS);
-            assertThat(result.getRazorpayPaymentId()).isEqualTo(paymentId);
-            assertThat(result.getRazorpaySignature()).isEqualTo(signature);
+        // Assert
+        assertThat(result).isNotNull();
+        assertThat(result.getStatus()).isEqualTo(PaymentStatus.SUCCESS);
+        assertThat(result.getRazorpayPaymentId()).isEqualTo(paymentId);
+        assertThat(result.getRazorpaySignature()).isEqualTo(signature);
 
-            verify(paymentRepository, times(1)).save(any(Payment.class));
-        }
+        verify(paymentRepository, times(1)).save(any(Payment.class));
+        verify(paymentAggregateService).recordSuccess(testPayment);
     }
 
     @Test
@@ -210,19 +235,16 @@ class PaymentServiceTest {
 
         when(paymentRepository.findByRazorpayOrderId(orderId)).thenReturn(Optional.of(testPayment));
 
-        try (MockedStatic<com.razorpay.Utils> utilsMock = mockStatic(com.razorpay.Utils.class)) {
-            utilsMock.when(() -> com.razorpay.Utils.verifyPaymentSignature(any(JSONObject.class), anyString()))
-                .thenReturn(false);
+        when(razorpaySignatureVerifier.verify(orderId, paymentId, signature)).thenReturn(false);
 
-            when(paymentRepository.save(any(Payment.class))).thenReturn(testPayment);
+        when(paymentRepository.save(any(Payment.class))).thenReturn(testPayment);
 
-            // Act & Assert
-            assertThatThrownBy(() -> paymentService.verifyPayment(orderId, paymentId, signature))
-                .isInstanceOf(PaymentException.class)
-                .hasMessage("Payment verification failed: Invalid signature");
+        // Act & Assert
+        assertThatThrownBy(() -> paymentService.verifyPayment(orderId, paymentId, signature))
+            .isInstanceOf(PaymentException.class)
+            .hasMessage("Payment verification failed: Invalid signature");
 
-            assertThat(testPayment.getStatus()).isEqualTo(PaymentStatus.FAILED);
-        }
+        assertThat(testPayment.getStatus()).isEqualTo(PaymentStatus.FAILED);
     }
 
     @Test
@@ -282,7 +304,8 @@ class PaymentServiceTest {
         Long investorId = 1L;
         BigDecimal expectedTotal = new BigDecimal("500000");
 
-        when(paymentRepository.getTotalInvestmentByInvestor(investorId)).thenReturn(expectedTotal);
+        when(paymentAggregateService.investorTotals(investorId))
+            .thenReturn(new PaymentAggregateService.InvestorTotals(expectedTotal, 3, LocalDateTime.now()));
 
         // Act
         BigDecimal result = paymentService.getTotalInvestmentByInvestor(investorId);
@@ -296,7 +319,8 @@ class PaymentServiceTest {
         // Arrange
         Long investorId = 1L;
 
-        when(paymentRepository.getTotalInvestmentByInvestor(investorId)).thenReturn(null);
+        when(paymentAggregateService.investorTotals(investorId))
+            .thenReturn(new PaymentAggregateService.InvestorTotals(BigDecimal.ZERO, 0, null));
 
         // Act
         BigDecimal result = paymentService.getTotalInvestmentByInvestor(investorId);
@@ -309,14 +333,34 @@ class PaymentServiceTest {
     void expireOldPayments_Success() {
         // Arrange
         int expectedExpiredCount = 5;
-        when(paymentRepository.expireOldPayments(any(LocalDateTime.class)))
-            .thenReturn(expectedExpiredCount);
+        when(paymentExpirySweeper.sweep()).thenReturn(expectedExpiredCount);
 
         // Act
-        paymentService.expireOldPayments();
+        int expired = paymentService.expireOldPayments();
 
         // Assert
-        verify(paymentRepository, times(1)).expireOldPayments(any(LocalDateTime.class));
+        assertThat(expired).isEqualTo(expectedExpiredCount);
+        verify(paymentExpirySweeper, times(1)).sweep();
+    }
+
+    @Test
+    void getInvestorIdForOrder_ReturnsOwner() {
+        // Arrange
+        when(paymentRepository.findInvestorIdsByGatewayOrderId("order_test123")).thenReturn(List.of(1L));
+
+        // Act & Assert
+        assertThat(paymentService.getInvestorIdForOrder("order_test123")).isEqualTo(1L);
+    }
+
+    @Test
+    void getInvestorIdForOrder_UnknownOrder_ThrowsException() {
+        // Arrange
+        when(paymentRepository.findInvestorIdsByGatewayOrderId("order_missing")).thenReturn(List.of());
+
+        // Act & Assert
+        assertThatThrownBy(() -> paymentService.getInvestorIdForOrder("order_missing"))
+            .isInstanceOf(PaymentException.class)
+            .hasMessageContaining("Payment not found for order");
     }
 
     @Test
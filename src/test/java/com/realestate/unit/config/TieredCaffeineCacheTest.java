@@ -0,0 +1,132 @@
+package com.realestate.unit.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.realestate.config.CacheConfig;
+import com.realestate.config.DiskCacheStore;
+import com.realestate.config.TieredCaffeineCache;
+import com.realestate.model.dto.PropertyDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.math.BigDecimal;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class TieredCaffeineCacheTest {
+
+    @TempDir
+    Path directory;
+
+    private DiskCacheStore diskStore;
+    private Cache<Object, Object> heap;
+    private TieredCaffeineCache cache;
+
+    @BeforeEach
+    void setUp() {
+        diskStore = new DiskCacheStore(directory.resolve("properties"), Duration.ofMinutes(5),
+            ObjectInputFilter.Config.createFilter(CacheConfig.SECOND_TIER_CLASSES));
+        heap = Caffeine.newBuilder()
+            .maximumSize(1)
+            .executor(Runnable::run)
+            .evictionListener((Object key, Object value, RemovalCause cause) -> {
+                if (cause == RemovalCause.SIZE) {
+                    diskStore.write(key, value);
+                }
+            })
+            .build();
+        cache = new TieredCaffeineCache("properties", heap, diskStore, true);
+    }
+
+    @Test
+    @DisplayName("Should serve size-evicted entries from disk and promote them back to the heap")
+    void get_SpilledEntry() {
+        cache.put("a", "first");
+        cache.put("b", "second");
+        heap.cleanUp();
+
+        assertThat(heap.getIfPresent("a")).isNull();
+        assertThat(cache.get("a", String.class)).isEqualTo("first");
+        heap.cleanUp();
+
+        assertThat(heap.getIfPresent("a")).isEqualTo("first");
+        assertThat(diskStore.read("b")).contains("second");
+    }
+
+    @Test
+    @DisplayName("Should not serve a stale disk copy after eviction")
+    void evict_ClearsDiskCopy() {
+        diskStore.write("a", "stale");
+
+        cache.evict("a");
+
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.get("a", () -> "loaded")).isEqualTo("loaded");
+    }
+
+    @Test
+    @DisplayName("Should read spilled DTO listings back but refuse classes outside the allow-list")
+    void read_OnlyAllowedClasses() throws IOException {
+        PropertyDTO property = new PropertyDTO();
+        property.setId(1L);
+        property.setPrice(new BigDecimal("100.00"));
+        property.setPropertyType(PropertyDTO.PropertyType.APARTMENT);
+        property.setCreatedAt(LocalDateTime.of(2026, 1, 1, 0, 0));
+        property.setAmenities(new HashSet<>(Set.of("pool")));
+        diskStore.write("all", Collections.unmodifiableList(new ArrayList<>(List.of(property))));
+        diskStore.write("foreign", new File("planted"));
+
+        assertThat(diskStore.read("all")).get().asList().containsExactly(property);
+        assertThat(diskStore.read("foreign")).isEmpty();
+        try (Stream<Path> files = Files.list(directory.resolve("properties"))) {
+            assertThat(files).hasSize(1);
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep spilled entries in an owner-only directory")
+    void directory_OwnerOnly() throws IOException {
+        Path cacheDirectory = directory.resolve("properties");
+
+        assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("posix"));
+        assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(cacheDirectory)))
+            .isEqualTo("rwx------");
+    }
+
+    @Test
+    @DisplayName("Should drop the spilled copy when the key is written or evicted afterwards")
+    void put_ReplacesSpilledCopy() {
+        cache.put("a", "first");
+        cache.put("b", "second");
+        heap.cleanUp();
+        assertThat(diskStore.read("a")).contains("first");
+
+        cache.put("a", "updated");
+        assertThat(diskStore.read("a")).isEmpty();
+        heap.cleanUp();
+        assertThat(cache.get("a", String.class)).isEqualTo("updated");
+
+        assertThat(cache.evictIfPresent("a")).isTrue();
+        heap.cleanUp();
+        assertThat(cache.get("a")).isNull();
+    }
+}
@@ -0,0 +1,126 @@
+package com.realestate.unit.repository;
+
+import com.realestate.model.entity.Property;
+import com.realestate.repository.PropertyJdbcRepository;
+import com.realestate.repository.PropertyMarketRollup;
+import com.realestate.testutil.builder.PropertyBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PropertyMarketRollupTest {
+
+    private static final String STATE = "Maharashtra";
+
+    @Mock
+    private PropertyJdbcRepository propertyJdbcRepository;
+
+    @InjectMocks
+    private PropertyMarketRollup rollup;
+
+    @BeforeEach
+    void setUp() {
+        when(propertyJdbcRepository.findRollupRows(isNull())).thenReturn(List.of(
+                property(1L, "Mumbai", 300000, Property.PropertyType.RESIDENTIAL),
+                property(2L, "Mumbai", 900000, Property.PropertyType.RESIDENTIAL),
+                property(3L, "Mumbai", 1500000, Property.PropertyType.COMMERCIAL),
+                property(4L, "Pune", 600000, Property.PropertyType.RESIDENTIAL)
+        ));
+        rollup.rebuild();
+    }
+
+    @Test
+    @DisplayName("Should aggregate count, average, min and max per city and type")
+    void summarize_CityAndType() {
+        PropertyMarketRollup.Summary summary =
+                rollup.summarize(STATE, key -> key.isIn("Mumbai", Property.PropertyType.RESIDENTIAL));
+
+        assertThat(rollup.isLoaded()).isTrue();
+        assertThat(summary.count()).isEqualTo(2);
+        assertThat(summary.averagePrice()).isEqualByComparingTo("600000");
+        assertThat(summary.minPrice()).isEqualByComparingTo("300000");
+        assertThat(summary.maxPrice()).isEqualByComparingTo("900000");
+        assertThat(summary.averagePricePerSqft()).isEqualByComparingTo("400");
+    }
+
+    @Test
+    @DisplayName("Should group buckets by city")
+    void summarizeBy_City() {
+        Map<String, PropertyMarketRollup.Summary> byCity =
+                rollup.summarizeBy(STATE, key -> true, PropertyMarketRollup.BucketKey::city);
+
+        assertThat(byCity).containsOnlyKeys("Mumbai", "Pune");
+        assertThat(byCity.get("Mumbai").count()).isEqualTo(3);
+        assertThat(byCity.get("Pune").count()).isEqualTo(1);
+        assertThat(rollup.summarize("Karnataka", key -> true).count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Refresh should move a changed property out of its old bucket")
+    void refresh_MovesChangedProperty() {
+        Property moved = property(2L, "Pune", 800000, Property.PropertyType.RESIDENTIAL);
+        when(propertyJdbcRepository.findRollupRows(any(LocalDateTime.class))).thenReturn(List.of(moved));
+
+        rollup.refresh();
+
+        PropertyMarketRollup.Summary mumbai =
+                rollup.summarize(STATE, key -> key.isIn("Mumbai", Property.PropertyType.RESIDENTIAL));
+        PropertyMarketRollup.Summary pune = rollup.summarize(STATE, key -> key.isIn("Pune", null));
+        assertThat(mumbai.count()).isEqualTo(1);
+        assertThat(mumbai.maxPrice()).isEqualByComparingTo("300000");
+        assertThat(pune.count()).isEqualTo(2);
+        assertThat(pune.averagePrice()).isEqualByComparingTo("700000");
+    }
+
+    @Test
+    @DisplayName("Refresh should drop soft-deleted properties and keep min and max exact")
+    void refresh_SoftDeleteRecomputesMinMax() {
+        Property deleted = property(3L, "Mumbai", 1500000, Property.PropertyType.COMMERCIAL);
+        deleted.setIsDeleted(true);
+        when(propertyJdbcRepository.findRollupRows(any(LocalDateTime.class))).thenReturn(List.of(deleted));
+
+        rollup.refresh();
+        rollup.remove(1L);
+
+        PropertyMarketRollup.Summary mumbai = rollup.summarize(STATE, key -> key.isIn("Mumbai", null));
+        assertThat(mumbai.count()).isEqualTo(1);
+        assertThat(mumbai.minPrice()).isEqualByComparingTo("900000");
+        assertThat(mumbai.maxPrice()).isEqualByComparingTo("900000");
+    }
+
+    @Test
+    @DisplayName("Should bucket by listing month")
+    void summarizeBy_Month() {
+        Map<YearMonth, PropertyMarketRollup.Summary> byMonth =
+                rollup.summarizeBy(STATE, key -> key.isIn("Mumbai", null), PropertyMarketRollup.BucketKey::month);
+
+        assertThat(byMonth).containsOnlyKeys(YearMonth.of(2024, 1), YearMonth.of(2024, 3));
+        assertThat(byMonth.get(YearMonth.of(2024, 3)).count()).isEqualTo(1);
+    }
+
+    private static Property property(Long id, String city, double price, Property.PropertyType type) {
+        Property property = PropertyBuilder.aProperty().withId(id).withPrice(price).withPropertyType(type)
+                .withArea(new BigDecimal("1500")).build();
+        property.setCity(city);
+        property.setState(STATE);
+        property.setIsDeleted(false);
+        property.setListingDate(LocalDateTime.of(2024, id == 3L ? 3 : 1, 10, 12, 0));
+        return property;
+    }
+}
@@ -0,0 +1,87 @@
+package com.realestate.unit.security;
+
+import com.realestate.exception.UnauthorizedException;
+import com.realestate.model.entity.User;
+import com.realestate.repository.UserRepository;
+import com.realestate.security.CurrentUser;
+import com.realestate.security.CurrentUserProvider;
+import com.realestate.security.CustomUserDetails;
+import com.realestate.testutil.builder.UserBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CurrentUserProviderTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private CurrentUserProvider currentUserProvider;
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        currentUserProvider = new CurrentUserProvider(userRepository);
+        testUser = UserBuilder.aUser().withId(7L).asAdmin().build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("Should resolve id and role from the principal without loading the user")
+    void get_FromPrincipal() {
+        CustomUserDetails principal = new CustomUserDetails(testUser);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+        when(userRepository.getReferenceById(7L)).thenReturn(testUser);
+
+        CurrentUser currentUser = currentUserProvider.get();
+
+        assertThat(currentUser.id()).isEqualTo(7L);
+        assertThat(currentUser.role()).isEqualTo(User.UserRole.ADMIN);
+        assertThat(currentUser.user()).isSameAs(testUser);
+        verify(userRepository, never()).findByUsername(any());
+    }
+
+    @Test
+    @DisplayName("Should resolve the user once per request")
+    void get_HeldForRequest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(testUser.getUsername(), null));
+        when(userRepository.findByUsername(testUser.getUsername())).thenReturn(Optional.of(testUser));
+
+        CurrentUser first = currentUserProvider.get();
+        CurrentUser second = currentUserProvider.get();
+
+        assertThat(second).isSameAs(first);
+        verify(userRepository, times(1)).findByUsername(testUser.getUsername());
+    }
+
+    @Test
+    @DisplayName("Should reject calls without an authenticated user")
+    void get_NotAuthenticated() {
+        assertThatThrownBy(() -> currentUserProvider.get())
+                .isInstanceOf(UnauthorizedException.class);
+    }
+}
@@ -0,0 +1,79 @@
+package com.realestate.unit.security;
+
+import com.realestate.model.entity.User;
+import com.realestate.repository.UserRepository;
+import com.realestate.security.CustomUserDetails;
+import com.realestate.security.CustomUserDetailsService;
+import com.realestate.testutil.builder.UserBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CustomUserDetailsServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private CustomUserDetailsService userDetailsService;
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        userDetailsService = new CustomUserDetailsService(userRepository,
+                new ConcurrentMapCacheManager(CustomUserDetailsService.CACHE_NAME));
+        testUser = UserBuilder.aUser().withId(1L).asAdmin().build();
+    }
+
+    @Test
+    @DisplayName("Should load a principal once and serve repeats from the cache")
+    void loadUserByUsername_Cached() {
+        when(userRepository.findByUsername(testUser.getUsername())).thenReturn(Optional.of(testUser));
+
+        UserDetails first = userDetailsService.loadUserByUsername(testUser.getUsername());
+        UserDetails second = userDetailsService.loadUserByUsername(testUser.getUsername());
+
+        assertThat(second).isSameAs(first);
+        assertThat(((CustomUserDetails) first).getId()).isEqualTo(1L);
+        assertThat(((CustomUserDetails) first).getRole()).isEqualTo(User.UserRole.ADMIN);
+        verify(userRepository, times(1)).findByUsername(testUser.getUsername());
+    }
+
+    @Test
+    @DisplayName("Should reload a principal after it is evicted")
+    void evict_ForcesReload() {
+        when(userRepository.findByUsername(testUser.getUsername())).thenReturn(Optional.of(testUser));
+        userDetailsService.loadUserByUsername(testUser.getUsername());
+
+        testUser.setRole(User.UserRole.INVESTOR);
+        userDetailsService.evict(testUser.getUsername(), testUser.getEmail());
+        CustomUserDetails reloaded = (CustomUserDetails) userDetailsService.loadUserByUsername(testUser.getUsername());
+
+        assertThat(reloaded.getRole()).isEqualTo(User.UserRole.INVESTOR);
+        verify(userRepository, times(2)).findByUsername(testUser.getUsername());
+    }
+
+    @Test
+    @DisplayName("Should not cache unknown users")
+    void loadUserByUsername_NotFound() {
+        when(userRepository.findByUsername("ghost")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> userDetailsService.loadUserByUsername("ghost"))
+                .isInstanceOf(UsernameNotFoundException.class);
+        assertThatThrownBy(() -> userDetailsService.loadUserByUsername("ghost"))
+                .isInstanceOf(UsernameNotFoundException.class);
+        verify(userRepository, times(2)).findByUsername("ghost");
+    }
+}
@@ -1,5 +1,6 @@
 package com.realestate.unit.security;
 
+import com.realestate.security.JwtClaims;
 import com.realestate.security.JwtTokenProvider;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -135,6 +136,32 @@ class JwtTokenProviderTest {
         assertThat(isValid).isFalse();
     }
 
+    @Test
+    @DisplayName("Should serve repeat verifications of a token from the cache")
+    void getVerifiedClaims_Cached() {
+        String token = jwtTokenProvider.generateAccessToken("testuser");
+
+        JwtClaims first = jwtTokenProvider.getVerifiedClaims(token);
+        JwtClaims second = jwtTokenProvider.getVerifiedClaims(token);
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.subject()).isEqualTo("testuser");
+        assertThat(first.isAccessToken()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should reject a token whose signature was tampered with")
+    void verify_TamperedSignature() {
+        String token = jwtTokenProvider.generateAccessToken("testuser");
+        jwtTokenProvider.getVerifiedClaims(token);
+        int position = token.length() - 5;
+        char replacement = token.charAt(position) == 'A' ? 'B' : 'A';
+        String tampered = token.substring(0, position) + replacement + token.substring(position + 1);
+
+        assertThat(jwtTokenProvider.verify(tampered)).isEmpty();
+        assertThat(jwtTokenProvider.validateToken(tampered)).isFalse();
+    }
+
     @Test
     @DisplayName("Should check if token is not expired")
     void isTokenExpired_NotExpired() {
@@ -0,0 +1,78 @@
+package com.realestate.unit.service;
+
+import com.realestate.service.BatchInvestmentCalculator;
+import com.realestate.service.InvestmentCalculatorService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class BatchInvestmentCalculatorTest {
+
+    private BatchInvestmentCalculator batchCalculator;
+    private InvestmentCalculatorService calculatorService;
+
+    @BeforeEach
+    void setUp() {
+        batchCalculator = new BatchInvestmentCalculator();
+        calculatorService = new InvestmentCalculatorService(null, null, null, batchCalculator, null, null);
+    }
+
+    @Test
+    @DisplayName("Should match the BigDecimal calculations for each row")
+    void calculate_MatchesSinglePropertyApi() {
+        double[] prices = {5_000_000, 12_500_000};
+        double[] rentals = {25_000, 48_000};
+        double[] expenses = {40_000, 150_000};
+        double[] rates = {5, 7.5};
+        int[] years = {10, 15};
+
+        BatchInvestmentCalculator.BatchMetrics metrics =
+                batchCalculator.calculate(prices, rentals, expenses, rates, years);
+
+        for (int i = 0; i < prices.length; i++) {
+            BigDecimal price = BigDecimal.valueOf(prices[i]);
+            BigDecimal rental = BigDecimal.valueOf(rentals[i]);
+            BigDecimal expense = BigDecimal.valueOf(expenses[i]);
+            BigDecimal rate = BigDecimal.valueOf(rates[i]);
+
+            assertThat(metrics.roi()[i]).isCloseTo(
+                    calculatorService.calculateROI(price, rental, expense).doubleValue(), within(0.01));
+            assertThat(metrics.rentalYield()[i]).isCloseTo(
+                    calculatorService.calculateRentalYield(price, rental).doubleValue(), within(0.01));
+            assertThat(metrics.appreciationValue()[i]).isCloseTo(
+                    calculatorService.calculateAppreciation(price, rate, years[i]).doubleValue(), within(1.0));
+            assertThat(metrics.breakEvenYears()[i]).isCloseTo(
+                    calculatorService.calculateBreakEvenPoint(price, rental, expense).doubleValue(), within(0.01));
+            assertThat(metrics.totalReturn()[i]).isCloseTo(
+                    calculatorService.calculateTotalReturn(price, rental, rate, years[i]).doubleValue(), within(0.01));
+        }
+    }
+
+    @Test
+    @DisplayName("Should mark invalid rows as NaN instead of failing the batch")
+    void calculate_InvalidRow_NaN() {
+        BatchInvestmentCalculator.BatchMetrics metrics = batchCalculator.calculate(
+                new double[] {0, 1_000_000}, new double[] {10_000, 8_000},
+                new double[] {0, 0}, new double[] {0, 0}, new int[] {5, 5});
+
+        assertThat(metrics.roi()[0]).isNaN();
+        assertThat(metrics.roi()[1]).isCloseTo(9.6, within(1e-9));
+    }
+
+    @Test
+    @DisplayName("Should compute level mortgage payments")
+    void mortgagePayments_MatchesSinglePropertyApi() {
+        double[] payments = batchCalculator.mortgagePayments(
+                new double[] {4_000_000, 1_200_000}, new double[] {8.5, 0}, new int[] {240, 120});
+
+        BigDecimal expected = calculatorService.calculateMortgagePayment(
+                new BigDecimal("4000000"), new BigDecimal("8.5"), 240);
+        assertThat(payments[0]).isCloseTo(expected.doubleValue(), within(0.01));
+        assertThat(payments[1]).isCloseTo(10_000, within(1e-9));
+    }
+}
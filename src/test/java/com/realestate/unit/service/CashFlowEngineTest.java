@@ -0,0 +1,72 @@
+package com.realestate.unit.service;
+
+import com.realestate.service.CashFlowEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class CashFlowEngineTest {
+
+    private CashFlowEngine cashFlowEngine;
+
+    @BeforeEach
+    void setUp() {
+        cashFlowEngine = new CashFlowEngine();
+    }
+
+    @Test
+    @DisplayName("Should solve IRR for a conventional cash flow")
+    void irr_ConventionalFlows() {
+        double[] flows = {-1000, 300, 400, 500};
+
+        double irr = cashFlowEngine.irr(flows);
+
+        assertThat(irr).isCloseTo(0.0889633947, within(1e-8));
+        assertThat(cashFlowEngine.npv(irr, flows)).isCloseTo(0.0, within(1e-6));
+    }
+
+    @Test
+    @DisplayName("Should fall back to bisection when Newton cannot converge")
+    void irr_HighReturnFlows() {
+        double[] flows = {-100, 0, 0, 0, 0, 0, 0, 0, 0, 0, 100_000};
+
+        double irr = cashFlowEngine.irr(flows);
+
+        assertThat(irr).isCloseTo(Math.pow(1000, 0.1) - 1, within(1e-8));
+    }
+
+    @Test
+    @DisplayName("Should return NaN when cash flows never change sign")
+    void irr_NoSignChange_NaN() {
+        assertThat(cashFlowEngine.irr(new double[] {100, 200, 300})).isNaN();
+    }
+
+    @Test
+    @DisplayName("Should compute MIRR using finance and reinvestment rates")
+    void mirr_KnownValue() {
+        double[] flows = {-1000, -4000, 5000, 2000};
+
+        double mirr = cashFlowEngine.mirr(flows, 0.10, 0.12);
+
+        assertThat(mirr).isCloseTo(0.179085686, within(1e-6));
+    }
+
+    @Test
+    @DisplayName("Should build levered monthly cash flows with sale proceeds at exit")
+    void buildCashFlows_Monthly() {
+        CashFlowEngine.CashFlowModel model = new CashFlowEngine.CashFlowModel(
+                1_000_000, 200_000, 800_000, 0, 10, 10_000, 1_000, 12_000, 0, 0, 0, 5);
+
+        double[] flows = cashFlowEngine.buildCashFlows(model, true);
+
+        assertThat(flows).hasSize(61);
+        assertThat(flows[0]).isEqualTo(-200_000);
+        // 10,000 rent - 1,000 expenses - 1,000 fixed - 800,000 / 120 straight-line payment
+        assertThat(flows[1]).isCloseTo(8_000 - 800_000 / 120.0, within(1e-6));
+        // Sale at the purchase price less half the loan still outstanding
+        assertThat(flows[60] - flows[1]).isCloseTo(600_000, within(1e-6));
+    }
+}
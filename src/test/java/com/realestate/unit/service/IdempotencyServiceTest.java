@@ -0,0 +1,124 @@
+package com.realestate.unit.service;
+
+import com.realestate.exception.BadRequestException;
+import com.realestate.model.entity.IdempotencyRecord;
+import com.realestate.repository.IdempotencyRecordRepository;
+import com.realestate.service.IdempotencyService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        CacheManager cacheManager = new ConcurrentMapCacheManager(IdempotencyService.CACHE_NAME);
+        idempotencyService = new IdempotencyService(idempotencyRecordRepository, cacheManager);
+    }
+
+    @Test
+    @DisplayName("Should claim a new key with a single insert")
+    void claim_NewKey() {
+        when(idempotencyRecordRepository.claim(eq(1L), eq("k1"), eq("BUY"), any(), any())).thenReturn(1);
+
+        assertThat(idempotencyService.claim(1L, "k1", "BUY")).isEmpty();
+        verify(idempotencyRecordRepository, never()).findByUserIdAndIdempotencyKey(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should return the previous result and cache it for later retries")
+    void claim_CompletedKey_ReturnsResult() {
+        when(idempotencyRecordRepository.claim(eq(1L), eq("k1"), eq("BUY"), any(), any())).thenReturn(0);
+        when(idempotencyRecordRepository.findByUserIdAndIdempotencyKey(1L, "k1"))
+                .thenReturn(Optional.of(record("BUY", 42L, LocalDateTime.now().plusHours(1))));
+
+        assertThat(idempotencyService.claim(1L, "k1", "BUY")).contains(42L);
+        assertThat(idempotencyService.findCompleted(1L, "k1", "BUY")).contains(42L);
+        assertThat(idempotencyService.findCompleted(2L, "k1", "BUY")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should reject a key reused for a different operation")
+    void claim_DifferentOperation_Throws() {
+        when(idempotencyRecordRepository.claim(eq(1L), eq("k1"), eq("SELL"), any(), any())).thenReturn(0);
+        when(idempotencyRecordRepository.findByUserIdAndIdempotencyKey(1L, "k1"))
+                .thenReturn(Optional.of(record("BUY", 42L, LocalDateTime.now().plusHours(1))));
+
+        assertThatThrownBy(() -> idempotencyService.claim(1L, "k1", "SELL"))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    @DisplayName("Should take over an expired key that cleanup has not removed")
+    void claim_ExpiredKey_Reclaims() {
+        when(idempotencyRecordRepository.claim(eq(1L), eq("k1"), eq("SELL"), any(), any())).thenReturn(0);
+        when(idempotencyRecordRepository.findByUserIdAndIdempotencyKey(1L, "k1"))
+                .thenReturn(Optional.of(record("BUY", 42L, LocalDateTime.now().minusMinutes(1))));
+        when(idempotencyRecordRepository.reclaimExpired(eq(1L), eq("k1"), eq("SELL"), any(), any())).thenReturn(1);
+
+        assertThat(idempotencyService.claim(1L, "k1", "SELL")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should record the result and serve it from memory")
+    void complete_CachesResult() {
+        idempotencyService.complete(1L, "k1", "BUY", 7L);
+
+        verify(idempotencyRecordRepository).complete(1L, "k1", 7L);
+        assertThat(idempotencyService.findCompleted(1L, "k1", "BUY")).contains(7L);
+    }
+
+    @Test
+    @DisplayName("Should reject a cached key reused for a different operation, like the database path")
+    void findCompleted_DifferentOperation_Throws() {
+        idempotencyService.complete(1L, "k1", "BUY", 7L);
+
+        assertThatThrownBy(() -> idempotencyService.findCompleted(1L, "k1", "SELL"))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Idempotency key was already used for a BUY");
+        assertThatThrownBy(() -> idempotencyService.findCompleted(1L, "k1", "TRANSFER_OUT"))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    @DisplayName("Should purge expired keys in chunks until a short chunk")
+    void purgeExpired_Chunks() {
+        when(idempotencyRecordRepository.deleteExpired(any(), anyInt())).thenReturn(1000, 1000, 3);
+
+        assertThat(idempotencyService.purgeExpired()).isEqualTo(2003);
+    }
+
+    private static IdempotencyRecord record(String operation, Long resultId, LocalDateTime expiresAt) {
+        return IdempotencyRecord.builder()
+                .userId(1L)
+                .idempotencyKey("k1")
+                .operation(operation)
+                .resultId(resultId)
+                .createdAt(LocalDateTime.now().minusHours(2))
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
@@ -5,7 +5,10 @@ import com.realestate.exception.ResourceNotFoundException;
 import com.realestate.exception.UnauthorizedException;
 import com.realestate.model.entity.*;
 import com.realestate.repository.*;
+import com.realestate.security.CurrentUserProvider;
+import com.realestate.service.IdempotencyService;
 import com.realestate.service.InvestmentTransactionService;
+import com.realestate.service.PortfolioTradeExecutor;
 import com.realestate.testutil.builder.PortfolioBuilder;
 import com.realestate.testutil.builder.PropertyBuilder;
 import com.realestate.testutil.builder.UserBuilder;
@@ -13,14 +16,15 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -52,7 +56,12 @@ class InvestmentTransactionServiceTest {
     @Mock
     private Authentication authentication;
 
-    @InjectMocks
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private IdempotencyService idempotencyService;
+
     private InvestmentTransactionService transactionService;
 
     private User testUser;
@@ -65,6 +74,11 @@ class InvestmentTransactionServiceTest {
         testPortfolio = PortfolioBuilder.aPortfolio().withId(1L).withUser(testUser).build();
         testProperty = PropertyBuilder.aProperty().withId(1L).withPrice(100000).withOwner(testUser).build();
 
+        transactionService = new InvestmentTransactionService(transactionRepository, portfolioRepository, holdingRepository,
+                propertyRepository, new CurrentUserProvider(userRepository),
+                new PortfolioTradeExecutor(transactionManager, 16, Duration.ofSeconds(1), 3, Duration.ofMillis(1)),
+                idempotencyService);
+
         SecurityContextHolder.setContext(securityContext);
         lenient().when(securityContext.getAuthentication()).thenReturn(authentication);
         lenient().when(authentication.getName()).thenReturn(testUser.getUsername());
@@ -74,8 +88,7 @@ class InvestmentTransactionServiceTest {
     @Test
     @DisplayName("Should execute buy transaction successfully")
     void executeBuyTransaction_Success() {
-        when(transactionRepository.existsByIdempotencyKey(any())).thenReturn(false);
-        when(portfolioRepository.findByIdWithLock(1L)).thenReturn(Optional.of(testPortfolio));
+        when(portfolioRepository.findById(1L)).thenReturn(Optional.of(testPortfolio));
         when(propertyRepository.findById(1L)).thenReturn(Optional.of(testProperty));
         when(holdingRepository.findByPortfolioAndProperty(testPortfolio, testProperty)).thenReturn(Optional.empty());
         when(holdingRepository.save(any(Holding.class))).thenAnswer(inv -> {
@@ -109,21 +122,20 @@ class InvestmentTransactionServiceTest {
                 .build();
         existingTx.setId(1L);
 
-        when(transactionRepository.existsByIdempotencyKey("existing-key")).thenReturn(true);
-        when(transactionRepository.findByIdempotencyKey("existing-key")).thenReturn(Optional.of(existingTx));
+        when(idempotencyService.findCompleted(testUser.getId(), "existing-key", "BUY")).thenReturn(Optional.of(1L));
+        when(transactionRepository.findById(1L)).thenReturn(Optional.of(existingTx));
 
         InvestmentTransaction result = transactionService.executeBuyTransaction(
                 1L, 1L, new BigDecimal("1.0"), "existing-key");
 
         assertThat(result).isEqualTo(existingTx);
-        verify(portfolioRepository, never()).findByIdWithLock(any());
+        verify(portfolioRepository, never()).findById(any());
     }
 
     @Test
     @DisplayName("Should throw exception when portfolio not found")
     void executeBuyTransaction_PortfolioNotFound() {
-        when(transactionRepository.existsByIdempotencyKey(any())).thenReturn(false);
-        when(portfolioRepository.findByIdWithLock(999L)).thenReturn(Optional.empty());
+        when(portfolioRepository.findById(999L)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> transactionService.executeBuyTransaction(
                 999L, 1L, new BigDecimal("1.0"), null))
@@ -137,8 +149,7 @@ class InvestmentTransactionServiceTest {
         User otherUser = UserBuilder.aUser().withId(2L).build();
         Portfolio otherPortfolio = PortfolioBuilder.aPortfolio().withId(2L).withUser(otherUser).build();
 
-        when(transactionRepository.existsByIdempotencyKey(any())).thenReturn(false);
-        when(portfolioRepository.findByIdWithLock(2L)).thenReturn(Optional.of(otherPortfolio));
+        when(portfolioRepository.findById(2L)).thenReturn(Optional.of(otherPortfolio));
 
         assertThatThrownBy(() -> transactionService.executeBuyTransaction(
                 2L, 1L, new BigDecimal("1.0"), null))
@@ -159,9 +170,8 @@ class InvestmentTransactionServiceTest {
                 .build();
         holding.setId(1L);
 
-        when(transactionRepository.existsByIdempotencyKey(any())).thenReturn(false);
-        when(portfolioRepository.findByIdWithLock(1L)).thenReturn(Optional.of(testPortfolio));
-        when(holdingRepository.findByIdWithLock(1L)).thenReturn(Optional.of(holding));
+        when(portfolioRepository.findById(1L)).thenReturn(Optional.of(testPortfolio));
+        when(holdingRepository.findById(1L)).thenReturn(Optional.of(holding));
         when(holdingRepository.save(any(Holding.class))).thenAnswer(inv -> inv.getArgument(0));
         when(transactionRepository.save(any(InvestmentTransaction.class))).thenAnswer(inv -> {
             InvestmentTransaction t = inv.getArgument(0);
@@ -189,9 +199,8 @@ class InvestmentTransactionServiceTest {
                 .build();
         holding.setId(1L);
 
-        when(transactionRepository.existsByIdempotencyKey(any())).thenReturn(false);
-        when(portfolioRepository.findByIdWithLock(1L)).thenReturn(Optional.of(testPortfolio));
-        when(holdingRepository.findByIdWithLock(1L)).thenReturn(Optional.of(holding));
+        when(portfolioRepository.findById(1L)).thenReturn(Optional.of(testPortfolio));
+        when(holdingRepository.findById(1L)).thenReturn(Optional.of(holding));
 
         assertThatThrownBy(() -> transactionService.executeSellTransaction(
                 1L, 1L, new BigDecimal("1.0"), null))
@@ -211,9 +220,8 @@ class InvestmentTransactionServiceTest {
                 .build();
         holding.setId(1L);
 
-        when(transactionRepository.existsByIdempotencyKey(any())).thenReturn(false);
-        when(portfolioRepository.findByIdWithLock(1L)).thenReturn(Optional.of(testPortfolio));
-        when(holdingRepository.findByIdWithLock(1L)).thenReturn(Optional.of(holding));
+        when(portfolioRepository.findById(1L)).thenReturn(Optional.of(testPortfolio));
+        when(holdingRepository.findById(1L)).thenReturn(Optional.of(holding));
 
         assertThatThrownBy(() -> transactionService.executeSellTransaction(
                 1L, 1L, new BigDecimal("1.0"), null))
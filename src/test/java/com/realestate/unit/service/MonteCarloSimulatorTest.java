@@ -0,0 +1,63 @@
+package com.realestate.unit.service;
+
+import com.realestate.service.CashFlowEngine;
+import com.realestate.service.MonteCarloSimulator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class MonteCarloSimulatorTest {
+
+    private MonteCarloSimulator simulator;
+
+    @BeforeEach
+    void setUp() {
+        simulator = new MonteCarloSimulator(new CashFlowEngine(), 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        simulator.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should collapse to the deterministic return when factors have no volatility")
+    void simulate_NoVolatility_MatchesDeterministic() {
+        MonteCarloSimulator.SimulationInput input = input(
+                new MonteCarloSimulator.FactorDistribution(new double[0], 5.0, 0.0));
+
+        MonteCarloSimulator.SimulationResult result = simulator.simulate(input, 5_000, 10_000, 42L);
+
+        // Unlevered: 10 years of 60,000 net rent plus sale at 1,000,000 * 1.05^10
+        double expected = (600_000 + 1_000_000 * Math.pow(1.05, 10) - 1_000_000) / 1_000_000 * 100;
+        assertThat(result.completedPaths()).isEqualTo(5_000);
+        assertThat(result.deadlineReached()).isFalse();
+        assertThat(result.totalReturn().p5()).isCloseTo(expected, within(1e-6));
+        assertThat(result.totalReturn().p95()).isCloseTo(expected, within(1e-6));
+    }
+
+    @Test
+    @DisplayName("Should produce ordered percentile bands that are reproducible for a seed")
+    void simulate_Volatile_OrderedAndReproducible() {
+        MonteCarloSimulator.SimulationInput input = input(
+                new MonteCarloSimulator.FactorDistribution(new double[] {-4.0, 2.0, 6.0, 11.0}, 0.0, 0.0));
+
+        MonteCarloSimulator.SimulationResult first = simulator.simulate(input, 20_000, 10_000, 7L);
+        MonteCarloSimulator.SimulationResult second = simulator.simulate(input, 20_000, 10_000, 7L);
+
+        assertThat(first.totalReturn().p5()).isLessThan(first.totalReturn().p50());
+        assertThat(first.totalReturn().p50()).isLessThan(first.totalReturn().p95());
+        assertThat(first.irr().p5()).isLessThan(first.irr().p95());
+        assertThat(second.totalReturn()).isEqualTo(first.totalReturn());
+    }
+
+    private MonteCarloSimulator.SimulationInput input(MonteCarloSimulator.FactorDistribution appreciation) {
+        MonteCarloSimulator.FactorDistribution flat = new MonteCarloSimulator.FactorDistribution(new double[0], 0.0, 0.0);
+        return new MonteCarloSimulator.SimulationInput(
+                1_000_000, 1_000_000, 0, 0, 0, 6_000, 12_000, 10, appreciation, flat, flat);
+    }
+}
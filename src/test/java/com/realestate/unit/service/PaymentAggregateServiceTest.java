@@ -0,0 +1,163 @@
+package com.realestate.unit.service;
+
+import com.realestate.model.entity.InvestorPaymentTotal;
+import com.realestate.model.entity.Payment;
+import com.realestate.model.entity.Property;
+import com.realestate.model.entity.User;
+import com.realestate.repository.InvestorPaymentTotalRepository;
+import com.realestate.repository.PropertyPaymentTotalRepository;
+import com.realestate.service.PaymentAggregateService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentAggregateServiceTest {
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2026, 3, 1, 12, 0);
+
+    @Mock
+    private InvestorPaymentTotalRepository investorPaymentTotalRepository;
+
+    @Mock
+    private PropertyPaymentTotalRepository propertyPaymentTotalRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private PaymentAggregateService paymentAggregateService;
+
+    @BeforeEach
+    void setUp() {
+        paymentAggregateService = new PaymentAggregateService(investorPaymentTotalRepository,
+                propertyPaymentTotalRepository, transactionTemplate);
+        ReflectionTestUtils.setField(paymentAggregateService, "chunkSize", 100);
+    }
+
+    @Test
+    @DisplayName("Should fold a batch into one upsert per investor and per property, in key order")
+    void recordSuccess_GroupsByKey() {
+        Payment first = payment(7L, 30L, "1000", NOON);
+        Payment second = payment(7L, 20L, "500", NOON.plusMinutes(5));
+        Payment third = payment(3L, 30L, "250", NOON.minusMinutes(5));
+
+        paymentAggregateService.recordSuccess(List.of(first, second, third));
+
+        InOrder investors = inOrder(investorPaymentTotalRepository);
+        investors.verify(investorPaymentTotalRepository).add(3L, new BigDecimal("250"), 1, NOON.minusMinutes(5));
+        investors.verify(investorPaymentTotalRepository).add(7L, new BigDecimal("1500"), 2, NOON.plusMinutes(5));
+        InOrder properties = inOrder(propertyPaymentTotalRepository);
+        properties.verify(propertyPaymentTotalRepository).add(20L, new BigDecimal("500"), 1, NOON.plusMinutes(5));
+        properties.verify(propertyPaymentTotalRepository).add(30L, new BigDecimal("1250"), 2, NOON);
+    }
+
+    @Test
+    @DisplayName("Should not touch the totals for an empty batch")
+    void recordSuccess_Empty() {
+        paymentAggregateService.recordSuccess(List.of());
+
+        verifyNoInteractions(investorPaymentTotalRepository, propertyPaymentTotalRepository);
+    }
+
+    @Test
+    @DisplayName("Should skip the property total of a payment without a property")
+    void recordSuccess_NoProperty() {
+        Payment payment = payment(7L, 30L, "1000", NOON);
+        payment.setProperty(null);
+
+        paymentAggregateService.recordSuccess(payment);
+
+        verify(investorPaymentTotalRepository).add(7L, new BigDecimal("1000"), 1, NOON);
+        verify(propertyPaymentTotalRepository, never()).add(anyLong(), any(), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("Should read investor totals by key and report zero for an investor without payments")
+    void investorTotals() {
+        when(investorPaymentTotalRepository.findById(7L)).thenReturn(Optional.of(
+                new InvestorPaymentTotal(7L, new BigDecimal("1500"), 2, NOON)));
+        when(investorPaymentTotalRepository.findById(8L)).thenReturn(Optional.empty());
+
+        PaymentAggregateService.InvestorTotals totals = paymentAggregateService.investorTotals(7L);
+        PaymentAggregateService.InvestorTotals none = paymentAggregateService.investorTotals(8L);
+
+        assertThat(totals.totalInvested()).isEqualByComparingTo("1500");
+        assertThat(totals.paymentCount()).isEqualTo(2);
+        assertThat(totals.lastPaymentAt()).isEqualTo(NOON);
+        assertThat(none.totalInvested()).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(none.paymentCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should leave totals that match the payments alone")
+    void rebuildIfDrifted_NoDrift() {
+        when(investorPaymentTotalRepository.countDriftedSums()).thenReturn(0);
+        when(propertyPaymentTotalRepository.countDriftedSums()).thenReturn(0);
+
+        assertThat(paymentAggregateService.rebuildIfDrifted()).isZero();
+
+        verify(investorPaymentTotalRepository, never()).findMaxKey();
+        verify(propertyPaymentTotalRepository, never()).findMaxKey();
+        verifyNoInteractions(transactionTemplate);
+    }
+
+    @Test
+    @DisplayName("Should rebuild drifted totals one key range per transaction, locking payments first")
+    void rebuildIfDrifted_RebuildsInKeyRanges() {
+        when(investorPaymentTotalRepository.countDriftedSums()).thenReturn(1);
+        when(propertyPaymentTotalRepository.countDriftedSums()).thenReturn(0);
+        when(investorPaymentTotalRepository.findMaxKey()).thenReturn(250L);
+        when(investorPaymentTotalRepository.insertRange(anyLong(), anyLong())).thenReturn(40, 0, 7);
+        doAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null))
+                .when(transactionTemplate).execute(any());
+
+        assertThat(paymentAggregateService.rebuildIfDrifted()).isEqualTo(47);
+
+        verify(transactionTemplate, times(3)).execute(any());
+        InOrder ranges = inOrder(investorPaymentTotalRepository);
+        for (long fromId = 0; fromId <= 200; fromId += 100) {
+            ranges.verify(investorPaymentTotalRepository).lockPaymentsInRange(fromId, fromId + 99);
+            ranges.verify(investorPaymentTotalRepository).deleteRange(fromId, fromId + 99);
+            ranges.verify(investorPaymentTotalRepository).insertRange(fromId, fromId + 99);
+        }
+        verify(propertyPaymentTotalRepository, never()).findMaxKey();
+    }
+
+    private static Payment payment(Long investorId, Long propertyId, String amount, LocalDateTime paidAt) {
+        User investor = new User();
+        investor.setId(investorId);
+        Property property = new Property();
+        property.setId(propertyId);
+        return Payment.builder()
+                .investor(investor)
+                .property(property)
+                .amount(new BigDecimal(amount))
+                .investmentAmount(new BigDecimal(amount))
+                .status(Payment.PaymentStatus.SUCCESS)
+                .paidAt(paidAt)
+                .build();
+    }
+}
@@ -0,0 +1,249 @@
+package com.realestate.unit.service;
+
+import com.realestate.config.ExecutorRegistry;
+import com.realestate.exception.PaymentException;
+import com.realestate.model.entity.Payment;
+import com.realestate.model.entity.PaymentCallback;
+import com.realestate.model.entity.Property;
+import com.realestate.model.entity.User;
+import com.realestate.repository.PaymentCallbackRepository;
+import com.realestate.repository.PaymentRepository;
+import com.realestate.service.PaymentAggregateService;
+import com.realestate.service.PaymentCallbackService;
+import com.realestate.service.PaymentService;
+import com.realestate.service.RazorpaySignatureVerifier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentCallbackServiceTest {
+
+    private static final String SECRET = "test_key_secret";
+
+    @Mock
+    private PaymentCallbackRepository paymentCallbackRepository;
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private PaymentService paymentService;
+
+    @Mock
+    private PaymentAggregateService paymentAggregateService;
+
+    @Mock
+    private ExecutorRegistry executorRegistry;
+
+    @Mock
+    private ExecutorService ioExecutor;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private PaymentCallbackService paymentCallbackService;
+
+    @BeforeEach
+    void setUp() {
+        paymentCallbackService = new PaymentCallbackService(paymentCallbackRepository, paymentRepository,
+                paymentService, new RazorpaySignatureVerifier(SECRET), paymentAggregateService, executorRegistry,
+                transactionTemplate);
+        ReflectionTestUtils.setField(paymentCallbackService, "batchSize", 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should journal a signed callback and start a drain")
+    void accept_ValidSignature_Journals() {
+        when(paymentCallbackRepository.append(eq("order_1"), eq("pay_1"), anyString(), eq("CHECKOUT"), any()))
+                .thenReturn(1);
+        when(executorRegistry.executor(ExecutorRegistry.Pool.IO)).thenReturn(ioExecutor);
+
+        PaymentCallbackService.CallbackAck ack = paymentCallbackService.accept("order_1", "pay_1",
+                sign("order_1", "pay_1"), PaymentCallback.Source.CHECKOUT);
+
+        assertThat(ack.duplicate()).isFalse();
+        verify(ioExecutor).execute(any());
+        verify(paymentRepository, never()).findByGatewayOrderIds(any());
+    }
+
+    @Test
+    @DisplayName("Should acknowledge a redelivered callback without another drain")
+    void accept_Duplicate() {
+        when(paymentCallbackRepository.append(eq("order_1"), eq("pay_1"), anyString(), eq("CHECKOUT"), any()))
+                .thenReturn(0);
+
+        PaymentCallbackService.CallbackAck ack = paymentCallbackService.accept("order_1", "pay_1",
+                sign("order_1", "pay_1"), PaymentCallback.Source.CHECKOUT);
+
+        assertThat(ack.duplicate()).isTrue();
+        verify(executorRegistry, never()).executor(any());
+    }
+
+    @Test
+    @DisplayName("Should reject a callback with a bad signature before journaling it")
+    void accept_InvalidSignature_Throws() {
+        assertThatThrownBy(() -> paymentCallbackService.accept("order_1", "pay_1", "forged",
+                PaymentCallback.Source.CHECKOUT))
+                .isInstanceOf(PaymentException.class)
+                .hasMessage("Payment verification failed: Invalid signature");
+
+        verify(paymentCallbackRepository, never()).append(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should apply a batch in one transaction and notify after commit")
+    void applyBatch_MarksPaymentsPaid() {
+        Payment first = payment(1L, "order_1");
+        Payment second = payment(2L, "order_2");
+        PaymentCallback paid = callback("order_1", "pay_1");
+        PaymentCallback redelivered = callback("order_1", "pay_1");
+        PaymentCallback other = callback("order_2", "pay_2");
+        PaymentCallback unknown = callback("order_9", "pay_9");
+        runTransactionsInline();
+        when(paymentCallbackRepository.claimBatch(anyInt())).thenReturn(List.of(paid, redelivered, other, unknown));
+        when(paymentRepository.findByGatewayOrderIds(any())).thenReturn(List.of(first, second));
+
+        assertThat(paymentCallbackService.applyBatch()).isEqualTo(4);
+
+        assertThat(first.getStatus()).isEqualTo(Payment.PaymentStatus.SUCCESS);
+        assertThat(first.getRazorpayPaymentId()).isEqualTo("pay_1");
+        assertThat(second.getStatus()).isEqualTo(Payment.PaymentStatus.SUCCESS);
+        assertThat(paid.getStatus()).isEqualTo(PaymentCallback.Status.APPLIED);
+        assertThat(redelivered.getStatus()).isEqualTo(PaymentCallback.Status.APPLIED);
+        assertThat(unknown.getStatus()).isEqualTo(PaymentCallback.Status.REJECTED);
+        verify(paymentAggregateService).recordSuccess(List.of(first, second));
+
+        verify(paymentService, never()).sendPaymentSuccessEmail(any());
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(paymentService, times(2)).sendPaymentSuccessEmail(any());
+    }
+
+    @Test
+    @DisplayName("Should not overwrite an order already paid by another payment")
+    void applyBatch_AlreadyPaid_Rejects() {
+        Payment payment = payment(1L, "order_1");
+        payment.markAsSuccess("pay_1", "sig");
+        PaymentCallback second = callback("order_1", "pay_2");
+        runTransactionsInline();
+        when(paymentCallbackRepository.claimBatch(anyInt())).thenReturn(List.of(second));
+        when(paymentRepository.findByGatewayOrderIds(any())).thenReturn(List.of(payment));
+
+        paymentCallbackService.applyBatch();
+
+        assertThat(payment.getRazorpayPaymentId()).isEqualTo("pay_1");
+        assertThat(second.getStatus()).isEqualTo(PaymentCallback.Status.REJECTED);
+        assertThat(second.getFailureReason()).contains("pay_1");
+        verify(paymentAggregateService).recordSuccess(List.of());
+    }
+
+    @Test
+    @DisplayName("Should retry a failed batch one callback at a time and count the failing one's attempt")
+    void drain_FailedBatch_IsolatesPoisonCallback() {
+        Payment good = payment(1L, "order_1");
+        PaymentCallback goodCallback = callback("order_1", "pay_1");
+        goodCallback.setId(101L);
+        PaymentCallback poison = callback("order_bad", "pay_bad");
+        poison.setId(102L);
+        runTransactionsInline();
+        when(paymentCallbackRepository.claimBatch(anyInt())).thenReturn(List.of(goodCallback, poison));
+        when(paymentRepository.findByGatewayOrderIds(any())).thenAnswer(invocation -> {
+            if (invocation.<Collection<String>>getArgument(0).contains("order_bad")) {
+                throw new IllegalStateException("corrupt row");
+            }
+            return List.of(good);
+        });
+        when(paymentCallbackRepository.findReceivedIds(10)).thenReturn(List.of(101L, 102L));
+        when(paymentCallbackRepository.claim(101L)).thenReturn(Optional.of(goodCallback));
+        when(paymentCallbackRepository.claim(102L)).thenReturn(Optional.of(poison));
+        when(paymentCallbackRepository.recordFailure(eq(102L), anyString(), eq(5), any())).thenReturn(1);
+
+        assertThat(paymentCallbackService.drain()).isEqualTo(2);
+
+        assertThat(good.getStatus()).isEqualTo(Payment.PaymentStatus.SUCCESS);
+        assertThat(goodCallback.getStatus()).isEqualTo(PaymentCallback.Status.APPLIED);
+        verify(paymentCallbackRepository).recordFailure(eq(102L), anyString(), eq(5), any());
+    }
+
+    private void runTransactionsInline() {
+        TransactionSynchronizationManager.initSynchronization();
+        doAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null))
+                .when(transactionTemplate).execute(any());
+    }
+
+    private static Payment payment(Long id, String razorpayOrderId) {
+        User investor = new User();
+        investor.setId(10L);
+        Property property = new Property();
+        property.setId(20L);
+        return Payment.builder()
+                .id(id)
+                .investor(investor)
+                .property(property)
+                .amount(new BigDecimal("1000"))
+                .investmentAmount(new BigDecimal("1000"))
+                .status(Payment.PaymentStatus.PENDING)
+                .razorpayOrderId(razorpayOrderId)
+                .build();
+    }
+
+    private static PaymentCallback callback(String orderId, String paymentId) {
+        return PaymentCallback.builder()
+                .razorpayOrderId(orderId)
+                .razorpayPaymentId(paymentId)
+                .signature(sign(orderId, paymentId))
+                .source(PaymentCallback.Source.CHECKOUT)
+                .status(PaymentCallback.Status.RECEIVED)
+                .receivedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static String sign(String orderId, String paymentId) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return HexFormat.of().formatHex(mac.doFinal((orderId + "|" + paymentId).getBytes(StandardCharsets.UTF_8)));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.realestate.unit.service;
+
+import com.realestate.config.ExecutorRegistry;
+import com.realestate.repository.PaymentRepository;
+import com.realestate.service.PaymentExpirySweeper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentExpirySweeperTest {
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private ExecutorRegistry executorRegistry;
+
+    private PaymentExpirySweeper sweeper;
+
+    @BeforeEach
+    void setUp() {
+        sweeper = new PaymentExpirySweeper(paymentRepository, executorRegistry);
+        ReflectionTestUtils.setField(sweeper, "chunkSize", 3);
+        ReflectionTestUtils.setField(sweeper, "chunkPause", Duration.ZERO);
+    }
+
+    @Test
+    @DisplayName("Expirable ids are walked in key order, one transaction per chunk")
+    void sweep_expiresInKeyOrderedChunks() {
+        when(paymentRepository.findExpirableIds(any(LocalDateTime.class), eq(0L), eq(3)))
+                .thenReturn(List.of(1L, 2L, 5L));
+        when(paymentRepository.findExpirableIds(any(LocalDateTime.class), eq(5L), eq(3)))
+                .thenReturn(List.of(8L, 9L, 12L));
+        when(paymentRepository.findExpirableIds(any(LocalDateTime.class), eq(12L), eq(3)))
+                .thenReturn(List.of(13L));
+        when(paymentRepository.expireByIds(anyCollection(), any(LocalDateTime.class))).thenReturn(3, 2, 1);
+        when(paymentRepository.findPendingCreatedAt(any(Pageable.class))).thenReturn(List.of());
+
+        int expired = sweeper.sweep();
+
+        assertThat(expired).isEqualTo(6);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Long>> chunks = ArgumentCaptor.forClass(Collection.class);
+        verify(paymentRepository, times(3)).expireByIds(chunks.capture(), any(LocalDateTime.class));
+        assertThat(chunks.getAllValues()).containsExactly(List.of(1L, 2L, 5L), List.of(8L, 9L, 12L), List.of(13L));
+    }
+
+    @Test
+    @DisplayName("Nothing past the ttl means no update is issued")
+    void sweep_nothingToExpire() {
+        when(paymentRepository.findExpirableIds(any(LocalDateTime.class), anyLong(), anyInt())).thenReturn(List.of());
+        when(paymentRepository.findPendingCreatedAt(any(Pageable.class))).thenReturn(List.of());
+
+        assertThat(sweeper.sweep()).isZero();
+        verify(paymentRepository, never()).expireByIds(anyCollection(), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("A failed chunk ends the sweep but keeps the chunks already committed")
+    void sweep_stopsOnFailure() {
+        when(paymentRepository.findExpirableIds(any(LocalDateTime.class), eq(0L), eq(3)))
+                .thenReturn(List.of(1L, 2L, 3L));
+        when(paymentRepository.findExpirableIds(any(LocalDateTime.class), eq(3L), eq(3)))
+                .thenReturn(List.of(4L, 5L, 6L));
+        when(paymentRepository.expireByIds(anyCollection(), any(LocalDateTime.class)))
+                .thenReturn(3)
+                .thenThrow(new QueryTimeoutException("lock wait timeout"));
+        when(paymentRepository.findPendingCreatedAt(any(Pageable.class))).thenReturn(List.of());
+
+        assertThat(sweeper.sweep()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Metrics report rows expired and how far behind the oldest pending payment is")
+    void sweep_recordsMetrics() {
+        when(paymentRepository.findExpirableIds(any(LocalDateTime.class), anyLong(), anyInt()))
+                .thenReturn(List.of(7L, 8L));
+        when(paymentRepository.expireByIds(anyCollection(), any(LocalDateTime.class))).thenReturn(2);
+        when(paymentRepository.findPendingCreatedAt(any(Pageable.class)))
+                .thenReturn(List.of(LocalDateTime.now().minusHours(1).minusMinutes(10)));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        sweeper.bindTo(registry);
+
+        sweeper.sweep();
+
+        assertThat(registry.get("payments.expiry.expired").functionCounter().count()).isEqualTo(2.0);
+        assertThat(registry.get("payments.expiry.lag").gauge().value()).isBetween(590.0, 610.0);
+    }
+}
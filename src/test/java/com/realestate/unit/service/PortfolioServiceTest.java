@@ -3,20 +3,23 @@ package com.realestate.unit.service;
 import com.realestate.exception.DuplicateResourceException;
 import com.realestate.exception.ResourceNotFoundException;
 import com.realestate.exception.UnauthorizedException;
+import com.realestate.model.dto.HoldingDTO;
 import com.realestate.model.entity.Holding;
 import com.realestate.model.entity.Portfolio;
 import com.realestate.model.entity.User;
 import com.realestate.repository.HoldingRepository;
+import com.realestate.repository.PortfolioReadRepository;
 import com.realestate.repository.PortfolioRepository;
 import com.realestate.repository.UserRepository;
+import com.realestate.security.CurrentUserProvider;
 import com.realestate.service.PortfolioService;
+import com.realestate.service.PortfolioValuationService;
 import com.realestate.testutil.builder.PortfolioBuilder;
 import com.realestate.testutil.builder.UserBuilder;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.Authentication;
@@ -45,13 +48,18 @@ class PortfolioServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private PortfolioValuationService portfolioValuationService;
+
+    @Mock
+    private PortfolioReadRepository portfolioReadRepository;
+
     @Mock
     private SecurityContext securityContext;
 
     @Mock
     private Authentication authentication;
 
-    @InjectMocks
     private PortfolioService portfolioService;
 
     private User testUser;
@@ -60,6 +68,9 @@ class PortfolioServiceTest {
     void setUp() {
         testUser = UserBuilder.aUser().withId(1L).asInvestor().build();
 
+        portfolioService = new PortfolioService(portfolioRepository, holdingRepository,
+                new CurrentUserProvider(userRepository), portfolioValuationService, portfolioReadRepository);
+
         SecurityContextHolder.setContext(securityContext);
         when(securityContext.getAuthentication()).thenReturn(authentication);
         when(authentication.getName()).thenReturn(testUser.getUsername());
@@ -162,14 +173,24 @@ class PortfolioServiceTest {
     @Test
     @DisplayName("Should get portfolio holdings")
     void getPortfolioHoldings_Success() {
-        Portfolio portfolio = PortfolioBuilder.aPortfolio().withId(1L).withUser(testUser).build();
-        when(portfolioRepository.findById(1L)).thenReturn(Optional.of(portfolio));
-        when(holdingRepository.findByPortfolioAndStatus(portfolio, Holding.HoldingStatus.ACTIVE))
-                .thenReturn(Collections.emptyList());
+        HoldingDTO holding = HoldingDTO.builder().id(5L).portfolioId(1L).propertyTitle("Sea View").build();
+        when(portfolioReadRepository.findActiveHoldings(1L)).thenReturn(Optional.of(
+                new PortfolioReadRepository.PortfolioHoldingsView(1L, testUser.getId(), List.of(holding))));
 
-        List<Holding> result = portfolioService.getPortfolioHoldings(1L);
+        List<HoldingDTO> result = portfolioService.getPortfolioHoldings(1L);
 
-        assertThat(result).isEmpty();
+        assertThat(result).containsExactly(holding);
+        verifyNoInteractions(holdingRepository, portfolioRepository);
+    }
+
+    @Test
+    @DisplayName("Should deny holdings of another user's portfolio")
+    void getPortfolioHoldings_Unauthorized_ThrowsException() {
+        when(portfolioReadRepository.findActiveHoldings(1L)).thenReturn(Optional.of(
+                new PortfolioReadRepository.PortfolioHoldingsView(1L, 2L, Collections.emptyList())));
+
+        assertThatThrownBy(() -> portfolioService.getPortfolioHoldings(1L))
+                .isInstanceOf(UnauthorizedException.class);
     }
 
     @Test
@@ -225,18 +246,10 @@ class PortfolioServiceTest {
     @Test
     @DisplayName("Should get portfolio summary")
     void getPortfolioSummary_Success() {
-        Portfolio portfolio = PortfolioBuilder.aPortfolio()
-                .withId(1L)
-                .withUser(testUser)
-                .withName("Test Portfolio")
-                .build();
-        portfolio.setTotalInvested(new BigDecimal("100000"));
-        portfolio.setTotalCurrentValue(new BigDecimal("110000"));
-        portfolio.setUnrealizedGains(new BigDecimal("10000"));
-
-        when(portfolioRepository.findById(1L)).thenReturn(Optional.of(portfolio));
-        when(holdingRepository.findByPortfolioAndStatus(portfolio, Holding.HoldingStatus.ACTIVE))
-                .thenReturn(Collections.emptyList());
+        when(portfolioReadRepository.findSummary(1L)).thenReturn(Optional.of(
+                new PortfolioReadRepository.PortfolioSummaryView(1L, testUser.getId(), "Test Portfolio",
+                        new BigDecimal("100000"), new BigDecimal("110000"), new BigDecimal("10000"),
+                        BigDecimal.ZERO, 0, Portfolio.RiskProfile.MODERATE)));
 
         PortfolioService.PortfolioSummary summary = portfolioService.getPortfolioSummary(1L);
 
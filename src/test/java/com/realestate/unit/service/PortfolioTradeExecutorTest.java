@@ -0,0 +1,72 @@
+package com.realestate.unit.service;
+
+import com.realestate.service.PortfolioTradeExecutor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class PortfolioTradeExecutorTest {
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private PortfolioTradeExecutor executor() {
+        return new PortfolioTradeExecutor(transactionManager, 16, Duration.ofSeconds(1), 3, Duration.ofMillis(1));
+    }
+
+    @Test
+    @DisplayName("Should replay a trade in a fresh transaction after an optimistic lock conflict")
+    void execute_RetriesOptimisticConflict() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = executor().execute(List.of(1L), () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new OptimisticLockingFailureException("stale portfolio");
+            }
+            return "done";
+        });
+
+        assertThat(result).isEqualTo("done");
+        assertThat(attempts.get()).isEqualTo(3);
+        verify(transactionManager, times(3)).getTransaction(any());
+    }
+
+    @Test
+    @DisplayName("Should give up after max attempts and surface the conflict")
+    void execute_ExhaustsAttempts() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> executor().execute(List.of(1L), () -> {
+            attempts.incrementAndGet();
+            throw new OptimisticLockingFailureException("stale portfolio");
+        })).isInstanceOf(OptimisticLockingFailureException.class);
+        assertThat(attempts.get()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should not retry business failures")
+    void execute_DoesNotRetryOtherFailures() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> executor().execute(List.of(1L), () -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("insufficient quantity");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(attempts.get()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,78 @@
+package com.realestate.unit.service;
+
+import com.realestate.repository.PortfolioValuationRepository;
+import com.realestate.repository.PortfolioValuationRepository.HoldingValue;
+import com.realestate.service.PortfolioValuationService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PortfolioValuationServiceTest {
+
+    @Mock
+    private PortfolioValuationRepository portfolioValuationRepository;
+
+    @InjectMocks
+    private PortfolioValuationService portfolioValuationService;
+
+    @Captor
+    private ArgumentCaptor<List<HoldingValue>> holdingsCaptor;
+
+    @Captor
+    private ArgumentCaptor<Map<Long, BigDecimal>> deltasCaptor;
+
+    @Test
+    @DisplayName("Should write only changed holdings and sum their deltas per portfolio")
+    void propertyPricesChanged_AppliesDeltas() {
+        when(portfolioValuationRepository.lockHoldingsOfProperties(List.of(7L))).thenReturn(List.of(
+                holding(1L, 10L, "2", "1000.00", "600.00"),
+                holding(2L, 10L, "0.5", "250.00", "600.00"),
+                holding(3L, 20L, "1", "600.00", "600.00")
+        ));
+
+        PortfolioValuationService.ValuationResult result = portfolioValuationService.propertyPricesChanged(List.of(7L));
+
+        assertThat(result.holdingsRevalued()).isEqualTo(2);
+        assertThat(result.portfoliosUpdated()).isEqualTo(1);
+        verify(portfolioValuationRepository).updateHoldingValues(holdingsCaptor.capture());
+        assertThat(holdingsCaptor.getValue())
+                .extracting(HoldingValue::holdingId, HoldingValue::currentValue)
+                .containsExactly(
+                        tuple(1L, new BigDecimal("1200.00")),
+                        tuple(2L, new BigDecimal("300.00")));
+        verify(portfolioValuationRepository).applyPortfolioDeltas(deltasCaptor.capture());
+        assertThat(deltasCaptor.getValue()).containsOnlyKeys(10L);
+        assertThat(deltasCaptor.getValue().get(10L)).isEqualByComparingTo("250.00");
+    }
+
+    @Test
+    @DisplayName("Revalue all should run the set-based statements across every portfolio")
+    void revalueAllPortfolios_SetBased() {
+        when(portfolioValuationRepository.revalueHoldings(null)).thenReturn(42);
+        when(portfolioValuationRepository.refreshPortfolioTotals(null)).thenReturn(5);
+
+        PortfolioValuationService.ValuationResult result = portfolioValuationService.revalueAllPortfolios();
+
+        assertThat(result).isEqualTo(new PortfolioValuationService.ValuationResult(42, 5));
+    }
+
+    private static HoldingValue holding(Long id, Long portfolioId, String quantity, String currentValue, String price) {
+        return new HoldingValue(id, portfolioId, new BigDecimal(quantity), new BigDecimal("500.00"),
+                new BigDecimal(currentValue), new BigDecimal(price));
+    }
+}
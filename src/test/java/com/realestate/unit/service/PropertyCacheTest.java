@@ -0,0 +1,124 @@
+package com.realestate.unit.service;
+
+import com.realestate.config.CacheConfig;
+import com.realestate.model.dto.PropertyDTO;
+import com.realestate.service.PropertyCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PropertyCacheTest {
+
+    private PropertyCache propertyCache;
+
+    @BeforeEach
+    void setUp() {
+        propertyCache = new PropertyCache(new CaffeineCacheManager(PropertyCache.CACHE_NAME,
+            PropertyCache.LISTING_CACHE_NAME));
+    }
+
+    @Test
+    @DisplayName("Should load a property once and serve it from the cache afterwards")
+    void get_CachesLoadedProperty() {
+        AtomicInteger loads = new AtomicInteger();
+
+        propertyCache.get(1L, () -> { loads.incrementAndGet(); return property(1L, "100", 0L); });
+        PropertyDTO cached = propertyCache.get(1L, () -> { loads.incrementAndGet(); return property(1L, "100", 0L); });
+
+        assertThat(cached.getPrice()).isEqualByComparingTo("100");
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Should patch the cached listing and counts on update without reloading")
+    void saved_PatchesAggregates() {
+        propertyCache.all(() -> List.of(property(1L, "100", 0L), property(2L, "300", 0L)));
+        propertyCache.countByType(() -> Map.of("APARTMENT", 2L));
+
+        PropertyDTO updated = property(1L, "500", 1L);
+        updated.setPropertyType(PropertyDTO.PropertyType.VILLA);
+        propertyCache.saved(updated, PropertyDTO.PropertyType.APARTMENT);
+
+        List<PropertyDTO> listing = propertyCache.all(List::of);
+        assertThat(listing).extracting(PropertyDTO::getId).containsExactly(1L, 2L);
+        assertThat(listing.get(0).getPrice()).isEqualByComparingTo("500");
+        assertThat(propertyCache.countByType(Map::of))
+            .containsEntry("APARTMENT", 1L)
+            .containsEntry("VILLA", 1L);
+    }
+
+    @Test
+    @DisplayName("Should not replace a cached property with an older version")
+    void saved_IgnoresOlderVersion() {
+        propertyCache.saved(property(1L, "200", 2L), null);
+        propertyCache.saved(property(1L, "100", 1L), PropertyDTO.PropertyType.APARTMENT);
+
+        assertThat(propertyCache.get(1L, () -> null).getPrice()).isEqualByComparingTo("200");
+    }
+
+    @Test
+    @DisplayName("Should drop only the deleted property from the cache")
+    void removed_EvictsSingleKey() {
+        propertyCache.get(1L, () -> property(1L, "100", 0L));
+        propertyCache.get(2L, () -> property(2L, "200", 0L));
+        propertyCache.all(() -> List.of(property(1L, "100", 0L), property(2L, "200", 0L)));
+        propertyCache.countByType(() -> Map.of("APARTMENT", 2L));
+
+        propertyCache.removed(1L, PropertyDTO.PropertyType.APARTMENT);
+
+        assertThat(propertyCache.get(1L, () -> null)).isNull();
+        assertThat(propertyCache.get(2L, () -> null).getPrice()).isEqualByComparingTo("200");
+        assertThat(propertyCache.all(List::of)).extracting(PropertyDTO::getId).containsExactly(2L);
+        assertThat(propertyCache.countByType(Map::of)).containsEntry("APARTMENT", 1L);
+    }
+
+    @Test
+    @DisplayName("Should keep a listing larger than the properties weight bound and keep patching it")
+    void all_ListingLargerThanWeightBound_StaysCached() {
+        CacheManager cacheManager = weightBoundedCacheManager(10);
+        PropertyCache bounded = new PropertyCache(cacheManager);
+        List<PropertyDTO> catalog = LongStream.rangeClosed(1, 50)
+            .mapToObj(id -> property(id, Long.toString(id), 0L))
+            .toList();
+        AtomicInteger loads = new AtomicInteger();
+
+        bounded.all(() -> { loads.incrementAndGet(); return catalog; });
+        bounded.saved(property(1L, "1000", 1L), PropertyDTO.PropertyType.APARTMENT);
+        ((com.github.benmanes.caffeine.cache.Cache<?, ?>) cacheManager.getCache(PropertyCache.LISTING_CACHE_NAME)
+            .getNativeCache()).cleanUp();
+
+        List<PropertyDTO> listing = bounded.all(() -> { loads.incrementAndGet(); return List.of(); });
+        assertThat(loads).hasValue(1);
+        assertThat(listing).hasSize(50);
+        assertThat(listing.get(0).getId()).isEqualTo(1L);
+    }
+
+    private static CacheManager weightBoundedCacheManager(long maximumWeight) {
+        CacheConfig cacheConfig = new CacheConfig();
+        ReflectionTestUtils.setField(cacheConfig, "defaultSpec", "maximumSize=100");
+        return cacheConfig.cacheManager(new MockEnvironment()
+            .withProperty("app.cache.specs." + PropertyCache.CACHE_NAME, "maximumWeight=" + maximumWeight)
+            .withProperty("app.cache.specs." + PropertyCache.LISTING_CACHE_NAME, "maximumSize=1"));
+    }
+
+    private static PropertyDTO property(Long id, String price, Long version) {
+        PropertyDTO dto = new PropertyDTO();
+        dto.setId(id);
+        dto.setPrice(new BigDecimal(price));
+        dto.setPropertyType(PropertyDTO.PropertyType.APARTMENT);
+        dto.setVersion(version);
+        return dto;
+    }
+}
@@ -0,0 +1,100 @@
+package com.realestate.unit.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.realestate.model.entity.Property;
+import com.realestate.repository.PropertyJdbcRepository;
+import com.realestate.service.PropertyExportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+
+@ExtendWith(MockitoExtension.class)
+class PropertyExportServiceTest {
+
+    @Mock
+    private PropertyJdbcRepository propertyJdbcRepository;
+
+    private ObjectMapper objectMapper;
+    private PropertyExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        exportService = new PropertyExportService(propertyJdbcRepository, objectMapper);
+    }
+
+    @Test
+    @DisplayName("Should write one JSON object per line")
+    void export_Ndjson() throws Exception {
+        LocalDateTime since = LocalDateTime.of(2024, 1, 1, 0, 0);
+        streamRows(since, property(1L, "Sea View Flat", "2500000"), property(2L, "Garden Villa", "9000000"));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = exportService.export(out, PropertyExportService.Format.NDJSON, since);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(rows).isEqualTo(2);
+        assertThat(lines).hasSize(2);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertThat(first.get("id").asLong()).isEqualTo(1L);
+        assertThat(first.get("title").asText()).isEqualTo("Sea View Flat");
+        assertThat(first.get("createdAt").asText()).isEqualTo("2024-02-01T10:00:00");
+    }
+
+    @Test
+    @DisplayName("Should write a CSV header and quote fields containing separators")
+    void export_Csv() throws Exception {
+        streamRows(null, property(1L, "Loft, \"Old Mill\"", "1500000.50"));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(out, PropertyExportService.Format.CSV, null);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).startsWith("id,title,price,");
+        assertThat(lines[1]).startsWith("1,\"Loft, \"\"Old Mill\"\"\",1500000.50,");
+    }
+
+    @SuppressWarnings("unchecked")
+    private void streamRows(LocalDateTime since, Property... properties) {
+        doAnswer(invocation -> {
+            Consumer<Property> consumer = invocation.getArgument(2);
+            for (Property property : properties) {
+                consumer.accept(property);
+            }
+            return null;
+        }).when(propertyJdbcRepository).streamProperties(eq(since), anyInt(), any(Consumer.class));
+    }
+
+    private static Property property(Long id, String title, String price) {
+        Property property = Property.builder()
+            .title(title)
+            .price(new BigDecimal(price))
+            .location("Mumbai")
+            .propertyType(Property.PropertyType.APARTMENT)
+            .build();
+        property.setId(id);
+        property.setCreatedAt(LocalDateTime.of(2024, 2, 1, 10, 0));
+        return property;
+    }
+}
@@ -0,0 +1,213 @@
+package com.realestate.unit.service;
+
+import com.realestate.model.dto.PropertySearchDTO;
+import com.realestate.model.entity.Property;
+import com.realestate.repository.PropertyJdbcRepository;
+import com.realestate.service.PropertySearchIndex;
+import com.realestate.testutil.builder.PropertyBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PropertySearchIndexTest {
+
+    @Mock
+    private PropertyJdbcRepository propertyJdbcRepository;
+
+    @InjectMocks
+    private PropertySearchIndex propertySearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        when(propertyJdbcRepository.findSearchIndexRows()).thenReturn(List.of(
+                PropertyBuilder.aProperty().withId(1L).withPrice(300000).withBedrooms(2)
+                        .withLocation("Andheri, Mumbai").residential().build(),
+                PropertyBuilder.aProperty().withId(2L).withPrice(900000).withBedrooms(4)
+                        .withLocation("Bandra, Mumbai").residential().build(),
+                PropertyBuilder.aProperty().withId(3L).withPrice(1500000).withBedrooms(0)
+                        .withLocation("Whitefield, Bangalore").commercial().build(),
+                PropertyBuilder.aProperty().withId(4L).withPrice(700000).withBedrooms(3)
+                        .withLocation("Powai, Mumbai").residential().sold().build()
+        ));
+        propertySearchIndex.rebuild();
+    }
+
+    @Test
+    @DisplayName("Should return all ids when no criteria are given")
+    void search_NoCriteria_ReturnsAll() {
+        List<Long> result = propertySearchIndex.search(PropertySearchDTO.builder().build());
+
+        assertThat(result).containsExactly(1L, 2L, 3L, 4L);
+    }
+
+    @Test
+    @DisplayName("Should combine price, bedroom and location filters")
+    void search_CombinedFilters_ReturnsMatches() {
+        PropertySearchDTO criteria = PropertySearchDTO.builder()
+                .location("mumbai")
+                .minPrice(new BigDecimal("500000"))
+                .minBedrooms(3)
+                .build();
+
+        assertThat(propertySearchIndex.search(criteria)).containsExactly(2L, 4L);
+    }
+
+    @Test
+    @DisplayName("Should filter by property type and status bitsets")
+    void search_TypeAndStatus_ReturnsMatches() {
+        PropertySearchDTO residentialAvailable = PropertySearchDTO.builder()
+                .propertyType(PropertySearchDTO.PropertyType.RESIDENTIAL)
+                .status(PropertySearchDTO.PropertyStatus.AVAILABLE)
+                .build();
+        PropertySearchDTO anyCommercialOrSold = PropertySearchDTO.builder()
+                .statuses(Set.of(PropertySearchDTO.PropertyStatus.SOLD))
+                .propertyTypes(Set.of(PropertySearchDTO.PropertyType.COMMERCIAL,
+                        PropertySearchDTO.PropertyType.RESIDENTIAL))
+                .build();
+
+        assertThat(propertySearchIndex.search(residentialAvailable)).containsExactly(1L, 2L);
+        assertThat(propertySearchIndex.search(anyCommercialOrSold)).containsExactly(4L);
+    }
+
+    @Test
+    @DisplayName("Should reflect upserts and removals")
+    void upsertAndRemove_UpdatesResults() {
+        propertySearchIndex.upsert(PropertyBuilder.aProperty().withId(2L).withPrice(200000)
+                .withLocation("Bandra, Mumbai").commercial().build());
+        propertySearchIndex.remove(1L);
+        propertySearchIndex.upsert(PropertyBuilder.aProperty().withId(5L).withPrice(250000)
+                .withLocation("Thane, Mumbai").residential().build());
+
+        PropertySearchDTO criteria = PropertySearchDTO.builder()
+                .maxPrice(new BigDecimal("400000"))
+                .build();
+
+        assertThat(propertySearchIndex.search(criteria)).containsExactly(2L, 5L);
+        assertThat(propertySearchIndex.search(PropertySearchDTO.builder()
+                .propertyType(PropertySearchDTO.PropertyType.COMMERCIAL).build()))
+                .containsExactly(2L, 3L);
+        assertThat(propertySearchIndex.size()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should exclude properties missing a filtered value")
+    void search_NullColumn_Excluded() {
+        Property noBedrooms = PropertyBuilder.aProperty().withId(6L).withBedrooms(null).build();
+        propertySearchIndex.upsert(noBedrooms);
+
+        PropertySearchDTO criteria = PropertySearchDTO.builder().minBedrooms(0).build();
+
+        assertThat(propertySearchIndex.search(criteria)).doesNotContain(6L);
+    }
+
+    @Test
+    @DisplayName("Should keep writes that land while a rebuild reads its snapshot")
+    void rebuild_ReplaysConcurrentWrites() {
+        List<Property> staleSnapshot = List.of(
+                PropertyBuilder.aProperty().withId(1L).withPrice(300000).residential().build(),
+                PropertyBuilder.aProperty().withId(2L).withPrice(900000).residential().build());
+        when(propertyJdbcRepository.findSearchIndexRows()).thenAnswer(invocation -> {
+            propertySearchIndex.upsert(PropertyBuilder.aProperty().withId(1L).withPrice(100000)
+                    .residential().build());
+            propertySearchIndex.remove(2L);
+            return staleSnapshot;
+        });
+
+        propertySearchIndex.rebuild();
+
+        assertThat(propertySearchIndex.search(PropertySearchDTO.builder().build())).containsExactly(1L);
+        assertThat(propertySearchIndex.search(PropertySearchDTO.builder()
+                .maxPrice(new BigDecimal("200000")).build())).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("Should fold in rows changed or soft-deleted outside PropertyService on refresh")
+    void refresh_AppliesChangedRows() {
+        Property repriced = PropertyBuilder.aProperty().withId(1L).withPrice(100000).residential().build();
+        Property inserted = PropertyBuilder.aProperty().withId(5L).withPrice(400000).residential().build();
+        Property softDeleted = PropertyBuilder.aProperty().withId(2L).residential().build();
+        softDeleted.setIsDeleted(true);
+        when(propertyJdbcRepository.findSearchIndexRowsUpdatedSince(any()))
+                .thenReturn(List.of(repriced, inserted, softDeleted));
+        when(propertyJdbcRepository.countSearchIndexRows()).thenReturn(4L);
+
+        propertySearchIndex.refresh();
+
+        assertThat(propertySearchIndex.search(PropertySearchDTO.builder().build())).containsExactly(1L, 3L, 4L, 5L);
+        assertThat(propertySearchIndex.search(PropertySearchDTO.builder()
+                .maxPrice(new BigDecimal("200000")).build())).containsExactly(1L);
+        verify(propertyJdbcRepository, times(1)).findSearchIndexRows();
+    }
+
+    @Test
+    @DisplayName("Should rebuild when the live row count drifts from the index, as after a hard delete")
+    void refresh_CountMismatch_Rebuilds() {
+        when(propertyJdbcRepository.findSearchIndexRowsUpdatedSince(any())).thenReturn(List.of());
+        when(propertyJdbcRepository.countSearchIndexRows()).thenReturn(3L);
+        when(propertyJdbcRepository.findSearchIndexRows()).thenReturn(List.of(
+                PropertyBuilder.aProperty().withId(1L).residential().build(),
+                PropertyBuilder.aProperty().withId(2L).residential().build(),
+                PropertyBuilder.aProperty().withId(3L).commercial().build()));
+
+        propertySearchIndex.refresh();
+
+        assertThat(propertySearchIndex.search(PropertySearchDTO.builder().build())).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    @DisplayName("Should not refresh before the first load")
+    void refresh_NotLoaded_Skips() {
+        PropertySearchIndex cold = new PropertySearchIndex(propertyJdbcRepository);
+
+        cold.refresh();
+
+        verify(propertyJdbcRepository, never()).findSearchIndexRowsUpdatedSince(any());
+    }
+
+    @Test
+    @DisplayName("Should load once when concurrent searches find the index empty")
+    void search_NotLoaded_RebuildsOnce() throws Exception {
+        PropertySearchIndex cold = new PropertySearchIndex(propertyJdbcRepository);
+        AtomicInteger loads = new AtomicInteger();
+        when(propertyJdbcRepository.findSearchIndexRows()).thenAnswer(invocation -> {
+            loads.incrementAndGet();
+            Thread.sleep(100);
+            return List.of(PropertyBuilder.aProperty().withId(1L).residential().build());
+        });
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<Long>>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(pool.submit(() -> cold.search(PropertySearchDTO.builder().build())));
+            }
+            for (Future<List<Long>> result : results) {
+                assertThat(result.get()).containsExactly(1L);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(loads.get()).isEqualTo(1);
+    }
+}
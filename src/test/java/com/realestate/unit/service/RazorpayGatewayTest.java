@@ -0,0 +1,149 @@
+package com.realestate.unit.service;
+
+import com.realestate.config.RazorpayStubServer;
+import com.realestate.exception.PaymentException;
+import com.realestate.service.RazorpayGateway;
+import com.realestate.util.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RazorpayGatewayTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private RazorpayStubServer stub;
+
+    @AfterEach
+    void tearDown() {
+        if (stub != null) {
+            stub.stop();
+        }
+        executor.shutdownNow();
+    }
+
+    private RazorpayGateway gateway(Duration stubLatency, double failureRate, int maxInFlight, Duration timeout,
+                                    Duration hedgeDelay, CircuitBreaker breaker) throws Exception {
+        stub = new RazorpayStubServer(0, stubLatency, failureRate);
+        stub.start();
+        return new RazorpayGateway(executor, "http://localhost:" + stub.port() + "/v1/", "rzp_test", "secret",
+                maxInFlight, timeout, hedgeDelay, 2, breaker);
+    }
+
+    private static RazorpayGateway.OrderRequest order(long amountPaise) {
+        return new RazorpayGateway.OrderRequest("rcpt_test", amountPaise, "INR", Map.of("property_id", 1L));
+    }
+
+    @Test
+    @DisplayName("Should return the order id created by the gateway")
+    void createOrder_Success() throws Exception {
+        RazorpayGateway gateway = gateway(Duration.ZERO, 0, 4, Duration.ofSeconds(5), Duration.ofSeconds(5),
+                new CircuitBreaker(3, Duration.ofSeconds(30)));
+
+        assertThat(gateway.createOrder(order(10_000)).join()).startsWith("order_");
+    }
+
+    @Test
+    @DisplayName("Should not retry or trip the circuit when the gateway rejects the request")
+    void createOrder_RejectedRequest() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker(1, Duration.ofSeconds(30));
+        RazorpayGateway gateway = gateway(Duration.ZERO, 0, 4, Duration.ofSeconds(5), Duration.ofSeconds(5), breaker);
+
+        assertThatThrownBy(() -> gateway.createOrder(order(50)).join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(PaymentException.class)
+                .hasMessageContaining("rejected the order");
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("Should fail fast once failures have opened the circuit")
+    void createOrder_OpenCircuit() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker(1, Duration.ofMinutes(1));
+        RazorpayGateway gateway = gateway(Duration.ZERO, 1.0, 4, Duration.ofSeconds(5), Duration.ofSeconds(5), breaker);
+
+        assertThatThrownBy(() -> gateway.createOrder(order(10_000)).join())
+                .hasMessageContaining("502");
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        assertThatThrownBy(() -> gateway.createOrder(order(10_000)).join())
+                .hasMessageContaining("temporarily unavailable");
+    }
+
+    @Test
+    @DisplayName("Should refuse requests beyond the in-flight limit instead of queueing them")
+    void createOrder_InFlightLimit() throws Exception {
+        RazorpayGateway gateway = gateway(Duration.ofMillis(500), 0, 1, Duration.ofSeconds(5), Duration.ofSeconds(5),
+                new CircuitBreaker(3, Duration.ofSeconds(30)));
+
+        var first = gateway.createOrder(order(10_000));
+
+        assertThatThrownBy(() -> gateway.createOrder(order(10_000)).join())
+                .hasMessageContaining("busy");
+        assertThat(first.join()).startsWith("order_");
+    }
+
+    @Test
+    @DisplayName("Should time out a slow gateway and count it against the circuit")
+    void createOrder_Timeout() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker(1, Duration.ofMinutes(1));
+        RazorpayGateway gateway = gateway(Duration.ofSeconds(2), 0, 4, Duration.ofMillis(200), Duration.ofSeconds(5),
+                breaker);
+
+        assertThatThrownBy(() -> gateway.createOrder(order(10_000)).join())
+                .hasMessageContaining("did not respond in time");
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    @DisplayName("Should not resend an order request the gateway may already have received")
+    void createOrder_ServerError_NotResent() throws Exception {
+        RazorpayGateway gateway = gateway(Duration.ZERO, 1.0, 4, Duration.ofSeconds(5), Duration.ZERO,
+                new CircuitBreaker(3, Duration.ofSeconds(30)));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        gateway.bindTo(registry);
+
+        assertThatThrownBy(() -> gateway.createOrder(order(10_000)).join())
+                .hasMessageContaining("502");
+        assertThat(registry.get("payments.gateway.hedged").functionCounter().count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should retry an attempt whose connection was refused before the request was sent")
+    void createOrder_ConnectionRefused_Retried() throws Exception {
+        int closedPort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            closedPort = socket.getLocalPort();
+        }
+        RazorpayGateway gateway = new RazorpayGateway(executor, "http://localhost:" + closedPort + "/v1", "rzp_test",
+                "secret", 4, Duration.ofSeconds(5), Duration.ZERO, 2, new CircuitBreaker(3, Duration.ofSeconds(30)));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        gateway.bindTo(registry);
+
+        assertThatThrownBy(() -> gateway.createOrder(order(10_000)).join())
+                .hasCauseInstanceOf(PaymentException.class);
+        assertThat(registry.get("payments.gateway.hedged").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should race a second attempt against a slow one only when hedging is enabled")
+    void createOrder_HedgingOptIn() throws Exception {
+        RazorpayGateway gateway = gateway(Duration.ofMillis(500), 0, 4, Duration.ofSeconds(5), Duration.ofMillis(100),
+                new CircuitBreaker(3, Duration.ofSeconds(30)));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        gateway.bindTo(registry);
+
+        assertThat(gateway.createOrder(order(10_000)).join()).startsWith("order_");
+        assertThat(registry.get("payments.gateway.hedged").functionCounter().count()).isEqualTo(1);
+    }
+}
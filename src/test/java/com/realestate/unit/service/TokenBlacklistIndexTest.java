@@ -0,0 +1,133 @@
+package com.realestate.unit.service;
+
+import com.realestate.model.entity.TokenBlacklist;
+import com.realestate.repository.TokenBlacklistRepository;
+import com.realestate.service.TokenBlacklistIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenBlacklistIndexTest {
+
+    @Mock
+    private TokenBlacklistRepository tokenBlacklistRepository;
+
+    private TokenBlacklistIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TokenBlacklistIndex(tokenBlacklistRepository);
+        ReflectionTestUtils.setField(index, "expectedEntries", 1000L);
+    }
+
+    @Test
+    @DisplayName("Should answer from rows loaded at startup")
+    void load_FromDatabase() {
+        LocalDateTime now = LocalDateTime.now();
+        when(tokenBlacklistRepository.findByExpiresAtAfter(any()))
+                .thenReturn(List.of(row("revoked-jti", now.plusHours(1), now.minusMinutes(5))));
+
+        index.load();
+
+        assertThat(index.isLoaded()).isTrue();
+        assertThat(index.contains("revoked-jti")).isTrue();
+        assertThat(index.contains("valid-jti")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should report added tokens until they expire")
+    void add_UntilExpiry() {
+        index.add("logged-out-jti", LocalDateTime.now().plusMinutes(15));
+        index.add("stale-jti", LocalDateTime.now().minusSeconds(1));
+
+        assertThat(index.contains("logged-out-jti")).isTrue();
+        assertThat(index.contains("stale-jti")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should keep every entry when it outgrows the filter's capacity")
+    void add_BeyondCapacity() {
+        LocalDateTime expiresAt = LocalDateTime.now().plusHours(1);
+        for (int i = 0; i < 3000; i++) {
+            index.add("jti-" + i, expiresAt);
+        }
+
+        for (int i = 0; i < 3000; i++) {
+            assertThat(index.contains("jti-" + i)).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("Should drop expired entries on prune")
+    void prune_RemovesExpired() {
+        index.add("live-jti", LocalDateTime.now().plusHours(1));
+        index.add("expired-jti", LocalDateTime.now().minusMinutes(1));
+
+        index.prune();
+
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.contains("live-jti")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should pick up entries written by other nodes when sync is enabled")
+    void sync_PullsNewRows() {
+        LocalDateTime now = LocalDateTime.now();
+        when(tokenBlacklistRepository.findByExpiresAtAfter(any())).thenReturn(List.of());
+        index.load();
+        ReflectionTestUtils.setField(index, "syncEnabled", true);
+        when(tokenBlacklistRepository.findByBlacklistedAtAfter(any()))
+                .thenReturn(List.of(row("remote-jti", now.plusHours(1), now)));
+
+        index.sync();
+
+        assertThat(index.contains("remote-jti")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should stop answering on its own when sync has not succeeded recently")
+    void isLoaded_SyncLagging_DefersToDatabase() {
+        when(tokenBlacklistRepository.findByExpiresAtAfter(any())).thenReturn(List.of());
+        index.load();
+        assertThat(index.isLoaded()).isTrue();
+
+        ReflectionTestUtils.setField(index, "lastSyncAt", LocalDateTime.now().minusMinutes(5));
+        assertThat(index.isLoaded()).isFalse();
+
+        when(tokenBlacklistRepository.findByBlacklistedAtAfter(any())).thenReturn(List.of());
+        index.sync();
+        assertThat(index.isLoaded()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should keep answering without sync only when it is explicitly disabled")
+    void isLoaded_SyncDisabled_IgnoresLag() {
+        ReflectionTestUtils.setField(index, "syncEnabled", false);
+        when(tokenBlacklistRepository.findByExpiresAtAfter(any())).thenReturn(List.of());
+        index.load();
+        ReflectionTestUtils.setField(index, "lastSyncAt", LocalDateTime.now().minusMinutes(5));
+
+        assertThat(index.isLoaded()).isTrue();
+    }
+
+    private static TokenBlacklist row(String jti, LocalDateTime expiresAt, LocalDateTime blacklistedAt) {
+        return TokenBlacklist.builder()
+                .jti(jti)
+                .expiresAt(expiresAt)
+                .blacklistedAt(blacklistedAt)
+                .reason(TokenBlacklist.BlacklistReason.LOGOUT)
+                .build();
+    }
+}
@@ -8,6 +8,7 @@ import com.realestate.repository.RefreshTokenRepository;
 import com.realestate.repository.TokenBlacklistRepository;
 import com.realestate.repository.UserRepository;
 import com.realestate.security.JwtTokenProvider;
+import com.realestate.service.TokenBlacklistIndex;
 import com.realestate.service.TokenService;
 import com.realestate.testutil.builder.UserBuilder;
 import org.junit.jupiter.api.BeforeEach;
@@ -42,6 +43,9 @@ class TokenServiceTest {
     @Mock
     private JwtTokenProvider jwtTokenProvider;
 
+    @Mock
+    private TokenBlacklistIndex tokenBlacklistIndex;
+
     @InjectMocks
     private TokenService tokenService;
 
@@ -78,6 +82,7 @@ class TokenServiceTest {
         tokenService.blacklistAccessToken("test-jti", expiresAt, TokenBlacklist.BlacklistReason.LOGOUT);
 
         verify(tokenBlacklistRepository).save(any(TokenBlacklist.class));
+        verify(tokenBlacklistIndex).add("test-jti", expiresAt);
     }
 
     @Test
@@ -100,6 +105,17 @@ class TokenServiceTest {
         assertThat(result).isFalse();
     }
 
+    @Test
+    @DisplayName("Should answer blacklist checks from the index once it is loaded")
+    void isTokenBlacklisted_FromIndex() {
+        when(tokenBlacklistIndex.isLoaded()).thenReturn(true);
+        when(tokenBlacklistIndex.contains("blacklisted-jti")).thenReturn(true);
+
+        assertThat(tokenService.isTokenBlacklisted("blacklisted-jti")).isTrue();
+        assertThat(tokenService.isTokenBlacklisted("valid-jti")).isFalse();
+        verify(tokenBlacklistRepository, never()).existsByJti(any());
+    }
+
     @Test
     @DisplayName("Should revoke all user tokens")
     void revokeAllUserTokens_Success() {
@@ -0,0 +1,83 @@
+package com.realestate.unit.util;
+
+import com.realestate.util.CircuitBreaker;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private CircuitBreaker breaker() {
+        return new CircuitBreaker(3, Duration.ofSeconds(10), clock::get);
+    }
+
+    @Test
+    @DisplayName("Should open after the threshold of consecutive failures")
+    void recordFailure_OpensAtThreshold() {
+        CircuitBreaker breaker = breaker();
+
+        breaker.recordFailure();
+        breaker.recordFailure();
+        assertThat(breaker.tryAcquire()).isTrue();
+
+        breaker.recordFailure();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should reset the failure count on success")
+    void recordSuccess_ResetsFailures() {
+        CircuitBreaker breaker = breaker();
+
+        breaker.recordFailure();
+        breaker.recordFailure();
+        breaker.recordSuccess();
+        breaker.recordFailure();
+        breaker.recordFailure();
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("Should admit a single trial once the open period has passed")
+    void tryAcquire_HalfOpenAdmitsOneTrial() {
+        CircuitBreaker breaker = breaker();
+        for (int i = 0; i < 3; i++) {
+            breaker.recordFailure();
+        }
+
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isFalse();
+
+        breaker.recordSuccess();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should re-open for a full period when the trial fails")
+    void recordFailure_FailedTrialReopens() {
+        CircuitBreaker breaker = breaker();
+        for (int i = 0; i < 3; i++) {
+            breaker.recordFailure();
+        }
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+        assertThat(breaker.tryAcquire()).isTrue();
+
+        breaker.recordFailure();
+        clock.addAndGet(Duration.ofSeconds(9).toNanos());
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+}
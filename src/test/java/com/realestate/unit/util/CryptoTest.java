@@ -0,0 +1,93 @@
+package com.realestate.unit.util;
+
+import com.razorpay.Utils;
+import com.realestate.util.Crypto;
+import org.json.JSONObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CryptoTest {
+
+    @Test
+    @DisplayName("Should produce the same SHA-256 as a fresh MessageDigest")
+    void sha256_MatchesMessageDigest() throws Exception {
+        byte[] expected = MessageDigest.getInstance("SHA-256").digest("token-123".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(Crypto.sha256Base64("token-123")).isEqualTo(Base64.getEncoder().encodeToString(expected));
+        assertThat(Crypto.sha256Base64("token-123")).isEqualTo(Crypto.sha256Base64("token-123"));
+
+        byte[] out = new byte[Crypto.SHA256_LENGTH + 4];
+        Crypto.sha256("token-123".getBytes(StandardCharsets.UTF_8), out, 4);
+        assertThat(out).endsWith(expected);
+    }
+
+    @Test
+    @DisplayName("Should accept exactly the signatures Razorpay's own verifier accepts")
+    void hmac_MatchesRazorpayUtils() throws Exception {
+        Crypto.Hmac hmac = Crypto.hmacSha256("test_secret");
+        String signature = hmac.signHex("order_1|pay_1");
+
+        JSONObject options = new JSONObject();
+        options.put("razorpay_order_id", "order_1");
+        options.put("razorpay_payment_id", "pay_1");
+        options.put("razorpay_signature", signature);
+        assertThat(Utils.verifyPaymentSignature(options, "test_secret")).isTrue();
+
+        assertThat(hmac.verifyHex("order_1|pay_1", signature)).isTrue();
+        assertThat(hmac.verifyHex("order_1", '|', "pay_1", signature)).isTrue();
+        assertThat(hmac.verifyHex("order_1", '|', "pay_2", signature)).isFalse();
+        assertThat(Crypto.hmacSha256("other_secret").verifyHex("order_1|pay_1", signature)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should reject malformed signatures instead of failing")
+    void hmac_MalformedSignature() {
+        Crypto.Hmac hmac = Crypto.hmacSha256("test_secret");
+        String signature = hmac.signHex("payload");
+        String notHex = "zz" + signature.substring(2);
+
+        assertThat(hmac.verifyHex("payload", null)).isFalse();
+        assertThat(hmac.verifyHex("payload", signature.substring(2))).isFalse();
+        assertThat(hmac.verifyHex("payload", notHex)).isFalse();
+        // The failed checks must not leave state behind for the next call on this thread
+        assertThat(hmac.verifyHex("payload", signature)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should hash non-ASCII payloads as UTF-8")
+    void hmac_NonAsciiPayload() {
+        Crypto.Hmac hmac = Crypto.hmacSha256("test_secret");
+        byte[] data = "prix-₹100".getBytes(StandardCharsets.UTF_8);
+
+        assertThat(hmac.verifyHex("prix-₹100", hmac.signHex("prix-₹100"))).isTrue();
+        assertThat(hmac.verify(data, 0, data.length, hmac.sign(data))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should give each thread its own Mac")
+    void hmac_ConcurrentUse() throws Exception {
+        Crypto.Hmac hmac = Crypto.hmacSha256("test_secret");
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            String payload = "order_" + i + "|pay_" + i;
+            String signature = hmac.signHex(payload);
+            results.add(pool.submit(() -> hmac.verifyHex(payload, signature)));
+        }
+        for (Future<Boolean> result : results) {
+            assertThat(result.get()).isTrue();
+        }
+        pool.shutdown();
+    }
+}
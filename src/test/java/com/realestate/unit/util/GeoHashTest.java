@@ -0,0 +1,42 @@
+package com.realestate.unit.util;
+
+import com.realestate.util.GeoHash;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class GeoHashTest {
+
+    @Test
+    @DisplayName("Should encode known coordinates")
+    void encode_KnownPoint() {
+        assertThat(GeoHash.encode(57.64911, 10.40744, 11)).isEqualTo("u4pruydqqvj");
+        assertThat(GeoHash.encode(19.0760, 72.8777, 5)).isEqualTo("te7ud");
+    }
+
+    @Test
+    @DisplayName("Should cover a radius with prefixes of every point inside it")
+    void coverBoundingBox_ContainsNearbyPoints() {
+        double[] box = GeoHash.boundingBox(19.0760, 72.8777, 5);
+        Set<String> cells = GeoHash.coverBoundingBox(box[0], box[1], box[2], box[3]);
+
+        assertThat(cells).isNotEmpty().hasSizeLessThanOrEqualTo(16);
+        double[][] points = {{19.0760, 72.8777}, {19.11, 72.90}, {19.04, 72.84}, {19.0760, 72.92}};
+        for (double[] point : points) {
+            String hash = GeoHash.encode(point[0], point[1], GeoHash.STORED_PRECISION);
+            assertThat(cells).anyMatch(hash::startsWith);
+        }
+    }
+
+    @Test
+    @DisplayName("Should compute haversine distance in kilometers")
+    void haversineKm_MumbaiToPune() {
+        double distance = GeoHash.haversineKm(19.0760, 72.8777, 18.5204, 73.8567);
+
+        assertThat(distance).isCloseTo(120.0, within(2.0));
+    }
+}
@@ -0,0 +1,69 @@
+package com.realestate.unit.util;
+
+import com.realestate.exception.BadRequestException;
+import com.realestate.model.entity.Property;
+import com.realestate.util.KeysetCursor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTest {
+
+    @Test
+    @DisplayName("Should round-trip the sort value and id through an opaque token")
+    void encodeDecode_RoundTrip() {
+        Property property = property(42L, "1250000.50", LocalDateTime.of(2024, 3, 1, 10, 15, 30, 123_000_000));
+
+        String priceToken = KeysetCursor.after(property, KeysetCursor.SortKey.PRICE, false).encode();
+        KeysetCursor price = KeysetCursor.decode(priceToken, KeysetCursor.SortKey.PRICE, false);
+        assertThat(priceToken).doesNotContain("1250000");
+        assertThat((BigDecimal) price.value()).isEqualByComparingTo("1250000.50");
+        assertThat(price.id()).isEqualTo(42L);
+
+        String dateToken = KeysetCursor.after(property, KeysetCursor.SortKey.CREATED_AT, true).encode();
+        assertThat(KeysetCursor.decode(dateToken, KeysetCursor.SortKey.CREATED_AT, true).value())
+            .isEqualTo(property.getCreatedAt());
+    }
+
+    @Test
+    @DisplayName("Should treat a missing cursor as the first page")
+    void decode_Blank() {
+        assertThat(KeysetCursor.decode(null, KeysetCursor.SortKey.ID, false)).isNull();
+        assertThat(KeysetCursor.decode(" ", KeysetCursor.SortKey.ID, false)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should reject cursors issued for another sort or tampered with")
+    void decode_Rejects() {
+        String token = KeysetCursor.after(property(7L, "100", LocalDateTime.now()), KeysetCursor.SortKey.PRICE, true)
+            .encode();
+
+        assertThatThrownBy(() -> KeysetCursor.decode(token, KeysetCursor.SortKey.AREA, true))
+            .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode(token, KeysetCursor.SortKey.PRICE, false))
+            .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode("not-a-cursor", KeysetCursor.SortKey.PRICE, true))
+            .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    @DisplayName("Should resolve sort keys by attribute or column and reject others")
+    void sortKey_From() {
+        assertThat(KeysetCursor.SortKey.from("createdAt")).isEqualTo(KeysetCursor.SortKey.CREATED_AT);
+        assertThat(KeysetCursor.SortKey.from("created_at")).isEqualTo(KeysetCursor.SortKey.CREATED_AT);
+        assertThatThrownBy(() -> KeysetCursor.SortKey.from("price; DROP TABLE properties"))
+            .isInstanceOf(BadRequestException.class);
+    }
+
+    private static Property property(Long id, String price, LocalDateTime createdAt) {
+        Property property = Property.builder().price(new BigDecimal(price)).area(new BigDecimal("900")).build();
+        property.setId(id);
+        property.setCreatedAt(createdAt);
+        return property;
+    }
+}
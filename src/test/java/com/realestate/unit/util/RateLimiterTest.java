@@ -0,0 +1,146 @@
+package com.realestate.unit.util;
+
+import com.realestate.util.RateLimiter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    @DisplayName("Token bucket should allow a burst of limit and refill gradually")
+    void tokenBucket_BurstThenRefill() {
+        RateLimiter limiter = new RateLimiter(RateLimiter.Algorithm.TOKEN_BUCKET, 5, Duration.ofSeconds(10), clock::get);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire("k").allowed()).isTrue();
+        }
+        RateLimiter.Decision rejected = limiter.tryAcquire("k");
+        assertThat(rejected.allowed()).isFalse();
+        assertThat(rejected.retryAfterMillis()).isEqualTo(2000);
+
+        advance(Duration.ofSeconds(2));
+        assertThat(limiter.tryAcquire("k").allowed()).isTrue();
+        assertThat(limiter.tryAcquire("k").allowed()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Sliding log should admit at most limit requests in any window")
+    void slidingLog_ExactWindow() {
+        RateLimiter limiter = new RateLimiter(RateLimiter.Algorithm.SLIDING_LOG, 3, Duration.ofSeconds(10), clock::get);
+
+        assertThat(limiter.tryAcquire("k").remaining()).isEqualTo(2);
+        advance(Duration.ofSeconds(4));
+        limiter.tryAcquire("k");
+        limiter.tryAcquire("k");
+        assertThat(limiter.tryAcquire("k").allowed()).isFalse();
+
+        advance(Duration.ofSeconds(6));
+        RateLimiter.Decision decision = limiter.tryAcquire("k");
+        assertThat(decision.allowed()).isTrue();
+        assertThat(decision.remaining()).isZero();
+        assertThat(limiter.tryAcquire("k").retryAfterMillis()).isEqualTo(4000);
+    }
+
+    @Test
+    @DisplayName("Should track keys independently and report remaining without consuming")
+    void remaining_PerKey() {
+        RateLimiter limiter = new RateLimiter(RateLimiter.Algorithm.SLIDING_LOG, 3, Duration.ofSeconds(10), clock::get);
+
+        limiter.tryAcquire("a");
+
+        assertThat(limiter.remaining("a")).isEqualTo(2);
+        assertThat(limiter.remaining("a")).isEqualTo(2);
+        assertThat(limiter.remaining("b")).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should only evict keys that no longer constrain their caller")
+    void evictIdle_KeepsActiveKeys() {
+        for (RateLimiter.Algorithm algorithm : RateLimiter.Algorithm.values()) {
+            RateLimiter limiter = new RateLimiter(algorithm, 2, Duration.ofSeconds(10), clock::get);
+            limiter.tryAcquire("old");
+            advance(Duration.ofSeconds(10));
+            limiter.tryAcquire("recent");
+            limiter.tryAcquire("recent");
+
+            assertThat(limiter.evictIdle()).isEqualTo(1);
+            assertThat(limiter.activeKeys()).isEqualTo(1);
+            assertThat(limiter.tryAcquire("recent").allowed()).isFalse();
+        }
+    }
+
+    @Test
+    @DisplayName("Should not track more than limit admissions across many keys")
+    void manyKeys_NoLossOfAccuracy() {
+        RateLimiter limiter = new RateLimiter(RateLimiter.Algorithm.TOKEN_BUCKET, 1, Duration.ofMinutes(1), clock::get);
+
+        for (int i = 0; i < 20_000; i++) {
+            assertThat(limiter.tryAcquire("key-" + i).allowed()).isTrue();
+        }
+
+        assertThat(limiter.activeKeys()).isEqualTo(20_000);
+        assertThat(limiter.tryAcquire("key-0").allowed()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should share one overflow key once max keys are tracked, keeping existing counters")
+    void maxKeys_NewKeysShareOverflow() {
+        RateLimiter limiter = new RateLimiter(RateLimiter.Algorithm.TOKEN_BUCKET, 2, Duration.ofMinutes(1), 3, clock::get);
+        limiter.tryAcquire("a");
+        limiter.tryAcquire("a");
+        limiter.tryAcquire("b");
+        limiter.tryAcquire("c");
+
+        assertThat(limiter.tryAcquire("d").allowed()).isTrue();
+        assertThat(limiter.tryAcquire("e").allowed()).isTrue();
+        assertThat(limiter.tryAcquire("f").allowed()).isFalse();
+        assertThat(limiter.activeKeys()).isEqualTo(4);
+        assertThat(limiter.tryAcquire("a").allowed()).isFalse();
+        assertThat(limiter.tryAcquire("b").allowed()).isTrue();
+
+        advance(Duration.ofMinutes(1));
+        limiter.evictIdle();
+        assertThat(limiter.tryAcquire("f").allowed()).isTrue();
+        assertThat(limiter.activeKeys()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should admit exactly limit requests under contention")
+    void tryAcquire_Concurrent() throws InterruptedException {
+        for (RateLimiter.Algorithm algorithm : RateLimiter.Algorithm.values()) {
+            RateLimiter limiter = new RateLimiter(algorithm, 100, Duration.ofHours(1), clock::get);
+            AtomicInteger admitted = new AtomicInteger();
+            ExecutorService pool = Executors.newFixedThreadPool(8);
+            CountDownLatch done = new CountDownLatch(1000);
+
+            for (int i = 0; i < 1000; i++) {
+                pool.execute(() -> {
+                    if (limiter.tryAcquire("shared").allowed()) {
+                        admitted.incrementAndGet();
+                    }
+                    done.countDown();
+                });
+            }
+            done.await(10, TimeUnit.SECONDS);
+            pool.shutdown();
+
+            assertThat(admitted.get()).isEqualTo(100);
+        }
+    }
+
+    private void advance(Duration duration) {
+        clock.addAndGet(duration.toNanos());
+    }
+}
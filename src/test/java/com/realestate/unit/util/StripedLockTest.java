@@ -0,0 +1,113 @@
+package com.realestate.unit.util;
+
+import com.realestate.util.StripedLock;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StripedLockTest {
+
+    @Test
+    @DisplayName("Should round the stripe count up to a power of two")
+    void stripeCount_PowerOfTwo() {
+        assertThat(new StripedLock(100).stripeCount()).isEqualTo(128);
+        assertThat(new StripedLock(64).stripeCount()).isEqualTo(64);
+    }
+
+    @Test
+    @DisplayName("Should never run two actions on the same key at once")
+    void tryWithLocks_SameKeyIsExclusive() throws InterruptedException {
+        StripedLock locks = new StripedLock(16);
+        AtomicInteger inside = new AtomicInteger();
+        AtomicInteger maxInside = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch done = new CountDownLatch(200);
+
+        for (int i = 0; i < 200; i++) {
+            pool.execute(() -> {
+                try {
+                    locks.tryWithLocks(List.of(42L), Duration.ofSeconds(10), () -> {
+                        maxInside.accumulateAndGet(inside.incrementAndGet(), Math::max);
+                        inside.decrementAndGet();
+                        return true;
+                    });
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                done.countDown();
+            });
+        }
+        done.await(10, TimeUnit.SECONDS);
+        pool.shutdown();
+
+        assertThat(maxInside.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should give up after the timeout while another thread holds the key")
+    void tryWithLocks_TimesOut() throws InterruptedException {
+        StripedLock locks = new StripedLock(16);
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = new Thread(() -> {
+            try {
+                locks.tryWithLocks(List.of(7L), Duration.ofSeconds(1), () -> {
+                    held.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return true;
+                });
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        holder.start();
+        held.await();
+
+        Boolean result = locks.tryWithLocks(List.of(7L), Duration.ofMillis(50), () -> true);
+
+        release.countDown();
+        holder.join();
+        assertThat(result).isNull();
+        assertThat(locks.tryWithLocks(List.of(7L), Duration.ofMillis(50), () -> true)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should lock keys in stripe order so opposite transfers do not deadlock")
+    void tryWithLocks_MultipleKeysNoDeadlock() throws InterruptedException {
+        StripedLock locks = new StripedLock(16);
+        AtomicInteger completed = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        CountDownLatch done = new CountDownLatch(400);
+
+        for (int i = 0; i < 400; i++) {
+            List<Long> keys = i % 2 == 0 ? List.of(1L, 2L) : List.of(2L, 1L);
+            pool.execute(() -> {
+                try {
+                    if (locks.tryWithLocks(keys, Duration.ofSeconds(5), () -> true) != null) {
+                        completed.incrementAndGet();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                done.countDown();
+            });
+        }
+        done.await(10, TimeUnit.SECONDS);
+        pool.shutdown();
+
+        assertThat(completed.get()).isEqualTo(400);
+    }
+}